@@ -0,0 +1,111 @@
+package fr.ecole3il.rodez2023.carte.benchmarks;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.RequeteChemin;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeChemin;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Chemin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure l'adaptateur de bout en bout, tel que l'appelle l'application : compilation de la carte (ou son cache),
+ * correspondance entre coordonnées et noeuds, recherche et conversion du résultat en chemin de cases.
+ * <p>
+ * AdaptateurAlgorithme.trouverChemin affiche le chemin trouvé : la sortie standard est redirigée vers un flux vide
+ * pendant la mesure, si bien que le formatage reste mesuré mais pas l'écriture sur la console.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AdaptateurBenchmark {
+    @Param({"10", "100", "500", "1000", "2000"})
+    public int taille; // Côté de la carte
+
+    @Param({"UNIFORME"})
+    public Distribution distribution; // Répartition des tuiles
+
+    @Param({"MOYENNE"})
+    public Distance distance; // Éloignement entre le départ et l'arrivée
+
+    @Param({"DIJKSTRA", "AETOILE", "AETOILE_REPERES"})
+    public Algorithme algorithme; // Algorithme de recherche
+
+    private Carte carte; // Carte sur laquelle chercher
+    private AlgorithmeChemin<Case> recherche; // Algorithme instancié pour la carte
+    private List<RequeteChemin> requetes; // Requêtes parcourues en boucle
+    private int indice; // Indice de la prochaine requête
+    private PrintStream sortieStandard; // Sortie standard d'origine, rétablie après la mesure
+
+    /**
+     * Génère la carte et les requêtes, prépare l'algorithme et redirige la sortie standard.
+     */
+    @Setup
+    public void preparer() {
+        carte = distribution.genererCarte(taille, ConstructionGrapheBenchmark.GRAINE);
+        recherche = algorithme.creer(carte);
+        requetes = distance.genererRequetes(taille, RechercheCheminBenchmark.NOMBRE_REQUETES,
+                ConstructionGrapheBenchmark.GRAINE);
+        sortieStandard = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Rétablit la sortie standard et oublie le graphe compilé de la carte.
+     */
+    @TearDown
+    public void terminer() {
+        System.setOut(sortieStandard);
+        AdaptateurAlgorithme.invaliderCache(carte);
+    }
+
+    /**
+     * Cherche le chemin de la requête suivante, le graphe de la carte étant déjà dans le cache de l'adaptateur.
+     * @return Le chemin trouvé.
+     */
+    @Benchmark
+    public Chemin cacheChaud() {
+        RequeteChemin requete = requetes.get(indice++ & (RechercheCheminBenchmark.NOMBRE_REQUETES - 1));
+        return AdaptateurAlgorithme.trouverChemin(recherche, carte, requete.getXDepart(), requete.getYDepart(),
+                requete.getXArrivee(), requete.getYArrivee());
+    }
+
+    /**
+     * Cherche le chemin de la requête suivante après avoir vidé le cache : le graphe est recompilé à chaque appel,
+     * comme à la première recherche sur une carte.
+     * @return Le chemin trouvé.
+     */
+    @Benchmark
+    public Chemin cacheFroid() {
+        AdaptateurAlgorithme.invaliderCache(carte);
+        return cacheChaud();
+    }
+
+    /**
+     * Traite toute la série de requêtes en un lot, réparti sur les coeurs disponibles.
+     * @return Les chemins trouvés.
+     */
+    @Benchmark
+    public List<Chemin> lot() {
+        return AdaptateurAlgorithme.trouverChemins(recherche, carte, requetes);
+    }
+}
@@ -0,0 +1,37 @@
+package fr.ecole3il.rodez2023.carte.benchmarks;
+
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeAEtoile;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeChemin;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeDjikstra;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.Reperes;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+
+/**
+ * L'énumération Algorithme représente les algorithmes de recherche de chemin comparés par les benchmarks.
+ */
+public enum Algorithme {
+    DIJKSTRA, // Algorithme de Dijkstra
+    AETOILE, // A* avec l'heuristique de Manhattan
+    AETOILE_REPERES; // A* avec l'heuristique des repères (ALT)
+
+    private static final int NOMBRE_REPERES = 8; // Nombre de repères de l'heuristique ALT
+
+    /**
+     * Crée l'algorithme pour une carte. Les précalculs éventuels (repères) sont faits ici, hors de la mesure.
+     * @param carte La carte sur laquelle l'algorithme sera utilisé.
+     * @return L'algorithme prêt à l'emploi.
+     */
+    public AlgorithmeChemin<Case> creer(Carte carte) {
+        switch (this) {
+            case DIJKSTRA:
+                return new AlgorithmeDjikstra<>();
+            case AETOILE:
+                return new AlgorithmeAEtoile<>();
+            case AETOILE_REPERES:
+                return new AlgorithmeAEtoile<>(Reperes.calculer(carte, NOMBRE_REPERES));
+            default:
+                throw new IllegalStateException("Algorithme inconnu : " + this);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package fr.ecole3il.rodez2023.carte.benchmarks;
+
+import fr.ecole3il.rodez2023.carte.CarteCompilee;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure la construction du graphe d'une carte : le graphe de noeuds utilisé par les algorithmes génériques,
+ * et la représentation compacte indexée construite directement depuis la carte.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ConstructionGrapheBenchmark {
+    static final long GRAINE = 20231010L; // Graine commune des cartes générées
+
+    @Param({"10", "100", "500", "1000", "2000"})
+    public int taille; // Côté de la carte
+
+    @Param({"UNIFORME", "DESERTIQUE", "ACCIDENTEE"})
+    public Distribution distribution; // Répartition des tuiles
+
+    private Carte carte; // Carte dont le graphe est construit
+
+    /**
+     * Génère la carte, une seule fois par combinaison de paramètres.
+     */
+    @Setup
+    public void preparer() {
+        carte = distribution.genererCarte(taille, GRAINE);
+    }
+
+    /**
+     * Construit le graphe de noeuds de la carte, comme le fait l'adaptateur à la première recherche.
+     * @return Le graphe construit.
+     */
+    @Benchmark
+    public Graphe<Case> grapheNoeuds() {
+        return new CarteCompilee(carte).getGraphe();
+    }
+
+    /**
+     * Construit la représentation compacte du graphe directement depuis la carte.
+     * @return Le graphe compact construit.
+     */
+    @Benchmark
+    public GrapheCompact grapheCompact() {
+        return GrapheCompact.depuisCarte(carte);
+    }
+}
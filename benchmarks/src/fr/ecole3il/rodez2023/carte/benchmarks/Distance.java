@@ -0,0 +1,63 @@
+package fr.ecole3il.rodez2023.carte.benchmarks;
+
+import fr.ecole3il.rodez2023.carte.RequeteChemin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * L'énumération Distance représente l'éloignement entre le départ et l'arrivée des requêtes des benchmarks,
+ * en proportion de la plus grande distance de Manhattan possible sur la carte.
+ */
+public enum Distance {
+    COURTE(0.05), // Requêtes locales
+    MOYENNE(0.25), // Requêtes à travers une partie de la carte
+    LONGUE(1.0); // Requêtes d'un coin à l'autre de la carte
+
+    private final double proportion; // Proportion de la distance de Manhattan maximale
+
+    /**
+     * Construit une distance de requête.
+     * @param proportion La proportion de la distance de Manhattan maximale.
+     */
+    Distance(double proportion) {
+        this.proportion = proportion;
+    }
+
+    /**
+     * Génère des requêtes reproductibles dont le départ et l'arrivée sont à cette distance de Manhattan.
+     * @param taille Le côté de la carte.
+     * @param nombre Le nombre de requêtes.
+     * @param graine La graine du générateur.
+     * @return Les requêtes générées.
+     */
+    public List<RequeteChemin> genererRequetes(int taille, int nombre, long graine) {
+        Random aleatoire = new Random(graine);
+        int maximum = taille - 1;
+        int distance = Math.max(1, (int) Math.round(proportion * 2 * maximum));
+        List<RequeteChemin> requetes = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            // Répartition de la distance entre les deux axes, sans sortir de la carte.
+            int minimumX = Math.max(0, distance - maximum);
+            int dx = minimumX + aleatoire.nextInt(Math.min(distance, maximum) - minimumX + 1);
+            int dy = distance - dx;
+            int xDepart = aleatoire.nextInt(taille - dx);
+            int yDepart = aleatoire.nextInt(taille - dy);
+            int xArrivee = xDepart + dx;
+            int yArrivee = yDepart + dy;
+            if (aleatoire.nextBoolean()) {
+                int x = xDepart;
+                xDepart = xArrivee;
+                xArrivee = x;
+            }
+            if (aleatoire.nextBoolean()) {
+                int y = yDepart;
+                yDepart = yArrivee;
+                yArrivee = y;
+            }
+            requetes.add(new RequeteChemin(xDepart, yDepart, xArrivee, yArrivee));
+        }
+        return requetes;
+    }
+}
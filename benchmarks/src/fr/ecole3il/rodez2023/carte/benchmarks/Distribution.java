@@ -0,0 +1,34 @@
+package fr.ecole3il.rodez2023.carte.benchmarks;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.manipulateurs.GenerateurCarte;
+
+/**
+ * L'énumération Distribution représente les répartitions de tuiles des cartes générées pour les benchmarks.
+ * Les poids sont donnés dans l'ordre des tuiles : désert, montagnes, plaine, forêt.
+ */
+public enum Distribution {
+    UNIFORME(1, 1, 1, 1), // Toutes les tuiles sont équiprobables
+    DESERTIQUE(6, 1, 2, 1), // Surtout du désert : des coûts faibles et homogènes
+    ACCIDENTEE(1, 4, 1, 4); // Surtout des montagnes et des forêts : des coûts élevés et contrastés
+
+    private final double[] poids; // Poids relatif de chaque tuile, indexé par son ordinal
+
+    /**
+     * Construit une distribution de tuiles.
+     * @param poids Le poids relatif de chaque tuile, indexé par son ordinal.
+     */
+    Distribution(double... poids) {
+        this.poids = poids;
+    }
+
+    /**
+     * Génère une carte carrée reproductible suivant cette distribution.
+     * @param taille Le côté de la carte.
+     * @param graine La graine du générateur.
+     * @return La carte générée.
+     */
+    public Carte genererCarte(int taille, long graine) {
+        return GenerateurCarte.genererCarte(taille, taille, graine, poids.clone());
+    }
+}
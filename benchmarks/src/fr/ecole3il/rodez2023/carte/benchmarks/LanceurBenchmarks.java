@@ -0,0 +1,51 @@
+package fr.ecole3il.rodez2023.carte.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Point d'entrée de la suite de benchmarks. Il accepte les options de la ligne de commande de JMH
+ * (filtre des benchmarks, -p taille=100, -f, -wi, -i, -rf json...) et ajoute toujours le profileur
+ * du ramasse-miettes, qui rapporte le débit d'allocation (gc.alloc.rate) et les octets alloués par
+ * opération (gc.alloc.rate.norm). Le mode SampleTime fournit les percentiles de latence.
+ */
+public class LanceurBenchmarks {
+
+    /**
+     * Constructeur privé : la classe ne contient que le point d'entrée.
+     */
+    private LanceurBenchmarks() {
+    }
+
+    /**
+     * Lance les benchmarks.
+     * @param args Les options de la ligne de commande de JMH.
+     * @throws CommandLineOptionException Si les options sont invalides.
+     * @throws IOException Si l'aide ne peut pas être affichée.
+     * @throws RunnerException Si un benchmark échoue.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions ligneCommande = new CommandLineOptions(args);
+        if (ligneCommande.shouldHelp()) {
+            ligneCommande.showHelp();
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(ligneCommande)
+                .addProfiler(GCProfiler.class)
+                .build();
+        Runner runner = new Runner(options);
+        if (ligneCommande.shouldList()) {
+            runner.list();
+            return;
+        }
+        runner.run();
+    }
+}
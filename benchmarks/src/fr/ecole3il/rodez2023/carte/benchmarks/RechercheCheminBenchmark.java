@@ -0,0 +1,85 @@
+package fr.ecole3il.rodez2023.carte.benchmarks;
+
+import fr.ecole3il.rodez2023.carte.CarteCompilee;
+import fr.ecole3il.rodez2023.carte.RequeteChemin;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeChemin;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure une recherche de chemin seule, sur un graphe déjà construit. Chaque appel traite la requête suivante
+ * d'une série fixe de requêtes générées à la distance demandée, afin de ne pas mesurer une seule paire de cases.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RechercheCheminBenchmark {
+    static final int NOMBRE_REQUETES = 64; // Nombre de requêtes parcourues en boucle, puissance de 2
+
+    @Param({"10", "100", "500", "1000", "2000"})
+    public int taille; // Côté de la carte
+
+    @Param({"UNIFORME", "DESERTIQUE", "ACCIDENTEE"})
+    public Distribution distribution; // Répartition des tuiles
+
+    @Param({"COURTE", "MOYENNE", "LONGUE"})
+    public Distance distance; // Éloignement entre le départ et l'arrivée
+
+    @Param({"DIJKSTRA", "AETOILE", "AETOILE_REPERES"})
+    public Algorithme algorithme; // Algorithme de recherche
+
+    private AlgorithmeChemin<Case> recherche; // Algorithme instancié pour la carte
+    private Graphe<Case> graphe; // Graphe de la carte
+    private Noeud<Case>[] departs; // Noeuds de départ des requêtes
+    private Noeud<Case>[] arrivees; // Noeuds d'arrivée des requêtes
+    private int indice; // Indice de la prochaine requête
+
+    /**
+     * Génère la carte et les requêtes, construit le graphe et prépare l'algorithme.
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void preparer() {
+        Carte carte = distribution.genererCarte(taille, ConstructionGrapheBenchmark.GRAINE);
+        CarteCompilee carteCompilee = new CarteCompilee(carte);
+        graphe = carteCompilee.getGraphe();
+        recherche = algorithme.creer(carte);
+        List<RequeteChemin> requetes = distance.genererRequetes(taille, NOMBRE_REQUETES, ConstructionGrapheBenchmark.GRAINE);
+        departs = new Noeud[NOMBRE_REQUETES];
+        arrivees = new Noeud[NOMBRE_REQUETES];
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            RequeteChemin requete = requetes.get(i);
+            departs[i] = carteCompilee.getNoeud(requete.getXDepart(), requete.getYDepart());
+            arrivees[i] = carteCompilee.getNoeud(requete.getXArrivee(), requete.getYArrivee());
+        }
+    }
+
+    /**
+     * Cherche le chemin de la requête suivante.
+     * @return Le chemin trouvé.
+     */
+    @Benchmark
+    public List<Noeud<Case>> trouverChemin() {
+        int i = indice++ & (NOMBRE_REQUETES - 1);
+        return recherche.trouverChemin(graphe, departs[i], arrivees[i]);
+    }
+}
@@ -1,14 +1,26 @@
 package fr.ecole3il.rodez2023.carte;
 
 import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeChemin;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeGrille;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.ChampDistances;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.Instrumentation;
 import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
 import fr.ecole3il.rodez2023.carte.elements.Noeud;
 import fr.ecole3il.rodez2023.carte.elements.Carte;
 import fr.ecole3il.rodez2023.carte.elements.Case;
 import fr.ecole3il.rodez2023.carte.elements.Chemin;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * La classe AdaptateurAlgorithme fournit une interface pour utiliser différents algorithmes de recherche de chemin
@@ -16,6 +28,16 @@ import java.util.List;
  */
 public class AdaptateurAlgorithme {
 
+    private static final int TAILLE_CACHE_PAR_DEFAUT = 8; // Nombre de cartes compilées conservées par défaut
+    private static int tailleCache = TAILLE_CACHE_PAR_DEFAUT; // Nombre maximal de cartes compilées conservées
+    // Cache des cartes compilées, ordonné par dernier accès afin d'évincer la carte la moins récemment utilisée
+    private static final Map<Carte, CarteCompilee> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Carte, CarteCompilee> plusAncienne) {
+            return size() > tailleCache;
+        }
+    };
+
     /**
      * Trouve un chemin entre deux points spécifiés sur une carte en utilisant l'algorithme fourni.
      *
@@ -29,9 +51,10 @@ public class AdaptateurAlgorithme {
      */
     public static Chemin trouverChemin(AlgorithmeChemin<Case> algorithme, Carte carte, int xDepart, int yDepart, int xArrivee, int yArrivee) {
 
-        Graphe<Case> g = creerGraphe(carte);
-        Noeud<Case> depart = g.getNoeud(xDepart, yDepart);
-        Noeud<Case> arrivee = g.getNoeud(xArrivee, yArrivee);
+        CarteCompilee carteCompilee = compiler(carte);
+        Graphe<Case> g = carteCompilee.getGraphe();
+        Noeud<Case> depart = carteCompilee.getNoeud(xDepart, yDepart);
+        Noeud<Case> arrivee = carteCompilee.getNoeud(xArrivee, yArrivee);
         List<Noeud<Case>> noeudsChemin = algorithme.trouverChemin(g, depart, arrivee);
 
         if (noeudsChemin == null || noeudsChemin.isEmpty()) {
@@ -40,17 +63,245 @@ public class AdaptateurAlgorithme {
         return new Chemin(afficherChemin(noeudsChemin));
     }
 
+    /**
+     * Trouve un chemin entre deux points spécifiés sur une carte en utilisant un algorithme travaillant
+     * directement sur la grille de la carte, sans construire de graphe.
+     *
+     * @param algorithme L'algorithme de recherche de chemin sur grille à utiliser.
+     * @param carte      La carte sur laquelle chercher le chemin.
+     * @param xDepart    La coordonnée x du point de départ.
+     * @param yDepart    La coordonnée y du point de départ.
+     * @param xArrivee   La coordonnée x du point d'arrivée.
+     * @param yArrivee   La coordonnée y du point d'arrivée.
+     * @return Le chemin trouvé entre les deux points, ou un chemin vide s'il n'y a pas de chemin possible.
+     */
+    public static Chemin trouverChemin(AlgorithmeGrille algorithme, Carte carte, int xDepart, int yDepart, int xArrivee, int yArrivee) {
+        List<Case> cases = algorithme.trouverChemin(carte, xDepart, yDepart, xArrivee, yArrivee);
+        if (cases == null || cases.isEmpty()) {
+            return new Chemin(new ArrayList<>());
+        }
+        return new Chemin(cases);
+    }
+
+    /**
+     * Trouve les chemins de plusieurs requêtes sur une même carte en répartissant les recherches sur tous
+     * les cœurs. Le graphe de la carte est compilé une seule fois et partagé ; chaque thread réutilise l'état
+     * de recherche de l'algorithme. Contrairement à trouverChemin, rien n'est affiché.
+     *
+     * @param algorithme L'algorithme de recherche de chemin à utiliser.
+     * @param carte      La carte sur laquelle chercher les chemins.
+     * @param requetes   Les requêtes à traiter.
+     * @return Les chemins trouvés, dans l'ordre des requêtes ; un chemin est vide s'il n'y a pas de chemin possible.
+     */
+    public static List<Chemin> trouverChemins(AlgorithmeChemin<Case> algorithme, Carte carte, List<RequeteChemin> requetes) {
+        return trouverCheminsEnFlux(algorithme, carte, requetes).collect(Collectors.toList());
+    }
+
+    /**
+     * Trouve les chemins de plusieurs requêtes sur une même carte en exécutant les recherches dans le pool
+     * de threads fourni plutôt que dans le pool commun. Le graphe est compilé dans le thread appelant,
+     * puis chaque requête est soumise au pool comme une tâche distincte ; les résultats sont attendus
+     * dans l'ordre des requêtes.
+     *
+     * @param algorithme L'algorithme de recherche de chemin à utiliser.
+     * @param carte      La carte sur laquelle chercher les chemins.
+     * @param requetes   Les requêtes à traiter.
+     * @param pool       Le pool de threads exécutant les recherches.
+     * @return Les chemins trouvés, dans l'ordre des requêtes.
+     */
+    public static List<Chemin> trouverChemins(AlgorithmeChemin<Case> algorithme, Carte carte, List<RequeteChemin> requetes,
+                                              ForkJoinPool pool) {
+        CarteCompilee carteCompilee = compiler(carte);
+        carteCompilee.getGraphe().getGrapheCompact();
+        List<ForkJoinTask<Chemin>> taches = new ArrayList<>(requetes.size());
+        for (RequeteChemin requete : requetes) {
+            taches.add(pool.submit(() -> chercher(algorithme, carteCompilee, requete)));
+        }
+        List<Chemin> chemins = new ArrayList<>(taches.size());
+        for (ForkJoinTask<Chemin> tache : taches) {
+            chemins.add(tache.join());
+        }
+        return chemins;
+    }
+
+    /**
+     * Trouve les chemins de plusieurs requêtes sur une même carte sous forme d'un flux parallèle ordonné.
+     * Les recherches ne sont lancées qu'à la consommation du flux.
+     *
+     * @param algorithme L'algorithme de recherche de chemin à utiliser.
+     * @param carte      La carte sur laquelle chercher les chemins.
+     * @param requetes   Les requêtes à traiter.
+     * @return Le flux des chemins trouvés, dans l'ordre des requêtes.
+     */
+    public static Stream<Chemin> trouverCheminsEnFlux(AlgorithmeChemin<Case> algorithme, Carte carte,
+                                                      Collection<RequeteChemin> requetes) {
+        CarteCompilee carteCompilee = compiler(carte);
+        // La représentation compacte est construite avant de répartir les recherches, pour ne l'être qu'une fois.
+        carteCompilee.getGraphe().getGrapheCompact();
+        return requetes.parallelStream().map(requete -> chercher(algorithme, carteCompilee, requete));
+    }
+
+    /**
+     * Traite une requête sur une carte déjà compilée, sans rien afficher.
+     *
+     * @param algorithme    L'algorithme de recherche de chemin à utiliser.
+     * @param carteCompilee La carte compilée.
+     * @param requete       La requête à traiter.
+     * @return Le chemin trouvé, vide s'il n'y a pas de chemin possible.
+     */
+    private static Chemin chercher(AlgorithmeChemin<Case> algorithme, CarteCompilee carteCompilee, RequeteChemin requete) {
+        Noeud<Case> depart = carteCompilee.getNoeud(requete.getXDepart(), requete.getYDepart());
+        Noeud<Case> arrivee = carteCompilee.getNoeud(requete.getXArrivee(), requete.getYArrivee());
+        List<Noeud<Case>> noeudsChemin = algorithme.trouverChemin(carteCompilee.getGraphe(), depart, arrivee);
+        List<Case> cases = new ArrayList<>(noeudsChemin == null ? 0 : noeudsChemin.size());
+        if (noeudsChemin != null) {
+            for (Noeud<Case> noeud : noeudsChemin) {
+                cases.add(noeud.getValeur());
+            }
+        }
+        return new Chemin(cases);
+    }
+
+    /**
+     * Trouve les chemins de plusieurs requêtes sur une même carte avec un algorithme travaillant directement
+     * sur la grille, en répartissant les recherches sur tous les cœurs.
+     *
+     * @param algorithme L'algorithme de recherche de chemin sur grille à utiliser.
+     * @param carte      La carte sur laquelle chercher les chemins.
+     * @param requetes   Les requêtes à traiter.
+     * @return Les chemins trouvés, dans l'ordre des requêtes.
+     */
+    public static List<Chemin> trouverChemins(AlgorithmeGrille algorithme, Carte carte, List<RequeteChemin> requetes) {
+        return trouverCheminsEnFlux(algorithme, carte, requetes).collect(Collectors.toList());
+    }
+
+    /**
+     * Trouve les chemins de plusieurs requêtes sur une même carte avec un algorithme travaillant directement
+     * sur la grille, sous forme d'un flux parallèle ordonné.
+     *
+     * @param algorithme L'algorithme de recherche de chemin sur grille à utiliser.
+     * @param carte      La carte sur laquelle chercher les chemins.
+     * @param requetes   Les requêtes à traiter.
+     * @return Le flux des chemins trouvés, dans l'ordre des requêtes.
+     */
+    public static Stream<Chemin> trouverCheminsEnFlux(AlgorithmeGrille algorithme, Carte carte,
+                                                      Collection<RequeteChemin> requetes) {
+        return requetes.parallelStream().map(requete -> {
+            List<Case> cases = algorithme.trouverChemin(carte, requete.getXDepart(), requete.getYDepart(),
+                    requete.getXArrivee(), requete.getYArrivee());
+            return new Chemin(cases == null ? new ArrayList<>() : cases);
+        });
+    }
+
+    /**
+     * Calcule le champ des distances d'une case source à toutes les cases de la carte, à partir duquel
+     * le chemin vers n'importe quelle case s'obtient sans nouvelle recherche.
+     *
+     * @param carte   La carte sur laquelle calculer le champ.
+     * @param xSource La coordonnée x de la case source.
+     * @param ySource La coordonnée y de la case source.
+     * @return Le champ de distances de la source.
+     * @throws IllegalArgumentException Si la source est hors de la carte.
+     */
+    public static ChampDistances calculerChampDistances(Carte carte, int xSource, int ySource) {
+        return ChampDistances.calculer(carte, xSource, ySource);
+    }
+
+    /**
+     * Trouve les chemins d'une case de départ vers plusieurs cases d'arrivée avec une seule recherche,
+     * arrêtée dès que toutes les arrivées sont atteintes.
+     *
+     * @param carte    La carte sur laquelle chercher les chemins.
+     * @param xDepart  La coordonnée x du point de départ.
+     * @param yDepart  La coordonnée y du point de départ.
+     * @param arrivees Les cases d'arrivée.
+     * @return Les chemins vers chaque arrivée, dans l'ordre des arrivées ; un chemin est vide si son arrivée
+     * est hors de la carte ou n'est pas atteignable.
+     * @throws IllegalArgumentException Si le départ est hors de la carte.
+     */
+    public static List<Chemin> trouverChemins(Carte carte, int xDepart, int yDepart, List<Case> arrivees) {
+        ChampDistances champ = ChampDistances.calculer(carte, xDepart, yDepart, arrivees);
+        List<Chemin> chemins = new ArrayList<>(arrivees.size());
+        for (Case arrivee : arrivees) {
+            chemins.add(new Chemin(champ.getCheminVers(arrivee.getX(), arrivee.getY())));
+        }
+        return chemins;
+    }
+
+    /**
+     * Récupère le graphe compilé d'une carte. Le graphe est construit une seule fois par carte puis conservé
+     * dans un cache de taille bornée ; il est reconstruit si la carte a été modifiée depuis sa compilation.
+     * Chaque construction est signalée aux écouteurs de l'instrumentation avec sa durée.
+     *
+     * @param carte La carte à compiler.
+     * @return Le graphe compilé, à jour, de la carte.
+     */
+    public static CarteCompilee compiler(Carte carte) {
+        CarteCompilee carteCompilee;
+        synchronized (CACHE) {
+            carteCompilee = CACHE.get(carte);
+        }
+        if (carteCompilee != null && carteCompilee.estAJour()) {
+            return carteCompilee;
+        }
+
+        // La construction se fait hors du verrou pour ne pas bloquer les recherches sur les autres cartes.
+        boolean instrumentee = Instrumentation.estActive();
+        long debutMesure = instrumentee ? System.nanoTime() : 0L;
+        carteCompilee = new CarteCompilee(carte);
+        if (instrumentee) {
+            Instrumentation.publierConstruction(carteCompilee.getGraphe().getGrapheCompact().getNombreNoeuds(),
+                    System.nanoTime() - debutMesure);
+        }
+        synchronized (CACHE) {
+            CACHE.put(carte, carteCompilee);
+        }
+        return carteCompilee;
+    }
+
+    /**
+     * Modifie le nombre maximal de cartes compilées conservées dans le cache.
+     * Les cartes les moins récemment utilisées sont évincées en premier.
+     *
+     * @param taille Le nombre maximal de cartes compilées conservées.
+     * @throws IllegalArgumentException Si la taille est négative.
+     */
+    public static void setTailleCache(int taille) {
+        if (taille < 0) {
+            throw new IllegalArgumentException("La taille du cache ne doit pas être négative");
+        }
+        synchronized (CACHE) {
+            tailleCache = taille;
+            Iterator<Carte> iterateur = CACHE.keySet().iterator();
+            while (CACHE.size() > tailleCache) {
+                iterateur.next();
+                iterateur.remove();
+            }
+        }
+    }
+
+    /**
+     * Retire du cache le graphe compilé d'une carte.
+     *
+     * @param carte La carte dont le graphe compilé doit être oublié.
+     */
+    public static void invaliderCache(Carte carte) {
+        synchronized (CACHE) {
+            CACHE.remove(carte);
+        }
+    }
+
     /**
      * Ajoute les arêtes voisines pour un nœud donné dans le graphe, en utilisant les coordonnées spécifiées.
      *
-     * @param graphe       Le graphe auquel ajouter les arêtes voisines.
+     * @param graphe       Le constructeur du graphe auquel ajouter les arêtes voisines.
      * @param noeudActuel  Le nœud actuel pour lequel ajouter des arêtes voisines.
      * @param x            La coordonnée x du nœud actuel.
      * @param y            La coordonnée y du nœud actuel.
      * @param largeur      La largeur de la carte ou du graphe.
      * @param hauteur      La hauteur de la carte ou du graphe.
      */
-    private static void ajouterAretesVoisines(Graphe<Case> graphe, Noeud<Case> noeudActuel, int x, int y, int largeur, int hauteur) {
+    private static void ajouterAretesVoisines(Graphe.Constructeur<Case> graphe, Noeud<Case> noeudActuel, int x, int y, int largeur, int hauteur) {
 
         int[][] offsets = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}};
 
@@ -71,36 +322,38 @@ public class AdaptateurAlgorithme {
 
     /**
      * Crée un graphe à partir d'une carte spécifiée en ajoutant des nœuds pour chaque case et en établissant
-     * des arêtes entre les nœuds voisins.
+     * des arêtes entre les nœuds voisins. Le graphe est figé, ce qui permet de le partager entre les recherches
+     * lancées en parallèle sur la carte. Les nœuds sont ajoutés ligne par ligne, si bien que l'indice de chaque case
+     * est son identifiant décrit par {@link Carte}, et les arêtes dans l'ordre de {@link GrapheCompact#depuisCarte(Carte)}.
      *
      * @param carte La carte à partir de laquelle créer le graphe.
-     * @return Le graphe créé à partir de la carte.
+     * @return Le graphe figé créé à partir de la carte.
      */
-    private static Graphe<Case> creerGraphe(Carte carte) {
-        // Création d'un nouveau graphe.
-        Graphe<Case> graphe = new Graphe<>();
+    static Graphe<Case> creerGraphe(Carte carte) {
+        // Création d'un constructeur de graphe.
+        Graphe.Constructeur<Case> graphe = Graphe.constructeur(carte.getLargeur(), carte.getHauteur());
         // Obtention de la largeur et de la hauteur de la carte.
         int largeur = carte.getLargeur();
         int hauteur = carte.getHauteur();
 
-        // Parcours de toutes les cases de la carte pour créer un nœud pour chaque case et l'ajouter au graphe.
-        for (int x = 0; x < largeur; x++) {
-            for (int y = 0; y < hauteur; y++) {
+        // Parcours de toutes les cases de la carte, ligne par ligne, pour créer un nœud pour chaque case et l'ajouter au graphe.
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
                 Noeud<Case> currentNoeud = new Noeud<>(carte.getCase(x, y));
                 graphe.ajouterNoeud(currentNoeud);
             }
         }
 
         // Parcours de toutes les cases de la carte pour ajouter des arêtes voisines entre les nœuds correspondants.
-        for (int x = 0; x < largeur; x++) {
-            for (int y = 0; y < hauteur; y++) {
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
                 Noeud<Case> currentNoeud = graphe.getNoeud(x, y);
                 // Ajout des arêtes voisines pour le nœud actuel.
                 ajouterAretesVoisines(graphe, currentNoeud, x, y, largeur, hauteur);
             }
         }
-        // Retour du graphe créé.
-        return graphe;
+        // Retour du graphe figé.
+        return graphe.construire();
     }
 
     /**
@@ -0,0 +1,61 @@
+package fr.ecole3il.rodez2023.carte;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+
+/**
+ * La classe CarteCompilee représente le graphe d'une carte, construit une seule fois puis réutilisé
+ * pour répondre à plusieurs recherches de chemin entre des points de départ et d'arrivée différents.
+ * Elle conserve la version de la carte au moment de sa construction afin de détecter les modifications.
+ */
+public class CarteCompilee {
+    private final Carte carte; // La carte d'origine
+    private final int version; // La version de la carte au moment de la compilation
+    private final Graphe<Case> graphe; // Le graphe construit à partir de la carte
+
+    /**
+     * Construit le graphe compilé de la carte spécifiée.
+     * @param carte La carte à compiler.
+     */
+    public CarteCompilee(Carte carte) {
+        this.carte = carte;
+        this.version = carte.getVersion();
+        this.graphe = AdaptateurAlgorithme.creerGraphe(carte);
+    }
+
+    /**
+     * Récupère la carte à partir de laquelle le graphe a été construit.
+     * @return La carte d'origine.
+     */
+    public Carte getCarte() {
+        return carte;
+    }
+
+    /**
+     * Récupère le graphe construit à partir de la carte.
+     * @return Le graphe de la carte.
+     */
+    public Graphe<Case> getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * Récupère le noeud correspondant à la case située aux coordonnées spécifiées.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return Le noeud de la case, ou null si les coordonnées sont hors de la carte.
+     */
+    public Noeud<Case> getNoeud(int x, int y) {
+        return graphe.getNoeud(x, y);
+    }
+
+    /**
+     * Indique si le graphe compilé correspond toujours à l'état actuel de la carte.
+     * @return true si la carte n'a pas été modifiée depuis la compilation, false sinon.
+     */
+    public boolean estAJour() {
+        return version == carte.getVersion();
+    }
+}
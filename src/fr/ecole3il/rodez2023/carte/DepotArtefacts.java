@@ -0,0 +1,236 @@
+package fr.ecole3il.rodez2023.carte;
+
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.HierarchieContraction;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.Reperes;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * La classe DepotArtefacts conserve sur disque les structures coûteuses à précalculer pour une carte
+ * (graphe compact, hiérarchie de contraction, repères...), afin qu'elles ne soient pas recalculées à chaque démarrage.
+ * Chaque artefact est rangé dans un fichier nommé d'après l'empreinte du contenu de la carte
+ * ({@link Carte#calculerEmpreinte()}) et son type ; le fichier rappelle l'empreinte et les dimensions de la carte,
+ * et se termine par la somme de contrôle CRC32 de son contenu. La somme est vérifiée sur les octets du fichier
+ * avant toute lecture de l'artefact, si bien qu'une taille corrompue ne provoque pas d'allocation démesurée,
+ * et la lecture doit s'arrêter exactement sur la somme : un artefact suivi d'octets superflus est refusé.
+ * Un artefact absent, corrompu ou calculé pour un autre contenu est reconstruit puis réécrit automatiquement.
+ * Les fichiers sont écrits dans un fichier temporaire puis renommés, si bien qu'un lecteur ne voit jamais
+ * un artefact à moitié écrit.
+ * <p>
+ * Les identifiants des noeuds des artefacts sont ceux des cases décrits par {@link Carte}, et le graphe compact
+ * enregistré est identique à celui du graphe compilé par {@link AdaptateurAlgorithme#compiler(Carte)} : une hiérarchie
+ * relue peut être passée à {@link fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeContraction}, qui
+ * l'utilise telle quelle sur le graphe compilé sans la reconstruire.
+ */
+public class DepotArtefacts {
+    private static final int MAGIQUE = 0x41525446; // Signature des fichiers d'artefacts
+    private static final int VERSION_FORMAT = 1; // Version de l'en-tête des fichiers d'artefacts
+    private static final int TAILLE_TAMPON = 1 << 16; // Taille des tampons de lecture et d'écriture
+    private static final int TAILLE_EN_TETE = 24; // Taille de l'en-tête : signature, version, empreinte et dimensions
+
+    private final Path repertoire; // Répertoire contenant les fichiers d'artefacts
+
+    /**
+     * Construit un dépôt rangeant ses artefacts dans un répertoire, créé au besoin lors de la première écriture.
+     * @param repertoire Le répertoire des artefacts.
+     */
+    public DepotArtefacts(Path repertoire) {
+        this.repertoire = repertoire;
+    }
+
+    /**
+     * Récupère le répertoire des artefacts.
+     * @return Le répertoire des artefacts.
+     */
+    public Path getRepertoire() {
+        return repertoire;
+    }
+
+    /**
+     * Récupère le graphe compact d'une carte, relu depuis le dépôt ou construit puis enregistré.
+     * @param carte La carte.
+     * @return Le graphe compact de la carte.
+     * @throws IOException Si l'artefact construit ne peut pas être écrit.
+     */
+    public GrapheCompact getGrapheCompact(Carte carte) throws IOException {
+        return obtenir(carte, "graphe", GrapheCompact::lire, GrapheCompact::ecrire,
+                () -> GrapheCompact.depuisCarte(carte));
+    }
+
+    /**
+     * Récupère la hiérarchie de contraction d'une carte, relue depuis le dépôt ou construite puis enregistrée.
+     * Sa construction réutilise le graphe compact du dépôt ; elle correspond au graphe compilé de la carte.
+     * @param carte La carte.
+     * @return La hiérarchie de contraction de la carte.
+     * @throws IOException Si un artefact construit ne peut pas être écrit.
+     */
+    public HierarchieContraction getHierarchie(Carte carte) throws IOException {
+        return obtenir(carte, "hierarchie", HierarchieContraction::lire, HierarchieContraction::ecrire,
+                () -> HierarchieContraction.construire(getGrapheCompact(carte)));
+    }
+
+    /**
+     * Récupère les repères d'une carte, relus depuis le dépôt ou calculés puis enregistrés.
+     * Chaque combinaison de paramètres est un artefact distinct. Les repères renvoyés sont associés à la carte
+     * ({@link Reperes#associer(Carte)}).
+     * @param carte La carte.
+     * @param nombre Le nombre de repères.
+     * @param selection La stratégie de choix des repères.
+     * @param quantifiees true pour des distances quantifiées sur 16 bits.
+     * @return Les repères de la carte.
+     * @throws IOException Si l'artefact calculé ne peut pas être écrit.
+     */
+    public Reperes getReperes(Carte carte, int nombre, Reperes.Selection selection, boolean quantifiees)
+            throws IOException {
+        String type = "reperes-" + nombre + "-" + selection.name().toLowerCase() + (quantifiees ? "-q" : "");
+        return obtenir(carte, type, Reperes::lire, Reperes::ecrire,
+                () -> Reperes.calculer(carte, nombre, selection, quantifiees)).associer(carte);
+    }
+
+    /**
+     * Récupère le fichier d'un artefact de la carte.
+     * @param carte La carte.
+     * @param type Le type de l'artefact.
+     * @return Le chemin du fichier de l'artefact.
+     */
+    public Path getFichier(Carte carte, String type) {
+        return getFichier(carte.calculerEmpreinte(), type);
+    }
+
+    /**
+     * Récupère le fichier d'un artefact d'après l'empreinte de sa carte.
+     * @param empreinte L'empreinte de la carte.
+     * @param type Le type de l'artefact.
+     * @return Le chemin du fichier de l'artefact.
+     */
+    private Path getFichier(long empreinte, String type) {
+        return repertoire.resolve(String.format("%016x.%s", empreinte, type));
+    }
+
+    /**
+     * Relit un artefact depuis le dépôt, ou le construit et l'enregistre s'il est absent ou périmé.
+     * @param carte La carte.
+     * @param type Le type de l'artefact, qui sert d'extension au fichier.
+     * @param lecture La lecture de l'artefact.
+     * @param ecriture L'écriture de l'artefact.
+     * @param construction La construction de l'artefact.
+     * @param <T> Le type de l'artefact.
+     * @return L'artefact.
+     * @throws IOException Si l'artefact construit ne peut pas être écrit.
+     */
+    private <T> T obtenir(Carte carte, String type, Lecture<T> lecture, Ecriture<T> ecriture,
+                          Construction<T> construction) throws IOException {
+        long empreinte = carte.calculerEmpreinte();
+        Path fichier = getFichier(empreinte, type);
+        if (Files.isRegularFile(fichier)) {
+            try {
+                if (verifierControle(fichier)) {
+                    try (DataInputStream entree = new DataInputStream(
+                            new BufferedInputStream(Files.newInputStream(fichier), TAILLE_TAMPON))) {
+                        if (entree.readInt() == MAGIQUE && entree.readInt() == VERSION_FORMAT
+                                && entree.readLong() == empreinte && entree.readInt() == carte.getLargeur()
+                                && entree.readInt() == carte.getHauteur()) {
+                            T artefact = lecture.lire(entree);
+                            entree.readLong(); // Somme de contrôle, déjà vérifiée
+                            if (entree.read() == -1) {
+                                return artefact;
+                            }
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // L'artefact est illisible, incohérent ou d'un format plus ancien : il est reconstruit ci-dessous.
+            }
+        }
+
+        T artefact = construction.construire();
+        Files.createDirectories(repertoire);
+        Path temporaire = Files.createTempFile(repertoire, fichier.getFileName().toString(), ".tmp");
+        try {
+            CRC32 controle = new CRC32();
+            try (DataOutputStream sortie = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaire), TAILLE_TAMPON), controle))) {
+                sortie.writeInt(MAGIQUE);
+                sortie.writeInt(VERSION_FORMAT);
+                sortie.writeLong(empreinte);
+                sortie.writeInt(carte.getLargeur());
+                sortie.writeInt(carte.getHauteur());
+                ecriture.ecrire(artefact, sortie);
+                sortie.writeLong(controle.getValue());
+            }
+            try {
+                Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaire);
+        }
+        return artefact;
+    }
+
+    /**
+     * Vérifie la somme de contrôle d'un fichier d'artefact : la somme CRC32 de tous ses octets, en-tête compris,
+     * doit être égale au long qui le termine. Le fichier est parcouru par blocs, sans être chargé en mémoire.
+     * @param fichier Le fichier d'artefact.
+     * @return true si le fichier est intact.
+     * @throws IOException Si le fichier ne peut pas être lu.
+     */
+    private static boolean verifierControle(Path fichier) throws IOException {
+        long restant = Files.size(fichier) - Long.BYTES;
+        if (restant < TAILLE_EN_TETE) {
+            return false;
+        }
+        CRC32 controle = new CRC32();
+        try (DataInputStream entree = new DataInputStream(Files.newInputStream(fichier))) {
+            byte[] tampon = new byte[TAILLE_TAMPON];
+            while (restant > 0) {
+                int lus = entree.read(tampon, 0, (int) Math.min(tampon.length, restant));
+                if (lus < 0) {
+                    return false;
+                }
+                controle.update(tampon, 0, lus);
+                restant -= lus;
+            }
+            return entree.readLong() == controle.getValue();
+        }
+    }
+
+    /**
+     * Lecture d'un artefact depuis un flux binaire.
+     * @param <T> Le type de l'artefact.
+     */
+    private interface Lecture<T> {
+        T lire(DataInput entree) throws IOException;
+    }
+
+    /**
+     * Écriture d'un artefact dans un flux binaire.
+     * @param <T> Le type de l'artefact.
+     */
+    private interface Ecriture<T> {
+        void ecrire(T artefact, DataOutput sortie) throws IOException;
+    }
+
+    /**
+     * Construction d'un artefact, qui peut elle-même dépendre d'autres artefacts du dépôt.
+     * @param <T> Le type de l'artefact.
+     */
+    private interface Construction<T> {
+        T construire() throws IOException;
+    }
+}
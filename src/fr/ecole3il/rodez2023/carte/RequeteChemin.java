@@ -0,0 +1,63 @@
+package fr.ecole3il.rodez2023.carte;
+
+/**
+ * La classe RequeteChemin représente une demande de chemin entre deux cases d'une carte,
+ * utilisée pour soumettre plusieurs recherches à la fois.
+ */
+public class RequeteChemin {
+    private final int xDepart; // La coordonnée x du point de départ
+    private final int yDepart; // La coordonnée y du point de départ
+    private final int xArrivee; // La coordonnée x du point d'arrivée
+    private final int yArrivee; // La coordonnée y du point d'arrivée
+
+    /**
+     * Construit une requête de chemin entre deux cases.
+     * @param xDepart La coordonnée x du point de départ.
+     * @param yDepart La coordonnée y du point de départ.
+     * @param xArrivee La coordonnée x du point d'arrivée.
+     * @param yArrivee La coordonnée y du point d'arrivée.
+     */
+    public RequeteChemin(int xDepart, int yDepart, int xArrivee, int yArrivee) {
+        this.xDepart = xDepart;
+        this.yDepart = yDepart;
+        this.xArrivee = xArrivee;
+        this.yArrivee = yArrivee;
+    }
+
+    /**
+     * Récupère la coordonnée x du point de départ.
+     * @return La coordonnée x du point de départ.
+     */
+    public int getXDepart() {
+        return xDepart;
+    }
+
+    /**
+     * Récupère la coordonnée y du point de départ.
+     * @return La coordonnée y du point de départ.
+     */
+    public int getYDepart() {
+        return yDepart;
+    }
+
+    /**
+     * Récupère la coordonnée x du point d'arrivée.
+     * @return La coordonnée x du point d'arrivée.
+     */
+    public int getXArrivee() {
+        return xArrivee;
+    }
+
+    /**
+     * Récupère la coordonnée y du point d'arrivée.
+     * @return La coordonnée y du point d'arrivée.
+     */
+    public int getYArrivee() {
+        return yArrivee;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + xDepart + ", " + yDepart + "] -> [" + xArrivee + ", " + yArrivee + "]";
+    }
+}
@@ -2,31 +2,68 @@ package fr.ecole3il.rodez2023.carte.application;
 
 import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
 import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeAEtoile;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeAEtoileBidirectionnel;
 import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeChemin;
 import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeDjikstra;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeDjikstraBidirectionnel;
 import fr.ecole3il.rodez2023.carte.elements.Carte;
 import fr.ecole3il.rodez2023.carte.elements.Case;
 import fr.ecole3il.rodez2023.carte.elements.Chemin;
+import fr.ecole3il.rodez2023.carte.elements.EcouteurCarte;
 import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import fr.ecole3il.rodez2023.carte.manipulateurs.FichierCarte;
 import fr.ecole3il.rodez2023.carte.manipulateurs.GenerateurCarte;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.InputEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Cette classe représente une interface graphique permettant d'afficher une carte avec des cases et de trouver le chemin
  * le plus court entre deux cases en utilisant différents algorithmes.
  * Elle permet également de visualiser le chemin trouvé sur la carte.
+ * La recherche s'exécute hors du thread de l'interface, sur un instantané figé de la carte : une nouvelle demande
+ * annule la recherche qu'elle remplace, et le dernier chemin trouvé est conservé pour être dessiné sans être recalculé.
+ * La carte est affichée dans un panneau défilant, agrandi ou réduit avec Ctrl + molette. Seules les cases visibles
+ * sont dessinées : avec les images précalculées des tuiles lorsque les cases sont grandes, sinon en agrandissant
+ * une image de la carte à un pixel par case, tenue à jour lorsque des tuiles sont modifiées.
  * @author p.roquart
  */
 public class CarteGUI extends JFrame {
+	private static final int TAILLE_SPRITE = 32; // Côté des images précalculées des tuiles, en pixels
+	private static final int TAILLE_CASE_MINIMALE = 1; // Plus petit côté d'une case à l'écran, en pixels
+	private static final int TAILLE_CASE_MAXIMALE = 64; // Plus grand côté d'une case à l'écran, en pixels
+	private static final int SEUIL_SPRITES = 8; // Côté à partir duquel les cases sont dessinées avec les images des tuiles
+	private static final Dimension VUE_MAXIMALE = new Dimension(1024, 768); // Taille maximale initiale de la vue
+	private static final Map<Tuile, BufferedImage> SPRITES = creerSprites(); // Image précalculée de chaque tuile
+
 	private final Carte carte;
 	private Case caseDepart;
 	private Case caseArrivee;
-	private AlgorithmeChemin algorithme;
+	private AlgorithmeChemin<Case> algorithme;
+	private Chemin chemin; // Dernier chemin trouvé, dessiné sans être recalculé, ou null
+	private SwingWorker<Chemin, Void> recherche; // Recherche en cours, ou null
+	private final ExecutorService executeur; // Thread exécutant les recherches, une à la fois
+	private Carte instantane; // Dernier instantané figé de la carte, parcouru par les recherches, ou null
+	private int versionInstantane; // Version de la carte lorsque l'instantané a été pris
+	private final JProgressBar indicateur; // Indicateur affiché pendant une recherche
+	private final BufferedImage imageCarte; // Image de la carte à un pixel par case, indexée par l'ordinal des tuiles
+	private final Map<Tuile, BufferedImage> spritesAEchelle = new EnumMap<>(Tuile.class); // Images des tuiles à la taille des cases
+	private final PanneauCarte cartePanel; // Panneau dessinant la carte
+	private int tailleCase; // Côté d'une case à l'écran, en pixels
 
 	/**
 	 * Construit une interface graphique pour afficher une carte et trouver le chemin le plus court entre deux cases.
@@ -37,40 +74,82 @@ public class CarteGUI extends JFrame {
 		this.carte = carte;
 		this.caseDepart = null;
 		this.caseArrivee = null;
-		this.algorithme = new AlgorithmeDjikstra(); // Algorithme par défaut
+		this.algorithme = new AlgorithmeDjikstra<>(); // Algorithme par défaut
+		this.executeur = Executors.newSingleThreadExecutor(tache -> {
+			Thread thread = new Thread(tache, "Recherche de chemin");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		this.imageCarte = creerImageCarte(carte);
+		// La taille initiale des cases fait tenir la carte dans la vue, sans dépasser la taille des images des tuiles.
+		int tailleAjustee = Math.min(VUE_MAXIMALE.width / carte.getLargeur(), VUE_MAXIMALE.height / carte.getHauteur());
+		setTailleCase(Math.min(TAILLE_SPRITE, tailleAjustee));
 
 		setTitle("Carte");
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		setSize(carte.getLargeur() * 32, carte.getHauteur() * 32 + 50); // +50 pour la ComboBox
-		setLocationRelativeTo(null);
 
-		JPanel cartePanel = new JPanel() {
+		cartePanel = new PanneauCarte();
+		JScrollPane defilement = new JScrollPane(cartePanel);
+		cartePanel.addMouseWheelListener(e -> {
+			if ((e.getModifiersEx() & InputEvent.CTRL_DOWN_MASK) != 0) {
+				zoomer(e, defilement.getViewport());
+			} else {
+				// Sans Ctrl, la molette fait défiler la vue comme d'habitude.
+				defilement.dispatchEvent(SwingUtilities.convertMouseEvent(cartePanel, e, defilement));
+			}
+		});
+		// L'image de la carte suit les modifications des tuiles, qui peuvent venir d'un autre thread. L'écouteur n'est
+		// enregistré qu'une fois le panneau créé, puisqu'il peut le faire redessiner dès son enregistrement.
+		carte.ajouterEcouteur(new EcouteurCarte() {
 			@Override
-			protected void paintComponent(Graphics g) {
-				super.paintComponent(g);
-				dessinerCarte((Graphics2D) g);
+			public void tuileModifiee(Carte carteModifiee, int x, int y, Tuile ancienne, Tuile nouvelle) {
+				SwingUtilities.invokeLater(() -> {
+					imageCarte.getRaster().setSample(x, y, 0, nouvelle.ordinal());
+					cartePanel.repaint(x * tailleCase, y * tailleCase, tailleCase, tailleCase);
+				});
 			}
-		};
-		cartePanel.setPreferredSize(new Dimension(carte.getLargeur() * 32, carte.getHauteur() * 32));
+		});
 
-		JComboBox<String> algorithmeComboBox = new JComboBox<>(new String[] { "Dijkstra", "A*" });
+		JComboBox<String> algorithmeComboBox = new JComboBox<>(new String[] { "Dijkstra", "A*", "Dijkstra bidirectionnel", "A* bidirectionnel" });
 		algorithmeComboBox.addActionListener(e -> {
 			String choix = (String) algorithmeComboBox.getSelectedItem();
 			if (choix.equals("Dijkstra")) {
-				algorithme = new AlgorithmeDjikstra();
+				algorithme = new AlgorithmeDjikstra<>();
 			} else if (choix.equals("A*")) {
-				algorithme = new AlgorithmeAEtoile();
+				algorithme = new AlgorithmeAEtoile<>();
+			} else if (choix.equals("Dijkstra bidirectionnel")) {
+				algorithme = new AlgorithmeDjikstraBidirectionnel<>();
+			} else if (choix.equals("A* bidirectionnel")) {
+				algorithme = new AlgorithmeAEtoileBidirectionnel<>();
 			}
+			trouverChemin(); // Le chemin affiché est recalculé avec le nouvel algorithme
 		});
 
+		indicateur = new JProgressBar();
+		indicateur.setIndeterminate(true);
+		indicateur.setStringPainted(true);
+		indicateur.setString("Recherche du chemin...");
+		indicateur.setVisible(false);
+		// La place de l'indicateur est réservée dès le départ : l'afficher ou le masquer ne déplace pas la carte.
+		JPanel zoneIndicateur = new JPanel(new BorderLayout());
+		zoneIndicateur.setPreferredSize(indicateur.getPreferredSize());
+		zoneIndicateur.add(indicateur);
+
 		add(algorithmeComboBox, BorderLayout.NORTH);
-		add(cartePanel);
+		add(defilement);
+		add(zoneIndicateur, BorderLayout.SOUTH);
+		pack();
+		setLocationRelativeTo(null);
 
 		cartePanel.addMouseListener(new MouseAdapter() {
 			@Override
 			public void mouseClicked(MouseEvent e) {
-				int x = e.getX() / 32;
-				int y = e.getY() / 32;
+				int x = e.getX() / tailleCase;
+				int y = e.getY() / tailleCase;
+				if (x >= carte.getLargeur() || y >= carte.getHauteur()) {
+					return; // Clic hors de la carte
+				}
 
 				if (caseDepart == null) {
 					caseDepart = new Case(carte.getTuile(x, y), x, y);
@@ -82,6 +161,8 @@ public class CarteGUI extends JFrame {
 				} else {
 					caseDepart = new Case(carte.getTuile(x, y), x, y);
 					caseArrivee = null;
+					annulerRecherche();
+					chemin = null;
 					System.out.println("Nouvelle case de départ : [" + x + ", " + y + "]");
 				}
 
@@ -91,79 +172,324 @@ public class CarteGUI extends JFrame {
 	}
 
 	/**
-	 * Dessine la carte avec ses tuiles, les cases de départ et d'arrivée ainsi que le chemin trouvé.
+	 * Dessine les cases visibles de la carte, les cases de départ et d'arrivée ainsi que le dernier chemin trouvé.
+	 * Aucune recherche n'est faite ici : le dessin peut être demandé à tout moment par Swing.
 	 * @param g L'objet Graphics2D utilisé pour dessiner.
 	 */
 	private void dessinerCarte(Graphics2D g) {
-		for (int x = 0; x < carte.getLargeur(); x++) {
-			for (int y = 0; y < carte.getHauteur(); y++) {
-				Tuile tuile = carte.getTuile(x, y);
-				BufferedImage imageTuile = getTuileImage(tuile);
-				g.drawImage(imageTuile, x * 32, y * 32, null);
-
-				if (caseDepart != null && caseDepart.getX() == x && caseDepart.getY() == y) {
-					g.setColor(Color.BLUE);
-					g.drawRect(x * 32, y * 32, 32, 32);
-				}
+		// Seules les cases coupant la zone à redessiner sont dessinées.
+		Rectangle zone = g.getClipBounds();
+		if (zone == null) {
+			zone = new Rectangle(0, 0, carte.getLargeur() * tailleCase, carte.getHauteur() * tailleCase);
+		}
+		int xMin = Math.max(0, zone.x / tailleCase);
+		int yMin = Math.max(0, zone.y / tailleCase);
+		int xMax = Math.min(carte.getLargeur(), (zone.x + zone.width + tailleCase - 1) / tailleCase);
+		int yMax = Math.min(carte.getHauteur(), (zone.y + zone.height + tailleCase - 1) / tailleCase);
+		if (xMin >= xMax || yMin >= yMax) {
+			return;
+		}
 
-				if (caseArrivee != null && caseArrivee.getX() == x && caseArrivee.getY() == y) {
-					g.setColor(Color.RED);
-					g.drawRect(x * 32, y * 32, 32, 32);
+		if (tailleCase >= SEUIL_SPRITES) {
+			for (int y = yMin; y < yMax; y++) {
+				for (int x = xMin; x < xMax; x++) {
+					g.drawImage(getTuileImage(carte.getTuile(x, y)), x * tailleCase, y * tailleCase, null);
 				}
 			}
+		} else {
+			// Les petites cases sont dessinées d'un seul coup, en agrandissant la partie visible de l'image de la carte.
+			g.drawImage(imageCarte, xMin * tailleCase, yMin * tailleCase, xMax * tailleCase, yMax * tailleCase,
+					xMin, yMin, xMax, yMax, null);
 		}
-		if (caseDepart != null && caseArrivee != null) {
-			Chemin chemin = AdaptateurAlgorithme.trouverChemin(algorithme, carte, caseDepart.getX(), caseDepart.getY(), caseArrivee.getX(), caseArrivee.getY());
+
+		if (chemin != null) {
 			g.setColor(Color.RED);
 			for (Case c : chemin.getCases()) {
-				g.fillRect(c.getX() * 32, c.getY() * 32, 32, 32);
+				if (c.getX() >= xMin && c.getX() < xMax && c.getY() >= yMin && c.getY() < yMax) {
+					g.fillRect(c.getX() * tailleCase, c.getY() * tailleCase, tailleCase, tailleCase);
+				}
+			}
+		}
+		if (caseDepart != null) {
+			g.setColor(Color.BLUE);
+			g.drawRect(caseDepart.getX() * tailleCase, caseDepart.getY() * tailleCase, tailleCase, tailleCase);
+		}
+		if (caseArrivee != null) {
+			g.setColor(Color.RED);
+			g.drawRect(caseArrivee.getX() * tailleCase, caseArrivee.getY() * tailleCase, tailleCase, tailleCase);
+		}
+	}
+
+	/**
+	 * Agrandit ou réduit la carte d'un facteur 2 selon le sens de la molette, en gardant la case sous le curseur
+	 * au même endroit de la vue.
+	 * @param e L'événement de la molette.
+	 * @param vue La vue du panneau défilant.
+	 */
+	private void zoomer(MouseWheelEvent e, JViewport vue) {
+		int ancienneTaille = tailleCase;
+		int nouvelleTaille = e.getWheelRotation() < 0 ? ancienneTaille * 2 : ancienneTaille / 2;
+		nouvelleTaille = Math.max(TAILLE_CASE_MINIMALE, Math.min(TAILLE_CASE_MAXIMALE, nouvelleTaille));
+		if (nouvelleTaille == ancienneTaille) {
+			return;
+		}
+		Point position = vue.getViewPosition();
+		int decalageX = e.getX() - position.x;
+		int decalageY = e.getY() - position.y;
+		setTailleCase(nouvelleTaille);
+		cartePanel.revalidate();
+		vue.validate();
+		int x = Math.max(0, e.getX() * nouvelleTaille / ancienneTaille - decalageX);
+		int y = Math.max(0, e.getY() * nouvelleTaille / ancienneTaille - decalageY);
+		vue.setViewPosition(new Point(x, y));
+		cartePanel.repaint();
+	}
+
+	/**
+	 * Change la taille des cases à l'écran et remet les images des tuiles à cette taille.
+	 * @param taille Le côté d'une case, en pixels.
+	 */
+	private void setTailleCase(int taille) {
+		tailleCase = Math.max(TAILLE_CASE_MINIMALE, Math.min(TAILLE_CASE_MAXIMALE, taille));
+		spritesAEchelle.clear();
+		if (tailleCase >= SEUIL_SPRITES) {
+			for (Map.Entry<Tuile, BufferedImage> sprite : SPRITES.entrySet()) {
+				BufferedImage image = new BufferedImage(tailleCase, tailleCase, BufferedImage.TYPE_INT_RGB);
+				Graphics2D g = image.createGraphics();
+				g.drawImage(sprite.getValue(), 0, 0, tailleCase, tailleCase, null);
+				g.dispose();
+				spritesAEchelle.put(sprite.getKey(), image);
 			}
 		}
 	}
 
 	/**
-	 * Détermine la case cliquée et lance la recherche du chemin si nécessaire.
+	 * Lance en arrière-plan la recherche du chemin entre les cases de départ et d'arrivée, si elles sont choisies.
+	 * La recherche précédente, devenue inutile, est annulée ; le chemin est dessiné lorsqu'il est trouvé.
+	 * Doit être appelée depuis le thread de l'interface.
 	 */
 	private void trouverChemin() {
-		if (caseDepart != null && caseArrivee != null) {
-			Chemin chemin = AdaptateurAlgorithme.trouverChemin(algorithme, carte, caseDepart.getX(), caseDepart.getY(), caseArrivee.getX(), caseArrivee.getY());
-			System.out.println("Chemin le plus court :");
-			for (Case c : chemin.getCases()) {
-				System.out.println("[" + c.getX() + ", " + c.getY() + "]");
+		annulerRecherche();
+		chemin = null;
+		repaint();
+		if (caseDepart == null || caseArrivee == null) {
+			return;
+		}
+
+		AlgorithmeChemin<Case> algorithmeRecherche = algorithme;
+		Carte carteRecherche = getInstantane();
+		int xDepart = caseDepart.getX();
+		int yDepart = caseDepart.getY();
+		int xArrivee = caseArrivee.getX();
+		int yArrivee = caseArrivee.getY();
+		SwingWorker<Chemin, Void> nouvelleRecherche = new SwingWorker<>() {
+			@Override
+			protected Chemin doInBackground() {
+				return AdaptateurAlgorithme.trouverChemin(algorithmeRecherche, carteRecherche, xDepart, yDepart, xArrivee, yArrivee);
 			}
 
-			repaint(); // Mettre à jour l'affichage de la carte avec le nouveau chemin
+			@Override
+			protected void done() {
+				// Une recherche remplacée entre-temps ne doit rien afficher.
+				if (isCancelled() || recherche != this) {
+					return;
+				}
+				recherche = null;
+				afficherIndicateur(false);
+				try {
+					chemin = get();
+				} catch (CancellationException e) {
+					return; // Recherche annulée : il n'y a rien à afficher
+				} catch (InterruptedException e) {
+					// La recherche est terminée, get() n'attend pas ; l'interruption est seulement transmise.
+					Thread.currentThread().interrupt();
+					return;
+				} catch (ExecutionException e) {
+					// L'exception levée par l'algorithme est la cause, jamais nulle, de l'ExecutionException.
+					JOptionPane.showMessageDialog(CarteGUI.this, "La recherche du chemin a échoué : " + e.getCause(),
+							"Erreur", JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+				System.out.println("Chemin le plus court :");
+				for (Case c : chemin.getCases()) {
+					System.out.println("[" + c.getX() + ", " + c.getY() + "]");
+				}
+
+				repaint(); // Mettre à jour l'affichage de la carte avec le nouveau chemin
+			}
+		};
+		recherche = nouvelleRecherche;
+		afficherIndicateur(true);
+		executeur.execute(nouvelleRecherche);
+	}
+
+	/**
+	 * Récupère un instantané figé de la carte, que la recherche peut parcourir pendant que la carte est modifiée.
+	 * L'instantané est réutilisé tant que la carte n'a pas changé, ce qui garde aussi le graphe compilé pour lui.
+	 * Doit être appelée depuis le thread de l'interface.
+	 * @return L'instantané de la carte dans son état actuel.
+	 */
+	private Carte getInstantane() {
+		// La version est lue avant la copie : une modification pendant la copie provoque un nouvel instantané.
+		int version = carte.getVersion();
+		if (instantane == null || versionInstantane != version) {
+			instantane = carte.figer();
+			versionInstantane = version;
+		}
+		return instantane;
+	}
+
+	/**
+	 * Annule la recherche en cours, s'il y en a une. Une recherche encore en attente ne démarre jamais ;
+	 * le résultat d'une recherche déjà démarrée est ignoré.
+	 */
+	private void annulerRecherche() {
+		if (recherche != null) {
+			recherche.cancel(true);
+			recherche = null;
+			afficherIndicateur(false);
 		}
 	}
 
 	/**
-	 * Récupère l'image représentant une tuile spécifique.
+	 * Affiche ou masque l'indicateur de recherche, dans la place qui lui est réservée.
+	 * @param visible true pour afficher l'indicateur.
+	 */
+	private void afficherIndicateur(boolean visible) {
+		indicateur.setVisible(visible);
+	}
+
+	/**
+	 * Récupère l'image représentant une tuile spécifique, à la taille actuelle des cases.
+	 * Les images sont précalculées : aucune image n'est créée pendant le dessin.
 	 * @param tuile La tuile pour laquelle récupérer l'image.
 	 * @return L'image représentant la tuile.
 	 */
 	private BufferedImage getTuileImage(Tuile tuile) {
-		BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
-		Graphics2D g = image.createGraphics();
+		return spritesAEchelle.get(tuile);
+	}
 
-		switch (tuile) {
-			case DESERT -> g.setColor(Color.YELLOW);
-			case MONTAGNES -> g.setColor(Color.GRAY);
-			case PLAINE -> g.setColor(Color.GREEN);
-			case FORET -> g.setColor(Color.DARK_GRAY);
+	/**
+	 * Récupère la couleur représentant une tuile.
+	 * @param tuile La tuile.
+	 * @return La couleur de la tuile.
+	 */
+	private static Color getCouleur(Tuile tuile) {
+		return switch (tuile) {
+			case DESERT -> Color.YELLOW;
+			case MONTAGNES -> Color.GRAY;
+			case PLAINE -> Color.GREEN;
+			case FORET -> Color.DARK_GRAY;
+		};
+	}
+
+	/**
+	 * Crée l'image de chaque tuile, une fois pour toutes.
+	 * @return L'image de chaque tuile.
+	 */
+	private static Map<Tuile, BufferedImage> creerSprites() {
+		Map<Tuile, BufferedImage> sprites = new EnumMap<>(Tuile.class);
+		for (Tuile tuile : Tuile.values()) {
+			BufferedImage image = new BufferedImage(TAILLE_SPRITE, TAILLE_SPRITE, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = image.createGraphics();
+			g.setColor(getCouleur(tuile));
+			g.fillRect(0, 0, TAILLE_SPRITE, TAILLE_SPRITE);
+			g.dispose();
+			sprites.put(tuile, image);
+		}
+		return sprites;
+	}
+
+	/**
+	 * Crée l'image de la carte à un pixel par case. Ses pixels sont les ordinaux des tuiles, traduits en couleurs
+	 * par une palette : l'image n'occupe qu'un octet par case.
+	 * @param carte La carte.
+	 * @return L'image de la carte.
+	 */
+	private static BufferedImage creerImageCarte(Carte carte) {
+		Tuile[] tuiles = Tuile.values();
+		byte[] rouges = new byte[tuiles.length];
+		byte[] verts = new byte[tuiles.length];
+		byte[] bleus = new byte[tuiles.length];
+		for (Tuile tuile : tuiles) {
+			Color couleur = getCouleur(tuile);
+			rouges[tuile.ordinal()] = (byte) couleur.getRed();
+			verts[tuile.ordinal()] = (byte) couleur.getGreen();
+			bleus[tuile.ordinal()] = (byte) couleur.getBlue();
 		}
+		int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(tuiles.length - 1));
+		IndexColorModel palette = new IndexColorModel(bits, tuiles.length, rouges, verts, bleus);
+		BufferedImage image = new BufferedImage(carte.getLargeur(), carte.getHauteur(), BufferedImage.TYPE_BYTE_INDEXED, palette);
 
-		g.fillRect(0, 0, 32, 32);
-		g.dispose();
+		int[] ligne = new int[carte.getLargeur()];
+		for (int y = 0; y < carte.getHauteur(); y++) {
+			for (int x = 0; x < carte.getLargeur(); x++) {
+				ligne[x] = carte.getTuile(x, y).ordinal();
+			}
+			image.getRaster().setSamples(0, y, ligne.length, 1, 0, ligne);
+		}
 		return image;
 	}
 
+	/**
+	 * Panneau dessinant la carte, à placer dans un panneau défilant. Le défilement se fait case par case.
+	 */
+	private class PanneauCarte extends JPanel implements Scrollable {
+		private static final long serialVersionUID = 1L; // Version de la forme sérialisée du panneau
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			super.paintComponent(g);
+			dessinerCarte((Graphics2D) g);
+		}
+
+		@Override
+		public Dimension getPreferredSize() {
+			return new Dimension(carte.getLargeur() * tailleCase, carte.getHauteur() * tailleCase);
+		}
+
+		@Override
+		public Dimension getPreferredScrollableViewportSize() {
+			Dimension taille = getPreferredSize();
+			return new Dimension(Math.min(taille.width, VUE_MAXIMALE.width), Math.min(taille.height, VUE_MAXIMALE.height));
+		}
+
+		@Override
+		public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+			return tailleCase;
+		}
+
+		@Override
+		public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+			return orientation == SwingConstants.HORIZONTAL ? visible.width - tailleCase : visible.height - tailleCase;
+		}
+
+		@Override
+		public boolean getScrollableTracksViewportWidth() {
+			return false;
+		}
+
+		@Override
+		public boolean getScrollableTracksViewportHeight() {
+			return false;
+		}
+	}
+
 	/**
 	 * Méthode principale pour lancer l'application.
-	 * @param args Les arguments de la ligne de commande (non utilisés).
+	 * @param args Les arguments de la ligne de commande : aucun pour une carte aléatoire de 30 x 30,
+	 * la largeur et la hauteur d'une carte aléatoire, ou le chemin d'un fichier de carte.
+	 * @throws IOException Si le fichier de carte ne peut pas être lu.
 	 */
-	public static void main(String[] args) {
-		GenerateurCarte generation = new GenerateurCarte();
-		Carte carte = generation.genererCarte(30, 30);
+	public static void main(String[] args) throws IOException {
+		Carte carte;
+		if (args.length == 1) {
+			carte = FichierCarte.charger(Path.of(args[0]));
+		} else if (args.length >= 2) {
+			carte = GenerateurCarte.genererCarte(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+		} else {
+			carte = GenerateurCarte.genererCarte(30, 30);
+		}
 
 		SwingUtilities.invokeLater(() -> {
 			CarteGUI carteGUI = new CarteGUI(carte);
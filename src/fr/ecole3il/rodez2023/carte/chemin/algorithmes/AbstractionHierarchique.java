@@ -0,0 +1,626 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.EcouteurCarte;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Abstraction hiérarchique d'une carte utilisée par l'algorithme HPA*.
+ * La carte est découpée en blocs carrés (clusters). Sur chaque frontière entre deux blocs voisins, quelques paires
+ * de cases adjacentes servent d'entrées : leur milieu, et leurs deux extrémités lorsque la frontière est longue.
+ * Chaque entrée est un noeud du graphe abstrait, relié à l'entrée d'en face par l'arête de la carte et aux autres
+ * entrées de son bloc par la distance calculée en restant dans le bloc.
+ * <p>
+ * Les entrées ne dépendent que des dimensions de la carte : lorsqu'une tuile change, seules les distances
+ * internes du bloc qui la contient sont recalculées, à la recherche suivante.
+ * <p>
+ * Le chemin trouvé n'est pas toujours optimal, mais son surcoût est borné. Un chemin optimal qui traverse une
+ * frontière entre deux cases quelconques peut être dévié vers l'entrée la plus proche, en longeant la frontière
+ * de part et d'autre : chaque traversée coûte au plus {@link #getSurcoutMaximalParFrontiere()} de plus.
+ * Le chemin trouvé coûte donc au plus le coût optimal plus ce surcoût multiplié par le nombre de frontières
+ * de blocs que traverse un chemin optimal ; il est optimal si ce chemin reste dans le bloc du départ.
+ * L'abstraction s'enregistre comme écouteur de la carte ; {@link #detacher()} met fin à ce suivi.
+ * Ses méthodes sont synchronisées, une recherche n'étant jamais exécutée pendant une mise à jour.
+ */
+public class AbstractionHierarchique implements EcouteurCarte {
+    private static final int LONGUEUR_ENTREES_MULTIPLES = 6; // Longueur de frontière à partir de laquelle on place trois entrées
+
+    private final Carte carte; // Carte abstraite
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final int tailleCluster; // Côté d'un bloc, en cases
+    private final int clustersX; // Nombre de blocs sur une ligne
+    private final int clustersY; // Nombre de blocs sur une colonne
+
+    private final int[] cellules; // Identifiant (y * largeur + x) de la case de chaque noeud abstrait
+    private final int[] clusterNoeuds; // Bloc contenant chaque noeud abstrait
+    private final int[] positionsNoeuds; // Position de chaque noeud abstrait parmi les noeuds de son bloc
+    private final int[][] partenaires; // Noeuds d'en face de chaque noeud abstrait, dans les blocs voisins
+    private final int[][] noeudsClusters; // Noeuds abstraits de chaque bloc
+    private final double[][] distancesClusters; // Distances internes entre les noeuds de chaque bloc, matrice m * m
+    private final boolean[] clustersModifies; // Blocs dont une tuile a changé depuis le dernier calcul
+    private boolean modifications; // Indique si au moins un bloc doit être recalculé
+
+    // Recherche locale dans une zone d'un bloc, ou de deux blocs voisins
+    private final double[] distancesLocales; // Distance depuis la source de chaque case de la zone
+    private final int[] parentsLocaux; // Prédécesseur de chaque case de la zone, ou -1
+    private final TasIndexe tasLocal; // File de priorité de la recherche locale
+    private int zoneX; // Coordonnée x du coin supérieur gauche de la zone explorée
+    private int zoneY; // Coordonnée y du coin supérieur gauche de la zone explorée
+    private int largeurZone; // Largeur de la zone explorée
+    private int hauteurZone; // Hauteur de la zone explorée
+
+    // Recherche dans le graphe abstrait, le départ et l'arrivée occupant les deux derniers indices
+    private final double[] coutsAbstraits; // Coût depuis le départ de chaque noeud atteint
+    private final int[] parentsAbstraits; // Prédécesseur de chaque noeud atteint
+    private final int[] marquesAbstraites; // Génération de la dernière recherche ayant atteint chaque noeud
+    private final TasIndexe tasAbstrait; // File de priorité de la recherche abstraite
+    private int generation; // Génération de la recherche courante
+    private int nombreExpansions; // Nombre de noeuds abstraits développés par la dernière recherche
+
+    /**
+     * Construit l'abstraction hiérarchique d'une carte et calcule les distances internes de tous les blocs.
+     * @param carte La carte à abstraire.
+     * @param tailleCluster Le côté d'un bloc, en cases.
+     * @throws IllegalArgumentException Si la taille des blocs n'est pas strictement positive.
+     */
+    public AbstractionHierarchique(Carte carte, int tailleCluster) {
+        if (tailleCluster <= 0) {
+            throw new IllegalArgumentException("La taille des clusters doit être strictement positive");
+        }
+        this.carte = carte;
+        this.largeur = carte.getLargeur();
+        this.hauteur = carte.getHauteur();
+        this.tailleCluster = tailleCluster;
+        this.clustersX = (largeur + tailleCluster - 1) / tailleCluster;
+        this.clustersY = (hauteur + tailleCluster - 1) / tailleCluster;
+
+        ConstructionEntrees construction = new ConstructionEntrees(clustersX * clustersY);
+        placerEntrees(construction);
+        int nombreNoeuds = construction.cellules.size();
+        this.cellules = new int[nombreNoeuds];
+        this.clusterNoeuds = new int[nombreNoeuds];
+        this.positionsNoeuds = new int[nombreNoeuds];
+        this.partenaires = new int[nombreNoeuds][];
+        for (int n = 0; n < nombreNoeuds; n++) {
+            cellules[n] = construction.cellules.get(n);
+            clusterNoeuds[n] = cluster(cellules[n]);
+            List<Integer> liste = construction.partenaires.get(n);
+            partenaires[n] = new int[liste.size()];
+            for (int i = 0; i < liste.size(); i++) {
+                partenaires[n][i] = liste.get(i);
+            }
+        }
+        this.noeudsClusters = new int[clustersX * clustersY][];
+        for (int c = 0; c < noeudsClusters.length; c++) {
+            List<Integer> liste = construction.noeudsClusters.get(c);
+            noeudsClusters[c] = new int[liste.size()];
+            for (int i = 0; i < liste.size(); i++) {
+                noeudsClusters[c][i] = liste.get(i);
+                positionsNoeuds[liste.get(i)] = i;
+            }
+        }
+
+        int tailleZone = Math.min(2 * tailleCluster, largeur) * Math.min(2 * tailleCluster, hauteur);
+        this.distancesLocales = new double[tailleZone];
+        this.parentsLocaux = new int[tailleZone];
+        this.tasLocal = new TasIndexe(tailleZone);
+        this.coutsAbstraits = new double[nombreNoeuds + 2];
+        this.parentsAbstraits = new int[nombreNoeuds + 2];
+        this.marquesAbstraites = new int[nombreNoeuds + 2];
+        this.tasAbstrait = new TasIndexe(nombreNoeuds + 2);
+
+        this.distancesClusters = new double[noeudsClusters.length][];
+        this.clustersModifies = new boolean[noeudsClusters.length];
+        for (int c = 0; c < noeudsClusters.length; c++) {
+            calculerDistancesCluster(c);
+        }
+        carte.ajouterEcouteur(this);
+    }
+
+    /**
+     * Noeuds et arêtes entre blocs en cours de construction.
+     */
+    private static final class ConstructionEntrees {
+        private final List<Integer> cellules = new ArrayList<>(); // Case de chaque noeud
+        private final List<List<Integer>> partenaires = new ArrayList<>(); // Noeuds d'en face de chaque noeud
+        private final List<List<Integer>> noeudsClusters = new ArrayList<>(); // Noeuds de chaque bloc
+
+        private ConstructionEntrees(int nombreClusters) {
+            for (int c = 0; c < nombreClusters; c++) {
+                noeudsClusters.add(new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * Récupère la carte abstraite.
+     * @return La carte.
+     */
+    public Carte getCarte() {
+        return carte;
+    }
+
+    /**
+     * Récupère le côté d'un bloc.
+     * @return La taille des blocs, en cases.
+     */
+    public int getTailleCluster() {
+        return tailleCluster;
+    }
+
+    /**
+     * Calcule le surcoût maximal, par frontière de bloc traversée, d'un chemin trouvé par rapport à un chemin
+     * optimal. La déviation vers l'entrée la plus proche parcourt au plus d cases le long de la frontière,
+     * de chaque côté, où d est la plus grande distance d'une case d'une frontière à son entrée la plus proche ;
+     * l'arête qui traverse la frontière est elle-même remplacée. Le surcoût vaut ainsi au plus
+     * 4 * d * pmax + 2 * (pmax - pmin), pmin et pmax étant les pénalités minimale et maximale des tuiles.
+     * @return Le surcoût maximal par frontière traversée.
+     */
+    public double getSurcoutMaximalParFrontiere() {
+        int distanceMaximale = 0;
+        for (int longueur = 1; longueur <= tailleCluster; longueur++) {
+            int[] entrees = positionsEntrees(0, longueur);
+            for (int position = 0; position < longueur; position++) {
+                int distance = Integer.MAX_VALUE;
+                for (int entree : entrees) {
+                    distance = Math.min(distance, Math.abs(entree - position));
+                }
+                distanceMaximale = Math.max(distanceMaximale, distance);
+            }
+        }
+        int penaliteMaximale = Tuile.getPenaliteMaximale();
+        return 4.0 * distanceMaximale * penaliteMaximale + 2.0 * (penaliteMaximale - Tuile.getPenaliteMinimale());
+    }
+
+    /**
+     * Récupère le nombre de noeuds du graphe abstrait, sans compter le départ et l'arrivée d'une recherche.
+     * @return Le nombre d'entrées.
+     */
+    public int getNombreNoeuds() {
+        return cellules.length;
+    }
+
+    /**
+     * Récupère le nombre de noeuds abstraits développés par la dernière recherche.
+     * @return Le nombre d'expansions.
+     */
+    public synchronized int getNombreExpansions() {
+        return nombreExpansions;
+    }
+
+    /**
+     * Cesse de suivre les modifications de la carte. L'abstraction ne doit plus être utilisée ensuite.
+     */
+    public void detacher() {
+        carte.retirerEcouteur(this);
+    }
+
+    /**
+     * Marque le bloc contenant la tuile modifiée afin de recalculer ses distances internes.
+     */
+    @Override
+    public synchronized void tuileModifiee(Carte carte, int x, int y, Tuile ancienne, Tuile nouvelle) {
+        int c = cluster(y * largeur + x);
+        if (!clustersModifies[c]) {
+            clustersModifies[c] = true;
+            modifications = true;
+        }
+    }
+
+    /**
+     * Trouve un chemin entre deux cases : une recherche A* dans le graphe abstrait, auquel sont ajoutés le départ
+     * et l'arrivée, donne la suite des entrées à traverser, puis chaque étape est détaillée par une recherche
+     * limitée à un bloc. Le chemin obtenu est proche de l'optimal sans l'être toujours : voir la borne
+     * de {@link #getSurcoutMaximalParFrontiere()}.
+     * @param depart L'identifiant (y * largeur + x) de la case de départ.
+     * @param arrivee L'identifiant de la case d'arrivée.
+     * @return Les identifiants des cases du chemin, du départ à l'arrivée, ou un tableau vide s'il n'y a pas de chemin.
+     */
+    public synchronized int[] rechercher(int depart, int arrivee) {
+        if (modifications) {
+            for (int c = 0; c < clustersModifies.length; c++) {
+                if (clustersModifies[c]) {
+                    calculerDistancesCluster(c);
+                    clustersModifies[c] = false;
+                }
+            }
+            modifications = false;
+        }
+        if (depart == arrivee) {
+            return new int[] {depart};
+        }
+
+        int noeudDepart = cellules.length;
+        int noeudArrivee = cellules.length + 1;
+        int clusterDepart = cluster(depart);
+        int clusterArrivee = cluster(arrivee);
+        double[] distancesDepart = distancesVersEntrees(clusterDepart, depart);
+        double[] distancesArrivee = distancesVersEntrees(clusterArrivee, arrivee);
+        // Lorsque le départ et l'arrivée sont dans le même bloc ou dans deux blocs voisins, un chemin direct
+        // restant dans ces blocs évite les détours imposés par les entrées sur les trajets courts.
+        double coutDirect = Double.POSITIVE_INFINITY;
+        if (sontVoisins(clusterDepart, clusterArrivee)) {
+            explorer(clusterDepart, clusterArrivee, depart);
+            coutDirect = distancesLocales[indiceLocal(arrivee)];
+        }
+
+        int[] abstrait = rechercherAbstrait(noeudDepart, noeudArrivee, clusterDepart, clusterArrivee,
+                distancesDepart, distancesArrivee, coutDirect, arrivee);
+        if (abstrait.length == 0) {
+            return abstrait;
+        }
+        return raffiner(abstrait, depart, arrivee);
+    }
+
+    /**
+     * Place les entrées sur chaque frontière entre deux blocs voisins.
+     * @param construction Les noeuds en cours de construction.
+     */
+    private void placerEntrees(ConstructionEntrees construction) {
+        for (int cy = 0; cy < clustersY; cy++) {
+            int y0 = cy * tailleCluster;
+            int y1 = Math.min(y0 + tailleCluster, hauteur);
+            for (int cx = 0; cx < clustersX; cx++) {
+                int x0 = cx * tailleCluster;
+                int x1 = Math.min(x0 + tailleCluster, largeur);
+                if (x1 < largeur) {
+                    // Frontière verticale avec le bloc de droite
+                    for (int y : positionsEntrees(y0, y1)) {
+                        relier(construction, y * largeur + x1 - 1, y * largeur + x1);
+                    }
+                }
+                if (y1 < hauteur) {
+                    // Frontière horizontale avec le bloc du dessous
+                    for (int x : positionsEntrees(x0, x1)) {
+                        relier(construction, (y1 - 1) * largeur + x, y1 * largeur + x);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Choisit la position des entrées le long d'une frontière.
+     * @param debut La première position de la frontière.
+     * @param fin La position suivant la dernière.
+     * @return Les positions des entrées.
+     */
+    private static int[] positionsEntrees(int debut, int fin) {
+        int longueur = fin - debut;
+        if (longueur >= LONGUEUR_ENTREES_MULTIPLES) {
+            return new int[] {debut, debut + longueur / 2, fin - 1};
+        }
+        return new int[] {debut + longueur / 2};
+    }
+
+    /**
+     * Crée si besoin les noeuds des deux cases d'une entrée et les relie.
+     * @param construction Les noeuds en cours de construction.
+     * @param a La case d'un côté de la frontière.
+     * @param b La case de l'autre côté.
+     */
+    private void relier(ConstructionEntrees construction, int a, int b) {
+        int noeudA = noeud(construction, a);
+        int noeudB = noeud(construction, b);
+        construction.partenaires.get(noeudA).add(noeudB);
+        construction.partenaires.get(noeudB).add(noeudA);
+    }
+
+    /**
+     * Récupère le noeud d'une case, en le créant s'il n'existe pas encore.
+     * @param construction Les noeuds en cours de construction.
+     * @param cellule L'identifiant de la case.
+     * @return L'indice du noeud.
+     */
+    private int noeud(ConstructionEntrees construction, int cellule) {
+        List<Integer> noeuds = construction.noeudsClusters.get(cluster(cellule));
+        for (int n : noeuds) {
+            if (construction.cellules.get(n) == cellule) {
+                return n;
+            }
+        }
+        int n = construction.cellules.size();
+        construction.cellules.add(cellule);
+        construction.partenaires.add(new ArrayList<>());
+        noeuds.add(n);
+        return n;
+    }
+
+    /**
+     * Récupère le bloc contenant une case.
+     * @param cellule L'identifiant de la case.
+     * @return L'indice du bloc.
+     */
+    private int cluster(int cellule) {
+        return (cellule / largeur / tailleCluster) * clustersX + (cellule % largeur) / tailleCluster;
+    }
+
+    /**
+     * Indique si deux blocs sont identiques ou se touchent, y compris par un coin.
+     * @param a Le premier bloc.
+     * @param b Le second bloc.
+     * @return true si les deux blocs sont voisins.
+     */
+    private boolean sontVoisins(int a, int b) {
+        return Math.abs(a % clustersX - b % clustersX) <= 1 && Math.abs(a / clustersX - b / clustersX) <= 1;
+    }
+
+    /**
+     * Récupère la position d'une case dans les tableaux de la dernière recherche locale.
+     * @param cellule L'identifiant de la case, située dans la zone explorée.
+     * @return L'indice local de la case.
+     */
+    private int indiceLocal(int cellule) {
+        return (cellule / largeur - zoneY) * largeurZone + (cellule % largeur - zoneX);
+    }
+
+    /**
+     * Récupère l'identifiant d'une case à partir de sa position dans la zone explorée.
+     * @param locale L'indice local de la case.
+     * @return L'identifiant de la case.
+     */
+    private int cellule(int locale) {
+        return (zoneY + locale / largeurZone) * largeur + zoneX + locale % largeurZone;
+    }
+
+    /**
+     * Recalcule les distances internes entre les entrées d'un bloc.
+     * @param c L'indice du bloc.
+     */
+    private void calculerDistancesCluster(int c) {
+        int[] noeuds = noeudsClusters[c];
+        int m = noeuds.length;
+        double[] distances = new double[m * m];
+        for (int i = 0; i < m; i++) {
+            explorer(c, c, cellules[noeuds[i]]);
+            for (int j = 0; j < m; j++) {
+                distances[i * m + j] = distancesLocales[indiceLocal(cellules[noeuds[j]])];
+            }
+        }
+        distancesClusters[c] = distances;
+    }
+
+    /**
+     * Calcule les distances d'une case aux entrées de son bloc.
+     * @param c Le bloc contenant la case.
+     * @param cellule L'identifiant de la case.
+     * @return La distance à chaque entrée du bloc, dans l'ordre de noeudsClusters[c].
+     */
+    private double[] distancesVersEntrees(int c, int cellule) {
+        explorer(c, c, cellule);
+        int[] noeuds = noeudsClusters[c];
+        double[] distances = new double[noeuds.length];
+        for (int i = 0; i < noeuds.length; i++) {
+            distances[i] = distancesLocales[indiceLocal(cellules[noeuds[i]])];
+        }
+        return distances;
+    }
+
+    /**
+     * Exécute l'algorithme de Dijkstra depuis une case sans sortir du rectangle englobant deux blocs voisins
+     * (ou un seul bloc, lorsque les deux sont identiques).
+     * @param a Le premier bloc de la zone.
+     * @param b Le second bloc de la zone.
+     * @param source L'identifiant de la case de départ.
+     */
+    private void explorer(int a, int b, int source) {
+        zoneX = Math.min(a % clustersX, b % clustersX) * tailleCluster;
+        zoneY = Math.min(a / clustersX, b / clustersX) * tailleCluster;
+        int x1 = Math.min((Math.max(a % clustersX, b % clustersX) + 1) * tailleCluster, largeur);
+        int y1 = Math.min((Math.max(a / clustersX, b / clustersX) + 1) * tailleCluster, hauteur);
+        largeurZone = x1 - zoneX;
+        hauteurZone = y1 - zoneY;
+        Arrays.fill(distancesLocales, 0, largeurZone * hauteurZone, Double.POSITIVE_INFINITY);
+
+        int locale = indiceLocal(source);
+        distancesLocales[locale] = 0.0;
+        parentsLocaux[locale] = -1;
+        tasLocal.inserer(locale, 0.0);
+        while (!tasLocal.estVide()) {
+            int courante = tasLocal.extraireMinimum();
+            int x = zoneX + courante % largeurZone;
+            int y = zoneY + courante / largeurZone;
+            int penalite = carte.getTuile(x, y).getPenalite();
+            double distance = distancesLocales[courante];
+            if (x > zoneX) {
+                relacherLocal(courante, courante - 1, distance + penalite + carte.getTuile(x - 1, y).getPenalite());
+            }
+            if (y < y1 - 1) {
+                relacherLocal(courante, courante + largeurZone,
+                        distance + penalite + carte.getTuile(x, y + 1).getPenalite());
+            }
+            if (x < x1 - 1) {
+                relacherLocal(courante, courante + 1, distance + penalite + carte.getTuile(x + 1, y).getPenalite());
+            }
+            if (y > zoneY) {
+                relacherLocal(courante, courante - largeurZone,
+                        distance + penalite + carte.getTuile(x, y - 1).getPenalite());
+            }
+        }
+    }
+
+    /**
+     * Relâche une arête de la recherche locale.
+     * @param parent L'indice local de la case établie.
+     * @param voisine L'indice local de la case voisine.
+     * @param distance La distance de la voisine en passant par la case établie.
+     */
+    private void relacherLocal(int parent, int voisine, double distance) {
+        if (distance < distancesLocales[voisine]) {
+            distancesLocales[voisine] = distance;
+            parentsLocaux[voisine] = parent;
+            tasLocal.insererOuDiminuer(voisine, distance);
+        }
+    }
+
+    /**
+     * Exécute l'algorithme A* dans le graphe abstrait complété par le départ et l'arrivée.
+     * @param noeudDepart L'indice abstrait du départ.
+     * @param noeudArrivee L'indice abstrait de l'arrivée.
+     * @param clusterDepart Le bloc contenant le départ.
+     * @param clusterArrivee Le bloc contenant l'arrivée.
+     * @param distancesDepart Les distances du départ aux entrées de son bloc.
+     * @param distancesArrivee Les distances de l'arrivée aux entrées de son bloc.
+     * @param coutDirect La distance du départ à l'arrivée sans sortir de leurs blocs, infinie s'ils ne sont pas voisins.
+     * @param arrivee L'identifiant de la case d'arrivée.
+     * @return Les noeuds abstraits du chemin, du départ à l'arrivée, ou un tableau vide.
+     */
+    private int[] rechercherAbstrait(int noeudDepart, int noeudArrivee, int clusterDepart, int clusterArrivee,
+                                     double[] distancesDepart, double[] distancesArrivee, double coutDirect,
+                                     int arrivee) {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Après un très grand nombre de recherches, les marques sont remises à zéro.
+            Arrays.fill(marquesAbstraites, 0);
+            generation = 1;
+        }
+        nombreExpansions = 0;
+        double coutMinimal = 2.0 * Tuile.getPenaliteMinimale();
+        int xArrivee = arrivee % largeur;
+        int yArrivee = arrivee / largeur;
+
+        marquesAbstraites[noeudDepart] = generation;
+        coutsAbstraits[noeudDepart] = 0.0;
+        parentsAbstraits[noeudDepart] = -1;
+        tasAbstrait.inserer(noeudDepart, 0.0);
+        while (!tasAbstrait.estVide()) {
+            int noeud = tasAbstrait.extraireMinimum();
+            nombreExpansions++;
+            if (noeud == noeudArrivee) {
+                break;
+            }
+            double cout = coutsAbstraits[noeud];
+            if (noeud == noeudDepart) {
+                int[] noeuds = noeudsClusters[clusterDepart];
+                for (int i = 0; i < noeuds.length; i++) {
+                    relacherAbstrait(noeud, noeuds[i], cout + distancesDepart[i], coutMinimal, xArrivee, yArrivee);
+                }
+                relacherAbstrait(noeud, noeudArrivee, cout + coutDirect, coutMinimal, xArrivee, yArrivee);
+                continue;
+            }
+
+            int c = clusterNoeuds[noeud];
+            int m = noeudsClusters[c].length;
+            int position = positionsNoeuds[noeud];
+            double[] distances = distancesClusters[c];
+            for (int j = 0; j < m; j++) {
+                if (j != position) {
+                    relacherAbstrait(noeud, noeudsClusters[c][j], cout + distances[position * m + j],
+                            coutMinimal, xArrivee, yArrivee);
+                }
+            }
+            int penalite = penalite(cellules[noeud]);
+            for (int partenaire : partenaires[noeud]) {
+                relacherAbstrait(noeud, partenaire, cout + penalite + penalite(cellules[partenaire]),
+                        coutMinimal, xArrivee, yArrivee);
+            }
+            if (c == clusterArrivee) {
+                relacherAbstrait(noeud, noeudArrivee, cout + distancesArrivee[position], coutMinimal,
+                        xArrivee, yArrivee);
+            }
+        }
+        tasAbstrait.vider();
+
+        if (marquesAbstraites[noeudArrivee] != generation) {
+            return new int[0];
+        }
+        int longueur = 0;
+        for (int noeud = noeudArrivee; noeud != -1; noeud = parentsAbstraits[noeud]) {
+            longueur++;
+        }
+        int[] chemin = new int[longueur];
+        for (int noeud = noeudArrivee; noeud != -1; noeud = parentsAbstraits[noeud]) {
+            chemin[--longueur] = noeud;
+        }
+        return chemin;
+    }
+
+    /**
+     * Relâche une arête du graphe abstrait.
+     * @param noeud Le noeud développé.
+     * @param voisin Le noeud à l'autre extrémité de l'arête.
+     * @param cout Le coût du voisin en passant par le noeud développé.
+     * @param coutMinimal Le coût minimal d'un déplacement, pour l'estimation de Manhattan.
+     * @param xArrivee La coordonnée x de l'arrivée.
+     * @param yArrivee La coordonnée y de l'arrivée.
+     */
+    private void relacherAbstrait(int noeud, int voisin, double cout, double coutMinimal, int xArrivee, int yArrivee) {
+        if (cout == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        if (marquesAbstraites[voisin] != generation) {
+            marquesAbstraites[voisin] = generation;
+        } else if (cout >= coutsAbstraits[voisin]) {
+            return;
+        }
+        coutsAbstraits[voisin] = cout;
+        parentsAbstraits[voisin] = noeud;
+        double estimation = 0.0;
+        if (voisin < cellules.length) {
+            int cellule = cellules[voisin];
+            estimation = coutMinimal * (Math.abs(cellule % largeur - xArrivee) + Math.abs(cellule / largeur - yArrivee));
+        }
+        tasAbstrait.insererOuDiminuer(voisin, cout + estimation);
+    }
+
+    /**
+     * Détaille un chemin abstrait en chemin de cases.
+     * @param abstrait Les noeuds abstraits du chemin, du départ à l'arrivée.
+     * @param depart L'identifiant de la case de départ.
+     * @param arrivee L'identifiant de la case d'arrivée.
+     * @return Les identifiants des cases du chemin.
+     */
+    private int[] raffiner(int[] abstrait, int depart, int arrivee) {
+        int[] chemin = new int[16];
+        int longueur = 0;
+        chemin[longueur++] = depart;
+        int precedente = depart;
+        for (int i = 1; i < abstrait.length; i++) {
+            int suivante = abstrait[i] < cellules.length ? cellules[abstrait[i]] : arrivee;
+            if (suivante == precedente) {
+                continue;
+            }
+            int c = cluster(precedente);
+            if (abstrait.length == 2 || cluster(suivante) == c) {
+                // Arête interne à un bloc, ou arête directe entre le départ et l'arrivée
+                explorer(c, cluster(suivante), precedente);
+                int debut = longueur;
+                int source = indiceLocal(precedente);
+                for (int locale = indiceLocal(suivante); locale != source; locale = parentsLocaux[locale]) {
+                    if (longueur == chemin.length) {
+                        chemin = Arrays.copyOf(chemin, longueur * 2);
+                    }
+                    chemin[longueur++] = cellule(locale);
+                }
+                // Les cases ont été ajoutées de la fin vers le début du segment.
+                for (int a = debut, b = longueur - 1; a < b; a++, b--) {
+                    int echange = chemin[a];
+                    chemin[a] = chemin[b];
+                    chemin[b] = echange;
+                }
+            } else {
+                // Traversée d'une frontière par l'arête entre deux entrées
+                if (longueur == chemin.length) {
+                    chemin = Arrays.copyOf(chemin, longueur * 2);
+                }
+                chemin[longueur++] = suivante;
+            }
+            precedente = suivante;
+        }
+        return Arrays.copyOf(chemin, longueur);
+    }
+
+    /**
+     * Récupère la pénalité de la tuile d'une case.
+     * @param cellule L'identifiant de la case.
+     * @return La pénalité de la tuile.
+     */
+    private int penalite(int cellule) {
+        return carte.getTuile(cellule % largeur, cellule / largeur).getPenalite();
+    }
+}
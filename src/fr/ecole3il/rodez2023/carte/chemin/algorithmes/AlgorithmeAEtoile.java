@@ -1,32 +1,49 @@
 package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
 
 import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
 import fr.ecole3il.rodez2023.carte.elements.Noeud;
-import fr.ecole3il.rodez2023.carte.elements.Case;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implémentation de l'algorithme A* pour trouver un chemin optimal entre deux nœuds dans un graphe donné.
+ * La recherche s'effectue sur la représentation compacte du graphe avec un MoteurAEtoile propre à chaque thread.
  *
  * @param <E> le type des valeurs associées aux nœuds du graphe
  */
 public class AlgorithmeAEtoile<E> implements AlgorithmeChemin<E> {
 
+    private final ThreadLocal<MoteurAEtoile> moteurs = ThreadLocal.withInitial(MoteurAEtoile::new);
+    private final Heuristique<? super E> heuristique;
+
+    /**
+     * Construit l'algorithme A* avec l'heuristique par défaut (distance de Manhattan pondérée pour les cases).
+     */
+    public AlgorithmeAEtoile() {
+        this(Heuristique.parDefaut());
+    }
+
     /**
-     * Calcule l'heuristique entre deux nœuds.
+     * Construit l'algorithme A* avec l'heuristique spécifiée.
      *
-     * @param noeudCourant le nœud courant
-     * @param arrivee      le nœud d'arrivée
-     * @return l'heuristique entre les deux nœuds
+     * @param heuristique l'heuristique estimant le coût restant jusqu'au nœud cible
      */
-    private double heuristique(Noeud<E> noeudCourant, Noeud<E> arrivee) {
-        Case caseNoeudCourant = (Case) noeudCourant.getValeur(); // Récupération de la case associée au nœud
-        Case caseArrivee = (Case) arrivee.getValeur(); // Récupération de la case associée à la cible
+    public AlgorithmeAEtoile(Heuristique<? super E> heuristique) {
+        if (heuristique == null) {
+            throw new IllegalArgumentException("L'heuristique ne doit pas être nulle");
+        }
+        this.heuristique = heuristique;
+    }
 
-        double deltaX = Math.abs(caseNoeudCourant.getX() - caseArrivee.getX());
-        double deltaY = Math.abs(caseNoeudCourant.getY() - caseArrivee.getY());
-        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    /**
+     * Récupère l'heuristique utilisée par l'algorithme.
+     *
+     * @return l'heuristique de l'algorithme
+     */
+    public Heuristique<? super E> getHeuristique() {
+        return heuristique;
     }
 
     /**
@@ -34,72 +51,32 @@ public class AlgorithmeAEtoile<E> implements AlgorithmeChemin<E> {
      */
     @Override
     public List<Noeud<E>> trouverChemin(Graphe<E> graphe, Noeud<E> debut, Noeud<E> cible) {
-
-        Map<Noeud<E>, Double> coutActuel = new HashMap<>();
-        Map<Noeud<E>, Double> coutTotalEstime = new HashMap<>();
-        Map<Noeud<E>, Noeud<E>> precedent = new HashMap<>();
-        Set<Noeud<E>> explore = new HashSet<>();
-        PriorityQueue<Noeud<E>> filePrioritaire = new PriorityQueue<>(Comparator.comparingDouble(coutTotalEstime::get));
-
-        // Initialisation des coûts
-        for (Noeud<E> noeud : graphe.getNoeuds()) {
-            coutTotalEstime.put(noeud, Double.POSITIVE_INFINITY);
-            coutActuel.put(noeud, Double.POSITIVE_INFINITY);
-            precedent.put(noeud, null);
+        int indiceDebut = graphe.getIndice(debut);
+        int indiceCible = graphe.getIndice(cible);
+        if (indiceDebut < 0 || indiceCible < 0) {
+            return new ArrayList<>();
         }
 
-        coutActuel.put(debut, 0.0);
-        coutTotalEstime.put(debut, heuristique(debut, cible));
-        filePrioritaire.add(debut);
-
-        // Algorithme A*
-        while (!filePrioritaire.isEmpty()) {
-            Noeud<E> courant = filePrioritaire.poll();
-            if (courant.equals(cible))
-                break;
-            explore.add(courant);
-
-            // Exploration des voisins
-            for (Noeud<E> voisin : graphe.getVoisins(courant)) {
-                if (explore.contains(voisin))
-                    continue;
-
-                double nouveauCout = coutActuel.get(courant) + graphe.getCoutArete(courant, voisin);
-                if (nouveauCout < coutActuel.get(voisin)) {
-                    precedent.put(voisin, courant);
-                    coutActuel.put(voisin, nouveauCout);
-                    coutTotalEstime.put(voisin, coutActuel.get(voisin) + heuristique(voisin, cible));
-
-                    if (!filePrioritaire.contains(voisin))
-                        filePrioritaire.add(voisin);
-                }
-            }
+        // Algorithme A* sur la représentation compacte du graphe
+        HeuristiqueIndexee estimation = (noeud, arrivee) -> heuristique.estimer(
+                graphe.getNoeudParIndice(noeud).getValeur(), graphe.getNoeudParIndice(arrivee).getValeur());
+        GrapheCompact compact = graphe.getGrapheCompact();
+        MoteurAEtoile moteur = moteurs.get();
+        boolean instrumentee = Instrumentation.estActive();
+        long debutMesure = instrumentee ? System.nanoTime() : 0L;
+        int[] indices = moteur.rechercher(compact, indiceDebut, indiceCible, estimation);
+        if (instrumentee) {
+            StatistiquesRecherche statistiques = new StatistiquesRecherche(getClass().getSimpleName(),
+                    System.nanoTime() - debutMesure, indices.length);
+            moteur.decrire(statistiques);
+            Instrumentation.publier(statistiques);
         }
 
         // Reconstruction du chemin
-        LinkedList<Noeud<E>> chemin = reconstruireChemin(precedent, cible);
-        Collections.reverse(chemin);
-
-        return new ArrayList<>(chemin);
-    }
-
-    /**
-     * Reconstruit le chemin à partir des prédécesseurs.
-     *
-     * @param predecesseur le mapping des nœuds prédécesseurs
-     * @param cible        le nœud cible
-     * @return la liste des nœuds formant le chemin optimal
-     */
-    private LinkedList<Noeud<E>> reconstruireChemin(Map<Noeud<E>, Noeud<E>> predecesseur, Noeud<E> cible) {
-        LinkedList<Noeud<E>> chemin = new LinkedList<>();
-        Noeud<E> courant = cible;
-
-        while (courant != null) {
-            chemin.add(courant);
-            courant = predecesseur.get(courant);
+        List<Noeud<E>> chemin = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            chemin.add(graphe.getNoeudParIndice(indice));
         }
-        Collections.reverse(chemin);
-
         return chemin;
     }
-}
\ No newline at end of file
+}
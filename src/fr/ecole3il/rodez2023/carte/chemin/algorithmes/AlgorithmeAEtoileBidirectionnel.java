@@ -0,0 +1,74 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implémentation de l'algorithme A* bidirectionnel : une recherche part du nœud de départ, une autre part du nœud
+ * d'arrivée sur le graphe inverse, chacune guidée vers l'autre extrémité par le potentiel moyen de l'heuristique.
+ * L'heuristique doit être symétrique et consistante, comme la distance de Manhattan pondérée entre deux cases ;
+ * une heuristique pondérée (A* pondéré) ne convient donc pas.
+ *
+ * @param <E> le type des valeurs associées aux nœuds du graphe
+ */
+public class AlgorithmeAEtoileBidirectionnel<E> implements AlgorithmeChemin<E> {
+
+    private final ThreadLocal<MoteurBidirectionnel> moteurs = ThreadLocal.withInitial(MoteurBidirectionnel::new);
+    private final Heuristique<? super E> heuristique;
+
+    /**
+     * Construit l'algorithme A* bidirectionnel avec l'heuristique par défaut.
+     */
+    public AlgorithmeAEtoileBidirectionnel() {
+        this(Heuristique.parDefaut());
+    }
+
+    /**
+     * Construit l'algorithme A* bidirectionnel avec l'heuristique spécifiée.
+     *
+     * @param heuristique l'heuristique symétrique et consistante guidant les deux recherches
+     */
+    public AlgorithmeAEtoileBidirectionnel(Heuristique<? super E> heuristique) {
+        if (heuristique == null) {
+            throw new IllegalArgumentException("L'heuristique ne doit pas être nulle");
+        }
+        this.heuristique = heuristique;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Noeud<E>> trouverChemin(Graphe<E> graphe, Noeud<E> depart, Noeud<E> arrivee) {
+        int indiceDepart = graphe.getIndice(depart);
+        int indiceArrivee = graphe.getIndice(arrivee);
+        if (indiceDepart < 0 || indiceArrivee < 0) {
+            return new ArrayList<>();
+        }
+
+        GrapheCompact compact = graphe.getGrapheCompact();
+        HeuristiqueIndexee estimation = (noeud, cible) -> heuristique.estimer(
+                graphe.getNoeudParIndice(noeud).getValeur(), graphe.getNoeudParIndice(cible).getValeur());
+        MoteurBidirectionnel moteur = moteurs.get();
+        boolean instrumentee = Instrumentation.estActive();
+        long debutMesure = instrumentee ? System.nanoTime() : 0L;
+        int[] indices = moteur.rechercher(compact, compact.getInverse(), indiceDepart, indiceArrivee,
+                estimation);
+        if (instrumentee) {
+            StatistiquesRecherche statistiques = new StatistiquesRecherche(getClass().getSimpleName(),
+                    System.nanoTime() - debutMesure, indices.length);
+            moteur.decrire(statistiques);
+            Instrumentation.publier(statistiques);
+        }
+
+        List<Noeud<E>> chemin = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            chemin.add(graphe.getNoeudParIndice(indice));
+        }
+        return chemin;
+    }
+}
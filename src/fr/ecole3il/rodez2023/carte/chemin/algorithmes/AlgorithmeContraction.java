@@ -0,0 +1,91 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implémentation de la recherche de chemin par hiérarchie de contraction, pour les graphes statiques interrogés
+ * de nombreuses fois. La hiérarchie est construite lors de la première recherche dans un graphe, ce qui est coûteux,
+ * puis chaque recherche n'établit que quelques centaines de nœuds et renvoie un chemin de coût optimal.
+ * La hiérarchie du dernier graphe utilisé est conservée ; elle est reconstruite si le graphe a été modifié,
+ * ou si une recherche porte sur un autre graphe.
+ *
+ * @param <E> le type des valeurs associées aux nœuds du graphe
+ * @see HierarchieContraction
+ */
+public class AlgorithmeContraction<E> implements AlgorithmeChemin<E> {
+
+    private final ThreadLocal<MoteurContraction> moteurs = ThreadLocal.withInitial(MoteurContraction::new);
+    private GrapheCompact grapheContracte; // Graphe compact auquel la hiérarchie a été vérifiée, ou null
+    private HierarchieContraction hierarchie; // Hiérarchie du dernier graphe utilisé, ou null
+
+    /**
+     * Construit l'algorithme ; la hiérarchie sera construite lors de la première recherche.
+     */
+    public AlgorithmeContraction() {
+    }
+
+    /**
+     * Construit l'algorithme à partir d'une hiérarchie déjà construite, par exemple relue depuis un fichier.
+     * Elle n'est utilisée que pour un graphe dont la représentation compacte a la même empreinte que le graphe
+     * contracté, les identifiants des nœuds étant ceux donnés par graphe.getIndice() ; pour tout autre graphe,
+     * la hiérarchie est reconstruite.
+     *
+     * @param hierarchie la hiérarchie de contraction du graphe
+     */
+    public AlgorithmeContraction(HierarchieContraction hierarchie) {
+        this.hierarchie = hierarchie;
+    }
+
+    /**
+     * Récupère la hiérarchie d'un graphe, en la construisant si nécessaire. Une hiérarchie conservée
+     * n'est réutilisée pour un nouveau graphe compact que si elle a été construite à partir d'un graphe identique.
+     *
+     * @param graphe le graphe
+     * @return la hiérarchie de contraction du graphe
+     */
+    public synchronized HierarchieContraction getHierarchie(Graphe<E> graphe) {
+        GrapheCompact compact = graphe.getGrapheCompact();
+        if (compact != grapheContracte) {
+            if (hierarchie == null || !hierarchie.correspondA(compact)) {
+                hierarchie = HierarchieContraction.construire(compact);
+            }
+            grapheContracte = compact;
+        }
+        return hierarchie;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Noeud<E>> trouverChemin(Graphe<E> graphe, Noeud<E> depart, Noeud<E> arrivee) {
+        int indiceDepart = graphe.getIndice(depart);
+        int indiceArrivee = graphe.getIndice(arrivee);
+        if (indiceDepart < 0 || indiceArrivee < 0) {
+            return new ArrayList<>();
+        }
+
+        HierarchieContraction contraction = getHierarchie(graphe);
+        MoteurContraction moteur = moteurs.get();
+        boolean instrumentee = Instrumentation.estActive();
+        long debutMesure = instrumentee ? System.nanoTime() : 0L;
+        int[] indices = moteur.rechercher(contraction, indiceDepart, indiceArrivee);
+        if (instrumentee) {
+            StatistiquesRecherche statistiques = new StatistiquesRecherche(getClass().getSimpleName(),
+                    System.nanoTime() - debutMesure, indices.length);
+            moteur.decrire(statistiques);
+            Instrumentation.publier(statistiques);
+        }
+
+        List<Noeud<E>> chemin = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            chemin.add(graphe.getNoeudParIndice(indice));
+        }
+        return chemin;
+    }
+}
@@ -1,63 +1,51 @@
 package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
 
 import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
 import fr.ecole3il.rodez2023.carte.elements.Noeud;
 
 import java.util.*;
 
 /**
  * Implémentation de l'algorithme de Dijkstra pour trouver le chemin le plus court entre deux nœuds dans un graphe donné.
+ * La recherche s'effectue sur la représentation compacte du graphe avec un MoteurDijkstra propre à chaque thread,
+ * dont les tableaux sont réutilisés d'une recherche à l'autre.
  *
  * @param <E> le type des valeurs associées aux nœuds du graphe
  */
 public class AlgorithmeDjikstra<E> implements AlgorithmeChemin<E> {
 
+    private final ThreadLocal<MoteurDijkstra> moteurs = ThreadLocal.withInitial(MoteurDijkstra::new);
+
     /**
      * {@inheritDoc}
      */
     @Override
     public List<Noeud<E>> trouverChemin(Graphe<E> graphe, Noeud<E> depart, Noeud<E> arrivee) {
-        Map<Noeud<E>, Double> couts = new HashMap<>();
-        Map<Noeud<E>, Noeud<E>> predecesseurs = new HashMap<>();
-        PriorityQueue<Noeud<E>> filePriorite = new PriorityQueue<>(Comparator.comparingDouble(couts::get));
-
-        // Initialisation des coûts et des prédécesseurs
-        for (Noeud<E> noeud : graphe.getNoeuds()) {
-            couts.put(noeud, Double.POSITIVE_INFINITY);
-            predecesseurs.put(noeud, null);
+        int indiceDepart = graphe.getIndice(depart);
+        int indiceArrivee = graphe.getIndice(arrivee);
+        if (indiceDepart < 0 || indiceArrivee < 0) {
+            return new ArrayList<>();
         }
 
-        couts.put(depart, 0.0);
-        filePriorite.add(depart);
-
         // Exploration des nœuds
-        while (!filePriorite.isEmpty()) {
-            Noeud<E> noeudActuel = filePriorite.poll();
-
-            if (noeudActuel.equals(arrivee)) {
-                break;
-            }
-
-            for (Noeud<E> voisin : graphe.getVoisins(noeudActuel)) {
-                double nouveauCout = couts.get(noeudActuel) + graphe.getCoutArete(noeudActuel, voisin);
-                if (nouveauCout < couts.get(voisin)) {
-                    couts.put(voisin, nouveauCout);
-                    predecesseurs.put(voisin, noeudActuel);
-                    filePriorite.add(voisin);
-                }
-            }
+        GrapheCompact compact = graphe.getGrapheCompact();
+        MoteurDijkstra moteur = moteurs.get();
+        boolean instrumentee = Instrumentation.estActive();
+        long debutMesure = instrumentee ? System.nanoTime() : 0L;
+        int[] indices = moteur.rechercher(compact, indiceDepart, indiceArrivee);
+        if (instrumentee) {
+            StatistiquesRecherche statistiques = new StatistiquesRecherche(getClass().getSimpleName(),
+                    System.nanoTime() - debutMesure, indices.length);
+            moteur.decrire(statistiques);
+            Instrumentation.publier(statistiques);
         }
 
-        // Reconstruction du chemin le plus court
-        List<Noeud<E>> chemin = new ArrayList<>();
-        Noeud<E> noeudCourant = arrivee;
-
-        while (noeudCourant != null) {
-            chemin.add(noeudCourant);
-            noeudCourant = predecesseurs.get(noeudCourant);
+        // Conversion des identifiants du chemin en nœuds
+        List<Noeud<E>> chemin = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            chemin.add(graphe.getNoeudParIndice(indice));
         }
-
-        Collections.reverse(chemin);
         return chemin;
     }
 }
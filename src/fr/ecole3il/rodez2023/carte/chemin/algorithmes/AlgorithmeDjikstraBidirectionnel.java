@@ -0,0 +1,51 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implémentation de l'algorithme de Dijkstra bidirectionnel : une recherche part du nœud de départ, une autre
+ * part du nœud d'arrivée sur le graphe inverse, et elles s'arrêtent dès que le chemin le plus court est certain.
+ * Sur les longues distances, chaque recherche explore un disque de rayon moitié, soit environ deux fois moins
+ * de nœuds établis qu'une recherche simple.
+ *
+ * @param <E> le type des valeurs associées aux nœuds du graphe
+ */
+public class AlgorithmeDjikstraBidirectionnel<E> implements AlgorithmeChemin<E> {
+
+    private final ThreadLocal<MoteurBidirectionnel> moteurs = ThreadLocal.withInitial(MoteurBidirectionnel::new);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Noeud<E>> trouverChemin(Graphe<E> graphe, Noeud<E> depart, Noeud<E> arrivee) {
+        int indiceDepart = graphe.getIndice(depart);
+        int indiceArrivee = graphe.getIndice(arrivee);
+        if (indiceDepart < 0 || indiceArrivee < 0) {
+            return new ArrayList<>();
+        }
+
+        GrapheCompact compact = graphe.getGrapheCompact();
+        MoteurBidirectionnel moteur = moteurs.get();
+        boolean instrumentee = Instrumentation.estActive();
+        long debutMesure = instrumentee ? System.nanoTime() : 0L;
+        int[] indices = moteur.rechercher(compact, compact.getInverse(), indiceDepart, indiceArrivee, null);
+        if (instrumentee) {
+            StatistiquesRecherche statistiques = new StatistiquesRecherche(getClass().getSimpleName(),
+                    System.nanoTime() - debutMesure, indices.length);
+            moteur.decrire(statistiques);
+            Instrumentation.publier(statistiques);
+        }
+
+        List<Noeud<E>> chemin = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            chemin.add(graphe.getNoeudParIndice(indice));
+        }
+        return chemin;
+    }
+}
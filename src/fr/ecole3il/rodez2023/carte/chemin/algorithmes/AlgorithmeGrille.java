@@ -0,0 +1,26 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+
+import java.util.List;
+
+/**
+ * Interface définissant un algorithme de recherche de chemin travaillant directement sur une carte,
+ * sans passer par un graphe de nœuds. Elle permet d'exploiter la structure en grille de la carte.
+ */
+public interface AlgorithmeGrille {
+
+    /**
+     * Trouve le chemin optimal entre deux cases d'une carte, chaque case étant reliée à ses quatre voisines
+     * et le coût d'un déplacement étant la somme des pénalités des tuiles des deux cases.
+     *
+     * @param carte    la carte dans laquelle chercher le chemin
+     * @param xDepart  la coordonnée x de la case de départ
+     * @param yDepart  la coordonnée y de la case de départ
+     * @param xArrivee la coordonnée x de la case d'arrivée
+     * @param yArrivee la coordonnée y de la case d'arrivée
+     * @return la liste des cases formant le chemin, ou une liste vide s'il n'existe pas de chemin
+     */
+    List<Case> trouverChemin(Carte carte, int xDepart, int yDepart, int xArrivee, int yArrivee);
+}
@@ -0,0 +1,97 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implémentation de la recherche hiérarchique HPA* sur une carte.
+ * La carte est abstraite en blocs reliés par leurs entrées (voir {@link AbstractionHierarchique}) ; une recherche
+ * parcourt ce graphe réduit puis détaille le chemin bloc par bloc. Le chemin renvoyé peut être plus coûteux
+ * que celui de l'algorithme de Dijkstra, de quelques pour cent en moyenne sur des cartes aléatoires ; le surcoût
+ * est borné par frontière de bloc traversée (voir {@link AbstractionHierarchique#getSurcoutMaximalParFrontiere()}).
+ * L'abstraction de la dernière carte utilisée est conservée, et mise à jour bloc par bloc lorsque la carte change.
+ * L'obtenir ne prend pas de verrou une fois construite, mais une abstraction n'exécute qu'une recherche à la fois :
+ * les recherches sur une même carte sont exécutées l'une après l'autre, quel que soit le nombre de threads.
+ */
+public class AlgorithmeHierarchique implements AlgorithmeGrille {
+    public static final int TAILLE_CLUSTER_PAR_DEFAUT = 16; // Côté par défaut d'un bloc, en cases
+
+    private final int tailleCluster; // Côté d'un bloc, en cases
+    private volatile AbstractionHierarchique abstraction; // Abstraction de la dernière carte utilisée
+
+    /**
+     * Construit l'algorithme avec des blocs de taille par défaut.
+     */
+    public AlgorithmeHierarchique() {
+        this(TAILLE_CLUSTER_PAR_DEFAUT);
+    }
+
+    /**
+     * Construit l'algorithme avec des blocs de la taille spécifiée. De grands blocs réduisent le graphe abstrait,
+     * de petits blocs accélèrent le raffinement et la mise à jour après une modification de la carte.
+     * @param tailleCluster Le côté d'un bloc, en cases.
+     * @throws IllegalArgumentException Si la taille des blocs n'est pas strictement positive.
+     */
+    public AlgorithmeHierarchique(int tailleCluster) {
+        if (tailleCluster <= 0) {
+            throw new IllegalArgumentException("La taille des clusters doit être strictement positive");
+        }
+        this.tailleCluster = tailleCluster;
+    }
+
+    /**
+     * Récupère le côté d'un bloc.
+     * @return La taille des blocs, en cases.
+     */
+    public int getTailleCluster() {
+        return tailleCluster;
+    }
+
+    /**
+     * Récupère l'abstraction d'une carte, en la construisant si la carte diffère de la dernière utilisée.
+     * Seule la construction est synchronisée : l'abstraction de la dernière carte est lue sans verrou.
+     * @param carte La carte.
+     * @return L'abstraction hiérarchique de la carte.
+     */
+    public AbstractionHierarchique getAbstraction(Carte carte) {
+        AbstractionHierarchique resultat = abstraction;
+        if (resultat == null || resultat.getCarte() != carte) {
+            synchronized (this) {
+                resultat = abstraction;
+                if (resultat == null || resultat.getCarte() != carte) {
+                    if (resultat != null) {
+                        resultat.detacher();
+                    }
+                    resultat = new AbstractionHierarchique(carte, tailleCluster);
+                    abstraction = resultat;
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Le chemin renvoyé est proche de l'optimal sans l'être toujours, avec un surcoût borné.
+     */
+    @Override
+    public List<Case> trouverChemin(Carte carte, int xDepart, int yDepart, int xArrivee, int yArrivee) {
+        int largeur = carte.getLargeur();
+        int hauteur = carte.getHauteur();
+        if (xDepart < 0 || xDepart >= largeur || yDepart < 0 || yDepart >= hauteur
+                || xArrivee < 0 || xArrivee >= largeur || yArrivee < 0 || yArrivee >= hauteur) {
+            return new ArrayList<>();
+        }
+
+        int[] identifiants = getAbstraction(carte).rechercher(yDepart * largeur + xDepart, yArrivee * largeur + xArrivee);
+
+        List<Case> chemin = new ArrayList<>(identifiants.length);
+        for (int identifiant : identifiants) {
+            chemin.add(carte.getCase(identifiant % largeur, identifiant / largeur));
+        }
+        return chemin;
+    }
+}
@@ -0,0 +1,41 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implémentation de la recherche par points de saut (Jump Point Search) sur une carte.
+ * Elle renvoie un chemin de même coût que l'algorithme de Dijkstra, en développant beaucoup moins de cases
+ * lorsque la carte contient de grandes régions de tuiles identiques.
+ *
+ * @see MoteurJPS
+ */
+public class AlgorithmeJPS implements AlgorithmeGrille {
+
+    private final MoteurJPS.CacheFrontieres cacheFrontieres = new MoteurJPS.CacheFrontieres(); // Analyse commune aux moteurs
+    private final ThreadLocal<MoteurJPS> moteurs = ThreadLocal.withInitial(() -> new MoteurJPS(cacheFrontieres));
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Case> trouverChemin(Carte carte, int xDepart, int yDepart, int xArrivee, int yArrivee) {
+        int largeur = carte.getLargeur();
+        int hauteur = carte.getHauteur();
+        if (xDepart < 0 || xDepart >= largeur || yDepart < 0 || yDepart >= hauteur
+                || xArrivee < 0 || xArrivee >= largeur || yArrivee < 0 || yArrivee >= hauteur) {
+            return new ArrayList<>();
+        }
+
+        int[] identifiants = moteurs.get().rechercher(carte, yDepart * largeur + xDepart, yArrivee * largeur + xArrivee);
+
+        List<Case> chemin = new ArrayList<>(identifiants.length);
+        for (int identifiant : identifiants) {
+            chemin.add(carte.getCase(identifiant % largeur, identifiant / largeur));
+        }
+        return chemin;
+    }
+}
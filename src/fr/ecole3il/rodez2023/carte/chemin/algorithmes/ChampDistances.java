@@ -0,0 +1,194 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.GrilleImplicite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Champ de distances depuis une case source : l'arbre des plus courts chemins calculé par une seule recherche
+ * de Dijkstra sur la carte. Pour chaque case établie, le champ conserve sa distance à la source et son
+ * prédécesseur, ce qui permet d'extraire ensuite le chemin vers n'importe quelle case établie en un temps
+ * proportionnel à sa longueur, sans nouvelle recherche.
+ * <p>
+ * Le champ peut couvrir toute la carte, ou s'arrêter dès qu'un ensemble de cibles est établi ; seules les cases
+ * établies ont alors une distance définitive. Il n'est pas modifié après son calcul et peut être partagé entre
+ * plusieurs threads. Il décrit la carte telle qu'elle était lors du calcul (voir {@link #estAJour()}).
+ */
+public class ChampDistances {
+    private final Carte carte; // Carte sur laquelle le champ a été calculé
+    private final int version; // Version de la carte lors du calcul
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final int source; // Identifiant (y * largeur + x) de la case source
+    private final double[] distances; // Distance à la source de chaque case atteinte, définitive si elle est établie
+    private final int[] parents; // Prédécesseur de chaque case atteinte, ou -1 pour la source
+    private final boolean[] etablies; // Indique si chaque case a été établie
+    private int nombreEtablies; // Nombre de cases établies
+
+    /**
+     * Calcule le champ de distances depuis une case sur toute la carte.
+     * @param carte La carte.
+     * @param xSource La coordonnée x de la case source.
+     * @param ySource La coordonnée y de la case source.
+     * @return Le champ de distances de la source.
+     * @throws IllegalArgumentException Si la source est hors de la carte.
+     */
+    public static ChampDistances calculer(Carte carte, int xSource, int ySource) {
+        return new ChampDistances(carte, xSource, ySource, null);
+    }
+
+    /**
+     * Calcule le champ de distances depuis une case, en s'arrêtant dès que toutes les cibles sont établies.
+     * Les cibles situées hors de la carte sont ignorées.
+     * @param carte La carte.
+     * @param xSource La coordonnée x de la case source.
+     * @param ySource La coordonnée y de la case source.
+     * @param cibles Les cases dont la distance et le chemin sont demandés.
+     * @return Le champ de distances de la source, dans lequel chaque cible est établie.
+     * @throws IllegalArgumentException Si la source est hors de la carte.
+     */
+    public static ChampDistances calculer(Carte carte, int xSource, int ySource, List<Case> cibles) {
+        return new ChampDistances(carte, xSource, ySource, cibles);
+    }
+
+    /**
+     * Exécute la recherche de Dijkstra depuis la source.
+     * @param carte La carte.
+     * @param xSource La coordonnée x de la case source.
+     * @param ySource La coordonnée y de la case source.
+     * @param cibles Les cibles dont l'établissement arrête la recherche, ou null pour toute la carte.
+     */
+    private ChampDistances(Carte carte, int xSource, int ySource, List<Case> cibles) {
+        if (xSource < 0 || xSource >= carte.getLargeur() || ySource < 0 || ySource >= carte.getHauteur()) {
+            throw new IllegalArgumentException("La source (" + xSource + ", " + ySource + ") est hors de la carte");
+        }
+        GrilleImplicite grille = new GrilleImplicite(carte);
+        int nombreCases = grille.getNombreNoeuds();
+        this.carte = carte;
+        this.version = carte.getVersion();
+        this.largeur = grille.getLargeur();
+        this.hauteur = grille.getHauteur();
+        this.source = grille.getIdentifiant(xSource, ySource);
+        this.distances = new double[nombreCases];
+        this.parents = new int[nombreCases];
+        this.etablies = new boolean[nombreCases];
+
+        // Les cibles encore à établir sont marquées ; la recherche s'arrête lorsqu'il n'en reste plus.
+        boolean[] estCible = null;
+        int ciblesRestantes = 0;
+        if (cibles != null) {
+            estCible = new boolean[nombreCases];
+            for (Case cible : cibles) {
+                if (cible.getX() >= 0 && cible.getX() < largeur && cible.getY() >= 0 && cible.getY() < hauteur
+                        && !estCible[grille.getIdentifiant(cible.getX(), cible.getY())]) {
+                    estCible[grille.getIdentifiant(cible.getX(), cible.getY())] = true;
+                    ciblesRestantes++;
+                }
+            }
+        }
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] voisins = new int[grille.getDegreMaximal()];
+        double[] couts = new double[grille.getDegreMaximal()];
+        TasIndexe tas = new TasIndexe(nombreCases);
+        distances[source] = 0.0;
+        parents[source] = -1;
+        tas.inserer(source, 0.0);
+        while (!tas.estVide()) {
+            int courante = tas.extraireMinimum();
+            double distance = distances[courante];
+            etablies[courante] = true;
+            nombreEtablies++;
+            if (estCible != null && (ciblesRestantes == 0 || estCible[courante] && --ciblesRestantes == 0)) {
+                break;
+            }
+            int nombreVoisins = grille.getVoisins(courante, voisins, couts);
+            for (int i = 0; i < nombreVoisins; i++) {
+                int voisine = voisins[i];
+                double nouvelleDistance = distance + couts[i];
+                if (nouvelleDistance < distances[voisine] && !etablies[voisine]) {
+                    distances[voisine] = nouvelleDistance;
+                    parents[voisine] = courante;
+                    tas.insererOuDiminuer(voisine, nouvelleDistance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Récupère la carte sur laquelle le champ a été calculé.
+     * @return La carte.
+     */
+    public Carte getCarte() {
+        return carte;
+    }
+
+    /**
+     * Récupère la case source du champ.
+     * @return La case source.
+     */
+    public Case getSource() {
+        return carte.getCase(source % largeur, source / largeur);
+    }
+
+    /**
+     * Indique si la carte n'a pas été modifiée depuis le calcul du champ.
+     * @return true si le champ décrit encore la carte.
+     */
+    public boolean estAJour() {
+        return carte.getVersion() == version;
+    }
+
+    /**
+     * Récupère le nombre de cases établies par la recherche.
+     * @return Le nombre de cases dont la distance est définitive.
+     */
+    public int getNombreEtablies() {
+        return nombreEtablies;
+    }
+
+    /**
+     * Indique si une case a été établie, c'est-à-dire si sa distance et son chemin sont connus.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return true si la case est sur la carte et établie.
+     */
+    public boolean estEtablie(int x, int y) {
+        return x >= 0 && x < largeur && y >= 0 && y < hauteur && etablies[y * largeur + x];
+    }
+
+    /**
+     * Récupère la distance d'une case à la source.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return La distance de la case, ou une valeur infinie si elle est hors de la carte ou n'a pas été établie.
+     */
+    public double getDistance(int x, int y) {
+        return estEtablie(x, y) ? distances[y * largeur + x] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Extrait le plus court chemin de la source à une case, en remontant ses prédécesseurs.
+     * @param x La coordonnée x de la case d'arrivée.
+     * @param y La coordonnée y de la case d'arrivée.
+     * @return Les cases du chemin, de la source à l'arrivée, ou une liste vide si l'arrivée n'a pas été établie.
+     */
+    public List<Case> getCheminVers(int x, int y) {
+        if (!estEtablie(x, y)) {
+            return new ArrayList<>();
+        }
+        int longueur = 0;
+        for (int courante = y * largeur + x; courante != -1; courante = parents[courante]) {
+            longueur++;
+        }
+        Case[] cases = new Case[longueur];
+        for (int courante = y * largeur + x; courante != -1; courante = parents[courante]) {
+            cases[--longueur] = carte.getCase(courante % largeur, courante / largeur);
+        }
+        return new ArrayList<>(Arrays.asList(cases));
+    }
+}
@@ -0,0 +1,310 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.EcouteurCarte;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Champ de flux vers une case d'arrivée, destiné à de nombreux agents convergeant vers la même destination.
+ * Une seule recherche de Dijkstra, lancée depuis l'arrivée, donne pour chaque case la direction du prochain pas
+ * sur un plus court chemin vers l'arrivée ; chaque agent lit ensuite son prochain pas en temps constant.
+ * Le coût d'un déplacement est la somme des pénalités des tuiles des deux cases, comme pour les graphes
+ * construits par AdaptateurAlgorithme : les distances sont donc celles de l'algorithme de Dijkstra.
+ * <p>
+ * Le champ s'enregistre comme écouteur de la carte et se met à jour à chaque modification d'une tuile :
+ * si la pénalité baisse, les distances améliorées sont propagées depuis la case modifiée ; si elle augmente,
+ * les cases dont le chemin passait par la case modifiée sont invalidées puis recalculées depuis leurs voisines
+ * restées valides. {@link #detacher()} met fin à ce suivi. Les méthodes sont synchronisées.
+ * Les distances sont stockées en float, exactes tant qu'elles restent inférieures à 2^24.
+ */
+public class ChampFlux implements EcouteurCarte {
+    public static final byte GAUCHE = 0; // Le prochain pas est la case (x - 1, y)
+    public static final byte BAS = 1; // Le prochain pas est la case (x, y + 1)
+    public static final byte DROITE = 2; // Le prochain pas est la case (x + 1, y)
+    public static final byte HAUT = 3; // Le prochain pas est la case (x, y - 1)
+    public static final byte ARRIVEE = 4; // La case est l'arrivée
+    public static final byte AUCUNE = 5; // L'arrivée n'est pas atteignable depuis la case
+
+    private static final int[] DX = {-1, 0, 1, 0}; // Décalage en x de chaque direction
+    private static final int[] DY = {0, 1, 0, -1}; // Décalage en y de chaque direction
+
+    private final Carte carte; // Carte couverte par le champ
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final int arrivee; // Identifiant (y * largeur + x) de la case d'arrivée
+    private final float[] distances; // Distance de chaque case à l'arrivée
+    private final byte[] directions; // Direction du prochain pas de chaque case
+    private final TasIndexe tas; // File de priorité des propagations
+
+    /**
+     * Calcule le champ de flux vers une case d'arrivée et l'enregistre comme écouteur de la carte.
+     * @param carte La carte.
+     * @param xArrivee La coordonnée x de la case d'arrivée.
+     * @param yArrivee La coordonnée y de la case d'arrivée.
+     * @throws IllegalArgumentException Si l'arrivée est hors de la carte.
+     */
+    public ChampFlux(Carte carte, int xArrivee, int yArrivee) {
+        if (xArrivee < 0 || xArrivee >= carte.getLargeur() || yArrivee < 0 || yArrivee >= carte.getHauteur()) {
+            throw new IllegalArgumentException("L'arrivée (" + xArrivee + ", " + yArrivee + ") est hors de la carte");
+        }
+        this.carte = carte;
+        this.largeur = carte.getLargeur();
+        this.hauteur = carte.getHauteur();
+        this.arrivee = yArrivee * largeur + xArrivee;
+        this.distances = new float[largeur * hauteur];
+        this.directions = new byte[largeur * hauteur];
+        this.tas = new TasIndexe(largeur * hauteur);
+
+        Arrays.fill(distances, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, AUCUNE);
+        distances[arrivee] = 0.0f;
+        directions[arrivee] = ARRIVEE;
+        tas.inserer(arrivee, 0.0);
+        propager();
+        carte.ajouterEcouteur(this);
+    }
+
+    /**
+     * Récupère la carte couverte par le champ.
+     * @return La carte.
+     */
+    public Carte getCarte() {
+        return carte;
+    }
+
+    /**
+     * Récupère la case d'arrivée du champ.
+     * @return La case d'arrivée.
+     */
+    public Case getArrivee() {
+        return carte.getCase(arrivee % largeur, arrivee / largeur);
+    }
+
+    /**
+     * Récupère la direction du prochain pas depuis une case.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return GAUCHE, BAS, DROITE ou HAUT, ARRIVEE si la case est l'arrivée, AUCUNE si l'arrivée n'est pas atteignable.
+     * @throws IllegalArgumentException Si la case est hors de la carte.
+     */
+    public synchronized byte getDirection(int x, int y) {
+        return directions[identifiant(x, y)];
+    }
+
+    /**
+     * Récupère la case du prochain pas vers l'arrivée.
+     * @param x La coordonnée x de la case courante.
+     * @param y La coordonnée y de la case courante.
+     * @return La case suivante, ou null si la case courante est l'arrivée ou ne permet pas de l'atteindre.
+     * @throws IllegalArgumentException Si la case courante est hors de la carte.
+     */
+    public Case getSuivante(int x, int y) {
+        byte direction = getDirection(x, y);
+        if (direction >= ARRIVEE) {
+            return null;
+        }
+        return carte.getCase(x + DX[direction], y + DY[direction]);
+    }
+
+    /**
+     * Récupère la distance d'une case à l'arrivée.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return La distance de la case, ou une valeur infinie si l'arrivée n'est pas atteignable.
+     * @throws IllegalArgumentException Si la case est hors de la carte.
+     */
+    public synchronized double getDistance(int x, int y) {
+        return distances[identifiant(x, y)];
+    }
+
+    /**
+     * Suit le champ depuis une case jusqu'à l'arrivée.
+     * @param x La coordonnée x de la case de départ.
+     * @param y La coordonnée y de la case de départ.
+     * @return Les cases du chemin, du départ à l'arrivée, ou une liste vide si l'arrivée n'est pas atteignable.
+     * @throws IllegalArgumentException Si la case de départ est hors de la carte.
+     */
+    public synchronized List<Case> getChemin(int x, int y) {
+        List<Case> chemin = new ArrayList<>();
+        int courante = identifiant(x, y);
+        if (directions[courante] == AUCUNE) {
+            return chemin;
+        }
+        while (true) {
+            chemin.add(carte.getCase(courante % largeur, courante / largeur));
+            if (courante == arrivee) {
+                return chemin;
+            }
+            courante = voisine(courante, directions[courante]);
+        }
+    }
+
+    /**
+     * Cesse de suivre les modifications de la carte. Le champ n'est plus mis à jour ensuite.
+     */
+    public void detacher() {
+        carte.retirerEcouteur(this);
+    }
+
+    /**
+     * Met à jour le champ après la modification d'une tuile.
+     */
+    @Override
+    public synchronized void tuileModifiee(Carte carte, int x, int y, Tuile ancienne, Tuile nouvelle) {
+        int modifiee = y * largeur + x;
+        if (nouvelle.getPenalite() < ancienne.getPenalite()) {
+            // Les arêtes de la case sont moins chères : la case et ses voisines peuvent s'améliorer.
+            relacherVers(modifiee);
+            if (distances[modifiee] != Float.POSITIVE_INFINITY) {
+                tas.insererOuDiminuer(modifiee, distances[modifiee]);
+            }
+        } else if (nouvelle.getPenalite() > ancienne.getPenalite()) {
+            // Les arêtes de la case sont plus chères : seules les cases dont le chemin y passe sont touchées.
+            int[] invalidees = invaliderSousArbre(modifiee);
+            for (int invalidee : invalidees) {
+                relacherVers(invalidee);
+            }
+        }
+        propager();
+    }
+
+    /**
+     * Recalcule la distance d'une case à partir de ses voisines, et l'ajoute à la file si elle s'améliore.
+     * @param noeud L'identifiant de la case.
+     */
+    private void relacherVers(int noeud) {
+        if (noeud == arrivee) {
+            return;
+        }
+        int x = noeud % largeur;
+        int y = noeud / largeur;
+        int penalite = carte.getTuile(x, y).getPenalite();
+        for (byte direction = 0; direction < ARRIVEE; direction++) {
+            int vx = x + DX[direction];
+            int vy = y + DY[direction];
+            if (vx < 0 || vx >= largeur || vy < 0 || vy >= hauteur) {
+                continue;
+            }
+            int voisine = vy * largeur + vx;
+            float distance = distances[voisine] + penalite + carte.getTuile(vx, vy).getPenalite();
+            if (distance < distances[noeud]) {
+                distances[noeud] = distance;
+                directions[noeud] = direction;
+                tas.insererOuDiminuer(noeud, distance);
+            }
+        }
+    }
+
+    /**
+     * Invalide une case et toutes celles dont le prochain pas mène, directement ou non, à cette case.
+     * @param racine L'identifiant de la case modifiée.
+     * @return Les identifiants des cases invalidées.
+     */
+    private int[] invaliderSousArbre(int racine) {
+        int[] invalidees = new int[16];
+        int nombre = 0;
+        if (racine != arrivee) {
+            invalidees[nombre++] = racine;
+        } else {
+            // Toutes les arêtes vers l'arrivée ont changé : ce sont ses voisines qui sont invalidées.
+            for (byte direction = 0; direction < ARRIVEE; direction++) {
+                int voisine = voisineDansCarte(racine, direction);
+                if (voisine >= 0 && directions[voisine] == (direction + 2) % 4) {
+                    invalidees[nombre++] = voisine;
+                }
+            }
+        }
+        for (int i = 0; i < nombre; i++) {
+            int noeud = invalidees[i];
+            for (byte direction = 0; direction < ARRIVEE; direction++) {
+                int voisine = voisineDansCarte(noeud, direction);
+                // La voisine est un enfant si son prochain pas, dans la direction opposée, mène à la case.
+                if (voisine >= 0 && directions[voisine] == (direction + 2) % 4) {
+                    if (nombre == invalidees.length) {
+                        invalidees = Arrays.copyOf(invalidees, nombre * 2);
+                    }
+                    invalidees[nombre++] = voisine;
+                }
+            }
+        }
+        for (int i = 0; i < nombre; i++) {
+            distances[invalidees[i]] = Float.POSITIVE_INFINITY;
+            directions[invalidees[i]] = AUCUNE;
+        }
+        return Arrays.copyOf(invalidees, nombre);
+    }
+
+    /**
+     * Exécute l'algorithme de Dijkstra depuis les cases présentes dans la file, en ne modifiant que les cases
+     * dont la distance s'améliore.
+     */
+    private void propager() {
+        while (!tas.estVide()) {
+            int courante = tas.extraireMinimum();
+            float distance = distances[courante];
+            int x = courante % largeur;
+            int y = courante / largeur;
+            int penalite = carte.getTuile(x, y).getPenalite();
+            for (byte direction = 0; direction < ARRIVEE; direction++) {
+                int vx = x + DX[direction];
+                int vy = y + DY[direction];
+                if (vx < 0 || vx >= largeur || vy < 0 || vy >= hauteur) {
+                    continue;
+                }
+                int voisine = vy * largeur + vx;
+                float nouvelleDistance = distance + penalite + carte.getTuile(vx, vy).getPenalite();
+                if (nouvelleDistance < distances[voisine]) {
+                    distances[voisine] = nouvelleDistance;
+                    // Depuis la voisine, le prochain pas va dans la direction opposée.
+                    directions[voisine] = (byte) ((direction + 2) % 4);
+                    tas.insererOuDiminuer(voisine, nouvelleDistance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Récupère la case voisine dans une direction.
+     * @param noeud L'identifiant de la case.
+     * @param direction La direction.
+     * @return L'identifiant de la voisine.
+     */
+    private int voisine(int noeud, byte direction) {
+        return noeud + DY[direction] * largeur + DX[direction];
+    }
+
+    /**
+     * Récupère la case voisine dans une direction, si elle est sur la carte.
+     * @param noeud L'identifiant de la case.
+     * @param direction La direction.
+     * @return L'identifiant de la voisine, ou -1 si elle est hors de la carte.
+     */
+    private int voisineDansCarte(int noeud, byte direction) {
+        int vx = noeud % largeur + DX[direction];
+        int vy = noeud / largeur + DY[direction];
+        if (vx < 0 || vx >= largeur || vy < 0 || vy >= hauteur) {
+            return -1;
+        }
+        return vy * largeur + vx;
+    }
+
+    /**
+     * Calcule l'identifiant d'une case en vérifiant qu'elle est sur la carte. Sans cette vérification,
+     * une case hors de la carte sur la largeur désignerait une case d'une autre ligne.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return L'identifiant de la case.
+     * @throws IllegalArgumentException Si la case est hors de la carte.
+     */
+    private int identifiant(int x, int y) {
+        if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+            throw new IllegalArgumentException("La case (" + x + ", " + y + ") est hors de la carte");
+        }
+        return y * largeur + x;
+    }
+}
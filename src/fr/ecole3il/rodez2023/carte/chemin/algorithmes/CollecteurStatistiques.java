@@ -0,0 +1,274 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * La classe CollecteurStatistiques agrège les statistiques des recherches de chemin dans un histogramme par mesure.
+ * Les mesures se consultent par programme avec {@link #getInstantane()}, ou par JMX une fois le collecteur enregistré
+ * comme MBean avec {@link #enregistrerMBean(String)}. Un collecteur ne reçoit rien tant qu'il n'est pas ajouté
+ * comme écouteur à {@link Instrumentation} ; {@link #installer(String)} fait les deux à la fois.
+ */
+public class CollecteurStatistiques implements EcouteurRecherche, CollecteurStatistiquesMXBean {
+    private static final String DOMAINE_JMX = "fr.ecole3il.rodez2023.carte"; // Domaine des noms JMX
+
+    private final Map<Mesure, Histogramme> histogrammes = new EnumMap<>(Mesure.class); // Histogramme de chaque mesure
+    private final LongAdder cheminsIntrouvables = new LongAdder(); // Nombre de recherches sans chemin
+    private ObjectName nomJMX; // Nom sous lequel le collecteur est enregistré comme MBean, ou null
+
+    /**
+     * Mesures agrégées par le collecteur.
+     */
+    public enum Mesure {
+        DUREE_RECHERCHE, // Durée d'une recherche, en nanosecondes
+        DUREE_CONSTRUCTION, // Durée de construction d'un graphe, en nanosecondes
+        NOEUDS_ETABLIS, // Noeuds sortis de la file de priorité par recherche
+        NOEUDS_DEVELOPPES, // Noeuds dont les arêtes ont été relâchées par recherche
+        RELACHEMENTS, // Arêtes relâchées par recherche
+        INSERTIONS_TAS, // Insertions dans la file de priorité par recherche
+        EXTRACTIONS_TAS, // Extractions de la file de priorité par recherche
+        TAILLE_MAXIMALE_OUVERTS // Plus grande taille de l'ensemble ouvert par recherche
+    }
+
+    /**
+     * Construit un collecteur vide.
+     */
+    public CollecteurStatistiques() {
+        for (Mesure mesure : Mesure.values()) {
+            histogrammes.put(mesure, new Histogramme());
+        }
+    }
+
+    /**
+     * Crée un collecteur, l'enregistre comme MBean puis l'ajoute aux écouteurs de l'instrumentation.
+     * @param nom Le nom du collecteur, repris dans son nom JMX.
+     * @return Le collecteur installé.
+     * @throws JMException Si le collecteur ne peut pas être enregistré comme MBean.
+     */
+    public static CollecteurStatistiques installer(String nom) throws JMException {
+        CollecteurStatistiques collecteur = new CollecteurStatistiques();
+        collecteur.enregistrerMBean(nom);
+        Instrumentation.ajouterEcouteur(collecteur);
+        return collecteur;
+    }
+
+    /**
+     * Retire le collecteur des écouteurs de l'instrumentation et le désenregistre du serveur de MBeans.
+     * @throws JMException Si le MBean ne peut pas être désenregistré.
+     */
+    public void desinstaller() throws JMException {
+        Instrumentation.retirerEcouteur(this);
+        desenregistrerMBean();
+    }
+
+    /**
+     * Enregistre le collecteur auprès du serveur de MBeans de la plateforme, sous le nom
+     * fr.ecole3il.rodez2023.carte:type=StatistiquesRecherche,name=nom.
+     * @param nom Le nom du collecteur.
+     * @return Le nom JMX du collecteur.
+     * @throws JMException Si le collecteur ne peut pas être enregistré, par exemple si le nom est déjà pris.
+     */
+    public synchronized ObjectName enregistrerMBean(String nom) throws JMException {
+        if (nomJMX != null) {
+            throw new IllegalStateException("Le collecteur est déjà enregistré sous le nom " + nomJMX);
+        }
+        ObjectName objectName = new ObjectName(DOMAINE_JMX + ":type=StatistiquesRecherche,name=" + ObjectName.quote(nom));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        nomJMX = objectName;
+        return objectName;
+    }
+
+    /**
+     * Désenregistre le collecteur du serveur de MBeans de la plateforme, s'il y est enregistré.
+     * @throws JMException Si le MBean ne peut pas être désenregistré.
+     */
+    public synchronized void desenregistrerMBean() throws JMException {
+        if (nomJMX != null) {
+            MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+            if (serveur.isRegistered(nomJMX)) {
+                serveur.unregisterMBean(nomJMX);
+            }
+            nomJMX = null;
+        }
+    }
+
+    /**
+     * Récupère le nom JMX du collecteur.
+     * @return Le nom JMX, ou null si le collecteur n'est pas enregistré comme MBean.
+     */
+    public synchronized ObjectName getNomJMX() {
+        return nomJMX;
+    }
+
+    @Override
+    public void rechercheTerminee(StatistiquesRecherche statistiques) {
+        histogrammes.get(Mesure.DUREE_RECHERCHE).enregistrer(statistiques.getDureeRecherche());
+        histogrammes.get(Mesure.NOEUDS_ETABLIS).enregistrer(statistiques.getNoeudsEtablis());
+        histogrammes.get(Mesure.NOEUDS_DEVELOPPES).enregistrer(statistiques.getNoeudsDeveloppes());
+        histogrammes.get(Mesure.RELACHEMENTS).enregistrer(statistiques.getRelachements());
+        histogrammes.get(Mesure.INSERTIONS_TAS).enregistrer(statistiques.getInsertionsTas());
+        histogrammes.get(Mesure.EXTRACTIONS_TAS).enregistrer(statistiques.getExtractionsTas());
+        histogrammes.get(Mesure.TAILLE_MAXIMALE_OUVERTS).enregistrer(statistiques.getTailleMaximaleOuverts());
+        if (!statistiques.estCheminTrouve()) {
+            cheminsIntrouvables.increment();
+        }
+    }
+
+    @Override
+    public void grapheConstruit(int nombreNoeuds, long duree) {
+        histogrammes.get(Mesure.DUREE_CONSTRUCTION).enregistrer(duree);
+    }
+
+    /**
+     * Prend un instantané de toutes les mesures.
+     * @return L'instantané des mesures.
+     */
+    public Instantane getInstantane() {
+        Map<Mesure, Histogramme.Resume> resumes = new EnumMap<>(Mesure.class);
+        for (Map.Entry<Mesure, Histogramme> entree : histogrammes.entrySet()) {
+            resumes.put(entree.getKey(), entree.getValue().getResume());
+        }
+        return new Instantane(System.currentTimeMillis(), cheminsIntrouvables.sum(), resumes);
+    }
+
+    /**
+     * Récupère le résumé d'une mesure.
+     * @param mesure La mesure.
+     * @return Le résumé de la mesure.
+     */
+    public Histogramme.Resume getResume(Mesure mesure) {
+        return histogrammes.get(mesure).getResume();
+    }
+
+    @Override
+    public long getNombreRecherches() {
+        return histogrammes.get(Mesure.DUREE_RECHERCHE).getNombre();
+    }
+
+    @Override
+    public long getNombreCheminsIntrouvables() {
+        return cheminsIntrouvables.sum();
+    }
+
+    @Override
+    public long getNombreConstructions() {
+        return histogrammes.get(Mesure.DUREE_CONSTRUCTION).getNombre();
+    }
+
+    @Override
+    public Histogramme.Resume getDureeRecherche() {
+        return getResume(Mesure.DUREE_RECHERCHE);
+    }
+
+    @Override
+    public Histogramme.Resume getDureeConstruction() {
+        return getResume(Mesure.DUREE_CONSTRUCTION);
+    }
+
+    @Override
+    public Histogramme.Resume getNoeudsEtablis() {
+        return getResume(Mesure.NOEUDS_ETABLIS);
+    }
+
+    @Override
+    public Histogramme.Resume getNoeudsDeveloppes() {
+        return getResume(Mesure.NOEUDS_DEVELOPPES);
+    }
+
+    @Override
+    public Histogramme.Resume getRelachements() {
+        return getResume(Mesure.RELACHEMENTS);
+    }
+
+    @Override
+    public Histogramme.Resume getInsertionsTas() {
+        return getResume(Mesure.INSERTIONS_TAS);
+    }
+
+    @Override
+    public Histogramme.Resume getExtractionsTas() {
+        return getResume(Mesure.EXTRACTIONS_TAS);
+    }
+
+    @Override
+    public Histogramme.Resume getTailleMaximaleOuverts() {
+        return getResume(Mesure.TAILLE_MAXIMALE_OUVERTS);
+    }
+
+    @Override
+    public void reinitialiser() {
+        for (Histogramme histogramme : histogrammes.values()) {
+            histogramme.reinitialiser();
+        }
+        cheminsIntrouvables.reset();
+    }
+
+    /**
+     * Instantané immuable des mesures d'un collecteur.
+     */
+    public static final class Instantane {
+        private final long date; // Date de l'instantané, en millisecondes depuis l'époque
+        private final long cheminsIntrouvables; // Nombre de recherches sans chemin
+        private final Map<Mesure, Histogramme.Resume> resumes; // Résumé de chaque mesure
+
+        /**
+         * Construit un instantané.
+         * @param date La date de l'instantané, en millisecondes depuis l'époque.
+         * @param cheminsIntrouvables Le nombre de recherches sans chemin.
+         * @param resumes Le résumé de chaque mesure.
+         */
+        private Instantane(long date, long cheminsIntrouvables, Map<Mesure, Histogramme.Resume> resumes) {
+            this.date = date;
+            this.cheminsIntrouvables = cheminsIntrouvables;
+            this.resumes = resumes;
+        }
+
+        /**
+         * Récupère la date de l'instantané.
+         * @return La date, en millisecondes depuis l'époque.
+         */
+        public long getDate() {
+            return date;
+        }
+
+        /**
+         * Récupère le nombre de recherches enregistrées.
+         * @return Le nombre de recherches.
+         */
+        public long getNombreRecherches() {
+            return resumes.get(Mesure.DUREE_RECHERCHE).getNombre();
+        }
+
+        /**
+         * Récupère le nombre de recherches n'ayant pas trouvé de chemin.
+         * @return Le nombre de recherches sans chemin.
+         */
+        public long getNombreCheminsIntrouvables() {
+            return cheminsIntrouvables;
+        }
+
+        /**
+         * Récupère le résumé d'une mesure.
+         * @param mesure La mesure.
+         * @return Le résumé de la mesure.
+         */
+        public Histogramme.Resume getResume(Mesure mesure) {
+            return resumes.get(mesure);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texte = new StringBuilder();
+            for (Map.Entry<Mesure, Histogramme.Resume> entree : resumes.entrySet()) {
+                texte.append(entree.getKey()).append(" : ").append(entree.getValue()).append('\n');
+            }
+            return texte.toString();
+        }
+    }
+}
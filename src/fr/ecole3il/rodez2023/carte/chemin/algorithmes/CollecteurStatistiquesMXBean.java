@@ -0,0 +1,80 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+/**
+ * Interface de gestion JMX d'un {@link CollecteurStatistiques}. Chaque mesure est exposée comme un attribut composite
+ * (nombre, minimum, maximum, moyenne, médiane et percentiles), ce qui permet de surveiller par exemple
+ * l'attribut DureeRecherche.percentile99 depuis une console JMX ou un agent de supervision.
+ */
+public interface CollecteurStatistiquesMXBean {
+
+    /**
+     * Récupère le nombre de recherches enregistrées.
+     * @return Le nombre de recherches.
+     */
+    long getNombreRecherches();
+
+    /**
+     * Récupère le nombre de recherches n'ayant pas trouvé de chemin.
+     * @return Le nombre de recherches sans chemin.
+     */
+    long getNombreCheminsIntrouvables();
+
+    /**
+     * Récupère le nombre de graphes construits.
+     * @return Le nombre de constructions.
+     */
+    long getNombreConstructions();
+
+    /**
+     * Récupère le résumé des durées de recherche, en nanosecondes.
+     * @return Le résumé des durées de recherche.
+     */
+    Histogramme.Resume getDureeRecherche();
+
+    /**
+     * Récupère le résumé des durées de construction des graphes, en nanosecondes.
+     * @return Le résumé des durées de construction.
+     */
+    Histogramme.Resume getDureeConstruction();
+
+    /**
+     * Récupère le résumé des nombres de noeuds établis par recherche.
+     * @return Le résumé des noeuds établis.
+     */
+    Histogramme.Resume getNoeudsEtablis();
+
+    /**
+     * Récupère le résumé des nombres de noeuds développés par recherche.
+     * @return Le résumé des noeuds développés.
+     */
+    Histogramme.Resume getNoeudsDeveloppes();
+
+    /**
+     * Récupère le résumé des nombres d'arêtes relâchées par recherche.
+     * @return Le résumé des relâchements.
+     */
+    Histogramme.Resume getRelachements();
+
+    /**
+     * Récupère le résumé des nombres d'insertions dans la file de priorité par recherche.
+     * @return Le résumé des insertions.
+     */
+    Histogramme.Resume getInsertionsTas();
+
+    /**
+     * Récupère le résumé des nombres d'extractions de la file de priorité par recherche.
+     * @return Le résumé des extractions.
+     */
+    Histogramme.Resume getExtractionsTas();
+
+    /**
+     * Récupère le résumé des plus grandes tailles de l'ensemble ouvert par recherche.
+     * @return Le résumé des tailles maximales de l'ensemble ouvert.
+     */
+    Histogramme.Resume getTailleMaximaleOuverts();
+
+    /**
+     * Remet toutes les mesures à zéro.
+     */
+    void reinitialiser();
+}
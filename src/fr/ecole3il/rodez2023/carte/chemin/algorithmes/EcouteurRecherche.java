@@ -0,0 +1,24 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+/**
+ * Interface permettant d'être prévenu de chaque recherche de chemin et de chaque construction de graphe,
+ * par exemple pour agréger des statistiques. Un écouteur est enregistré auprès de {@link Instrumentation}.
+ * Les méthodes sont appelées par le thread ayant effectué le travail, éventuellement par plusieurs threads
+ * à la fois : elles doivent être rapides et sûres vis-à-vis des threads.
+ */
+public interface EcouteurRecherche {
+
+    /**
+     * Appelée après chaque recherche de chemin d'un algorithme instrumenté.
+     * @param statistiques Les statistiques de la recherche.
+     */
+    void rechercheTerminee(StatistiquesRecherche statistiques);
+
+    /**
+     * Appelée après la construction du graphe d'une carte.
+     * @param nombreNoeuds Le nombre de noeuds du graphe construit.
+     * @param duree La durée de la construction, en nanosecondes.
+     */
+    default void grapheConstruit(int nombreNoeuds, long duree) {
+    }
+}
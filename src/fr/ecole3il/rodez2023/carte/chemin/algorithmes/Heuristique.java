@@ -0,0 +1,127 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+/**
+ * Interface définissant l'heuristique utilisée par l'algorithme A* pour estimer le coût restant
+ * entre la valeur d'un nœud et celle du nœud cible.
+ * Une heuristique admissible (qui ne surestime jamais le coût réel) garantit un chemin optimal ;
+ * plus elle est proche du coût réel, moins A* développe de nœuds.
+ *
+ * @param <E> le type des valeurs associées aux nœuds du graphe
+ */
+@FunctionalInterface
+public interface Heuristique<E> {
+
+    /**
+     * Estime le coût du chemin le plus court entre deux valeurs de nœuds.
+     *
+     * @param courant la valeur du nœud courant
+     * @param cible   la valeur du nœud cible
+     * @return l'estimation du coût restant
+     */
+    double estimer(E courant, E cible);
+
+    /**
+     * Renvoie l'heuristique nulle, avec laquelle A* se comporte comme l'algorithme de Dijkstra.
+     *
+     * @param <E> le type des valeurs associées aux nœuds du graphe
+     * @return l'heuristique nulle
+     */
+    static <E> Heuristique<E> nulle() {
+        return (courant, cible) -> 0.0;
+    }
+
+    /**
+     * Renvoie la distance de Manhattan entre deux cases multipliée par le coût minimal d'une arête.
+     * Sur une carte où chaque case est reliée à ses quatre voisines, tout déplacement coûte au moins
+     * deux fois la plus petite pénalité d'une tuile : cette heuristique est donc admissible et consistante.
+     *
+     * @return l'heuristique de Manhattan pondérée par le coût minimal d'une arête
+     */
+    static Heuristique<Case> manhattan() {
+        return manhattan(2.0 * Tuile.getPenaliteMinimale());
+    }
+
+    /**
+     * Renvoie la distance de Manhattan entre deux cases multipliée par le coût minimal d'une arête
+     * calculé à partir des tuiles présentes sur une carte. Elle est plus précise que manhattan() lorsque la carte
+     * ne contient pas toutes les tuiles, mais cesse d'être admissible si une tuile moins pénalisante y est ajoutée.
+     *
+     * @param carte la carte parcourue
+     * @return l'heuristique de Manhattan adaptée à la carte
+     */
+    static Heuristique<Case> manhattan(Carte carte) {
+        int minimum = Integer.MAX_VALUE;
+        for (int x = 0; x < carte.getLargeur(); x++) {
+            for (int y = 0; y < carte.getHauteur(); y++) {
+                minimum = Math.min(minimum, carte.getTuile(x, y).getPenalite());
+            }
+        }
+        return manhattan(2.0 * minimum);
+    }
+
+    /**
+     * Renvoie la distance de Manhattan entre deux cases multipliée par le coût d'arête spécifié.
+     *
+     * @param coutMinimal le coût minimal d'un déplacement d'une case à une case voisine
+     * @return l'heuristique de Manhattan pondérée
+     */
+    static Heuristique<Case> manhattan(double coutMinimal) {
+        return (courant, cible) ->
+                coutMinimal * (Math.abs(courant.getX() - cible.getX()) + Math.abs(courant.getY() - cible.getY()));
+    }
+
+    /**
+     * Renvoie la distance euclidienne entre deux cases multipliée par le coût minimal d'une arête.
+     * Elle reste admissible, mais elle est moins précise que la distance de Manhattan sur une grille 4-connexe.
+     *
+     * @return l'heuristique euclidienne pondérée par le coût minimal d'une arête
+     */
+    static Heuristique<Case> euclidienne() {
+        double coutMinimal = 2.0 * Tuile.getPenaliteMinimale();
+        return (courant, cible) -> {
+            double deltaX = courant.getX() - cible.getX();
+            double deltaY = courant.getY() - cible.getY();
+            return coutMinimal * Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        };
+    }
+
+    /**
+     * Renvoie une heuristique multipliée par (1 + epsilon), pour une recherche A* pondérée.
+     * Si l'heuristique d'origine est admissible, le chemin trouvé coûte au plus (1 + epsilon) fois le coût optimal,
+     * en échange de beaucoup moins de nœuds développés.
+     *
+     * @param heuristique l'heuristique d'origine
+     * @param epsilon     la sous-optimalité tolérée, positive ou nulle
+     * @param <E>         le type des valeurs associées aux nœuds du graphe
+     * @return l'heuristique pondérée
+     * @throws IllegalArgumentException si epsilon est négatif
+     */
+    static <E> Heuristique<E> ponderee(Heuristique<E> heuristique, double epsilon) {
+        if (!(epsilon >= 0.0)) {
+            throw new IllegalArgumentException("La sous-optimalité tolérée doit être positive ou nulle");
+        }
+        double poids = 1.0 + epsilon;
+        return (courant, cible) -> poids * heuristique.estimer(courant, cible);
+    }
+
+    /**
+     * Renvoie l'heuristique utilisée par défaut : la distance de Manhattan pondérée lorsque les valeurs
+     * des nœuds sont des cases, l'heuristique nulle sinon.
+     *
+     * @param <E> le type des valeurs associées aux nœuds du graphe
+     * @return l'heuristique par défaut
+     */
+    static <E> Heuristique<E> parDefaut() {
+        Heuristique<Case> manhattan = manhattan();
+        return (courant, cible) -> {
+            if (courant instanceof Case caseCourante && cible instanceof Case caseCible) {
+                return manhattan.estimer(caseCourante, caseCible);
+            }
+            return 0.0;
+        };
+    }
+}
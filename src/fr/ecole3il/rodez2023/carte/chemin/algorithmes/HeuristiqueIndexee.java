@@ -0,0 +1,18 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+/**
+ * Interface définissant une estimation du coût restant entre deux noeuds d'un graphe indexé,
+ * utilisée par les moteurs de recherche travaillant sur des identifiants entiers.
+ */
+@FunctionalInterface
+public interface HeuristiqueIndexee {
+
+    /**
+     * Estime le coût du chemin le plus court entre deux noeuds.
+     *
+     * @param noeud L'identifiant du noeud courant.
+     * @param cible L'identifiant du noeud cible.
+     * @return L'estimation du coût restant, qui ne doit pas dépasser le coût réel pour garantir un chemin optimal.
+     */
+    double estimer(int noeud, int cible);
+}
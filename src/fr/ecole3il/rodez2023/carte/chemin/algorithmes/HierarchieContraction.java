@@ -0,0 +1,720 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Hiérarchie de contraction d'un graphe indexé, destinée aux graphes statiques interrogés de nombreuses fois.
+ * <p>
+ * Les noeuds sont contractés un à un, dans l'ordre de leur différence d'arêtes (raccourcis ajoutés moins arêtes
+ * retirées) augmentée du nombre de leurs voisins déjà contractés. Contracter un noeud v le retire du graphe en ajoutant,
+ * pour chaque paire de voisins u → v → w, un raccourci u → w de même coût, sauf si une recherche locale
+ * (recherche de témoin) trouve un chemin au moins aussi court qui évite v. Le rang d'un noeud est sa position
+ * dans l'ordre de contraction.
+ * <p>
+ * Seules les arêtes montantes sont conservées : pour chaque noeud, les arêtes sortantes vers un noeud de rang
+ * supérieur, et les arêtes entrantes depuis un noeud de rang supérieur. Chaque raccourci mémorise le noeud
+ * contracté qu'il contourne, ce qui permet de le déplier en chemin du graphe d'origine.
+ * Une hiérarchie est immuable une fois construite et peut être partagée entre plusieurs threads ;
+ * elle peut être écrite puis relue avec {@link #ecrire(DataOutput)} et {@link #lire(DataInput)}. Elle conserve
+ * l'empreinte du graphe contracté ({@link GrapheCompact#calculerEmpreinte()}), ce qui permet de vérifier
+ * avec {@link #correspondA(GrapheCompact)} qu'une hiérarchie relue s'applique bien au graphe interrogé.
+ *
+ * @see MoteurContraction
+ */
+public class HierarchieContraction {
+    private static final int MAGIQUE = 0x43484354; // Signature du format sérialisé
+    private static final int VERSION_FORMAT = 2; // Version du format sérialisé
+    private static final int LIMITE_TEMOINS = 64; // Nombre maximal de noeuds établis par une recherche de témoin
+    private static final int LIMITE_TEMOINS_SIMULATION = 16; // Même limite pour une contraction seulement simulée
+    private static final int POIDS_DIFFERENCE = 2; // Poids de la différence d'arêtes dans la priorité d'un noeud
+    private static final int ARETE_ABSENTE = -2; // Milieu renvoyé pour une arête absente de la hiérarchie
+
+    private final long empreinteGraphe; // Empreinte du graphe contracté
+    private final int[] rangs; // Rang de chaque noeud dans l'ordre de contraction
+    private final Aretes montantes; // Arêtes sortantes vers un noeud de rang supérieur
+    private final Aretes descendantes; // Arêtes entrantes depuis un noeud de rang supérieur, rangées à leur arrivée
+
+    /**
+     * Arêtes d'un côté de la hiérarchie stockées en lignes creuses compressées.
+     * Pour les arêtes montantes, autres[i] est l'arrivée de l'arête ; pour les arêtes descendantes, c'est son départ.
+     */
+    static final class Aretes {
+        final int[] debuts; // Indice de la première arête de chaque noeud, suivi du nombre total d'arêtes
+        final int[] autres; // Autre extrémité de chaque arête
+        final float[] couts; // Coût de chaque arête
+        final int[] milieux; // Noeud contourné par chaque raccourci, ou -1 pour une arête d'origine
+
+        private Aretes(int[] debuts, int[] autres, float[] couts, int[] milieux) {
+            this.debuts = debuts;
+            this.autres = autres;
+            this.couts = couts;
+            this.milieux = milieux;
+        }
+
+        /**
+         * Cherche l'arête d'un noeud vers une autre extrémité.
+         * @param noeud Le noeud portant l'arête.
+         * @param autre L'autre extrémité.
+         * @return L'indice de l'arête, ou -1 si elle n'existe pas.
+         */
+        int chercher(int noeud, int autre) {
+            for (int i = debuts[noeud]; i < debuts[noeud + 1]; i++) {
+                if (autres[i] == autre) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private HierarchieContraction(long empreinteGraphe, int[] rangs, Aretes montantes, Aretes descendantes) {
+        this.empreinteGraphe = empreinteGraphe;
+        this.rangs = rangs;
+        this.montantes = montantes;
+        this.descendantes = descendantes;
+    }
+
+    /**
+     * Construit la hiérarchie de contraction d'un graphe compact.
+     * @param graphe Le graphe à contracter.
+     * @return La hiérarchie, dont les identifiants de noeuds sont ceux du graphe.
+     */
+    public static HierarchieContraction construire(GrapheCompact graphe) {
+        return new Contraction(graphe).executer(graphe.calculerEmpreinte());
+    }
+
+    /**
+     * Construit la hiérarchie de contraction d'un graphe générique.
+     * L'identifiant de chaque noeud est celui donné par graphe.getIndice().
+     * @param graphe Le graphe à contracter.
+     * @param <E> Le type d'objet contenu dans les noeuds du graphe.
+     * @return La hiérarchie du graphe.
+     */
+    public static <E> HierarchieContraction depuisGraphe(Graphe<E> graphe) {
+        return construire(graphe.getGrapheCompact());
+    }
+
+    /**
+     * Construit la hiérarchie de contraction d'une carte, chaque case étant reliée à ses quatre voisines.
+     * Les identifiants des cases sont ceux décrits par {@link Carte} : la hiérarchie vaut aussi pour le graphe
+     * compilé de la carte.
+     * @param carte La carte à contracter.
+     * @return La hiérarchie de la carte.
+     */
+    public static HierarchieContraction depuisCarte(Carte carte) {
+        return construire(GrapheCompact.depuisCarte(carte));
+    }
+
+    /**
+     * Récupère le nombre de noeuds de la hiérarchie.
+     * @return Le nombre de noeuds.
+     */
+    public int getNombreNoeuds() {
+        return rangs.length;
+    }
+
+    /**
+     * Récupère l'empreinte du graphe contracté.
+     * @return L'empreinte calculée par {@link GrapheCompact#calculerEmpreinte()} lors de la construction.
+     */
+    public long getEmpreinteGraphe() {
+        return empreinteGraphe;
+    }
+
+    /**
+     * Indique si la hiérarchie a été construite à partir d'un graphe identique à celui spécifié, c'est-à-dire
+     * de même nombre de noeuds et de même empreinte. Le calcul de l'empreinte parcourt toutes les arêtes du graphe.
+     * @param graphe Le graphe.
+     * @return true si la hiérarchie peut être utilisée pour des recherches dans ce graphe.
+     */
+    public boolean correspondA(GrapheCompact graphe) {
+        return rangs.length == graphe.getNombreNoeuds() && empreinteGraphe == graphe.calculerEmpreinte();
+    }
+
+    /**
+     * Récupère le rang d'un noeud dans l'ordre de contraction.
+     * @param noeud L'identifiant du noeud.
+     * @return Le rang du noeud, de 0 pour le premier contracté au nombre de noeuds moins un.
+     */
+    public int getRang(int noeud) {
+        return rangs[noeud];
+    }
+
+    /**
+     * Récupère le nombre d'arêtes de la hiérarchie, raccourcis compris.
+     * @return Le nombre d'arêtes montantes et descendantes.
+     */
+    public int getNombreAretes() {
+        return montantes.autres.length + descendantes.autres.length;
+    }
+
+    /**
+     * Récupère les arêtes sortantes vers un noeud de rang supérieur.
+     * @return Les arêtes montantes.
+     */
+    Aretes getMontantes() {
+        return montantes;
+    }
+
+    /**
+     * Récupère les arêtes entrantes depuis un noeud de rang supérieur.
+     * @return Les arêtes descendantes.
+     */
+    Aretes getDescendantes() {
+        return descendantes;
+    }
+
+    /**
+     * Récupère le noeud contourné par l'arête entre deux noeuds de la hiérarchie.
+     * @param depart Le départ de l'arête.
+     * @param arrivee L'arrivée de l'arête.
+     * @return Le noeud contourné, ou -1 s'il s'agit d'une arête du graphe d'origine.
+     * @throws IllegalArgumentException Si l'arête n'existe pas dans la hiérarchie.
+     */
+    public int getMilieu(int depart, int arrivee) {
+        int milieu = chercherMilieu(depart, arrivee);
+        if (milieu == ARETE_ABSENTE) {
+            throw new IllegalArgumentException("L'arête " + depart + " -> " + arrivee
+                    + " n'existe pas dans la hiérarchie");
+        }
+        return milieu;
+    }
+
+    /**
+     * Cherche le noeud contourné par l'arête entre deux noeuds de la hiérarchie.
+     * @param depart Le départ de l'arête.
+     * @param arrivee L'arrivée de l'arête.
+     * @return Le noeud contourné, -1 pour une arête du graphe d'origine, ou ARETE_ABSENTE.
+     */
+    private int chercherMilieu(int depart, int arrivee) {
+        if (rangs[arrivee] > rangs[depart]) {
+            int i = montantes.chercher(depart, arrivee);
+            return i >= 0 ? montantes.milieux[i] : ARETE_ABSENTE;
+        }
+        int i = descendantes.chercher(arrivee, depart);
+        return i >= 0 ? descendantes.milieux[i] : ARETE_ABSENTE;
+    }
+
+    /**
+     * Écrit la hiérarchie dans un flux binaire.
+     * @param sortie Le flux de sortie.
+     * @throws IOException Si une erreur d'écriture se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        sortie.writeInt(MAGIQUE);
+        sortie.writeInt(VERSION_FORMAT);
+        sortie.writeLong(empreinteGraphe);
+        sortie.writeInt(rangs.length);
+        for (int rang : rangs) {
+            sortie.writeInt(rang);
+        }
+        ecrireAretes(sortie, montantes);
+        ecrireAretes(sortie, descendantes);
+    }
+
+    /**
+     * Lit une hiérarchie écrite par {@link #ecrire(DataOutput)}. Comme pour {@link GrapheCompact#lire(DataInput)},
+     * le contenu n'est pas tenu pour sûr : les rangs doivent former une permutation des noeuds, les débuts d'arêtes
+     * être croissants, chaque arête relier un noeud à un noeud de rang supérieur, et chaque raccourci contourner
+     * un noeud de rang inférieur par deux arêtes présentes dans la hiérarchie. Une hiérarchie relue peut ainsi
+     * être dépliée sans erreur au milieu d'une recherche.
+     * @param entree Le flux d'entrée.
+     * @return La hiérarchie lue.
+     * @throws IOException Si une erreur de lecture se produit ou si le flux n'est pas une hiérarchie valide.
+     */
+    public static HierarchieContraction lire(DataInput entree) throws IOException {
+        if (entree.readInt() != MAGIQUE) {
+            throw new IOException("Le flux ne contient pas de hiérarchie de contraction");
+        }
+        int version = entree.readInt();
+        if (version != VERSION_FORMAT) {
+            throw new IOException("Version de hiérarchie de contraction non prise en charge : " + version);
+        }
+        long empreinteGraphe = entree.readLong();
+        int nombreNoeuds = entree.readInt();
+        if (nombreNoeuds < 0) {
+            throw new IOException("Nombre de noeuds invalide : " + nombreNoeuds);
+        }
+        int[] rangs = new int[nombreNoeuds];
+        boolean[] rangsVus = new boolean[nombreNoeuds];
+        for (int n = 0; n < nombreNoeuds; n++) {
+            rangs[n] = entree.readInt();
+            if (rangs[n] < 0 || rangs[n] >= nombreNoeuds || rangsVus[rangs[n]]) {
+                throw new IOException("Rang invalide ou répété : " + rangs[n]);
+            }
+            rangsVus[rangs[n]] = true;
+        }
+        HierarchieContraction hierarchie = new HierarchieContraction(empreinteGraphe, rangs,
+                lireAretes(entree, rangs), lireAretes(entree, rangs));
+        hierarchie.verifierRaccourcis(hierarchie.montantes, true);
+        hierarchie.verifierRaccourcis(hierarchie.descendantes, false);
+        return hierarchie;
+    }
+
+    /**
+     * Vérifie que chaque raccourci d'un côté de la hiérarchie se déplie en deux arêtes présentes.
+     * @param aretes Les arêtes à vérifier.
+     * @param sortantes true si chaque arête part du noeud qui la porte, false si elle y arrive.
+     * @throws IOException Si une arête contournée est absente.
+     */
+    private void verifierRaccourcis(Aretes aretes, boolean sortantes) throws IOException {
+        for (int n = 0; n < rangs.length; n++) {
+            for (int i = aretes.debuts[n]; i < aretes.debuts[n + 1]; i++) {
+                int milieu = aretes.milieux[i];
+                if (milieu >= 0) {
+                    int depart = sortantes ? n : aretes.autres[i];
+                    int arrivee = sortantes ? aretes.autres[i] : n;
+                    if (chercherMilieu(depart, milieu) == ARETE_ABSENTE
+                            || chercherMilieu(milieu, arrivee) == ARETE_ABSENTE) {
+                        throw new IOException("Raccourci " + depart + " -> " + arrivee + " impossible à déplier");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Écrit un côté de la hiérarchie.
+     * @param sortie Le flux de sortie.
+     * @param aretes Les arêtes à écrire.
+     * @throws IOException Si une erreur d'écriture se produit.
+     */
+    private static void ecrireAretes(DataOutput sortie, Aretes aretes) throws IOException {
+        sortie.writeInt(aretes.autres.length);
+        for (int debut : aretes.debuts) {
+            sortie.writeInt(debut);
+        }
+        for (int i = 0; i < aretes.autres.length; i++) {
+            sortie.writeInt(aretes.autres[i]);
+            sortie.writeFloat(aretes.couts[i]);
+            sortie.writeInt(aretes.milieux[i]);
+        }
+    }
+
+    /**
+     * Lit un côté de la hiérarchie et vérifie chaque arête : son autre extrémité est un noeud de rang supérieur
+     * au noeud qui la porte, son coût est positif ou nul, et le noeud qu'elle contourne est de rang inférieur.
+     * @param entree Le flux d'entrée.
+     * @param rangs Les rangs des noeuds, déjà vérifiés.
+     * @return Les arêtes lues.
+     * @throws IOException Si une erreur de lecture se produit ou si les arêtes sont incohérentes.
+     */
+    private static Aretes lireAretes(DataInput entree, int[] rangs) throws IOException {
+        int nombreNoeuds = rangs.length;
+        int nombreAretes = entree.readInt();
+        if (nombreAretes < 0) {
+            throw new IOException("Nombre d'arêtes invalide : " + nombreAretes);
+        }
+        int[] debuts = new int[nombreNoeuds + 1];
+        for (int n = 0; n <= nombreNoeuds; n++) {
+            debuts[n] = entree.readInt();
+            if (n > 0 && debuts[n] < debuts[n - 1]) {
+                throw new IOException("Les débuts d'arêtes doivent être croissants");
+            }
+        }
+        if (debuts[0] != 0 || debuts[nombreNoeuds] != nombreAretes) {
+            throw new IOException("Débuts d'arêtes incohérents");
+        }
+        int[] autres = new int[nombreAretes];
+        float[] couts = new float[nombreAretes];
+        int[] milieux = new int[nombreAretes];
+        for (int n = 0; n < nombreNoeuds; n++) {
+            for (int i = debuts[n]; i < debuts[n + 1]; i++) {
+                autres[i] = entree.readInt();
+                couts[i] = entree.readFloat();
+                milieux[i] = entree.readInt();
+                if (autres[i] < 0 || autres[i] >= nombreNoeuds || rangs[autres[i]] <= rangs[n]) {
+                    throw new IOException("Extrémité d'arête invalide : " + autres[i]);
+                }
+                if (!(couts[i] >= 0.0f)) {
+                    throw new IOException("Coût d'arête invalide : " + couts[i]);
+                }
+                if (milieux[i] < -1 || milieux[i] >= nombreNoeuds || (milieux[i] >= 0 && rangs[milieux[i]] >= rangs[n])) {
+                    throw new IOException("Noeud contourné invalide : " + milieux[i]);
+                }
+            }
+        }
+        return new Aretes(debuts, autres, couts, milieux);
+    }
+
+    /**
+     * Listes d'adjacence modifiables utilisées pendant la contraction.
+     */
+    private static final class Adjacence {
+        private final int[][] autres; // Autre extrémité des arêtes de chaque noeud
+        private final float[][] couts; // Coût des arêtes de chaque noeud
+        private final int[][] milieux; // Noeud contourné par chaque arête, ou -1
+        private final int[] tailles; // Nombre d'arêtes de chaque noeud
+
+        private Adjacence(int nombreNoeuds) {
+            autres = new int[nombreNoeuds][];
+            couts = new float[nombreNoeuds][];
+            milieux = new int[nombreNoeuds][];
+            tailles = new int[nombreNoeuds];
+            for (int n = 0; n < nombreNoeuds; n++) {
+                autres[n] = new int[4];
+                couts[n] = new float[4];
+                milieux[n] = new int[4];
+            }
+        }
+
+        /**
+         * Ajoute une arête, ou abaisse le coût de l'arête existante vers la même extrémité.
+         * @param noeud Le noeud portant l'arête.
+         * @param autre L'autre extrémité.
+         * @param cout Le coût de l'arête.
+         * @param milieu Le noeud contourné, ou -1.
+         */
+        private void ajouter(int noeud, int autre, float cout, int milieu) {
+            int taille = tailles[noeud];
+            for (int i = 0; i < taille; i++) {
+                if (autres[noeud][i] == autre) {
+                    if (cout < couts[noeud][i]) {
+                        couts[noeud][i] = cout;
+                        milieux[noeud][i] = milieu;
+                    }
+                    return;
+                }
+            }
+            if (taille == autres[noeud].length) {
+                autres[noeud] = Arrays.copyOf(autres[noeud], taille * 2);
+                couts[noeud] = Arrays.copyOf(couts[noeud], taille * 2);
+                milieux[noeud] = Arrays.copyOf(milieux[noeud], taille * 2);
+            }
+            autres[noeud][taille] = autre;
+            couts[noeud][taille] = cout;
+            milieux[noeud][taille] = milieu;
+            tailles[noeud] = taille + 1;
+        }
+
+        /**
+         * Retire l'arête d'un noeud vers une autre extrémité, en la remplaçant par la dernière arête du noeud.
+         * @param noeud Le noeud portant l'arête.
+         * @param autre L'autre extrémité.
+         */
+        private void retirer(int noeud, int autre) {
+            int derniere = tailles[noeud] - 1;
+            for (int i = 0; i <= derniere; i++) {
+                if (autres[noeud][i] == autre) {
+                    autres[noeud][i] = autres[noeud][derniere];
+                    couts[noeud][i] = couts[noeud][derniere];
+                    milieux[noeud][i] = milieux[noeud][derniere];
+                    tailles[noeud] = derniere;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * État de la construction d'une hiérarchie.
+     */
+    private static final class Contraction {
+        private final int nombreNoeuds; // Nombre de noeuds du graphe
+        private final Adjacence sortants; // Arêtes sortantes du graphe en cours de contraction
+        private final Adjacence entrants; // Arêtes entrantes du graphe en cours de contraction
+        private final boolean[] contractes; // Indique si chaque noeud a été contracté
+        private final int[] voisinsContractes; // Nombre de voisins déjà contractés de chaque noeud
+        private final int[] misAJour; // Nombre de noeuds contractés lors de la dernière mise à jour de chaque noeud
+        private final int[] rangs; // Rang de chaque noeud contracté
+        private final int[][] ciblesMontantes; // Arêtes montantes de chaque noeud, fixées à sa contraction
+        private final float[][] coutsMontants;
+        private final int[][] milieuxMontants;
+        private final int[][] sourcesDescendantes; // Arêtes descendantes de chaque noeud, fixées à sa contraction
+        private final float[][] coutsDescendants;
+        private final int[][] milieuxDescendants;
+
+        // Recherche de témoin
+        private final double[] distances; // Distance depuis la source de chaque noeud atteint
+        private final int[] marques; // Génération de la dernière recherche ayant atteint chaque noeud
+        private final int[] marquesCibles; // Génération de la dernière recherche ayant chaque noeud pour cible
+        private final TasIndexe tas; // File de priorité de la recherche
+        private int generation; // Génération de la recherche courante
+
+        private Contraction(GrapheCompact graphe) {
+            nombreNoeuds = graphe.getNombreNoeuds();
+            sortants = new Adjacence(nombreNoeuds);
+            entrants = new Adjacence(nombreNoeuds);
+            for (int n = 0; n < nombreNoeuds; n++) {
+                for (int i = graphe.getDebutAretes(n); i < graphe.getFinAretes(n); i++) {
+                    int cible = graphe.getCible(i);
+                    if (cible != n) {
+                        sortants.ajouter(n, cible, graphe.getCout(i), -1);
+                        entrants.ajouter(cible, n, graphe.getCout(i), -1);
+                    }
+                }
+            }
+            contractes = new boolean[nombreNoeuds];
+            voisinsContractes = new int[nombreNoeuds];
+            misAJour = new int[nombreNoeuds];
+            rangs = new int[nombreNoeuds];
+            ciblesMontantes = new int[nombreNoeuds][];
+            coutsMontants = new float[nombreNoeuds][];
+            milieuxMontants = new int[nombreNoeuds][];
+            sourcesDescendantes = new int[nombreNoeuds][];
+            coutsDescendants = new float[nombreNoeuds][];
+            milieuxDescendants = new int[nombreNoeuds][];
+            distances = new double[nombreNoeuds];
+            marques = new int[nombreNoeuds];
+            marquesCibles = new int[nombreNoeuds];
+            tas = new TasIndexe(nombreNoeuds);
+        }
+
+        /**
+         * Contracte tous les noeuds et assemble la hiérarchie.
+         * @param empreinteGraphe L'empreinte du graphe contracté.
+         * @return La hiérarchie construite.
+         */
+        private HierarchieContraction executer(long empreinteGraphe) {
+            TasIndexe file = new TasIndexe(nombreNoeuds);
+            for (int n = 0; n < nombreNoeuds; n++) {
+                file.inserer(n, priorite(n));
+            }
+
+            int rang = 0;
+            while (!file.estVide()) {
+                int noeud = file.extraireMinimum();
+                // Mise à jour paresseuse : la priorité a pu augmenter depuis son dernier calcul.
+                double priorite = priorite(noeud);
+                if (!file.estVide() && priorite > file.getCleMinimum()) {
+                    file.inserer(noeud, priorite);
+                    continue;
+                }
+                contracter(noeud, false);
+                rangs[noeud] = rang++;
+
+                // Les voisins perdent une arête et gagnent peut-être des raccourcis : leur priorité est recalculée.
+                for (int voisin : ciblesMontantes[noeud]) {
+                    mettreAJourVoisin(file, voisin, rang);
+                }
+                for (int voisin : sourcesDescendantes[noeud]) {
+                    mettreAJourVoisin(file, voisin, rang);
+                }
+            }
+
+            return new HierarchieContraction(empreinteGraphe, rangs,
+                    assembler(ciblesMontantes, coutsMontants, milieuxMontants),
+                    assembler(sourcesDescendantes, coutsDescendants, milieuxDescendants));
+        }
+
+        /**
+         * Recalcule la priorité d'un voisin du dernier noeud contracté.
+         * @param file La file des noeuds à contracter.
+         * @param voisin Le voisin.
+         * @param rang Le nombre de noeuds contractés, qui identifie la contraction en cours.
+         */
+        private void mettreAJourVoisin(TasIndexe file, int voisin, int rang) {
+            // Un voisin à la fois entrant et sortant n'est mis à jour qu'une fois.
+            if (file.contient(voisin) && misAJour[voisin] != rang) {
+                misAJour[voisin] = rang;
+                voisinsContractes[voisin]++;
+                file.modifierCle(voisin, priorite(voisin));
+            }
+        }
+
+        /**
+         * Calcule la priorité de contraction d'un noeud : raccourcis nécessaires moins arêtes retirées, pondérés,
+         * plus le nombre de voisins déjà contractés pour répartir les contractions sur tout le graphe.
+         * La contraction est simulée avec une recherche de témoins plus courte que la contraction réelle.
+         * @param noeud Le noeud.
+         * @return La priorité, les plus petites étant contractées d'abord.
+         */
+        private double priorite(int noeud) {
+            int retirees = 0;
+            for (int i = 0; i < sortants.tailles[noeud]; i++) {
+                if (!contractes[sortants.autres[noeud][i]]) {
+                    retirees++;
+                }
+            }
+            for (int i = 0; i < entrants.tailles[noeud]; i++) {
+                if (!contractes[entrants.autres[noeud][i]]) {
+                    retirees++;
+                }
+            }
+            return POIDS_DIFFERENCE * (contracter(noeud, true) - retirees) + voisinsContractes[noeud];
+        }
+
+        /**
+         * Contracte un noeud, ou simule sa contraction pour compter les raccourcis nécessaires.
+         * @param noeud Le noeud à contracter.
+         * @param simulation true pour seulement compter les raccourcis.
+         * @return Le nombre de raccourcis nécessaires.
+         */
+        private int contracter(int noeud, boolean simulation) {
+            int raccourcis = 0;
+            int[] sources = entrants.autres[noeud];
+            float[] coutsEntrants = entrants.couts[noeud];
+            int[] cibles = sortants.autres[noeud];
+            float[] coutsSortants = sortants.couts[noeud];
+            int nombreSortants = sortants.tailles[noeud];
+
+            for (int i = 0; i < entrants.tailles[noeud]; i++) {
+                int source = sources[i];
+                if (contractes[source]) {
+                    continue;
+                }
+                nouvelleGeneration();
+                double maximum = 0.0;
+                int nombreCibles = 0;
+                for (int j = 0; j < nombreSortants; j++) {
+                    if (!contractes[cibles[j]] && cibles[j] != source) {
+                        maximum = Math.max(maximum, coutsEntrants[i] + coutsSortants[j]);
+                        if (marquesCibles[cibles[j]] != generation) {
+                            marquesCibles[cibles[j]] = generation;
+                            nombreCibles++;
+                        }
+                    }
+                }
+                if (nombreCibles == 0) {
+                    continue;
+                }
+                rechercherTemoins(source, noeud, maximum, nombreCibles,
+                        simulation ? LIMITE_TEMOINS_SIMULATION : LIMITE_TEMOINS);
+                for (int j = 0; j < nombreSortants; j++) {
+                    int cible = cibles[j];
+                    if (contractes[cible] || cible == source) {
+                        continue;
+                    }
+                    float cout = coutsEntrants[i] + coutsSortants[j];
+                    if (marques[cible] != generation || distances[cible] > cout) {
+                        raccourcis++;
+                        if (!simulation) {
+                            sortants.ajouter(source, cible, cout, noeud);
+                            entrants.ajouter(cible, source, cout, noeud);
+                        }
+                    }
+                }
+            }
+
+            if (!simulation) {
+                contractes[noeud] = true;
+                fixerAretes(sortants, noeud, ciblesMontantes, coutsMontants, milieuxMontants);
+                fixerAretes(entrants, noeud, sourcesDescendantes, coutsDescendants, milieuxDescendants);
+                // Le noeud disparaît des listes de ses voisins, qui ne parcourent plus que le graphe restant.
+                for (int cible : ciblesMontantes[noeud]) {
+                    entrants.retirer(cible, noeud);
+                }
+                for (int source : sourcesDescendantes[noeud]) {
+                    sortants.retirer(source, noeud);
+                }
+            }
+            return raccourcis;
+        }
+
+        /**
+         * Passe à la génération suivante de recherche de témoins.
+         */
+        private void nouvelleGeneration() {
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                // Après un très grand nombre de recherches, les marques sont remises à zéro.
+                Arrays.fill(marques, 0);
+                Arrays.fill(marquesCibles, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * Exécute une recherche de Dijkstra limitée depuis un voisin entrant du noeud contracté, sans passer
+         * par ce noeud ni par les noeuds déjà contractés. Elle s'arrête dès que toutes les cibles sont établies.
+         * @param source Le noeud de départ de la recherche.
+         * @param exclu Le noeud en cours de contraction.
+         * @param maximum La distance au-delà de laquelle la recherche s'arrête.
+         * @param nombreCibles Le nombre de cibles marquées pour cette génération.
+         * @param limite Le nombre maximal de noeuds établis ; une limite basse ajoute des raccourcis superflus
+         *               mais accélère la construction.
+         */
+        private void rechercherTemoins(int source, int exclu, double maximum, int nombreCibles, int limite) {
+            marques[source] = generation;
+            distances[source] = 0.0;
+            tas.inserer(source, 0.0);
+            int etablis = 0;
+            while (!tas.estVide() && tas.getCleMinimum() <= maximum && etablis < limite) {
+                int courant = tas.extraireMinimum();
+                etablis++;
+                if (marquesCibles[courant] == generation && --nombreCibles == 0) {
+                    break;
+                }
+                double distance = distances[courant];
+                for (int i = 0; i < sortants.tailles[courant]; i++) {
+                    int voisin = sortants.autres[courant][i];
+                    if (voisin == exclu || contractes[voisin]) {
+                        continue;
+                    }
+                    double nouvelle = distance + sortants.couts[courant][i];
+                    if (marques[voisin] != generation) {
+                        marques[voisin] = generation;
+                        distances[voisin] = nouvelle;
+                        tas.inserer(voisin, nouvelle);
+                    } else if (nouvelle < distances[voisin] && tas.contient(voisin)) {
+                        distances[voisin] = nouvelle;
+                        tas.diminuerCle(voisin, nouvelle);
+                    }
+                }
+            }
+            tas.vider();
+        }
+
+        /**
+         * Conserve les arêtes d'un noeud contracté vers les noeuds qui ne le sont pas encore, de rang supérieur.
+         * @param adjacence Les listes d'adjacence en cours de contraction.
+         * @param noeud Le noeud contracté.
+         * @param autres Les extrémités fixées de chaque noeud.
+         * @param couts Les coûts fixés de chaque noeud.
+         * @param milieux Les noeuds contournés fixés de chaque noeud.
+         */
+        private void fixerAretes(Adjacence adjacence, int noeud, int[][] autres, float[][] couts, int[][] milieux) {
+            int taille = adjacence.tailles[noeud];
+            int nombre = 0;
+            int[] autresNoeud = new int[taille];
+            float[] coutsNoeud = new float[taille];
+            int[] milieuxNoeud = new int[taille];
+            for (int i = 0; i < taille; i++) {
+                if (!contractes[adjacence.autres[noeud][i]]) {
+                    autresNoeud[nombre] = adjacence.autres[noeud][i];
+                    coutsNoeud[nombre] = adjacence.couts[noeud][i];
+                    milieuxNoeud[nombre] = adjacence.milieux[noeud][i];
+                    nombre++;
+                }
+            }
+            autres[noeud] = Arrays.copyOf(autresNoeud, nombre);
+            couts[noeud] = Arrays.copyOf(coutsNoeud, nombre);
+            milieux[noeud] = Arrays.copyOf(milieuxNoeud, nombre);
+            // Les arêtes du noeud ne servent plus à la contraction.
+            adjacence.autres[noeud] = null;
+            adjacence.couts[noeud] = null;
+            adjacence.milieux[noeud] = null;
+            adjacence.tailles[noeud] = 0;
+        }
+
+        /**
+         * Assemble les arêtes fixées de chaque noeud en lignes creuses compressées.
+         * @param autres Les extrémités fixées de chaque noeud.
+         * @param couts Les coûts fixés de chaque noeud.
+         * @param milieux Les noeuds contournés fixés de chaque noeud.
+         * @return Les arêtes assemblées.
+         */
+        private Aretes assembler(int[][] autres, float[][] couts, int[][] milieux) {
+            int[] debuts = new int[nombreNoeuds + 1];
+            for (int n = 0; n < nombreNoeuds; n++) {
+                debuts[n + 1] = debuts[n] + autres[n].length;
+            }
+            int[] toutesAutres = new int[debuts[nombreNoeuds]];
+            float[] tousCouts = new float[debuts[nombreNoeuds]];
+            int[] tousMilieux = new int[debuts[nombreNoeuds]];
+            for (int n = 0; n < nombreNoeuds; n++) {
+                System.arraycopy(autres[n], 0, toutesAutres, debuts[n], autres[n].length);
+                System.arraycopy(couts[n], 0, tousCouts, debuts[n], couts[n].length);
+                System.arraycopy(milieux[n], 0, tousMilieux, debuts[n], milieux[n].length);
+            }
+            return new Aretes(debuts, toutesAutres, tousCouts, tousMilieux);
+        }
+    }
+}
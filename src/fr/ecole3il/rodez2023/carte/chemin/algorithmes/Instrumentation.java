@@ -0,0 +1,69 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * La classe Instrumentation réunit les écouteurs des recherches de chemin. L'instrumentation est désactivée tant
+ * qu'aucun écouteur n'est enregistré : une recherche se contente alors de lire un booléen, sans mesurer le temps
+ * ni créer de statistiques. Les compteurs des moteurs, eux, sont toujours tenus, leur coût étant négligeable.
+ */
+public class Instrumentation {
+    private static final CopyOnWriteArrayList<EcouteurRecherche> ECOUTEURS = new CopyOnWriteArrayList<>(); // Écouteurs enregistrés
+    private static volatile boolean active; // true si au moins un écouteur est enregistré
+
+    /**
+     * Constructeur privé : la classe ne contient que des méthodes statiques.
+     */
+    private Instrumentation() {
+    }
+
+    /**
+     * Enregistre un écouteur, ce qui active l'instrumentation.
+     * @param ecouteur L'écouteur à enregistrer.
+     */
+    public static synchronized void ajouterEcouteur(EcouteurRecherche ecouteur) {
+        if (ecouteur == null) {
+            throw new IllegalArgumentException("L'écouteur ne doit pas être nul");
+        }
+        ECOUTEURS.add(ecouteur);
+        active = true;
+    }
+
+    /**
+     * Retire un écouteur ; l'instrumentation est désactivée lorsque plus aucun écouteur n'est enregistré.
+     * @param ecouteur L'écouteur à retirer.
+     */
+    public static synchronized void retirerEcouteur(EcouteurRecherche ecouteur) {
+        ECOUTEURS.remove(ecouteur);
+        active = !ECOUTEURS.isEmpty();
+    }
+
+    /**
+     * Indique si l'instrumentation est active, c'est-à-dire si au moins un écouteur est enregistré.
+     * @return true si l'instrumentation est active.
+     */
+    public static boolean estActive() {
+        return active;
+    }
+
+    /**
+     * Transmet les statistiques d'une recherche à tous les écouteurs.
+     * @param statistiques Les statistiques de la recherche.
+     */
+    public static void publier(StatistiquesRecherche statistiques) {
+        for (EcouteurRecherche ecouteur : ECOUTEURS) {
+            ecouteur.rechercheTerminee(statistiques);
+        }
+    }
+
+    /**
+     * Signale à tous les écouteurs la construction du graphe d'une carte.
+     * @param nombreNoeuds Le nombre de noeuds du graphe construit.
+     * @param duree La durée de la construction, en nanosecondes.
+     */
+    public static void publierConstruction(int nombreNoeuds, long duree) {
+        for (EcouteurRecherche ecouteur : ECOUTEURS) {
+            ecouteur.grapheConstruit(nombreNoeuds, duree);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.GrapheIndexe;
+
+import java.util.Arrays;
+
+/**
+ * Moteur de l'algorithme A* sur un graphe indexé, travaillant uniquement sur des tableaux primitifs.
+ * L'ensemble ouvert est un tas indexé : un noeud déjà présent voit sa clé diminuée au lieu d'être inséré
+ * une seconde fois, et le test d'appartenance se fait en temps constant. Un noeud est fermé lorsqu'il a été
+ * atteint par la recherche courante et qu'il n'est plus dans le tas ; les marques de génération évitent de
+ * réinitialiser les tableaux entre deux recherches. Si l'heuristique n'est pas consistante, un noeud fermé
+ * dont le coût s'améliore est rouvert, ce qui préserve l'optimalité pour toute heuristique admissible.
+ * Un moteur n'est pas prévu pour être utilisé par plusieurs threads à la fois.
+ */
+public class MoteurAEtoile {
+    private static final int[] CHEMIN_VIDE = new int[0];
+
+    private double[] coutsActuels = new double[0]; // Coût depuis le départ de chaque noeud atteint
+    private int[] parents = new int[0]; // Prédécesseur de chaque noeud atteint, ou -1 pour le départ
+    private int[] marques = new int[0]; // Génération de la dernière recherche ayant atteint chaque noeud
+    private int generation; // Génération de la recherche courante
+    private final TasIndexe ouverts = new TasIndexe(0); // Ensemble ouvert, ordonné par coût total estimé
+    private int[] voisins = new int[0]; // Tampon recevant les voisins d'un noeud
+    private double[] couts = new double[0]; // Tampon recevant les coûts des arêtes vers ces voisins
+    private int nombreExpansions; // Nombre de noeuds développés par la dernière recherche
+    private long nombreRelachements; // Nombre d'arêtes relâchées par la dernière recherche
+
+    /**
+     * Trouve le chemin le plus court entre deux noeuds d'un graphe indexé.
+     *
+     * @param graphe      Le graphe dans lequel chercher le chemin.
+     * @param depart      L'identifiant du noeud de départ.
+     * @param arrivee     L'identifiant du noeud d'arrivée.
+     * @param heuristique L'estimation du coût restant jusqu'à l'arrivée.
+     * @return Les identifiants des noeuds du chemin, du départ à l'arrivée, ou un tableau vide si l'arrivée
+     * n'est pas atteignable.
+     */
+    public int[] rechercher(GrapheIndexe graphe, int depart, int arrivee, HeuristiqueIndexee heuristique) {
+        preparer(graphe);
+        atteindre(depart, 0.0, -1);
+        ouverts.inserer(depart, heuristique.estimer(depart, arrivee));
+
+        while (!ouverts.estVide()) {
+            int courant = ouverts.extraireMinimum();
+            if (courant == arrivee) {
+                ouverts.vider();
+                return reconstruireChemin(arrivee);
+            }
+            nombreExpansions++;
+
+            // Exploration des voisins
+            double coutCourant = coutsActuels[courant];
+            int nombreVoisins = graphe.getVoisins(courant, voisins, couts);
+            nombreRelachements += nombreVoisins;
+            for (int i = 0; i < nombreVoisins; i++) {
+                int voisin = voisins[i];
+                double nouveauCout = coutCourant + couts[i];
+                if (marques[voisin] != generation) {
+                    atteindre(voisin, nouveauCout, courant);
+                    ouverts.inserer(voisin, nouveauCout + heuristique.estimer(voisin, arrivee));
+                } else if (nouveauCout < coutsActuels[voisin]) {
+                    coutsActuels[voisin] = nouveauCout;
+                    parents[voisin] = courant;
+                    double estimation = nouveauCout + heuristique.estimer(voisin, arrivee);
+                    if (ouverts.contient(voisin)) {
+                        ouverts.diminuerCle(voisin, estimation);
+                    } else {
+                        ouverts.inserer(voisin, estimation);
+                    }
+                }
+            }
+        }
+        return CHEMIN_VIDE;
+    }
+
+    /**
+     * Récupère le coût depuis le départ d'un noeud atteint par la dernière recherche.
+     *
+     * @param noeud L'identifiant du noeud.
+     * @return Le coût du noeud, ou une valeur infinie s'il n'a pas été atteint.
+     */
+    public double getCout(int noeud) {
+        return marques[noeud] == generation ? coutsActuels[noeud] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Récupère le nombre de noeuds développés lors de la dernière recherche.
+     *
+     * @return Le nombre de noeuds développés.
+     */
+    public int getNombreExpansions() {
+        return nombreExpansions;
+    }
+
+    /**
+     * Complète des statistiques avec les compteurs de la dernière recherche.
+     *
+     * @param statistiques Les statistiques à compléter.
+     */
+    public void decrire(StatistiquesRecherche statistiques) {
+        statistiques.compterNoeuds((int) ouverts.getNombreExtractions(), nombreExpansions, nombreRelachements);
+        statistiques.compterTas(ouverts);
+    }
+
+    /**
+     * Prépare les tableaux pour une nouvelle recherche sur le graphe spécifié.
+     *
+     * @param graphe Le graphe de la recherche.
+     */
+    private void preparer(GrapheIndexe graphe) {
+        int nombreNoeuds = graphe.getNombreNoeuds();
+        if (coutsActuels.length < nombreNoeuds) {
+            coutsActuels = new double[nombreNoeuds];
+            parents = new int[nombreNoeuds];
+            marques = new int[nombreNoeuds];
+            generation = 0;
+            ouverts.assurerCapacite(nombreNoeuds);
+        }
+        int degre = graphe.getDegreMaximal();
+        if (voisins.length < degre) {
+            voisins = new int[degre];
+            couts = new double[degre];
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Après un très grand nombre de recherches, les marques sont remises à zéro.
+            Arrays.fill(marques, 0);
+            generation = 1;
+        }
+        nombreExpansions = 0;
+        nombreRelachements = 0;
+        ouverts.reinitialiserCompteurs();
+    }
+
+    /**
+     * Marque un noeud comme atteint avec le coût et le prédécesseur spécifiés.
+     *
+     * @param noeud  L'identifiant du noeud.
+     * @param cout   Le coût du noeud depuis le départ.
+     * @param parent Le prédécesseur du noeud.
+     */
+    private void atteindre(int noeud, double cout, int parent) {
+        marques[noeud] = generation;
+        coutsActuels[noeud] = cout;
+        parents[noeud] = parent;
+    }
+
+    /**
+     * Reconstruit le chemin menant au noeud d'arrivée à partir des prédécesseurs.
+     *
+     * @param arrivee L'identifiant du noeud d'arrivée.
+     * @return Les identifiants des noeuds du chemin.
+     */
+    private int[] reconstruireChemin(int arrivee) {
+        int longueur = 0;
+        for (int noeud = arrivee; noeud != -1; noeud = parents[noeud]) {
+            longueur++;
+        }
+        int[] chemin = new int[longueur];
+        for (int noeud = arrivee; noeud != -1; noeud = parents[noeud]) {
+            chemin[--longueur] = noeud;
+        }
+        return chemin;
+    }
+}
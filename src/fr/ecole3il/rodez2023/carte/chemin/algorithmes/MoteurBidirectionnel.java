@@ -0,0 +1,250 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.GrapheIndexe;
+
+import java.util.Arrays;
+
+/**
+ * Moteur de recherche bidirectionnelle sur un graphe indexé : une recherche part du départ sur le graphe,
+ * l'autre part de l'arrivée sur le graphe inverse, et elles s'arrêtent lorsque la somme des plus petites clés
+ * des deux files atteint le coût du meilleur chemin déjà rencontré.
+ * Sans heuristique, c'est l'algorithme de Dijkstra bidirectionnel. Avec une heuristique symétrique et consistante h,
+ * les deux recherches utilisent le potentiel moyen p(v) = (h(v, arrivee) - h(v, depart)) / 2 et son opposé,
+ * ce qui conserve le même critère d'arrêt tout en guidant chaque recherche vers l'autre extrémité.
+ * Un moteur n'est pas prévu pour être utilisé par plusieurs threads à la fois.
+ */
+public class MoteurBidirectionnel {
+    private static final int[] CHEMIN_VIDE = new int[0];
+
+    private final Cote avant = new Cote(); // Recherche partant du départ
+    private final Cote arriere = new Cote(); // Recherche partant de l'arrivée sur le graphe inverse
+    private int generation; // Génération de la recherche courante
+    private int[] voisins = new int[0]; // Tampon recevant les voisins d'un noeud
+    private double[] couts = new double[0]; // Tampon recevant les coûts des arêtes vers ces voisins
+    private double meilleurCout; // Coût du meilleur chemin rencontré
+    private int rencontre; // Noeud où les deux recherches se rejoignent sur le meilleur chemin
+    private int nombreEtablis; // Nombre de noeuds établis par les deux recherches
+    private long nombreRelachements; // Nombre d'arêtes relâchées par les deux recherches
+
+    /**
+     * Données d'une des deux recherches.
+     */
+    private static final class Cote {
+        private double[] distances = new double[0]; // Distance à l'extrémité de chaque noeud atteint
+        private int[] parents = new int[0]; // Prédécesseur de chaque noeud atteint, ou -1 pour l'extrémité
+        private int[] marques = new int[0]; // Génération de la dernière recherche ayant atteint chaque noeud
+        private final TasIndexe tas = new TasIndexe(0); // File de priorité, ordonnée par distance plus potentiel
+
+        /**
+         * Agrandit les tableaux pour un graphe du nombre de noeuds spécifié.
+         * @param nombreNoeuds Le nombre de noeuds du graphe.
+         */
+        private void assurerCapacite(int nombreNoeuds) {
+            distances = new double[nombreNoeuds];
+            parents = new int[nombreNoeuds];
+            marques = new int[nombreNoeuds];
+            tas.assurerCapacite(nombreNoeuds);
+        }
+    }
+
+    /**
+     * Trouve le chemin le plus court entre deux noeuds en cherchant depuis les deux extrémités.
+     *
+     * @param graphe      Le graphe dans lequel chercher le chemin.
+     * @param inverse     Le graphe inverse (identique au graphe lorsque les coûts sont symétriques).
+     * @param depart      L'identifiant du noeud de départ.
+     * @param arrivee     L'identifiant du noeud d'arrivée.
+     * @param heuristique L'heuristique symétrique et consistante guidant les recherches, ou null pour Dijkstra.
+     * @return Les identifiants des noeuds du chemin, du départ à l'arrivée, ou un tableau vide si l'arrivée
+     * n'est pas atteignable.
+     */
+    public int[] rechercher(GrapheIndexe graphe, GrapheIndexe inverse, int depart, int arrivee,
+                            HeuristiqueIndexee heuristique) {
+        preparer(graphe);
+        meilleurCout = Double.POSITIVE_INFINITY;
+        rencontre = -1;
+
+        atteindre(avant, depart, 0.0, -1);
+        avant.tas.inserer(depart, potentiel(heuristique, depart, depart, arrivee));
+        atteindre(arriere, arrivee, 0.0, -1);
+        arriere.tas.inserer(arrivee, -potentiel(heuristique, arrivee, depart, arrivee));
+        if (depart == arrivee) {
+            meilleurCout = 0.0;
+            rencontre = depart;
+        }
+
+        while (!avant.tas.estVide() && !arriere.tas.estVide()) {
+            if (avant.tas.getCleMinimum() + arriere.tas.getCleMinimum() >= meilleurCout) {
+                break;
+            }
+            if (avant.tas.getCleMinimum() <= arriere.tas.getCleMinimum()) {
+                developper(graphe, avant, arriere, heuristique, 1.0, depart, arrivee);
+            } else {
+                developper(inverse, arriere, avant, heuristique, -1.0, depart, arrivee);
+            }
+        }
+        avant.tas.vider();
+        arriere.tas.vider();
+
+        return rencontre < 0 ? CHEMIN_VIDE : reconstruireChemin();
+    }
+
+    /**
+     * Récupère le coût du chemin trouvé par la dernière recherche.
+     *
+     * @return Le coût du chemin, ou une valeur infinie si aucun chemin n'a été trouvé.
+     */
+    public double getCoutChemin() {
+        return meilleurCout;
+    }
+
+    /**
+     * Récupère le nombre de noeuds établis par les deux recherches lors de la dernière recherche.
+     *
+     * @return Le nombre de noeuds établis.
+     */
+    public int getNombreNoeudsEtablis() {
+        return nombreEtablis;
+    }
+
+    /**
+     * Calcule le potentiel de la recherche avant pour un noeud.
+     *
+     * @param heuristique L'heuristique, ou null.
+     * @param noeud       L'identifiant du noeud.
+     * @param depart      L'identifiant du noeud de départ.
+     * @param arrivee     L'identifiant du noeud d'arrivée.
+     * @return Le potentiel du noeud, nul en l'absence d'heuristique.
+     */
+    private static double potentiel(HeuristiqueIndexee heuristique, int noeud, int depart, int arrivee) {
+        if (heuristique == null) {
+            return 0.0;
+        }
+        return (heuristique.estimer(noeud, arrivee) - heuristique.estimer(noeud, depart)) / 2.0;
+    }
+
+    /**
+     * Établit le noeud de plus petite clé d'un côté et relâche ses arêtes.
+     *
+     * @param graphe      Le graphe parcouru par ce côté.
+     * @param cote        Le côté développé.
+     * @param autre       Le côté opposé.
+     * @param heuristique L'heuristique, ou null.
+     * @param signe       1 pour la recherche avant, -1 pour la recherche arrière.
+     * @param depart      L'identifiant du noeud de départ.
+     * @param arrivee     L'identifiant du noeud d'arrivée.
+     */
+    private void developper(GrapheIndexe graphe, Cote cote, Cote autre, HeuristiqueIndexee heuristique,
+                            double signe, int depart, int arrivee) {
+        int noeud = cote.tas.extraireMinimum();
+        nombreEtablis++;
+        double distance = cote.distances[noeud];
+        int nombreVoisins = graphe.getVoisins(noeud, voisins, couts);
+        nombreRelachements += nombreVoisins;
+        for (int i = 0; i < nombreVoisins; i++) {
+            int voisin = voisins[i];
+            double nouvelleDistance = distance + couts[i];
+            if (cote.marques[voisin] != generation) {
+                atteindre(cote, voisin, nouvelleDistance, noeud);
+                cote.tas.inserer(voisin, nouvelleDistance + signe * potentiel(heuristique, voisin, depart, arrivee));
+            } else if (nouvelleDistance < cote.distances[voisin] && cote.tas.contient(voisin)) {
+                cote.distances[voisin] = nouvelleDistance;
+                cote.parents[voisin] = noeud;
+                cote.tas.diminuerCle(voisin,
+                        nouvelleDistance + signe * potentiel(heuristique, voisin, depart, arrivee));
+            } else {
+                continue;
+            }
+            // Le voisin a déjà été atteint par l'autre recherche : un chemin complet passe par lui.
+            if (autre.marques[voisin] == generation) {
+                double cout = nouvelleDistance + autre.distances[voisin];
+                if (cout < meilleurCout) {
+                    meilleurCout = cout;
+                    rencontre = voisin;
+                }
+            }
+        }
+    }
+
+    /**
+     * Complète des statistiques avec les compteurs de la dernière recherche.
+     *
+     * @param statistiques Les statistiques à compléter.
+     */
+    public void decrire(StatistiquesRecherche statistiques) {
+        statistiques.compterNoeuds(nombreEtablis, nombreEtablis, nombreRelachements);
+        statistiques.compterTas(avant.tas);
+        statistiques.compterTas(arriere.tas);
+    }
+
+    /**
+     * Prépare les tableaux pour une nouvelle recherche sur le graphe spécifié.
+     *
+     * @param graphe Le graphe de la recherche.
+     */
+    private void preparer(GrapheIndexe graphe) {
+        int nombreNoeuds = graphe.getNombreNoeuds();
+        if (avant.distances.length < nombreNoeuds) {
+            avant.assurerCapacite(nombreNoeuds);
+            arriere.assurerCapacite(nombreNoeuds);
+            generation = 0;
+        }
+        int degre = graphe.getDegreMaximal();
+        if (voisins.length < degre) {
+            voisins = new int[degre];
+            couts = new double[degre];
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Après un très grand nombre de recherches, les marques sont remises à zéro.
+            Arrays.fill(avant.marques, 0);
+            Arrays.fill(arriere.marques, 0);
+            generation = 1;
+        }
+        nombreEtablis = 0;
+        nombreRelachements = 0;
+        avant.tas.reinitialiserCompteurs();
+        arriere.tas.reinitialiserCompteurs();
+    }
+
+    /**
+     * Marque un noeud comme atteint par un côté avec la distance et le prédécesseur spécifiés.
+     *
+     * @param cote     Le côté de la recherche.
+     * @param noeud    L'identifiant du noeud.
+     * @param distance La distance du noeud à l'extrémité de ce côté.
+     * @param parent   Le prédécesseur du noeud.
+     */
+    private void atteindre(Cote cote, int noeud, double distance, int parent) {
+        cote.marques[noeud] = generation;
+        cote.distances[noeud] = distance;
+        cote.parents[noeud] = parent;
+    }
+
+    /**
+     * Reconstruit le chemin en joignant les prédécesseurs des deux recherches au noeud de rencontre.
+     *
+     * @return Les identifiants des noeuds du chemin, du départ à l'arrivée.
+     */
+    private int[] reconstruireChemin() {
+        int longueurAvant = 0;
+        for (int noeud = rencontre; noeud != -1; noeud = avant.parents[noeud]) {
+            longueurAvant++;
+        }
+        int longueurArriere = 0;
+        for (int noeud = arriere.parents[rencontre]; noeud != -1; noeud = arriere.parents[noeud]) {
+            longueurArriere++;
+        }
+
+        int[] chemin = new int[longueurAvant + longueurArriere];
+        int i = longueurAvant;
+        for (int noeud = rencontre; noeud != -1; noeud = avant.parents[noeud]) {
+            chemin[--i] = noeud;
+        }
+        i = longueurAvant;
+        for (int noeud = arriere.parents[rencontre]; noeud != -1; noeud = arriere.parents[noeud]) {
+            chemin[i++] = noeud;
+        }
+        return chemin;
+    }
+}
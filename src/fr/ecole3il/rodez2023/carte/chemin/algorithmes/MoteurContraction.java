@@ -0,0 +1,239 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import java.util.Arrays;
+
+/**
+ * Moteur de recherche dans une hiérarchie de contraction : une recherche montante part du départ par les arêtes
+ * montantes, une autre part de l'arrivée par les arêtes descendantes, et le plus court chemin passe par le noeud
+ * de rencontre de rang le plus élevé. Chaque recherche s'arrête lorsque sa plus petite clé atteint le coût du
+ * meilleur chemin rencontré ; les raccourcis du chemin trouvé sont ensuite dépliés en arêtes du graphe d'origine.
+ * Un moteur n'est pas prévu pour être utilisé par plusieurs threads à la fois.
+ */
+public class MoteurContraction {
+    private static final int[] CHEMIN_VIDE = new int[0];
+
+    private final Cote avant = new Cote(); // Recherche montante depuis le départ
+    private final Cote arriere = new Cote(); // Recherche montante depuis l'arrivée, sur les arêtes descendantes
+    private int generation; // Génération de la recherche courante
+    private double meilleurCout; // Coût du meilleur chemin rencontré
+    private int rencontre; // Noeud où les deux recherches se rejoignent sur le meilleur chemin
+    private int nombreEtablis; // Nombre de noeuds établis par les deux recherches
+    private long nombreRelachements; // Nombre d'arêtes relâchées par les deux recherches
+    private int[] pile = new int[16]; // Pile des arêtes restant à déplier, par paires de noeuds
+
+    /**
+     * Données d'une des deux recherches.
+     */
+    private static final class Cote {
+        private double[] distances = new double[0]; // Distance à l'extrémité de chaque noeud atteint
+        private int[] parents = new int[0]; // Prédécesseur de chaque noeud atteint, ou -1 pour l'extrémité
+        private int[] marques = new int[0]; // Génération de la dernière recherche ayant atteint chaque noeud
+        private final TasIndexe tas = new TasIndexe(0); // File de priorité, ordonnée par distance
+    }
+
+    /**
+     * Trouve le chemin le plus court entre deux noeuds du graphe d'origine d'une hiérarchie.
+     *
+     * @param hierarchie La hiérarchie de contraction du graphe.
+     * @param depart     L'identifiant du noeud de départ.
+     * @param arrivee    L'identifiant du noeud d'arrivée.
+     * @return Les identifiants des noeuds du chemin dans le graphe d'origine, du départ à l'arrivée,
+     * ou un tableau vide si l'arrivée n'est pas atteignable.
+     */
+    public int[] rechercher(HierarchieContraction hierarchie, int depart, int arrivee) {
+        preparer(hierarchie.getNombreNoeuds());
+        meilleurCout = Double.POSITIVE_INFINITY;
+        rencontre = -1;
+
+        atteindre(avant, depart, 0.0, -1);
+        avant.tas.inserer(depart, 0.0);
+        atteindre(arriere, arrivee, 0.0, -1);
+        arriere.tas.inserer(arrivee, 0.0);
+        if (depart == arrivee) {
+            meilleurCout = 0.0;
+            rencontre = depart;
+        }
+
+        HierarchieContraction.Aretes montantes = hierarchie.getMontantes();
+        HierarchieContraction.Aretes descendantes = hierarchie.getDescendantes();
+        while (true) {
+            boolean avantActif = avant.tas.getCleMinimum() < meilleurCout;
+            boolean arriereActif = arriere.tas.getCleMinimum() < meilleurCout;
+            if (!avantActif && !arriereActif) {
+                break;
+            }
+            if (avantActif && (!arriereActif || avant.tas.getCleMinimum() <= arriere.tas.getCleMinimum())) {
+                developper(montantes, avant, arriere);
+            } else {
+                developper(descendantes, arriere, avant);
+            }
+        }
+        avant.tas.vider();
+        arriere.tas.vider();
+
+        return rencontre < 0 ? CHEMIN_VIDE : deplier(hierarchie);
+    }
+
+    /**
+     * Récupère le coût du chemin trouvé par la dernière recherche.
+     *
+     * @return Le coût du chemin, ou une valeur infinie si aucun chemin n'a été trouvé.
+     */
+    public double getCoutChemin() {
+        return meilleurCout;
+    }
+
+    /**
+     * Récupère le nombre de noeuds établis par les deux recherches lors de la dernière recherche.
+     *
+     * @return Le nombre de noeuds établis.
+     */
+    public int getNombreNoeudsEtablis() {
+        return nombreEtablis;
+    }
+
+    /**
+     * Établit le noeud de plus petite clé d'un côté et relâche ses arêtes vers les noeuds de rang supérieur.
+     *
+     * @param aretes Les arêtes parcourues par ce côté.
+     * @param cote   Le côté développé.
+     * @param autre  Le côté opposé.
+     */
+    private void developper(HierarchieContraction.Aretes aretes, Cote cote, Cote autre) {
+        int noeud = cote.tas.extraireMinimum();
+        nombreEtablis++;
+        double distance = cote.distances[noeud];
+        nombreRelachements += aretes.debuts[noeud + 1] - aretes.debuts[noeud];
+        for (int i = aretes.debuts[noeud]; i < aretes.debuts[noeud + 1]; i++) {
+            int voisin = aretes.autres[i];
+            double nouvelleDistance = distance + aretes.couts[i];
+            if (cote.marques[voisin] != generation) {
+                atteindre(cote, voisin, nouvelleDistance, noeud);
+                cote.tas.inserer(voisin, nouvelleDistance);
+            } else if (nouvelleDistance < cote.distances[voisin] && cote.tas.contient(voisin)) {
+                cote.distances[voisin] = nouvelleDistance;
+                cote.parents[voisin] = noeud;
+                cote.tas.diminuerCle(voisin, nouvelleDistance);
+            } else {
+                continue;
+            }
+            if (autre.marques[voisin] == generation) {
+                double cout = nouvelleDistance + autre.distances[voisin];
+                if (cout < meilleurCout) {
+                    meilleurCout = cout;
+                    rencontre = voisin;
+                }
+            }
+        }
+    }
+
+    /**
+     * Complète des statistiques avec les compteurs de la dernière recherche.
+     *
+     * @param statistiques Les statistiques à compléter.
+     */
+    public void decrire(StatistiquesRecherche statistiques) {
+        statistiques.compterNoeuds(nombreEtablis, nombreEtablis, nombreRelachements);
+        statistiques.compterTas(avant.tas);
+        statistiques.compterTas(arriere.tas);
+    }
+
+    /**
+     * Prépare les tableaux pour une nouvelle recherche.
+     *
+     * @param nombreNoeuds Le nombre de noeuds de la hiérarchie.
+     */
+    private void preparer(int nombreNoeuds) {
+        if (avant.distances.length < nombreNoeuds) {
+            for (Cote cote : new Cote[] {avant, arriere}) {
+                cote.distances = new double[nombreNoeuds];
+                cote.parents = new int[nombreNoeuds];
+                cote.marques = new int[nombreNoeuds];
+                cote.tas.assurerCapacite(nombreNoeuds);
+            }
+            generation = 0;
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Après un très grand nombre de recherches, les marques sont remises à zéro.
+            Arrays.fill(avant.marques, 0);
+            Arrays.fill(arriere.marques, 0);
+            generation = 1;
+        }
+        nombreEtablis = 0;
+        nombreRelachements = 0;
+        avant.tas.reinitialiserCompteurs();
+        arriere.tas.reinitialiserCompteurs();
+    }
+
+    /**
+     * Marque un noeud comme atteint par un côté avec la distance et le prédécesseur spécifiés.
+     *
+     * @param cote     Le côté de la recherche.
+     * @param noeud    L'identifiant du noeud.
+     * @param distance La distance du noeud à l'extrémité de ce côté.
+     * @param parent   Le prédécesseur du noeud.
+     */
+    private void atteindre(Cote cote, int noeud, double distance, int parent) {
+        cote.marques[noeud] = generation;
+        cote.distances[noeud] = distance;
+        cote.parents[noeud] = parent;
+    }
+
+    /**
+     * Reconstruit le chemin de la hiérarchie passant par le noeud de rencontre, puis remplace chaque raccourci
+     * par les deux arêtes qu'il contourne jusqu'à n'obtenir que des arêtes du graphe d'origine.
+     *
+     * @param hierarchie La hiérarchie de contraction.
+     * @return Les identifiants des noeuds du chemin, du départ à l'arrivée.
+     */
+    private int[] deplier(HierarchieContraction hierarchie) {
+        int longueurAvant = 0;
+        for (int noeud = rencontre; noeud != -1; noeud = avant.parents[noeud]) {
+            longueurAvant++;
+        }
+        int longueurArriere = 0;
+        for (int noeud = arriere.parents[rencontre]; noeud != -1; noeud = arriere.parents[noeud]) {
+            longueurArriere++;
+        }
+        int[] hierarchique = new int[longueurAvant + longueurArriere];
+        int i = longueurAvant;
+        for (int noeud = rencontre; noeud != -1; noeud = avant.parents[noeud]) {
+            hierarchique[--i] = noeud;
+        }
+        i = longueurAvant;
+        for (int noeud = arriere.parents[rencontre]; noeud != -1; noeud = arriere.parents[noeud]) {
+            hierarchique[i++] = noeud;
+        }
+
+        int[] chemin = new int[Math.max(16, hierarchique.length)];
+        int longueur = 0;
+        chemin[longueur++] = hierarchique[0];
+        for (int k = 1; k < hierarchique.length; k++) {
+            // La pile est dépilée par la fin : la seconde moitié d'un raccourci est empilée avant la première.
+            int taillePile = 0;
+            pile[taillePile++] = hierarchique[k - 1];
+            pile[taillePile++] = hierarchique[k];
+            while (taillePile > 0) {
+                int b = pile[--taillePile];
+                int a = pile[--taillePile];
+                int milieu = hierarchie.getMilieu(a, b);
+                if (milieu < 0) {
+                    if (longueur == chemin.length) {
+                        chemin = Arrays.copyOf(chemin, longueur * 2);
+                    }
+                    chemin[longueur++] = b;
+                } else {
+                    if (taillePile + 4 > pile.length) {
+                        pile = Arrays.copyOf(pile, pile.length * 2);
+                    }
+                    pile[taillePile++] = milieu;
+                    pile[taillePile++] = b;
+                    pile[taillePile++] = a;
+                    pile[taillePile++] = milieu;
+                }
+            }
+        }
+        return Arrays.copyOf(chemin, longueur);
+    }
+}
@@ -0,0 +1,174 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.GrapheIndexe;
+
+import java.util.Arrays;
+
+/**
+ * Moteur de l'algorithme de Dijkstra sur un graphe indexé, travaillant uniquement sur des tableaux primitifs.
+ * Les distances, les prédécesseurs et la file de priorité sont alloués une fois puis réutilisés : une marque
+ * de génération indique quels noeuds ont été atteints par la recherche courante, ce qui évite de réinitialiser
+ * les tableaux entre deux recherches. Une recherche n'alloue donc que le chemin renvoyé.
+ * Un moteur n'est pas prévu pour être utilisé par plusieurs threads à la fois.
+ */
+public class MoteurDijkstra {
+    private static final int[] CHEMIN_VIDE = new int[0];
+
+    private double[] distances = new double[0]; // Distance depuis le départ de chaque noeud atteint
+    private int[] parents = new int[0]; // Prédécesseur de chaque noeud atteint, ou -1 pour le départ
+    private int[] marques = new int[0]; // Génération de la dernière recherche ayant atteint chaque noeud
+    private int generation; // Génération de la recherche courante
+    private final TasIndexe tas = new TasIndexe(0); // File de priorité des noeuds atteints non établis
+    private int[] voisins = new int[0]; // Tampon recevant les voisins d'un noeud
+    private double[] couts = new double[0]; // Tampon recevant les coûts des arêtes vers ces voisins
+    private int nombreEtablis; // Nombre de noeuds établis par la dernière recherche
+    private int nombreDeveloppes; // Nombre de noeuds dont les arêtes ont été relâchées par la dernière recherche
+    private long nombreRelachements; // Nombre d'arêtes relâchées par la dernière recherche
+
+    /**
+     * Trouve le chemin le plus court entre deux noeuds d'un graphe indexé.
+     *
+     * @param graphe  Le graphe dans lequel chercher le chemin.
+     * @param depart  L'identifiant du noeud de départ.
+     * @param arrivee L'identifiant du noeud d'arrivée.
+     * @return Les identifiants des noeuds du chemin, du départ à l'arrivée, ou un tableau vide si l'arrivée
+     * n'est pas atteignable.
+     */
+    public int[] rechercher(GrapheIndexe graphe, int depart, int arrivee) {
+        preparer(graphe);
+        atteindre(depart, 0.0, -1);
+        tas.inserer(depart, 0.0);
+
+        while (!tas.estVide()) {
+            int noeud = tas.extraireMinimum();
+            nombreEtablis++;
+            if (noeud == arrivee) {
+                break;
+            }
+            relacher(graphe, noeud);
+        }
+        tas.vider();
+
+        return reconstruireChemin(arrivee);
+    }
+
+    /**
+     * Récupère la distance d'un noeud au départ calculée par la dernière recherche.
+     * Elle n'est définitive que pour les noeuds établis avant l'arrêt de la recherche.
+     *
+     * @param noeud L'identifiant du noeud.
+     * @return La distance du noeud, ou une valeur infinie s'il n'a pas été atteint.
+     */
+    public double getDistance(int noeud) {
+        return marques[noeud] == generation ? distances[noeud] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Récupère le nombre de noeuds établis (sortis de la file) lors de la dernière recherche.
+     *
+     * @return Le nombre de noeuds établis.
+     */
+    public int getNombreNoeudsEtablis() {
+        return nombreEtablis;
+    }
+
+    /**
+     * Complète des statistiques avec les compteurs de la dernière recherche.
+     *
+     * @param statistiques Les statistiques à compléter.
+     */
+    public void decrire(StatistiquesRecherche statistiques) {
+        statistiques.compterNoeuds(nombreEtablis, nombreDeveloppes, nombreRelachements);
+        statistiques.compterTas(tas);
+    }
+
+    /**
+     * Prépare les tableaux pour une nouvelle recherche sur le graphe spécifié.
+     *
+     * @param graphe Le graphe de la recherche.
+     */
+    private void preparer(GrapheIndexe graphe) {
+        int nombreNoeuds = graphe.getNombreNoeuds();
+        if (distances.length < nombreNoeuds) {
+            distances = new double[nombreNoeuds];
+            parents = new int[nombreNoeuds];
+            marques = new int[nombreNoeuds];
+            generation = 0;
+            tas.assurerCapacite(nombreNoeuds);
+        }
+        int degre = graphe.getDegreMaximal();
+        if (voisins.length < degre) {
+            voisins = new int[degre];
+            couts = new double[degre];
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Après un très grand nombre de recherches, les marques sont remises à zéro.
+            Arrays.fill(marques, 0);
+            generation = 1;
+        }
+        nombreEtablis = 0;
+        nombreDeveloppes = 0;
+        nombreRelachements = 0;
+        tas.reinitialiserCompteurs();
+    }
+
+    /**
+     * Marque un noeud comme atteint avec la distance et le prédécesseur spécifiés.
+     *
+     * @param noeud    L'identifiant du noeud.
+     * @param distance La distance du noeud au départ.
+     * @param parent   Le prédécesseur du noeud.
+     */
+    private void atteindre(int noeud, double distance, int parent) {
+        marques[noeud] = generation;
+        distances[noeud] = distance;
+        parents[noeud] = parent;
+    }
+
+    /**
+     * Relâche les arêtes sortant d'un noeud établi.
+     *
+     * @param graphe Le graphe de la recherche.
+     * @param noeud  L'identifiant du noeud établi.
+     */
+    private void relacher(GrapheIndexe graphe, int noeud) {
+        double distance = distances[noeud];
+        int nombreVoisins = graphe.getVoisins(noeud, voisins, couts);
+        nombreDeveloppes++;
+        nombreRelachements += nombreVoisins;
+        for (int i = 0; i < nombreVoisins; i++) {
+            int voisin = voisins[i];
+            double nouvelleDistance = distance + couts[i];
+            if (marques[voisin] != generation) {
+                atteindre(voisin, nouvelleDistance, noeud);
+                tas.inserer(voisin, nouvelleDistance);
+            } else if (nouvelleDistance < distances[voisin] && tas.contient(voisin)) {
+                distances[voisin] = nouvelleDistance;
+                parents[voisin] = noeud;
+                tas.diminuerCle(voisin, nouvelleDistance);
+            }
+        }
+    }
+
+    /**
+     * Reconstruit le chemin menant au noeud d'arrivée à partir des prédécesseurs.
+     *
+     * @param arrivee L'identifiant du noeud d'arrivée.
+     * @return Les identifiants des noeuds du chemin, ou un tableau vide si l'arrivée n'a pas été atteinte.
+     */
+    private int[] reconstruireChemin(int arrivee) {
+        if (marques[arrivee] != generation) {
+            return CHEMIN_VIDE;
+        }
+        int longueur = 0;
+        for (int noeud = arrivee; noeud != -1; noeud = parents[noeud]) {
+            longueur++;
+        }
+        int[] chemin = new int[longueur];
+        for (int noeud = arrivee; noeud != -1; noeud = parents[noeud]) {
+            chemin[--longueur] = noeud;
+        }
+        return chemin;
+    }
+}
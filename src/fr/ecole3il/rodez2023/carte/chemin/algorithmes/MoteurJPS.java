@@ -0,0 +1,481 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+import java.util.Arrays;
+
+/**
+ * Moteur de recherche par points de saut (Jump Point Search) adapté aux cartes 4-connexes à tuiles pondérées.
+ * <p>
+ * À l'intérieur d'une région de tuiles identiques, tous les déplacements ont le même coût et de nombreux chemins
+ * symétriques ont le même coût : la recherche n'y suit que les chemins canoniques (horizontal d'abord, puis
+ * vertical) en « sautant » d'un point remarquable à l'autre sans développer les cases intermédiaires.
+ * Une case dont une voisine porte une autre tuile (case frontière) est toujours un point de saut développé
+ * dans les quatre directions, comme l'est le départ : les changements de coût sont donc traités exactement,
+ * et le coût trouvé est le même que celui de l'algorithme de Dijkstra.
+ * <p>
+ * Les identifiants des cases sont y * largeur + x. Un moteur n'est pas prévu pour être utilisé par plusieurs
+ * threads à la fois ; plusieurs moteurs peuvent en revanche partager l'analyse des frontières d'une carte
+ * (voir {@link CacheFrontieres}), qui n'est alors refaite qu'une fois par version de la carte.
+ */
+public class MoteurJPS {
+    private static final int[] CHEMIN_VIDE = new int[0];
+    private static final int[] DX = {-1, 0, 1, 0}; // Déplacement en x pour chaque direction : gauche, bas, droite, haut
+    private static final int[] DY = {0, 1, 0, -1}; // Déplacement en y pour chaque direction
+    private static final int TOUTES_DIRECTIONS = 1 << 4; // Bit demandant le développement dans les quatre directions
+
+    private Carte carte; // Carte de la recherche courante
+    private int largeur; // Largeur de la carte
+    private int hauteur; // Hauteur de la carte
+    private int arrivee; // Case d'arrivée de la recherche courante
+    private double coutMinimal; // Coût minimal d'un déplacement, pour l'heuristique de Manhattan
+
+    private final CacheFrontieres cacheFrontieres; // Analyse des frontières, éventuellement partagée
+    private boolean[] frontieres; // Indique pour chaque case si une voisine porte une autre tuile
+    private int[] premieresFrontieres; // Plus petit y d'une case frontière dans chaque colonne
+    private int[] dernieresFrontieres; // Plus grand y d'une case frontière dans chaque colonne
+
+    private double[] coutsActuels = new double[0]; // Coût depuis le départ de chaque point de saut atteint
+    private int[] parents = new int[0]; // Point de saut précédent, ou -1 pour le départ
+    private int[] marques = new int[0]; // Génération de la dernière recherche ayant atteint chaque case
+    private byte[] directions = new byte[0]; // Directions d'arrivée à coût égal (un bit par direction)
+    private byte[] developpees = new byte[0]; // Directions d'arrivée déjà développées
+    private int generation; // Génération de la recherche courante
+    private final TasIndexe ouverts = new TasIndexe(0); // Points de saut à développer
+    private double coutSaut; // Coût du dernier saut réussi
+    private int nombreExpansions; // Nombre de points de saut développés par la dernière recherche
+
+    /**
+     * Construit un moteur analysant lui-même les frontières des cartes parcourues.
+     */
+    public MoteurJPS() {
+        this(new CacheFrontieres());
+    }
+
+    /**
+     * Construit un moteur partageant l'analyse des frontières avec d'autres moteurs.
+     *
+     * @param cacheFrontieres Le cache des analyses de frontières, commun aux moteurs.
+     */
+    MoteurJPS(CacheFrontieres cacheFrontieres) {
+        this.cacheFrontieres = cacheFrontieres;
+    }
+
+    /**
+     * Trouve le chemin le plus court entre deux cases d'une carte.
+     *
+     * @param carte   La carte parcourue.
+     * @param depart  L'identifiant de la case de départ.
+     * @param arrivee L'identifiant de la case d'arrivée.
+     * @return Les identifiants de toutes les cases du chemin, du départ à l'arrivée.
+     */
+    public int[] rechercher(Carte carte, int depart, int arrivee) {
+        preparer(carte, arrivee);
+        atteindre(depart, 0.0, -1, TOUTES_DIRECTIONS);
+        ouverts.inserer(depart, heuristique(depart));
+
+        while (!ouverts.estVide()) {
+            int courant = ouverts.extraireMinimum();
+            if (courant == arrivee) {
+                ouverts.vider();
+                return reconstruireChemin(arrivee);
+            }
+            nombreExpansions++;
+            developper(courant);
+        }
+        return CHEMIN_VIDE;
+    }
+
+    /**
+     * Récupère le nombre de points de saut développés lors de la dernière recherche.
+     *
+     * @return Le nombre de points de saut développés.
+     */
+    public int getNombreExpansions() {
+        return nombreExpansions;
+    }
+
+    /**
+     * Développe un point de saut selon les directions par lesquelles il a été atteint
+     * et qui n'ont pas encore été développées.
+     *
+     * @param courant L'identifiant du point de saut.
+     */
+    private void developper(int courant) {
+        int x = courant % largeur;
+        int y = courant / largeur;
+        int arrivees = directions[courant] & ~developpees[courant];
+        int successeurs = 0;
+        if ((arrivees & TOUTES_DIRECTIONS) != 0 || estFrontiere(x, y)) {
+            successeurs = 0b1111;
+            developpees[courant] = (byte) (TOUTES_DIRECTIONS | 0b1111);
+        } else {
+            developpees[courant] |= (byte) arrivees;
+            for (int d = 0; d < 4; d++) {
+                if ((arrivees & (1 << d)) != 0) {
+                    successeurs |= successeursNaturels(x, y, d);
+                }
+            }
+        }
+
+        double cout = coutsActuels[courant];
+        for (int d = 0; d < 4; d++) {
+            if ((successeurs & (1 << d)) != 0) {
+                int point = sauter(x, y, d);
+                if (point >= 0) {
+                    relacher(point, cout + coutSaut, courant, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcule les directions à explorer depuis une case intérieure atteinte dans une direction donnée.
+     *
+     * @param x         La coordonnée x de la case.
+     * @param y         La coordonnée y de la case.
+     * @param direction La direction d'arrivée.
+     * @return Les directions à explorer (un bit par direction).
+     */
+    private int successeursNaturels(int x, int y, int direction) {
+        if (estHorizontale(direction)) {
+            // Après un déplacement horizontal : continuer, ou tourner vers le haut ou le bas.
+            return (1 << direction) | (1 << 1) | (1 << 3);
+        }
+        int successeurs = 1 << direction;
+        for (int cote = 0; cote <= 2; cote += 2) {
+            if (estForce(x, y, direction, cote)) {
+                successeurs |= 1 << cote;
+            }
+        }
+        return successeurs;
+    }
+
+    /**
+     * Indique si, après un déplacement vertical, la case située sur un côté est un voisin forcé :
+     * la case de ce côté appartient à la même région alors que celle située en arrière sur ce côté n'y appartient pas,
+     * de sorte qu'aucun chemin canonique de même coût ne l'atteint sans passer par la case courante.
+     *
+     * @param x         La coordonnée x de la case courante.
+     * @param y         La coordonnée y de la case courante.
+     * @param direction La direction verticale du déplacement.
+     * @param cote      La direction horizontale du côté testé.
+     * @return true si le voisin de ce côté est forcé.
+     */
+    private boolean estForce(int x, int y, int direction, int cote) {
+        int xCote = x + DX[cote];
+        int yArriere = y - DY[direction];
+        if (xCote < 0 || xCote >= largeur || yArriere < 0 || yArriere >= hauteur) {
+            return false;
+        }
+        Tuile tuile = carte.getTuile(x, y);
+        return carte.getTuile(xCote, y) == tuile && carte.getTuile(xCote, yArriere) != tuile;
+    }
+
+    /**
+     * Avance en ligne droite depuis une case jusqu'au prochain point de saut.
+     * Le coût du saut est mémorisé dans coutSaut.
+     *
+     * @param x         La coordonnée x de la case de départ du saut.
+     * @param y         La coordonnée y de la case de départ du saut.
+     * @param direction La direction du saut.
+     * @return L'identifiant du point de saut atteint, ou -1 si le saut sort de la carte.
+     */
+    private int sauter(int x, int y, int direction) {
+        double cout = 0.0;
+        int penalite = carte.getTuile(x, y).getPenalite();
+        while (true) {
+            x += DX[direction];
+            y += DY[direction];
+            if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+                return -1;
+            }
+            int penaliteSuivante = carte.getTuile(x, y).getPenalite();
+            cout += penalite + penaliteSuivante;
+            penalite = penaliteSuivante;
+
+            int point = y * largeur + x;
+            if (point == arrivee || estFrontiere(x, y)) {
+                coutSaut = cout;
+                return point;
+            }
+            if (estHorizontale(direction)) {
+                // Une case d'où un saut vertical mène à un point de saut est elle-même un point de saut.
+                if (trouverSautVertical(x, y, 1) || trouverSautVertical(x, y, 3)) {
+                    coutSaut = cout;
+                    return point;
+                }
+            } else if (estForce(x, y, direction, 0) || estForce(x, y, direction, 2)) {
+                coutSaut = cout;
+                return point;
+            }
+        }
+    }
+
+    /**
+     * Indique si un saut vertical depuis une case intérieure atteint un point de saut.
+     * Depuis une case intérieure, un tel saut ne traverse que des cases intérieures sans voisin forcé
+     * jusqu'à la première case frontière de la colonne : il aboutit donc dès que la colonne contient une case
+     * frontière ou l'arrivée dans cette direction.
+     *
+     * @param x         La coordonnée x de la case.
+     * @param y         La coordonnée y de la case.
+     * @param direction La direction verticale du saut.
+     * @return true si un point de saut est atteint.
+     */
+    private boolean trouverSautVertical(int x, int y, int direction) {
+        boolean arriveeDansColonne = arrivee % largeur == x;
+        if (direction == 3) {
+            return premieresFrontieres[x] < y || (arriveeDansColonne && arrivee / largeur < y);
+        }
+        return dernieresFrontieres[x] > y || (arriveeDansColonne && arrivee / largeur > y);
+    }
+
+    /**
+     * Indique si une case a au moins une voisine portant une autre tuile.
+     *
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return true si la case est à la frontière de sa région.
+     */
+    private boolean estFrontiere(int x, int y) {
+        return frontieres[y * largeur + x];
+    }
+
+    /**
+     * Indique si une direction est horizontale.
+     *
+     * @param direction La direction.
+     * @return true pour la gauche et la droite.
+     */
+    private static boolean estHorizontale(int direction) {
+        return (direction & 1) == 0;
+    }
+
+    /**
+     * Estime le coût restant jusqu'à l'arrivée par la distance de Manhattan pondérée.
+     *
+     * @param point L'identifiant de la case.
+     * @return L'estimation du coût restant.
+     */
+    private double heuristique(int point) {
+        int dx = Math.abs(point % largeur - arrivee % largeur);
+        int dy = Math.abs(point / largeur - arrivee / largeur);
+        return coutMinimal * (dx + dy);
+    }
+
+    /**
+     * Propose un nouveau coût pour un point de saut atteint dans une direction donnée.
+     *
+     * @param point     L'identifiant du point de saut.
+     * @param cout      Le coût proposé depuis le départ.
+     * @param parent    Le point de saut précédent.
+     * @param direction La direction d'arrivée.
+     */
+    private void relacher(int point, double cout, int parent, int direction) {
+        int bit = 1 << direction;
+        if (marques[point] != generation) {
+            atteindre(point, cout, parent, bit);
+            ouverts.inserer(point, cout + heuristique(point));
+        } else if (cout < coutsActuels[point]) {
+            atteindre(point, cout, parent, bit);
+            double estimation = cout + heuristique(point);
+            if (ouverts.contient(point)) {
+                ouverts.diminuerCle(point, estimation);
+            } else {
+                ouverts.inserer(point, estimation);
+            }
+        } else if (cout == coutsActuels[point] && (directions[point] & bit) == 0) {
+            // Même coût par une autre direction : les successeurs de cette direction doivent aussi être explorés.
+            directions[point] |= (byte) bit;
+            if (!ouverts.contient(point) && (developpees[point] & bit) == 0) {
+                ouverts.inserer(point, cout + heuristique(point));
+            }
+        }
+    }
+
+    /**
+     * Prépare les tableaux pour une nouvelle recherche sur la carte spécifiée.
+     *
+     * @param carte   La carte de la recherche.
+     * @param arrivee L'identifiant de la case d'arrivée.
+     */
+    private void preparer(Carte carte, int arrivee) {
+        this.carte = carte;
+        this.largeur = carte.getLargeur();
+        this.hauteur = carte.getHauteur();
+        this.arrivee = arrivee;
+        this.coutMinimal = 2.0 * Tuile.getPenaliteMinimale();
+        AnalyseFrontieres analyse = cacheFrontieres.obtenir(carte);
+        this.frontieres = analyse.frontieres;
+        this.premieresFrontieres = analyse.premieres;
+        this.dernieresFrontieres = analyse.dernieres;
+        int nombreCases = largeur * hauteur;
+        if (coutsActuels.length < nombreCases) {
+            coutsActuels = new double[nombreCases];
+            parents = new int[nombreCases];
+            marques = new int[nombreCases];
+            directions = new byte[nombreCases];
+            developpees = new byte[nombreCases];
+            generation = 0;
+            ouverts.assurerCapacite(nombreCases);
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Après un très grand nombre de recherches, les marques sont remises à zéro.
+            Arrays.fill(marques, 0);
+            generation = 1;
+        }
+        nombreExpansions = 0;
+    }
+
+    /**
+     * Enregistre le coût, le parent et la direction d'arrivée d'un point de saut.
+     *
+     * @param point      L'identifiant du point de saut.
+     * @param cout       Le coût depuis le départ.
+     * @param parent     Le point de saut précédent.
+     * @param directions Les directions d'arrivée.
+     */
+    private void atteindre(int point, double cout, int parent, int directions) {
+        marques[point] = generation;
+        coutsActuels[point] = cout;
+        parents[point] = parent;
+        this.directions[point] = (byte) directions;
+        developpees[point] = 0;
+    }
+
+    /**
+     * Reconstruit le chemin complet en parcourant chaque segment rectiligne entre deux points de saut.
+     *
+     * @param arrivee L'identifiant de la case d'arrivée.
+     * @return Les identifiants de toutes les cases du chemin.
+     */
+    private int[] reconstruireChemin(int arrivee) {
+        int longueur = 1;
+        for (int point = arrivee; parents[point] != -1; point = parents[point]) {
+            longueur += distanceCases(point, parents[point]);
+        }
+
+        int[] chemin = new int[longueur];
+        int i = longueur - 1;
+        chemin[i] = arrivee;
+        for (int point = arrivee; parents[point] != -1; point = parents[point]) {
+            int parent = parents[point];
+            int pas = point % largeur == parent % largeur ? largeur : 1;
+            if (point < parent) {
+                pas = -pas;
+            }
+            for (int caseCourante = point - pas; caseCourante != parent - pas; caseCourante -= pas) {
+                chemin[--i] = caseCourante;
+            }
+        }
+        return chemin;
+    }
+
+    /**
+     * Calcule le nombre de déplacements entre deux cases alignées.
+     *
+     * @param a L'identifiant de la première case.
+     * @param b L'identifiant de la seconde case.
+     * @return Le nombre de déplacements entre les deux cases.
+     */
+    private int distanceCases(int a, int b) {
+        return Math.abs(a % largeur - b % largeur) + Math.abs(a / largeur - b / largeur);
+    }
+
+    /**
+     * Analyse immuable des frontières d'une carte à une version donnée : les cases frontières et, pour chaque
+     * colonne, la première et la dernière d'entre elles.
+     */
+    static final class AnalyseFrontieres {
+        private final Carte carte; // Carte analysée
+        private final int version; // Version de la carte au moment de l'analyse
+        private final boolean[] frontieres; // Indique pour chaque case si une voisine porte une autre tuile
+        private final int[] premieres; // Plus petit y d'une case frontière dans chaque colonne
+        private final int[] dernieres; // Plus grand y d'une case frontière dans chaque colonne
+
+        /**
+         * Analyse les frontières d'une carte dans son état actuel.
+         *
+         * @param carte La carte à analyser.
+         */
+        AnalyseFrontieres(Carte carte) {
+            this.carte = carte;
+            this.version = carte.getVersion();
+            int largeur = carte.getLargeur();
+            int hauteur = carte.getHauteur();
+            this.frontieres = new boolean[largeur * hauteur];
+            this.premieres = new int[largeur];
+            this.dernieres = new int[largeur];
+            for (int x = 0; x < largeur; x++) {
+                premieres[x] = hauteur;
+                dernieres[x] = -1;
+                for (int y = 0; y < hauteur; y++) {
+                    boolean frontiere = calculerFrontiere(carte, x, y);
+                    frontieres[y * largeur + x] = frontiere;
+                    if (frontiere) {
+                        premieres[x] = Math.min(premieres[x], y);
+                        dernieres[x] = y;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Indique si l'analyse correspond à l'état actuel d'une carte.
+         *
+         * @param carte La carte.
+         * @return true si l'analyse porte sur cette carte et qu'elle n'a pas été modifiée depuis.
+         */
+        boolean estAJour(Carte carte) {
+            return this.carte == carte && version == carte.getVersion();
+        }
+
+        /**
+         * Calcule si une case a au moins une voisine portant une autre tuile.
+         *
+         * @param carte La carte.
+         * @param x     La coordonnée x de la case.
+         * @param y     La coordonnée y de la case.
+         * @return true si la case est à la frontière de sa région.
+         */
+        private static boolean calculerFrontiere(Carte carte, int x, int y) {
+            Tuile tuile = carte.getTuile(x, y);
+            return (x > 0 && carte.getTuile(x - 1, y) != tuile)
+                    || (x < carte.getLargeur() - 1 && carte.getTuile(x + 1, y) != tuile)
+                    || (y > 0 && carte.getTuile(x, y - 1) != tuile)
+                    || (y < carte.getHauteur() - 1 && carte.getTuile(x, y + 1) != tuile);
+        }
+    }
+
+    /**
+     * Dernière analyse des frontières, partagée par les moteurs qui utilisent le même cache. Après une modification
+     * de la carte, le premier moteur qui la parcourt refait l'analyse et les autres la réutilisent.
+     */
+    static final class CacheFrontieres {
+        private volatile AnalyseFrontieres derniere; // Dernière analyse effectuée, ou null
+
+        /**
+         * Récupère l'analyse à jour d'une carte, en la calculant si nécessaire.
+         *
+         * @param carte La carte.
+         * @return L'analyse des frontières de la carte dans son état actuel.
+         */
+        AnalyseFrontieres obtenir(Carte carte) {
+            AnalyseFrontieres analyse = derniere;
+            if (analyse != null && analyse.estAJour(carte)) {
+                return analyse;
+            }
+            synchronized (this) {
+                analyse = derniere;
+                if (analyse == null || !analyse.estAJour(carte)) {
+                    analyse = new AnalyseFrontieres(carte);
+                    derniere = analyse;
+                }
+                return analyse;
+            }
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.EcouteurCarte;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Planificateur incrémental d'un chemin vers une arrivée fixe, pour une unité qui se déplace sur une carte
+ * dont les tuiles changent (algorithme D* Lite). La recherche part de l'arrivée : chaque case conserve une
+ * estimation g de sa distance à l'arrivée et une valeur rhs calculée depuis ses voisines ; seules les cases
+ * dont ces deux valeurs diffèrent sont remises dans la file. Après une modification de la carte, la
+ * replanification ne traite donc que la partie de l'espace de recherche touchée par la modification,
+ * au lieu de tout recalculer.
+ * <p>
+ * Le coût d'un déplacement est la somme des pénalités des tuiles des deux cases, comme pour les graphes
+ * construits par AdaptateurAlgorithme : les chemins renvoyés sont des plus courts chemins. Le planificateur
+ * s'enregistre comme écouteur de la carte ; les modifications sont notées puis prises en compte à la demande
+ * suivante du chemin. {@link #detacher()} met fin à ce suivi. Les méthodes sont synchronisées.
+ */
+public class PlanificateurIncremental implements EcouteurCarte {
+    private static final int[] DX = {-1, 0, 1, 0}; // Décalage en x de chaque voisine
+    private static final int[] DY = {0, 1, 0, -1}; // Décalage en y de chaque voisine
+
+    private final Carte carte; // Carte parcourue
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final int arrivee; // Identifiant (y * largeur + x) de la case d'arrivée
+    private final double coutMinimal; // Coût minimal d'un pas, pour l'heuristique
+    private final double[] g; // Distance estimée de chaque case à l'arrivée
+    private final double[] rhs; // Distance de chaque case calculée depuis ses voisines
+    private final TasIndexe tas; // Cases incohérentes, ordonnées par clé en deux composantes
+    private final boolean[] modifiees; // Indique si la tuile de chaque case a changé depuis la dernière planification
+    private int[] listeModifiees = new int[16]; // Cases dont la tuile a changé depuis la dernière planification
+    private int nombreModifiees; // Nombre de cases dans listeModifiees
+    private int depart; // Identifiant de la position courante de l'unité
+    private int dernierDepart; // Position de l'unité lors de la dernière planification
+    private double km; // Décalage des clés accumulé par les déplacements de l'unité
+    private int nombreExpansions; // Nombre de cases traitées par la dernière planification
+
+    /**
+     * Calcule le chemin initial et enregistre le planificateur comme écouteur de la carte.
+     * @param carte La carte.
+     * @param xDepart La coordonnée x de la position de l'unité.
+     * @param yDepart La coordonnée y de la position de l'unité.
+     * @param xArrivee La coordonnée x de la case d'arrivée.
+     * @param yArrivee La coordonnée y de la case d'arrivée.
+     * @throws IllegalArgumentException Si le départ ou l'arrivée est hors de la carte.
+     */
+    public PlanificateurIncremental(Carte carte, int xDepart, int yDepart, int xArrivee, int yArrivee) {
+        this.carte = carte;
+        this.largeur = carte.getLargeur();
+        this.hauteur = carte.getHauteur();
+        this.arrivee = identifiant(xArrivee, yArrivee, "L'arrivée");
+        this.depart = identifiant(xDepart, yDepart, "Le départ");
+        this.dernierDepart = depart;
+        this.coutMinimal = 2.0 * Tuile.getPenaliteMinimale();
+        this.g = new double[largeur * hauteur];
+        this.rhs = new double[largeur * hauteur];
+        this.tas = new TasIndexe(largeur * hauteur);
+        this.modifiees = new boolean[largeur * hauteur];
+        recommencer();
+        carte.ajouterEcouteur(this);
+    }
+
+    /**
+     * Récupère la carte parcourue.
+     * @return La carte.
+     */
+    public Carte getCarte() {
+        return carte;
+    }
+
+    /**
+     * Indique la nouvelle position de l'unité. Le chemin suivant partira de cette case.
+     * @param x La coordonnée x de la nouvelle position.
+     * @param y La coordonnée y de la nouvelle position.
+     * @throws IllegalArgumentException Si la position est hors de la carte.
+     */
+    public synchronized void deplacer(int x, int y) {
+        depart = identifiant(x, y, "La position");
+    }
+
+    /**
+     * Récupère le plus court chemin de la position de l'unité à l'arrivée, en réparant d'abord le plan
+     * si la carte a été modifiée ou si l'unité s'est déplacée.
+     * @return Les cases du chemin, de la position de l'unité à l'arrivée, ou une liste vide s'il n'existe pas.
+     */
+    public synchronized List<Case> getChemin() {
+        replanifier();
+        List<Case> chemin = new ArrayList<>();
+        if (g[depart] == Double.POSITIVE_INFINITY) {
+            return chemin;
+        }
+        int courante = depart;
+        chemin.add(carte.getCase(courante % largeur, courante / largeur));
+        while (courante != arrivee && chemin.size() <= g.length) {
+            // Le prochain pas est la voisine qui minimise le coût du pas plus sa distance à l'arrivée.
+            int x = courante % largeur;
+            int y = courante / largeur;
+            int penalite = carte.getTuile(x, y).getPenalite();
+            int suivante = -1;
+            double meilleur = Double.POSITIVE_INFINITY;
+            for (int direction = 0; direction < 4; direction++) {
+                int vx = x + DX[direction];
+                int vy = y + DY[direction];
+                if (vx >= 0 && vx < largeur && vy >= 0 && vy < hauteur) {
+                    int voisine = vy * largeur + vx;
+                    double cout = penalite + carte.getTuile(vx, vy).getPenalite() + g[voisine];
+                    if (cout < meilleur) {
+                        meilleur = cout;
+                        suivante = voisine;
+                    }
+                }
+            }
+            courante = suivante;
+            chemin.add(carte.getCase(courante % largeur, courante / largeur));
+        }
+        return chemin;
+    }
+
+    /**
+     * Récupère le coût du plus court chemin de la position de l'unité à l'arrivée, en réparant d'abord le plan.
+     * @return Le coût du chemin, ou une valeur infinie s'il n'existe pas.
+     */
+    public synchronized double getCout() {
+        replanifier();
+        return g[depart];
+    }
+
+    /**
+     * Récupère le nombre de cases traitées par la dernière planification, ce qui permet de comparer le coût
+     * d'une réparation à celui d'une recherche complète.
+     * @return Le nombre de cases retirées ou reclassées dans la file lors de la dernière planification.
+     */
+    public synchronized int getNombreExpansions() {
+        return nombreExpansions;
+    }
+
+    /**
+     * Cesse de suivre les modifications de la carte. Le plan n'est plus réparé ensuite.
+     */
+    public void detacher() {
+        carte.retirerEcouteur(this);
+    }
+
+    /**
+     * Note la case modifiée ; le plan sera réparé à la prochaine demande de chemin.
+     */
+    @Override
+    public synchronized void tuileModifiee(Carte carte, int x, int y, Tuile ancienne, Tuile nouvelle) {
+        int modifiee = y * largeur + x;
+        if (ancienne.getPenalite() == nouvelle.getPenalite() || modifiees[modifiee]) {
+            return;
+        }
+        modifiees[modifiee] = true;
+        if (nombreModifiees == listeModifiees.length) {
+            listeModifiees = Arrays.copyOf(listeModifiees, nombreModifiees * 2);
+        }
+        listeModifiees[nombreModifiees++] = modifiee;
+    }
+
+    /**
+     * Répare le plan : prend en compte le déplacement de l'unité et les cases modifiées, puis poursuit la
+     * recherche jusqu'à ce que la position de l'unité soit cohérente.
+     */
+    private void replanifier() {
+        if (depart == dernierDepart && nombreModifiees == 0) {
+            return;
+        }
+        // Les clés déjà dans la file restent des bornes inférieures valides si km augmente de l'heuristique
+        // entre l'ancienne et la nouvelle position.
+        km += heuristique(dernierDepart, depart);
+        dernierDepart = depart;
+        nombreExpansions = 0;
+        for (int i = 0; i < nombreModifiees; i++) {
+            int modifiee = listeModifiees[i];
+            modifiees[modifiee] = false;
+            // Toutes les arêtes de la case ont changé : la case et ses voisines doivent être réévaluées.
+            mettreAJour(modifiee);
+            mettreAJourVoisines(modifiee);
+        }
+        nombreModifiees = 0;
+        calculerPlusCourtChemin();
+    }
+
+    /**
+     * Réinitialise la recherche depuis l'arrivée et calcule le plan de la position courante.
+     */
+    private void recommencer() {
+        Arrays.fill(g, Double.POSITIVE_INFINITY);
+        Arrays.fill(rhs, Double.POSITIVE_INFINITY);
+        tas.vider();
+        km = 0.0;
+        nombreExpansions = 0;
+        rhs[arrivee] = 0.0;
+        tas.inserer(arrivee, cle(arrivee), 0.0);
+        calculerPlusCourtChemin();
+    }
+
+    /**
+     * Traite les cases incohérentes par clé croissante jusqu'à ce que la position de l'unité soit cohérente
+     * et qu'aucune case de la file ne puisse plus améliorer son chemin.
+     */
+    private void calculerPlusCourtChemin() {
+        while (!tas.estVide() && (precede(tas.getCleMinimum(), tas.getDepartageMinimum(), depart)
+                || rhs[depart] != g[depart])) {
+            int courante = tas.getMinimum();
+            nombreExpansions++;
+            if (precede(tas.getCleMinimum(), tas.getDepartageMinimum(), courante)) {
+                // La clé a été calculée avec une valeur de km périmée.
+                tas.modifierCle(courante, cle(courante), Math.min(g[courante], rhs[courante]));
+            } else if (g[courante] > rhs[courante]) {
+                g[courante] = rhs[courante];
+                tas.extraireMinimum();
+                mettreAJourVoisines(courante);
+            } else {
+                g[courante] = Double.POSITIVE_INFINITY;
+                mettreAJour(courante);
+                mettreAJourVoisines(courante);
+            }
+        }
+    }
+
+    /**
+     * Recalcule la valeur rhs d'une case depuis ses voisines et met sa place dans la file en accord.
+     * @param noeud L'identifiant de la case.
+     */
+    private void mettreAJour(int noeud) {
+        if (noeud != arrivee) {
+            int x = noeud % largeur;
+            int y = noeud / largeur;
+            int penalite = carte.getTuile(x, y).getPenalite();
+            double minimum = Double.POSITIVE_INFINITY;
+            for (int direction = 0; direction < 4; direction++) {
+                int vx = x + DX[direction];
+                int vy = y + DY[direction];
+                if (vx >= 0 && vx < largeur && vy >= 0 && vy < hauteur) {
+                    double distance = penalite + carte.getTuile(vx, vy).getPenalite() + g[vy * largeur + vx];
+                    if (distance < minimum) {
+                        minimum = distance;
+                    }
+                }
+            }
+            rhs[noeud] = minimum;
+        }
+        if (g[noeud] != rhs[noeud]) {
+            double departage = Math.min(g[noeud], rhs[noeud]);
+            if (tas.contient(noeud)) {
+                tas.modifierCle(noeud, cle(noeud), departage);
+            } else {
+                tas.inserer(noeud, cle(noeud), departage);
+            }
+        } else if (tas.contient(noeud)) {
+            tas.retirer(noeud);
+        }
+    }
+
+    /**
+     * Met à jour les quatre voisines d'une case.
+     * @param noeud L'identifiant de la case.
+     */
+    private void mettreAJourVoisines(int noeud) {
+        int x = noeud % largeur;
+        int y = noeud / largeur;
+        for (int direction = 0; direction < 4; direction++) {
+            int vx = x + DX[direction];
+            int vy = y + DY[direction];
+            if (vx >= 0 && vx < largeur && vy >= 0 && vy < hauteur) {
+                mettreAJour(vy * largeur + vx);
+            }
+        }
+    }
+
+    /**
+     * Calcule la première composante de la clé d'une case. La seconde, min(g, rhs), est rangée à part dans
+     * le tas, qui compare les deux composantes dans l'ordre lexicographique : aucune combinaison des deux
+     * en un seul nombre ne limite donc la taille des distances.
+     * @param noeud L'identifiant de la case.
+     * @return La première composante de la clé, ou une valeur infinie si la case n'a pas de distance.
+     */
+    private double cle(int noeud) {
+        return Math.min(g[noeud], rhs[noeud]) + heuristique(depart, noeud) + km;
+    }
+
+    /**
+     * Indique si une clé précède strictement, dans l'ordre lexicographique, la clé actuelle d'une case.
+     * @param cle La première composante de la clé.
+     * @param departage La seconde composante de la clé.
+     * @param noeud L'identifiant de la case.
+     * @return true si la clé est strictement inférieure à celle de la case.
+     */
+    private boolean precede(double cle, double departage, int noeud) {
+        double cleNoeud = cle(noeud);
+        return cle < cleNoeud || (cle == cleNoeud && departage < Math.min(g[noeud], rhs[noeud]));
+    }
+
+    /**
+     * Minore le coût d'un chemin entre deux cases par leur distance de Manhattan.
+     * @param a L'identifiant de la première case.
+     * @param b L'identifiant de la seconde case.
+     * @return Le minorant du coût.
+     */
+    private double heuristique(int a, int b) {
+        return coutMinimal * (Math.abs(a % largeur - b % largeur) + Math.abs(a / largeur - b / largeur));
+    }
+
+    /**
+     * Calcule l'identifiant d'une case en vérifiant qu'elle est sur la carte.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @param nom Le nom de la case, pour le message d'erreur.
+     * @return L'identifiant de la case.
+     * @throws IllegalArgumentException Si la case est hors de la carte.
+     */
+    private int identifiant(int x, int y, String nom) {
+        if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+            throw new IllegalArgumentException(nom + " (" + x + ", " + y + ") est hors de la carte");
+        }
+        return y * largeur + x;
+    }
+}
@@ -0,0 +1,560 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.GrilleImplicite;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Heuristique ALT (A*, repères et inégalité triangulaire) pour les recherches sur une carte.
+ * Quelques cases repères sont choisies sur la carte et leur distance à toutes les cases est précalculée ;
+ * pour tout repère L, l'inégalité triangulaire donne d(v, t) &gt;= |d(L, t) - d(L, v)|. Le maximum de ces
+ * bornes sur tous les repères, et de la distance de Manhattan pondérée, est une heuristique admissible et
+ * consistante qui tient compte du terrain : A* développe alors bien moins de cases qu'avec la seule
+ * distance de Manhattan sur les cartes couvertes de forêts ou de montagnes. Les repères s'utilisent comme
+ * toute heuristique, par exemple {@code new AlgorithmeAEtoile<>(Reperes.calculer(carte, 16))}.
+ * <p>
+ * Les distances sont stockées case par case, les repères d'une même case étant contigus, en float
+ * ou sur 16 bits. Le stockage sur 16 bits n'est retenu que si toutes les distances sont inférieures à 65535 et
+ * y tiennent donc exactement : une quantification plus grossière donnerait une borne admissible mais pas
+ * consistante, que la recherche bidirectionnelle, qui ne rouvre jamais un noeud fermé, ne supporte pas.
+ * Au-delà, les distances sont stockées en float même si la quantification a été demandée.
+ * Les repères sont immuables après leur calcul et peuvent être partagés entre plusieurs threads ;
+ * ils décrivent la carte telle qu'elle était lors du calcul. Une fois la carte modifiée, leurs bornes peuvent
+ * surestimer les distances : ils retiennent donc la version de la carte et l'empreinte de son contenu
+ * ({@link Carte#calculerEmpreinte()}), et toute estimation lève une IllegalStateException si la carte a changé
+ * depuis. Des repères relus par {@link #lire(DataInput)} doivent être associés à une carte de même contenu
+ * par {@link #associer(Carte)} avant d'être utilisés ; des repères périmés se recalculent par
+ * {@link #calculer(Carte, int, Selection, boolean)}.
+ */
+public class Reperes implements Heuristique<Case> {
+    private static final int MAGIQUE = 0x414c5452; // Signature du format sérialisé
+    private static final int VERSION_FORMAT = 3; // Version du format sérialisé
+    private static final char INFINI = Character.MAX_VALUE; // Distance quantifiée d'une case non atteinte
+    private static final int TAILLE_MAXIMALE = Integer.MAX_VALUE - 8; // Plus grand nombre de distances stockées
+    private static final int GRAINE = 0x5eed; // Graine du tirage des cases, pour des repères reproductibles
+
+    /**
+     * Stratégie de choix des repères.
+     */
+    public enum Selection {
+        ALEATOIRE, // Cases tirées au hasard
+        ELOIGNES, // Chaque repère est la case la plus éloignée des repères déjà choisis
+        EVITEMENT // Chaque repère couvre la région où les bornes des repères déjà choisis sont les plus faibles
+    }
+
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final int[] reperes; // Identifiants (y * largeur + x) des cases repères
+    private final float[] distances; // Distances en float, case par case, ou null si elles sont sur 16 bits
+    private final char[] quantifiees; // Distances sur 16 bits, case par case, ou null si elles sont en float
+    private final double coutMinimal; // Coût minimal d'un pas, pour la distance de Manhattan
+    private final long empreinteCarte; // Empreinte du contenu de la carte décrite par les repères
+    private final Carte carte; // Carte à laquelle les repères sont associés, ou null pour des repères relus
+    private final int versionCarte; // Version de la carte décrite par les repères
+
+    /**
+     * Choisit des repères sur une carte par la stratégie des cases éloignées, avec des distances quantifiées.
+     * @param carte La carte.
+     * @param nombre Le nombre de repères.
+     * @return Les repères de la carte.
+     */
+    public static Reperes calculer(Carte carte, int nombre) {
+        return calculer(carte, nombre, Selection.ELOIGNES, true);
+    }
+
+    /**
+     * Choisit des repères sur une carte et calcule leurs distances à toutes les cases.
+     * @param carte La carte.
+     * @param nombre Le nombre de repères, au plus le nombre de cases.
+     * @param selection La stratégie de choix des repères.
+     * @param quantifiees true pour stocker les distances sur 16 bits lorsqu'elles y tiennent exactement,
+     *                    false pour les stocker en float.
+     * @return Les repères de la carte.
+     * @throws IllegalArgumentException Si le nombre de repères n'est pas strictement positif, ou si les distances
+     *                                  de tous les repères à toutes les cases ne tiennent pas dans un tableau.
+     */
+    public static Reperes calculer(Carte carte, int nombre, Selection selection, boolean quantifiees) {
+        // La version est lue avant le calcul : une modification pendant celui-ci rend les repères périmés.
+        int versionCarte = carte.getVersion();
+        GrilleImplicite grille = new GrilleImplicite(carte);
+        int nombreCases = grille.getNombreNoeuds();
+        if (nombre <= 0) {
+            throw new IllegalArgumentException("Le nombre de repères doit être strictement positif");
+        }
+        nombre = Math.min(nombre, nombreCases);
+        if ((long) nombreCases * nombre > TAILLE_MAXIMALE) {
+            throw new IllegalArgumentException("Trop de distances à stocker : " + nombreCases + " cases, "
+                    + nombre + " repères");
+        }
+        Random aleatoire = new Random(GRAINE);
+        Exploration exploration = new Exploration(grille);
+        int[] reperes = new int[nombre];
+        float[][] distancesReperes = new float[nombre][];
+        float[] distancesMinimales = null; // Distance de chaque case au repère le plus proche, pour ELOIGNES
+
+        for (int l = 0; l < nombre; l++) {
+            int repere;
+            if (selection == Selection.ALEATOIRE) {
+                do {
+                    repere = aleatoire.nextInt(nombreCases);
+                } while (contient(reperes, l, repere));
+            } else if (selection == Selection.ELOIGNES) {
+                if (l == 0) {
+                    // Le premier repère est la case la plus éloignée d'une case tirée au hasard.
+                    distancesMinimales = exploration.explorer(aleatoire.nextInt(nombreCases)).clone();
+                }
+                repere = plusEloignee(distancesMinimales);
+            } else {
+                repere = eviter(exploration, aleatoire.nextInt(nombreCases), reperes, distancesReperes, l);
+            }
+            reperes[l] = repere;
+            distancesReperes[l] = exploration.explorer(repere).clone();
+            if (selection == Selection.ELOIGNES) {
+                if (l == 0) {
+                    distancesMinimales = distancesReperes[0].clone();
+                } else {
+                    for (int n = 0; n < nombreCases; n++) {
+                        distancesMinimales[n] = Math.min(distancesMinimales[n], distancesReperes[l][n]);
+                    }
+                }
+            }
+        }
+        return new Reperes(grille.getLargeur(), grille.getHauteur(), reperes, distancesReperes, quantifiees,
+                carte, versionCarte);
+    }
+
+    /**
+     * Range les distances des repères case par case, sur 16 bits ou en float.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @param reperes Les identifiants des repères.
+     * @param distancesReperes Les distances de chaque repère à toutes les cases.
+     * @param quantifiees true pour stocker les distances sur 16 bits si elles y tiennent exactement.
+     * @param carte La carte dont les distances ont été calculées.
+     * @param versionCarte La version de la carte au début du calcul.
+     */
+    private Reperes(int largeur, int hauteur, int[] reperes, float[][] distancesReperes, boolean quantifiees,
+                    Carte carte, int versionCarte) {
+        this.largeur = largeur;
+        this.hauteur = hauteur;
+        this.reperes = reperes;
+        this.coutMinimal = 2.0 * Tuile.getPenaliteMinimale();
+        this.empreinteCarte = carte.calculerEmpreinte();
+        this.carte = carte;
+        this.versionCarte = versionCarte;
+        int nombre = reperes.length;
+        int nombreCases = largeur * hauteur;
+        if (quantifiees && sontRepresentables(distancesReperes)) {
+            this.distances = null;
+            this.quantifiees = new char[nombreCases * nombre];
+            for (int l = 0; l < nombre; l++) {
+                for (int n = 0; n < nombreCases; n++) {
+                    float distance = distancesReperes[l][n];
+                    this.quantifiees[n * nombre + l] = distance == Float.POSITIVE_INFINITY ? INFINI : (char) distance;
+                }
+            }
+        } else {
+            this.quantifiees = null;
+            this.distances = new float[nombreCases * nombre];
+            for (int l = 0; l < nombre; l++) {
+                for (int n = 0; n < nombreCases; n++) {
+                    this.distances[n * nombre + l] = distancesReperes[l][n];
+                }
+            }
+        }
+    }
+
+    /**
+     * Indique si toutes les distances finies sont des entiers inférieurs à 65535, stockables exactement sur 16 bits.
+     * @param distancesReperes Les distances de chaque repère à toutes les cases.
+     * @return true si toutes les distances peuvent être stockées sur 16 bits sans perte.
+     */
+    private static boolean sontRepresentables(float[][] distancesReperes) {
+        for (float[] distancesRepere : distancesReperes) {
+            for (float distance : distancesRepere) {
+                if (distance != Float.POSITIVE_INFINITY && !(distance < INFINI && distance == (int) distance)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Construit des repères relus depuis un flux, ou associés à une carte.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @param reperes Les identifiants des repères.
+     * @param distances Les distances en float, ou null.
+     * @param quantifiees Les distances sur 16 bits, ou null.
+     * @param empreinteCarte L'empreinte du contenu de la carte décrite.
+     * @param carte La carte associée, ou null.
+     * @param versionCarte La version de la carte associée.
+     */
+    private Reperes(int largeur, int hauteur, int[] reperes, float[] distances, char[] quantifiees,
+                    long empreinteCarte, Carte carte, int versionCarte) {
+        this.largeur = largeur;
+        this.hauteur = hauteur;
+        this.reperes = reperes;
+        this.distances = distances;
+        this.quantifiees = quantifiees;
+        this.coutMinimal = 2.0 * Tuile.getPenaliteMinimale();
+        this.empreinteCarte = empreinteCarte;
+        this.carte = carte;
+        this.versionCarte = versionCarte;
+    }
+
+    /**
+     * Associe les repères à une carte dont le contenu est celui pour lequel ils ont été calculés,
+     * typiquement après leur relecture.
+     * @param carte La carte.
+     * @return Ces repères s'ils décrivent déjà la version actuelle de la carte, sinon des repères associés
+     * à cette version, qui partagent les distances de ceux-ci.
+     * @throws IllegalArgumentException Si le contenu de la carte n'est pas celui des repères.
+     */
+    public Reperes associer(Carte carte) {
+        if (carte == this.carte && estAJour()) {
+            return this;
+        }
+        int version = carte.getVersion();
+        if (carte.getLargeur() != largeur || carte.getHauteur() != hauteur || carte.calculerEmpreinte() != empreinteCarte) {
+            throw new IllegalArgumentException("Les repères ont été calculés pour un autre contenu de carte");
+        }
+        return new Reperes(largeur, hauteur, reperes, distances, quantifiees, empreinteCarte, carte, version);
+    }
+
+    /**
+     * Indique si les repères sont associés à une carte qui n'a pas été modifiée depuis.
+     * @return true si les repères peuvent être utilisés.
+     */
+    public boolean estAJour() {
+        return carte != null && carte.getVersion() == versionCarte;
+    }
+
+    /**
+     * Récupère l'empreinte du contenu de la carte décrite par les repères.
+     * @return L'empreinte de la carte.
+     */
+    public long getEmpreinteCarte() {
+        return empreinteCarte;
+    }
+
+    /**
+     * Récupère le nombre de repères.
+     * @return Le nombre de repères.
+     */
+    public int getNombreReperes() {
+        return reperes.length;
+    }
+
+    /**
+     * Récupère un repère.
+     * @param indice L'indice du repère.
+     * @return L'identifiant (y * largeur + x) de la case repère.
+     */
+    public int getRepere(int indice) {
+        return reperes[indice];
+    }
+
+    /**
+     * Indique si les distances sont stockées sur 16 bits. Ce n'est pas le cas si la quantification n'a pas été
+     * demandée, ou si une distance atteint 65535.
+     * @return true si les distances sont stockées sur 16 bits.
+     */
+    public boolean estQuantifiee() {
+        return quantifiees != null;
+    }
+
+    /**
+     * Récupère la mémoire occupée par les distances des repères.
+     * @return La taille des distances, en octets.
+     */
+    public long getTailleOctets() {
+        return quantifiees != null ? (long) quantifiees.length * Character.BYTES : (long) distances.length * Float.BYTES;
+    }
+
+    /**
+     * Minore la distance entre deux cases de la carte.
+     * @throws IllegalStateException Si les repères ne sont pas associés à une carte, ou si elle a été modifiée.
+     */
+    @Override
+    public double estimer(Case courant, Case cible) {
+        return estimer(courant.getY() * largeur + courant.getX(), cible.getY() * largeur + cible.getX());
+    }
+
+    /**
+     * Minore la distance entre deux cases désignées par leur identifiant y * largeur + x, celui de
+     * {@link GrilleImplicite} : c'est le maximum des bornes des repères et de la distance de Manhattan pondérée.
+     * @param noeud L'identifiant de la case courante.
+     * @param cible L'identifiant de la case cible.
+     * @return Le minorant de la distance.
+     * @throws IllegalStateException Si les repères ne sont pas associés à une carte, ou si elle a été modifiée.
+     */
+    public double estimer(int noeud, int cible) {
+        if (!estAJour()) {
+            throw new IllegalStateException(carte == null
+                    ? "Les repères relus doivent être associés à une carte avant d'être utilisés"
+                    : "La carte a été modifiée depuis le calcul des repères, qui doivent être recalculés");
+        }
+        double borne = coutMinimal * (Math.abs(noeud % largeur - cible % largeur) + Math.abs(noeud / largeur - cible / largeur));
+        int nombre = reperes.length;
+        int baseNoeud = noeud * nombre;
+        int baseCible = cible * nombre;
+        if (quantifiees != null) {
+            for (int l = 0; l < nombre; l++) {
+                char a = quantifiees[baseNoeud + l];
+                char b = quantifiees[baseCible + l];
+                if (a != INFINI && b != INFINI) {
+                    borne = Math.max(borne, Math.abs(a - b));
+                }
+            }
+        } else {
+            for (int l = 0; l < nombre; l++) {
+                float a = distances[baseNoeud + l];
+                float b = distances[baseCible + l];
+                if (a != Float.POSITIVE_INFINITY && b != Float.POSITIVE_INFINITY) {
+                    borne = Math.max(borne, Math.abs(a - b));
+                }
+            }
+        }
+        return borne;
+    }
+
+    /**
+     * Récupère l'heuristique pour les moteurs travaillant sur les identifiants de {@link GrilleImplicite}.
+     * @return L'heuristique indexée.
+     */
+    public HeuristiqueIndexee getHeuristiqueIndexee() {
+        return this::estimer;
+    }
+
+    /**
+     * Écrit les repères dans un flux binaire, relu ensuite par {@link #lire(DataInput)}.
+     * @param sortie Le flux de sortie.
+     * @throws IOException Si une erreur d'écriture se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        sortie.writeInt(MAGIQUE);
+        sortie.writeInt(VERSION_FORMAT);
+        sortie.writeLong(empreinteCarte);
+        sortie.writeInt(largeur);
+        sortie.writeInt(hauteur);
+        sortie.writeInt(reperes.length);
+        sortie.writeBoolean(quantifiees != null);
+        for (int repere : reperes) {
+            sortie.writeInt(repere);
+        }
+        if (quantifiees != null) {
+            for (char distance : quantifiees) {
+                sortie.writeChar(distance);
+            }
+        } else {
+            for (float distance : distances) {
+                sortie.writeFloat(distance);
+            }
+        }
+    }
+
+    /**
+     * Lit des repères écrits par {@link #ecrire(DataOutput)}. Ils ne sont associés à aucune carte :
+     * {@link #associer(Carte)} doit être appelée avant de les utiliser.
+     * @param entree Le flux d'entrée.
+     * @return Les repères lus.
+     * @throws IOException Si une erreur de lecture se produit ou si le flux ne contient pas de repères valides.
+     */
+    public static Reperes lire(DataInput entree) throws IOException {
+        if (entree.readInt() != MAGIQUE) {
+            throw new IOException("Le flux ne contient pas de repères");
+        }
+        int version = entree.readInt();
+        if (version != VERSION_FORMAT) {
+            throw new IOException("Version de repères non prise en charge : " + version);
+        }
+        long empreinteCarte = entree.readLong();
+        int largeur = entree.readInt();
+        int hauteur = entree.readInt();
+        int nombre = entree.readInt();
+        if (largeur <= 0 || hauteur <= 0 || nombre <= 0 || (long) largeur * hauteur * nombre > TAILLE_MAXIMALE) {
+            throw new IOException("Taille de repères invalide : " + largeur + " x " + hauteur + ", " + nombre + " repères");
+        }
+        boolean quantifiees = entree.readBoolean();
+        int[] reperes = new int[nombre];
+        for (int l = 0; l < nombre; l++) {
+            reperes[l] = entree.readInt();
+            if (reperes[l] < 0 || reperes[l] >= largeur * hauteur) {
+                throw new IOException("Repère invalide : " + reperes[l]);
+            }
+        }
+        int taille = largeur * hauteur * nombre;
+        if (quantifiees) {
+            char[] valeurs = new char[taille];
+            for (int i = 0; i < taille; i++) {
+                valeurs[i] = entree.readChar();
+            }
+            return new Reperes(largeur, hauteur, reperes, null, valeurs, empreinteCarte, null, 0);
+        }
+        float[] valeurs = new float[taille];
+        for (int i = 0; i < taille; i++) {
+            valeurs[i] = entree.readFloat();
+        }
+        return new Reperes(largeur, hauteur, reperes, valeurs, null, empreinteCarte, null, 0);
+    }
+
+    /**
+     * Choisit un repère par la stratégie d'évitement : depuis une racine, l'arbre des plus courts chemins est
+     * pondéré par l'écart entre la distance réelle et la borne des repères existants ; on descend depuis le
+     * sous-arbre de plus grand poids ne contenant aucun repère, jusqu'à une feuille, qui devient le repère.
+     * @param exploration L'exploration de la carte.
+     * @param racine La case racine.
+     * @param reperes Les repères déjà choisis.
+     * @param distancesReperes Les distances des repères déjà choisis.
+     * @param nombre Le nombre de repères déjà choisis.
+     * @return Le nouveau repère.
+     */
+    private static int eviter(Exploration exploration, int racine, int[] reperes, float[][] distancesReperes,
+                              int nombre) {
+        float[] distances = exploration.explorer(racine);
+        int[] parents = exploration.parents;
+        int[] ordre = exploration.ordre;
+        int nombreEtablies = exploration.nombreEtablies;
+        double[] tailles = new double[distances.length];
+        int[] meilleursEnfants = new int[distances.length];
+        Arrays.fill(meilleursEnfants, -1);
+        boolean[] contientRepere = new boolean[distances.length];
+        for (int l = 0; l < nombre; l++) {
+            contientRepere[reperes[l]] = true;
+        }
+
+        // Les cases sont parcourues de la plus éloignée à la racine : chaque sous-arbre est complet avant son parent.
+        int meilleure = racine;
+        for (int i = nombreEtablies - 1; i >= 0; i--) {
+            int noeud = ordre[i];
+            if (contientRepere[noeud]) {
+                tailles[noeud] = 0.0;
+            } else {
+                double borne = 0.0;
+                for (int l = 0; l < nombre; l++) {
+                    borne = Math.max(borne, Math.abs(distancesReperes[l][racine] - distancesReperes[l][noeud]));
+                }
+                tailles[noeud] += distances[noeud] - borne;
+            }
+            int parent = parents[noeud];
+            if (parent >= 0) {
+                if (contientRepere[noeud]) {
+                    contientRepere[parent] = true;
+                } else {
+                    tailles[parent] += tailles[noeud];
+                    if (meilleursEnfants[parent] < 0 || tailles[noeud] > tailles[meilleursEnfants[parent]]) {
+                        meilleursEnfants[parent] = noeud;
+                    }
+                }
+            }
+            if (!contientRepere[noeud] && tailles[noeud] > tailles[meilleure]) {
+                meilleure = noeud;
+            }
+        }
+        while (meilleursEnfants[meilleure] >= 0) {
+            meilleure = meilleursEnfants[meilleure];
+        }
+        if (contient(reperes, nombre, meilleure)) {
+            // Tout l'arbre est déjà couvert : on se rabat sur la case la plus éloignée de la racine.
+            meilleure = plusEloignee(distances);
+        }
+        return meilleure;
+    }
+
+    /**
+     * Indique si un identifiant figure parmi les premiers éléments d'un tableau.
+     * @param tableau Le tableau.
+     * @param nombre Le nombre d'éléments à examiner.
+     * @param valeur L'identifiant recherché.
+     * @return true si l'identifiant figure parmi les éléments examinés.
+     */
+    private static boolean contient(int[] tableau, int nombre, int valeur) {
+        for (int i = 0; i < nombre; i++) {
+            if (tableau[i] == valeur) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Récupère la case de plus grande distance finie.
+     * @param distances Les distances des cases.
+     * @return L'identifiant de la case la plus éloignée.
+     */
+    private static int plusEloignee(float[] distances) {
+        int meilleure = 0;
+        for (int n = 1; n < distances.length; n++) {
+            if (distances[n] != Float.POSITIVE_INFINITY
+                    && (distances[meilleure] == Float.POSITIVE_INFINITY || distances[n] > distances[meilleure])) {
+                meilleure = n;
+            }
+        }
+        return meilleure;
+    }
+
+    /**
+     * Recherche de Dijkstra sur toute la carte, dont les tableaux sont réutilisés d'une source à l'autre.
+     */
+    private static final class Exploration {
+        private final GrilleImplicite grille; // La carte parcourue
+        private final float[] distances; // Distance de chaque case à la source
+        private final int[] parents; // Prédécesseur de chaque case dans l'arbre des plus courts chemins
+        private final int[] ordre; // Cases dans l'ordre où elles ont été établies
+        private final TasIndexe tas; // File de priorité de la recherche
+        private final int[] voisins; // Tampon recevant les voisins d'une case
+        private final double[] couts; // Tampon recevant les coûts des arêtes vers ces voisins
+        private int nombreEtablies; // Nombre de cases établies par la dernière recherche
+
+        /**
+         * Prépare les tableaux de la recherche.
+         * @param grille La carte parcourue.
+         */
+        private Exploration(GrilleImplicite grille) {
+            this.grille = grille;
+            this.distances = new float[grille.getNombreNoeuds()];
+            this.parents = new int[grille.getNombreNoeuds()];
+            this.ordre = new int[grille.getNombreNoeuds()];
+            this.tas = new TasIndexe(grille.getNombreNoeuds());
+            this.voisins = new int[grille.getDegreMaximal()];
+            this.couts = new double[grille.getDegreMaximal()];
+        }
+
+        /**
+         * Calcule les distances de toutes les cases à une source.
+         * @param source L'identifiant de la source.
+         * @return Les distances, valables jusqu'à la recherche suivante.
+         */
+        private float[] explorer(int source) {
+            Arrays.fill(distances, Float.POSITIVE_INFINITY);
+            nombreEtablies = 0;
+            distances[source] = 0.0f;
+            parents[source] = -1;
+            tas.inserer(source, 0.0);
+            while (!tas.estVide()) {
+                int courante = tas.extraireMinimum();
+                ordre[nombreEtablies++] = courante;
+                int nombreVoisins = grille.getVoisins(courante, voisins, couts);
+                for (int i = 0; i < nombreVoisins; i++) {
+                    int voisine = voisins[i];
+                    float distance = (float) (distances[courante] + couts[i]);
+                    if (distance < distances[voisine]) {
+                        distances[voisine] = distance;
+                        parents[voisine] = courante;
+                        tas.insererOuDiminuer(voisine, distance);
+                    }
+                }
+            }
+            return distances;
+        }
+    }
+}
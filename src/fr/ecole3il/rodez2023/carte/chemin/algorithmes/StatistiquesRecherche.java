@@ -0,0 +1,142 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+/**
+ * La classe StatistiquesRecherche décrit le travail effectué par une recherche de chemin : noeuds établis et développés,
+ * arêtes relâchées, opérations sur la file de priorité et durée. Elle n'est créée que lorsque l'instrumentation
+ * est active ({@link Instrumentation#estActive()}), puis transmise aux écouteurs de recherche.
+ * <p>
+ * Pour les recherches bidirectionnelles, les compteurs additionnent les deux recherches, et la taille maximale
+ * de l'ensemble ouvert est la somme des tailles maximales des deux files.
+ */
+public class StatistiquesRecherche {
+    private final String algorithme; // Nom de l'algorithme ayant effectué la recherche
+    private final long dureeRecherche; // Durée de la recherche, en nanosecondes
+    private final int longueurChemin; // Nombre de noeuds du chemin trouvé, 0 si aucun chemin n'a été trouvé
+    private int noeudsEtablis; // Nombre de noeuds sortis de la file de priorité
+    private int noeudsDeveloppes; // Nombre de noeuds dont les arêtes ont été relâchées
+    private long relachements; // Nombre d'arêtes relâchées
+    private long insertionsTas; // Nombre d'insertions dans la file de priorité
+    private long extractionsTas; // Nombre d'extractions du minimum de la file de priorité
+    private int tailleMaximaleOuverts; // Plus grande taille atteinte par l'ensemble ouvert
+
+    /**
+     * Construit les statistiques d'une recherche, dont les compteurs sont ensuite remplis par le moteur.
+     * @param algorithme Le nom de l'algorithme ayant effectué la recherche.
+     * @param dureeRecherche La durée de la recherche, en nanosecondes.
+     * @param longueurChemin Le nombre de noeuds du chemin trouvé.
+     */
+    StatistiquesRecherche(String algorithme, long dureeRecherche, int longueurChemin) {
+        this.algorithme = algorithme;
+        this.dureeRecherche = dureeRecherche;
+        this.longueurChemin = longueurChemin;
+    }
+
+    /**
+     * Ajoute le travail d'exploration d'une recherche.
+     * @param etablis Le nombre de noeuds établis.
+     * @param developpes Le nombre de noeuds développés.
+     * @param aretes Le nombre d'arêtes relâchées.
+     */
+    void compterNoeuds(int etablis, int developpes, long aretes) {
+        noeudsEtablis += etablis;
+        noeudsDeveloppes += developpes;
+        relachements += aretes;
+    }
+
+    /**
+     * Ajoute les opérations effectuées sur une file de priorité depuis la remise à zéro de ses compteurs.
+     * @param tas La file de priorité de la recherche.
+     */
+    void compterTas(TasIndexe tas) {
+        insertionsTas += tas.getNombreInsertions();
+        extractionsTas += tas.getNombreExtractions();
+        tailleMaximaleOuverts += tas.getTailleMaximale();
+    }
+
+    /**
+     * Récupère le nom de l'algorithme ayant effectué la recherche.
+     * @return Le nom de l'algorithme.
+     */
+    public String getAlgorithme() {
+        return algorithme;
+    }
+
+    /**
+     * Récupère la durée de la recherche, hors construction du graphe et conversion du chemin.
+     * @return La durée de la recherche, en nanosecondes.
+     */
+    public long getDureeRecherche() {
+        return dureeRecherche;
+    }
+
+    /**
+     * Récupère le nombre de noeuds du chemin trouvé.
+     * @return Le nombre de noeuds du chemin, 0 si aucun chemin n'a été trouvé.
+     */
+    public int getLongueurChemin() {
+        return longueurChemin;
+    }
+
+    /**
+     * Indique si la recherche a trouvé un chemin.
+     * @return true si un chemin a été trouvé.
+     */
+    public boolean estCheminTrouve() {
+        return longueurChemin > 0;
+    }
+
+    /**
+     * Récupère le nombre de noeuds établis, c'est-à-dire sortis de la file de priorité.
+     * @return Le nombre de noeuds établis.
+     */
+    public int getNoeudsEtablis() {
+        return noeudsEtablis;
+    }
+
+    /**
+     * Récupère le nombre de noeuds développés, c'est-à-dire dont les arêtes ont été relâchées.
+     * @return Le nombre de noeuds développés.
+     */
+    public int getNoeudsDeveloppes() {
+        return noeudsDeveloppes;
+    }
+
+    /**
+     * Récupère le nombre d'arêtes relâchées.
+     * @return Le nombre d'arêtes relâchées.
+     */
+    public long getRelachements() {
+        return relachements;
+    }
+
+    /**
+     * Récupère le nombre d'insertions dans la file de priorité.
+     * @return Le nombre d'insertions.
+     */
+    public long getInsertionsTas() {
+        return insertionsTas;
+    }
+
+    /**
+     * Récupère le nombre d'extractions du minimum de la file de priorité.
+     * @return Le nombre d'extractions.
+     */
+    public long getExtractionsTas() {
+        return extractionsTas;
+    }
+
+    /**
+     * Récupère la plus grande taille atteinte par l'ensemble ouvert.
+     * @return La plus grande taille de l'ensemble ouvert.
+     */
+    public int getTailleMaximaleOuverts() {
+        return tailleMaximaleOuverts;
+    }
+
+    @Override
+    public String toString() {
+        return algorithme + " : " + noeudsEtablis + " établis, " + noeudsDeveloppes + " développés, "
+                + relachements + " relâchements, " + insertionsTas + " insertions, " + extractionsTas
+                + " extractions, ouverts max " + tailleMaximaleOuverts + ", " + dureeRecherche / 1000 + " µs";
+    }
+}
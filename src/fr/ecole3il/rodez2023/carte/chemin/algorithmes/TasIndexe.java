@@ -0,0 +1,370 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import java.util.Arrays;
+
+/**
+ * File de priorité indexée implémentée par un tas 4-aire sur des identifiants entiers.
+ * Chaque identifiant est présent au plus une fois ; sa position dans le tas est mémorisée, ce qui permet
+ * de tester l'appartenance et de diminuer une clé en temps logarithmique sans insérer de doublon.
+ * Les tableaux sont alloués une fois et réutilisés d'une recherche à l'autre.
+ * Une clé peut avoir une seconde composante, qui départage les clés égales dans l'ordre lexicographique
+ * (voir {@link #inserer(int, double, double)}) ; son tableau n'est alloué qu'à sa première utilisation.
+ * Un même tas utilise soit des clés simples, soit des clés en deux composantes, sans les mélanger.
+ * Le tas compte ses insertions et ses extractions et retient sa plus grande taille, pour les statistiques
+ * de recherche ; ces compteurs sont remis à zéro par {@link #reinitialiserCompteurs()}.
+ */
+public class TasIndexe {
+    private static final int ARITE = 4; // Nombre d'enfants de chaque noeud du tas
+
+    private int[] tas; // Identifiants rangés selon l'ordre du tas
+    private int[] positions; // Position de chaque identifiant dans le tas, ou -1 s'il est absent
+    private double[] cles; // Clé de chaque identifiant présent dans le tas
+    private double[] departages; // Seconde composante de chaque clé, ou null si elle n'a jamais été utilisée
+    private int taille; // Nombre d'identifiants présents dans le tas
+    private long nombreInsertions; // Nombre d'insertions depuis la remise à zéro des compteurs
+    private long nombreExtractions; // Nombre d'extractions du minimum depuis la remise à zéro des compteurs
+    private int tailleMaximale; // Plus grande taille atteinte depuis la remise à zéro des compteurs
+
+    /**
+     * Construit un tas pouvant contenir les identifiants de 0 à capacite - 1.
+     * @param capacite Le nombre d'identifiants possibles.
+     */
+    public TasIndexe(int capacite) {
+        this.tas = new int[capacite];
+        this.positions = new int[capacite];
+        this.cles = new double[capacite];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Récupère le nombre d'identifiants possibles.
+     * @return La capacité du tas.
+     */
+    public int getCapacite() {
+        return positions.length;
+    }
+
+    /**
+     * Agrandit le tas pour qu'il puisse contenir les identifiants de 0 à capacite - 1.
+     * Les éléments présents sont conservés.
+     * @param capacite Le nombre d'identifiants possibles.
+     */
+    public void assurerCapacite(int capacite) {
+        int ancienne = positions.length;
+        if (capacite > ancienne) {
+            tas = Arrays.copyOf(tas, capacite);
+            positions = Arrays.copyOf(positions, capacite);
+            cles = Arrays.copyOf(cles, capacite);
+            if (departages != null) {
+                departages = Arrays.copyOf(departages, capacite);
+            }
+            Arrays.fill(positions, ancienne, capacite, -1);
+        }
+    }
+
+    /**
+     * Indique si le tas est vide.
+     * @return true si le tas ne contient aucun identifiant.
+     */
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    /**
+     * Récupère le nombre d'identifiants présents dans le tas.
+     * @return Le nombre d'identifiants présents.
+     */
+    public int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Récupère le nombre d'insertions depuis la dernière remise à zéro des compteurs.
+     * @return Le nombre d'insertions.
+     */
+    public long getNombreInsertions() {
+        return nombreInsertions;
+    }
+
+    /**
+     * Récupère le nombre d'extractions du minimum depuis la dernière remise à zéro des compteurs.
+     * @return Le nombre d'extractions.
+     */
+    public long getNombreExtractions() {
+        return nombreExtractions;
+    }
+
+    /**
+     * Récupère la plus grande taille atteinte par le tas depuis la dernière remise à zéro des compteurs.
+     * @return La plus grande taille atteinte.
+     */
+    public int getTailleMaximale() {
+        return tailleMaximale;
+    }
+
+    /**
+     * Remet à zéro les compteurs d'insertions et d'extractions et la plus grande taille atteinte.
+     */
+    public void reinitialiserCompteurs() {
+        nombreInsertions = 0;
+        nombreExtractions = 0;
+        tailleMaximale = taille;
+    }
+
+    /**
+     * Indique si un identifiant est présent dans le tas.
+     * @param id L'identifiant à tester.
+     * @return true si l'identifiant est présent.
+     */
+    public boolean contient(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Récupère la clé d'un identifiant présent dans le tas.
+     * @param id L'identifiant.
+     * @return La clé de l'identifiant.
+     */
+    public double getCle(int id) {
+        return cles[id];
+    }
+
+    /**
+     * Récupère l'identifiant de plus petite clé sans le retirer.
+     * @return L'identifiant de plus petite clé.
+     */
+    public int getMinimum() {
+        return tas[0];
+    }
+
+    /**
+     * Récupère la plus petite clé du tas.
+     * @return La plus petite clé, ou une valeur infinie si le tas est vide.
+     */
+    public double getCleMinimum() {
+        return taille == 0 ? Double.POSITIVE_INFINITY : cles[tas[0]];
+    }
+
+    /**
+     * Récupère la seconde composante de la plus petite clé du tas.
+     * @return La seconde composante, nulle si elle n'a jamais été utilisée, ou une valeur infinie si le tas est vide.
+     */
+    public double getDepartageMinimum() {
+        if (taille == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return departages == null ? 0.0 : departages[tas[0]];
+    }
+
+    /**
+     * Insère un identifiant absent du tas avec une clé en deux composantes, comparées dans l'ordre lexicographique.
+     * Les identifiants insérés avec une clé simple ont une seconde composante nulle.
+     * @param id L'identifiant à insérer.
+     * @param cle La première composante de la clé.
+     * @param departage La seconde composante, qui départage les clés dont la première composante est égale.
+     */
+    public void inserer(int id, double cle, double departage) {
+        getDepartages()[id] = departage;
+        inserer(id, cle);
+    }
+
+    /**
+     * Remplace la clé en deux composantes d'un identifiant présent dans le tas, qu'elle augmente ou diminue.
+     * @param id L'identifiant.
+     * @param cle La première composante de la nouvelle clé.
+     * @param departage La seconde composante de la nouvelle clé.
+     */
+    public void modifierCle(int id, double cle, double departage) {
+        double[] departagesCourants = getDepartages();
+        boolean diminue = cle < cles[id] || (cle == cles[id] && departage < departagesCourants[id]);
+        cles[id] = cle;
+        departagesCourants[id] = departage;
+        if (diminue) {
+            remonter(positions[id]);
+        } else {
+            descendre(positions[id]);
+        }
+    }
+
+    /**
+     * Insère un identifiant absent du tas.
+     * @param id L'identifiant à insérer.
+     * @param cle La clé associée.
+     */
+    public void inserer(int id, double cle) {
+        cles[id] = cle;
+        positions[id] = taille;
+        tas[taille] = id;
+        taille++;
+        nombreInsertions++;
+        if (taille > tailleMaximale) {
+            tailleMaximale = taille;
+        }
+        remonter(taille - 1);
+    }
+
+    /**
+     * Diminue la clé d'un identifiant présent dans le tas.
+     * @param id L'identifiant.
+     * @param cle La nouvelle clé, inférieure ou égale à l'ancienne.
+     */
+    public void diminuerCle(int id, double cle) {
+        cles[id] = cle;
+        remonter(positions[id]);
+    }
+
+    /**
+     * Remplace la clé d'un identifiant présent dans le tas, qu'elle augmente ou diminue.
+     * @param id L'identifiant.
+     * @param cle La nouvelle clé.
+     */
+    public void modifierCle(int id, double cle) {
+        double ancienne = cles[id];
+        cles[id] = cle;
+        if (cle < ancienne) {
+            remonter(positions[id]);
+        } else {
+            descendre(positions[id]);
+        }
+    }
+
+    /**
+     * Insère un identifiant, ou diminue sa clé s'il est déjà présent avec une clé plus grande.
+     * @param id L'identifiant.
+     * @param cle La clé proposée.
+     * @return true si le tas a été modifié.
+     */
+    public boolean insererOuDiminuer(int id, double cle) {
+        if (positions[id] < 0) {
+            inserer(id, cle);
+            return true;
+        }
+        if (cle < cles[id]) {
+            diminuerCle(id, cle);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retire et renvoie l'identifiant de plus petite clé.
+     * @return L'identifiant de plus petite clé.
+     */
+    public int extraireMinimum() {
+        int minimum = tas[0];
+        positions[minimum] = -1;
+        taille--;
+        nombreExtractions++;
+        if (taille > 0) {
+            int dernier = tas[taille];
+            tas[0] = dernier;
+            positions[dernier] = 0;
+            descendre(0);
+        }
+        return minimum;
+    }
+
+    /**
+     * Retire du tas un identifiant présent, quelle que soit sa position.
+     * @param id L'identifiant à retirer.
+     */
+    public void retirer(int id) {
+        int position = positions[id];
+        positions[id] = -1;
+        taille--;
+        if (position < taille) {
+            int dernier = tas[taille];
+            tas[position] = dernier;
+            positions[dernier] = position;
+            if (precede(dernier, id)) {
+                remonter(position);
+            } else {
+                descendre(position);
+            }
+        }
+    }
+
+    /**
+     * Retire tous les identifiants du tas, en temps proportionnel au nombre d'identifiants présents.
+     */
+    public void vider() {
+        for (int i = 0; i < taille; i++) {
+            positions[tas[i]] = -1;
+        }
+        taille = 0;
+    }
+
+    /**
+     * Récupère le tableau des secondes composantes, en l'allouant à sa première utilisation.
+     * @return Le tableau des secondes composantes.
+     */
+    private double[] getDepartages() {
+        if (departages == null) {
+            departages = new double[positions.length];
+        }
+        return departages;
+    }
+
+    /**
+     * Indique si la clé d'un identifiant est strictement inférieure à celle d'un autre.
+     * La seconde composante n'est lue qu'en cas d'égalité de la première.
+     * @param a Le premier identifiant.
+     * @param b Le second identifiant.
+     * @return true si la clé de a précède celle de b.
+     */
+    private boolean precede(int a, int b) {
+        double cleA = cles[a];
+        double cleB = cles[b];
+        return cleA < cleB || (cleA == cleB && departages != null && departages[a] < departages[b]);
+    }
+
+    /**
+     * Fait remonter un élément du tas jusqu'à sa place.
+     * @param position La position de l'élément.
+     */
+    private void remonter(int position) {
+        int id = tas[position];
+        while (position > 0) {
+            int parent = (position - 1) / ARITE;
+            int idParent = tas[parent];
+            if (!precede(id, idParent)) {
+                break;
+            }
+            tas[position] = idParent;
+            positions[idParent] = position;
+            position = parent;
+        }
+        tas[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Fait descendre un élément du tas jusqu'à sa place.
+     * @param position La position de l'élément.
+     */
+    private void descendre(int position) {
+        int id = tas[position];
+        while (true) {
+            int premier = position * ARITE + 1;
+            if (premier >= taille) {
+                break;
+            }
+            int dernier = Math.min(premier + ARITE, taille);
+            int meilleur = premier;
+            for (int enfant = premier + 1; enfant < dernier; enfant++) {
+                if (precede(tas[enfant], tas[meilleur])) {
+                    meilleur = enfant;
+                }
+            }
+            int idMeilleur = tas[meilleur];
+            if (!precede(idMeilleur, id)) {
+                break;
+            }
+            tas[position] = idMeilleur;
+            positions[idMeilleur] = position;
+            position = meilleur;
+        }
+        tas[position] = id;
+        positions[id] = position;
+    }
+}
@@ -1,19 +1,47 @@
 package fr.ecole3il.rodez2023.carte.elements;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * La classe Carte représente une carte composée de tuiles disposées en une grille bidimensionnelle.
+ * Une carte est modifiable et n'est pas sûre entre plusieurs threads : pour lancer des recherches
+ * en parallèle, on partage plutôt un instantané figé obtenu par {@link #figer()}.
+ * Les tuiles sont conservées par un {@link StockageTuiles} : une matrice de références, ou pour les grandes
+ * cartes un {@link StockageCompact} n'utilisant que 2 bits par case.
+ * <p>
+ * Tous les graphes construits à partir d'une carte numérotent ses cases de la même façon : l'identifiant
+ * de la case (x, y) est y * largeur + x, ligne par ligne. C'est le cas du graphe compilé par
+ * AdaptateurAlgorithme (indice des noeuds et graphe compact), de {@link GrapheCompact#depuisCarte(Carte)},
+ * de la {@link GrilleImplicite} et des structures précalculées sur ces graphes (hiérarchies de contraction,
+ * repères...), qui sont donc interchangeables d'une représentation à l'autre.
  *
  * @author proussille
  */
 public class Carte {
-    private final Tuile[][] tuiles; // Matrice de tuiles représentant la carte
+    private static final int TAILLE_CACHE_CASES = 1 << 14; // Nombre maximal de cases conservées par getCase
+
+    private final StockageTuiles stockage; // Stockage des tuiles de la carte
+    private final Case[] cacheCases; // Cases déjà renvoyées par getCase, rangées par identifiant modulo la taille
+    private volatile int version; // Compteur incrémenté à chaque modification de la carte
+    private final List<EcouteurCarte> ecouteurs = new CopyOnWriteArrayList<>(); // Écouteurs prévenus des modifications
 
     /**
      * Construit une nouvelle carte avec les tuiles spécifiées.
-     * @param tuiles La matrice de tuiles représentant la carte.
+     * @param tuiles La matrice de tuiles représentant la carte, indexée par [x][y].
      */
     public Carte(Tuile[][] tuiles) {
-        this.tuiles = tuiles;
+        this(new StockageTableau(tuiles));
+    }
+
+    /**
+     * Construit une nouvelle carte dont les tuiles sont conservées par le stockage spécifié, sans le copier.
+     * @param stockage Le stockage des tuiles de la carte.
+     */
+    public Carte(StockageTuiles stockage) {
+        this.stockage = stockage;
+        long nombreCases = (long) stockage.getLargeur() * stockage.getHauteur();
+        this.cacheCases = new Case[(int) Math.max(1, Math.min(Long.highestOneBit(nombreCases - 1) << 1, TAILLE_CACHE_CASES))];
     }
 
     /**
@@ -23,7 +51,73 @@ public class Carte {
      * @return La tuile située aux coordonnées spécifiées.
      */
     public Tuile getTuile(int x, int y) {
-        return tuiles[x][y];
+        return stockage.getTuile(x, y);
+    }
+
+    /**
+     * Remplace la tuile située aux coordonnées spécifiées.
+     * Toute modification incrémente la version de la carte, ce qui permet aux structures dérivées
+     * (graphes compilés, caches...) de savoir qu'elles doivent être reconstruites, puis prévient les écouteurs.
+     * @param x La coordonnée x de la tuile.
+     * @param y La coordonnée y de la tuile.
+     * @param tuile La nouvelle tuile.
+     */
+    public void setTuile(int x, int y, Tuile tuile) {
+        if (tuile == null) {
+            throw new IllegalArgumentException("La tuile ne doit pas être nulle");
+        }
+        Tuile ancienne = stockage.getTuile(x, y);
+        if (ancienne != tuile) {
+            stockage.setTuile(x, y, tuile);
+            version++;
+            for (EcouteurCarte ecouteur : ecouteurs) {
+                ecouteur.tuileModifiee(this, x, y, ancienne, tuile);
+            }
+        }
+    }
+
+    /**
+     * Crée un instantané figé de la carte : une copie de ses tuiles qui ne peut plus être modifiée.
+     * L'instantané peut être lu par plusieurs threads sans synchronisation ; les modifications ultérieures
+     * de cette carte ne s'y reflètent pas.
+     * @return L'instantané figé de la carte.
+     */
+    public Carte figer() {
+        return new CarteFigee(this);
+    }
+
+    /**
+     * Indique si la carte est figée, c'est-à-dire si ses tuiles ne peuvent plus être modifiées.
+     * @return true si la carte est un instantané figé.
+     */
+    public boolean estFigee() {
+        return false;
+    }
+
+    /**
+     * Ajoute un écouteur prévenu à chaque modification d'une tuile de la carte.
+     * @param ecouteur L'écouteur à ajouter.
+     */
+    public void ajouterEcouteur(EcouteurCarte ecouteur) {
+        ecouteurs.add(ecouteur);
+    }
+
+    /**
+     * Retire un écouteur de la carte.
+     * @param ecouteur L'écouteur à retirer.
+     */
+    public void retirerEcouteur(EcouteurCarte ecouteur) {
+        ecouteurs.remove(ecouteur);
+    }
+
+    /**
+     * Récupère la version de la carte, incrémentée à chaque modification d'une tuile.
+     * La version est volatile : un thread qui lit une version voit les tuiles écrites avant son incrémentation.
+     * Les modifications elles-mêmes restent réservées à un seul thread à la fois.
+     * @return La version courante de la carte.
+     */
+    public int getVersion() {
+        return version;
     }
 
     /**
@@ -31,7 +125,7 @@ public class Carte {
      * @return La largeur de la carte.
      */
     public int getLargeur() {
-        return tuiles.length;
+        return stockage.getLargeur();
     }
 
     /**
@@ -39,11 +133,39 @@ public class Carte {
      * @return La hauteur de la carte.
      */
     public int getHauteur() {
-        return tuiles[0].length;
+        return stockage.getHauteur();
+    }
+
+    /**
+     * Calcule l'empreinte du contenu de la carte : un hachage FNV-1a sur 64 bits de ses dimensions et de
+     * l'ordinal de chaque tuile, ligne par ligne. Elle ne dépend ni du stockage ni de la JVM, et permet
+     * d'associer à la carte des données précalculées conservées sur disque.
+     * @return L'empreinte de la carte.
+     */
+    public long calculerEmpreinte() {
+        long empreinte = 0xcbf29ce484222325L;
+        empreinte = (empreinte ^ getLargeur()) * 0x100000001b3L;
+        empreinte = (empreinte ^ getHauteur()) * 0x100000001b3L;
+        for (int y = 0; y < getHauteur(); y++) {
+            for (int x = 0; x < getLargeur(); x++) {
+                empreinte = (empreinte ^ getTuile(x, y).ordinal()) * 0x100000001b3L;
+            }
+        }
+        return empreinte;
+    }
+
+    /**
+     * Récupère le stockage des tuiles de la carte. Le modifier directement ne prévient pas les écouteurs.
+     * @return Le stockage des tuiles.
+     */
+    StockageTuiles getStockage() {
+        return stockage;
     }
 
     /**
      * Récupère la case située aux coordonnées spécifiées.
+     * Les cases étant immuables, les dernières renvoyées sont conservées dans un cache de taille bornée
+     * et réutilisées tant que leur tuile n'a pas changé, ce qui évite une allocation à chaque appel.
      *
      * @param xDepart La coordonnée x de la case.
      * @param yDepart La coordonnée y de la case.
@@ -51,6 +173,14 @@ public class Carte {
      */
     public Case getCase(int xDepart, int yDepart) {
         Tuile tuile = getTuile(xDepart, yDepart);
-        return new Case(tuile, xDepart, yDepart);
+        int emplacement = (yDepart * getLargeur() + xDepart) & (cacheCases.length - 1);
+        // Les champs d'une case sont finaux : une case lue par un autre thread est toujours complète.
+        Case cachee = cacheCases[emplacement];
+        if (cachee != null && cachee.getX() == xDepart && cachee.getY() == yDepart && cachee.getTuile() == tuile) {
+            return cachee;
+        }
+        Case nouvelle = new Case(tuile, xDepart, yDepart);
+        cacheCases[emplacement] = nouvelle;
+        return nouvelle;
     }
 }
\ No newline at end of file
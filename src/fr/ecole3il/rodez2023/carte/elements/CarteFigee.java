@@ -0,0 +1,48 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+/**
+ * La classe CarteFigee représente un instantané non modifiable d'une carte, obtenu par {@link Carte#figer()}.
+ * Ses tuiles sont copiées à la création puis ne changent plus : l'instantané peut être partagé entre
+ * plusieurs threads et lu sans synchronisation, sa version restant constante.
+ */
+public class CarteFigee extends Carte {
+
+    /**
+     * Construit l'instantané d'une carte en copiant ses tuiles, dans la même représentation.
+     * @param carte La carte à figer.
+     */
+    CarteFigee(Carte carte) {
+        super(carte.getStockage().copier());
+    }
+
+    /**
+     * Refuse toute modification : l'instantané est figé.
+     * @throws UnsupportedOperationException Toujours.
+     */
+    @Override
+    public void setTuile(int x, int y, Tuile tuile) {
+        throw new UnsupportedOperationException("La carte est figée, ses tuiles ne peuvent pas être modifiées");
+    }
+
+    /**
+     * Renvoie l'instantané lui-même, déjà figé.
+     * @return Cette carte.
+     */
+    @Override
+    public Carte figer() {
+        return this;
+    }
+
+    @Override
+    public boolean estFigee() {
+        return true;
+    }
+
+    /**
+     * N'enregistre pas l'écouteur : une carte figée n'est jamais modifiée, il ne serait jamais prévenu.
+     * @param ecouteur L'écouteur ignoré.
+     */
+    @Override
+    public void ajouterEcouteur(EcouteurCarte ecouteur) {
+    }
+}
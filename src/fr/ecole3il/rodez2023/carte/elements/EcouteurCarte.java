@@ -0,0 +1,18 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+/**
+ * Interface permettant d'être prévenu des modifications des tuiles d'une carte,
+ * par exemple pour mettre à jour une structure précalculée à partir de cette carte.
+ */
+public interface EcouteurCarte {
+
+    /**
+     * Appelée après le remplacement d'une tuile de la carte.
+     * @param carte La carte modifiée.
+     * @param x La coordonnée x de la tuile modifiée.
+     * @param y La coordonnée y de la tuile modifiée.
+     * @param ancienne La tuile avant la modification.
+     * @param nouvelle La tuile après la modification.
+     */
+    void tuileModifiee(Carte carte, int x, int y, Tuile ancienne, Tuile nouvelle);
+}
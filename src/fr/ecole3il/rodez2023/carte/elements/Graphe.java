@@ -1,18 +1,40 @@
 package fr.ecole3il.rodez2023.carte.elements;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 /**
  * La classe Graphe représente un graphe composé de noeuds reliés par des arêtes pondérées.
+ * <p>
+ * Un graphe créé par ses constructeurs publics est modifiable et n'est pas sûr entre plusieurs threads.
+ * Un graphe créé par un {@link Constructeur} est au contraire figé : ses méthodes de modification lèvent
+ * une UnsupportedOperationException, ses noeuds sont figés et sa représentation compacte est calculée
+ * dès la construction. Il peut alors être partagé et lu par autant de threads que voulu sans synchronisation,
+ * par exemple pour exécuter de nombreuses recherches de chemin en parallèle sur un même graphe.
+ * Un graphe figé ne conserve ses arêtes que dans sa représentation compacte, où les coûts sont stockés
+ * en simple précision : la matrice d'adjacence est libérée, ainsi que l'index des noeuds lorsque ceux-ci
+ * ont été ajoutés dans l'ordre de la grille.
  * @param <E> Le type d'objet contenu dans les noeuds du graphe.
  */
 public class Graphe<E> {
+    private static final int MAX_CASES = Integer.MAX_VALUE - 8; // Plus grand nombre de cases d'une grille indexée
+    private static final int MAX_CAPACITE_INITIALE = 1 << 30; // Plus grande capacité initiale de la matrice d'adjacence
 
-    private final Map<Noeud<E>, Map<Noeud<E>, Double>> matriceAdj; // Matrice d'adjacence représentant les arêtes du graphe
+    private final Map<Noeud<E>, Map<Noeud<E>, Double>> matriceAdj; // Matrice d'adjacence, null si le graphe est figé
     private final List<Noeud<E>> noeuds; // Liste des noeuds du graphe
+    private final int largeur; // Largeur de la grille indexée, ou 0 si le graphe n'est pas une grille
+    private final int hauteur; // Hauteur de la grille indexée, ou 0 si le graphe n'est pas une grille
+    private final Noeud<E>[] grille; // Index dense des noeuds de type Case par identifiant (y * largeur + x)
+    private final Map<Long, Noeud<E>> indexCoordonnees; // Index des noeuds de type Case hors de la grille dense
+    private final Map<Noeud<E>, Integer> indices; // Position de chaque noeud, null si elle se déduit de la grille
+    private final boolean fige; // Indique si le graphe est figé, c'est-à-dire non modifiable
+    private final Map<Noeud<E>, Double>[] vuesAretes; // Arêtes de chaque noeud d'un graphe figé, créées à la demande
+    private final List<Noeud<E>>[] vuesVoisins; // Voisins de chaque noeud d'un graphe figé, créés à la demande
+    private volatile GrapheCompact grapheCompact; // Représentation compacte, calculée à la demande
 
     /**
      * Constructeur de la classe Graphe.
@@ -21,29 +43,212 @@ public class Graphe<E> {
     public Graphe() {
         this.matriceAdj = new HashMap<>();
         this.noeuds = new ArrayList<>();
+        this.largeur = 0;
+        this.hauteur = 0;
+        this.grille = null;
+        this.indexCoordonnees = new HashMap<>();
+        this.indices = new HashMap<>();
+        this.fige = false;
+        this.vuesAretes = null;
+        this.vuesVoisins = null;
+    }
+
+    /**
+     * Constructeur d'un graphe dont les noeuds sont les cases d'une grille de dimensions connues.
+     * Les noeuds de type Case sont alors indexés dans un tableau dense, ce qui rend la recherche par coordonnées
+     * en temps constant sans table de hachage.
+     * @param largeur La largeur de la grille.
+     * @param hauteur La hauteur de la grille.
+     */
+    public Graphe(int largeur, int hauteur) {
+        if (largeur <= 0 || hauteur <= 0) {
+            throw new IllegalArgumentException("Les dimensions de la grille doivent être strictement positives");
+        }
+        long nombreCases = (long) largeur * hauteur;
+        if (nombreCases > MAX_CASES) {
+            throw new IllegalArgumentException("La grille " + largeur + "x" + hauteur + " est trop grande pour être indexée");
+        }
+        this.matriceAdj = new HashMap<>((int) Math.min(nombreCases * 4 / 3 + 1, MAX_CAPACITE_INITIALE));
+        this.noeuds = new ArrayList<>((int) nombreCases);
+        this.largeur = largeur;
+        this.hauteur = hauteur;
+        this.grille = creerGrille((int) nombreCases);
+        this.indexCoordonnees = new HashMap<>();
+        this.indices = new HashMap<>();
+        this.fige = false;
+        this.vuesAretes = null;
+        this.vuesVoisins = null;
+    }
+
+    /**
+     * Crée l'index dense des noeuds d'une grille.
+     * @param <E> Le type d'objet contenu dans les noeuds.
+     * @param nombreCases Le nombre de cases de la grille.
+     * @return Un tableau de noeuds vide.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Noeud<E>[] creerGrille(int nombreCases) {
+        return (Noeud<E>[]) new Noeud<?>[nombreCases];
+    }
+
+    /**
+     * Crée le tableau des arêtes par noeud d'un graphe figé.
+     * @param <E> Le type d'objet contenu dans les noeuds.
+     * @param nombreNoeuds Le nombre de noeuds du graphe.
+     * @return Un tableau de vues vide.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Map<Noeud<E>, Double>[] creerVuesAretes(int nombreNoeuds) {
+        return (Map<Noeud<E>, Double>[]) new Map<?, ?>[nombreNoeuds];
+    }
+
+    /**
+     * Crée le tableau des voisins par noeud d'un graphe figé.
+     * @param <E> Le type d'objet contenu dans les noeuds.
+     * @param nombreNoeuds Le nombre de noeuds du graphe.
+     * @return Un tableau de vues vide.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> List<Noeud<E>>[] creerVuesVoisins(int nombreNoeuds) {
+        return (List<Noeud<E>>[]) new List<?>[nombreNoeuds];
+    }
+
+    /**
+     * Construit un graphe figé reprenant les structures d'un graphe en cours de construction, sans les copier.
+     * Les noeuds sont figés et la représentation compacte calculée avant la publication du graphe ;
+     * les champs étant finaux, tout thread qui obtient une référence au graphe voit son état complet.
+     * La matrice d'adjacence de la source n'est pas reprise : les arêtes ne sont plus lues que dans
+     * la représentation compacte, ce qui évite de conserver deux copies du graphe.
+     * @param source Le graphe construit, qui ne doit plus être utilisé ensuite.
+     */
+    private Graphe(Graphe<E> source) {
+        this.matriceAdj = null;
+        this.noeuds = source.noeuds;
+        this.largeur = source.largeur;
+        this.hauteur = source.hauteur;
+        this.grille = source.grille;
+        this.indexCoordonnees = source.indexCoordonnees;
+        this.indices = source.estDansOrdreGrille() ? null : source.indices;
+        this.fige = true;
+        for (Noeud<E> noeud : noeuds) {
+            noeud.figer();
+        }
+        this.vuesAretes = creerVuesAretes(noeuds.size());
+        this.vuesVoisins = creerVuesVoisins(noeuds.size());
+        this.grapheCompact = GrapheCompact.depuisGraphe(source);
+    }
+
+    /**
+     * Indique si chaque noeud du graphe est une case de la grille dense placée, dans la liste des noeuds,
+     * à la position de son identifiant (voir {@link Carte}). L'indice d'un noeud se déduit alors de ses coordonnées.
+     * @return true si les noeuds suivent l'ordre de la grille.
+     */
+    private boolean estDansOrdreGrille() {
+        if (grille == null || noeuds.size() != grille.length) {
+            return false;
+        }
+        for (int i = 0; i < grille.length; i++) {
+            if (grille[i] != noeuds.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Crée un constructeur de graphe figé.
+     * @param <E> Le type d'objet contenu dans les noeuds du graphe.
+     * @return Un nouveau constructeur, vide.
+     */
+    public static <E> Constructeur<E> constructeur() {
+        return new Constructeur<>(new Graphe<>());
+    }
+
+    /**
+     * Crée un constructeur de graphe figé dont les noeuds sont les cases d'une grille de dimensions connues.
+     * @param <E> Le type d'objet contenu dans les noeuds du graphe.
+     * @param largeur La largeur de la grille.
+     * @param hauteur La hauteur de la grille.
+     * @return Un nouveau constructeur, vide.
+     */
+    public static <E> Constructeur<E> constructeur(int largeur, int hauteur) {
+        return new Constructeur<>(new Graphe<>(largeur, hauteur));
+    }
+
+    /**
+     * Indique si le graphe est figé, c'est-à-dire s'il a été créé par un {@link Constructeur}.
+     * @return true si le graphe ne peut pas être modifié.
+     */
+    public boolean estFige() {
+        return fige;
+    }
+
+    /**
+     * Vérifie que le graphe peut être modifié.
+     * @throws UnsupportedOperationException Si le graphe est figé.
+     */
+    private void verifierModifiable() {
+        if (fige) {
+            throw new UnsupportedOperationException("Le graphe est figé, il doit être modifié par un constructeur");
+        }
     }
 
     /**
      * Ajoute un nouveau noeud au graphe.
      * @param noeud Le noeud à ajouter.
+     * @throws UnsupportedOperationException Si le graphe est figé.
      */
     public void ajouterNoeud(Noeud<E> noeud) {
-        if (!noeuds.contains(noeud)) {
+        verifierModifiable();
+        if (!matriceAdj.containsKey(noeud)) {
+            indices.put(noeud, noeuds.size());
             noeuds.add(noeud);
-            matriceAdj.put(noeud, new HashMap<>());
+            grapheCompact = null;
+            // L'ordre d'ajout des arêtes est conservé : la représentation compacte ne dépend pas des hachages.
+            matriceAdj.put(noeud, new LinkedHashMap<>(8));
+            indexer(noeud);
+        }
+    }
+
+    /**
+     * Indexe un noeud par ses coordonnées si sa valeur est une case.
+     * @param noeud Le noeud à indexer.
+     */
+    private void indexer(Noeud<E> noeud) {
+        if (noeud.getValeur() instanceof Case caseValue) {
+            int x = caseValue.getX();
+            int y = caseValue.getY();
+            if (grille != null && x >= 0 && x < largeur && y >= 0 && y < hauteur) {
+                grille[y * largeur + x] = noeud;
+            } else {
+                indexCoordonnees.putIfAbsent(cleCoordonnees(x, y), noeud);
+            }
         }
     }
 
+    /**
+     * Calcule la clé d'index associée à des coordonnées.
+     * @param x La coordonnée x.
+     * @param y La coordonnée y.
+     * @return La clé combinant les deux coordonnées.
+     */
+    private static long cleCoordonnees(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
     /**
      * Ajoute une arête pondérée entre deux noeuds du graphe.
      * @param depart Le noeud de départ de l'arête.
      * @param arrivee Le noeud d'arrivée de l'arête.
      * @param cout Le poids de l'arête (coût pour se déplacer entre les noeuds).
+     * @throws UnsupportedOperationException Si le graphe est figé.
      */
     public void ajouterArete(Noeud<E> depart, Noeud<E> arrivee, double cout) {
+        verifierModifiable();
         ajouterNoeud(depart);
         ajouterNoeud(arrivee);
         this.matriceAdj.get(depart).put(arrivee, cout);
+        grapheCompact = null;
     }
 
     /**
@@ -53,6 +258,13 @@ public class Graphe<E> {
      * @return Le poids de l'arête s'il existe, sinon renvoie une valeur infinie.
      */
     public double getCoutArete(Noeud<E> depart, Noeud<E> arrivee) {
+        if (matriceAdj == null) {
+            int indiceDepart = getIndice(depart);
+            int indiceArrivee = getIndice(arrivee);
+            if (indiceDepart < 0 || indiceArrivee < 0)
+                return Double.POSITIVE_INFINITY;
+            return grapheCompact.getCoutArete(indiceDepart, indiceArrivee);
+        }
         if (matriceAdj.containsKey(depart)) {
             Map<Noeud<E>, Double> aretesAdjacentes = matriceAdj.get(depart);
             if (aretesAdjacentes.containsKey(arrivee))
@@ -72,15 +284,102 @@ public class Graphe<E> {
 
     /**
      * Récupère la liste des noeuds voisins d'un noeud spécifié.
+     * Pour un graphe figé, la liste est une vue non modifiable créée à la première demande puis réutilisée.
      * @param noeud Le noeud pour lequel récupérer les voisins.
-     * @return La liste des noeuds voisins du noeud spécifié.
+     * @return La liste des noeuds voisins du noeud spécifié, non modifiable si le graphe est figé.
      */
     public List<Noeud<E>> getVoisins(Noeud<E> noeud) {
+        if (matriceAdj == null) {
+            int indice = getIndice(noeud);
+            if (indice < 0)
+                return Collections.emptyList();
+            // Course bénigne : deux threads peuvent créer la même vue, publiée sûrement par son champ final.
+            List<Noeud<E>> voisins = vuesVoisins[indice];
+            if (voisins == null) {
+                voisins = Collections.unmodifiableList(new ArrayList<>(getAretes(noeud).keySet()));
+                vuesVoisins[indice] = voisins;
+            }
+            return voisins;
+        }
         if (!this.matriceAdj.containsKey(noeud))
             return new ArrayList<>();
         return new ArrayList<>(this.matriceAdj.get(noeud).keySet());
     }
 
+    /**
+     * Récupère les arêtes sortant d'un noeud spécifié, sans copie si le graphe est modifiable.
+     * Pour un graphe figé, les arêtes sont relues dans la représentation compacte à la première demande,
+     * puis la même vue est renvoyée à chaque appel.
+     * @param noeud Le noeud pour lequel récupérer les arêtes.
+     * @return Une vue non modifiable associant chaque voisin au coût de l'arête correspondante.
+     */
+    public Map<Noeud<E>, Double> getAretes(Noeud<E> noeud) {
+        if (matriceAdj == null) {
+            int indice = getIndice(noeud);
+            if (indice < 0)
+                return Collections.emptyMap();
+            // Course bénigne : deux threads peuvent créer la même vue, publiée sûrement par son champ final.
+            Map<Noeud<E>, Double> vue = vuesAretes[indice];
+            if (vue == null) {
+                Map<Noeud<E>, Double> aretes = new LinkedHashMap<>();
+                for (int i = grapheCompact.getDebutAretes(indice); i < grapheCompact.getFinAretes(indice); i++) {
+                    aretes.put(noeuds.get(grapheCompact.getCible(i)), (double) grapheCompact.getCout(i));
+                }
+                vue = Collections.unmodifiableMap(aretes);
+                vuesAretes[indice] = vue;
+            }
+            return vue;
+        }
+        Map<Noeud<E>, Double> aretes = matriceAdj.get(noeud);
+        if (aretes == null)
+            return Collections.emptyMap();
+        return Collections.unmodifiableMap(aretes);
+    }
+
+    /**
+     * Récupère l'indice d'un noeud, c'est-à-dire sa position dans la liste des noeuds du graphe.
+     * C'est aussi son identifiant dans le graphe compact renvoyé par getGrapheCompact().
+     * @param noeud Le noeud dont on veut l'indice.
+     * @return L'indice du noeud, ou -1 s'il n'appartient pas au graphe.
+     */
+    public int getIndice(Noeud<E> noeud) {
+        if (indices == null) {
+            if (noeud != null && noeud.getValeur() instanceof Case caseValue) {
+                int x = caseValue.getX();
+                int y = caseValue.getY();
+                if (x >= 0 && x < largeur && y >= 0 && y < hauteur && grille[y * largeur + x] == noeud) {
+                    return y * largeur + x;
+                }
+            }
+            return -1;
+        }
+        Integer indice = indices.get(noeud);
+        return indice == null ? -1 : indice;
+    }
+
+    /**
+     * Récupère le noeud situé à un indice donné.
+     * @param indice L'indice du noeud.
+     * @return Le noeud situé à cet indice.
+     */
+    public Noeud<E> getNoeudParIndice(int indice) {
+        return noeuds.get(indice);
+    }
+
+    /**
+     * Récupère la représentation compacte (CSR) du graphe. Elle est construite au premier appel
+     * puis conservée tant que le graphe n'est pas modifié.
+     * @return Le graphe compact équivalent.
+     */
+    public GrapheCompact getGrapheCompact() {
+        GrapheCompact compact = grapheCompact;
+        if (compact == null) {
+            compact = GrapheCompact.depuisGraphe(this);
+            grapheCompact = compact;
+        }
+        return compact;
+    }
+
     /**
      * Récupère le noeud situé aux coordonnées spécifiées.
      * @param x La coordonnée x du noeud.
@@ -88,13 +387,85 @@ public class Graphe<E> {
      * @return Le noeud situé aux coordonnées spécifiées, ou null s'il n'existe pas.
      */
     public Noeud<E> getNoeud(int x, int y) {
-        for (Noeud<E> noeud : noeuds) {
-            if (noeud.getValeur() instanceof Case caseValue) {
-                if (caseValue.getX() == x && caseValue.getY() == y) {
-                    return noeud;
-                }
+        if (grille != null && x >= 0 && x < largeur && y >= 0 && y < hauteur) {
+            return grille[y * largeur + x];
+        }
+        return indexCoordonnees.get(cleCoordonnees(x, y));
+    }
+
+    /**
+     * Constructeur d'un graphe figé. Les noeuds et les arêtes sont ajoutés au constructeur, qui n'est pas
+     * sûr entre plusieurs threads, puis {@link #construire()} produit le graphe figé, partageable sans
+     * synchronisation. Le constructeur ne peut plus être utilisé ensuite.
+     * @param <E> Le type d'objet contenu dans les noeuds du graphe.
+     */
+    public static class Constructeur<E> {
+        private Graphe<E> graphe; // Graphe en cours de construction, ou null une fois construit
+
+        /**
+         * Construit un constructeur remplissant un graphe modifiable vide.
+         * @param graphe Le graphe à remplir.
+         */
+        private Constructeur(Graphe<E> graphe) {
+            this.graphe = graphe;
+        }
+
+        /**
+         * Ajoute un nouveau noeud au graphe.
+         * @param noeud Le noeud à ajouter.
+         * @return Ce constructeur.
+         * @throws IllegalStateException Si le graphe a déjà été construit.
+         */
+        public Constructeur<E> ajouterNoeud(Noeud<E> noeud) {
+            enCours().ajouterNoeud(noeud);
+            return this;
+        }
+
+        /**
+         * Ajoute une arête pondérée entre deux noeuds du graphe.
+         * @param depart Le noeud de départ de l'arête.
+         * @param arrivee Le noeud d'arrivée de l'arête.
+         * @param cout Le poids de l'arête.
+         * @return Ce constructeur.
+         * @throws IllegalStateException Si le graphe a déjà été construit.
+         */
+        public Constructeur<E> ajouterArete(Noeud<E> depart, Noeud<E> arrivee, double cout) {
+            enCours().ajouterArete(depart, arrivee, cout);
+            return this;
+        }
+
+        /**
+         * Récupère un noeud déjà ajouté, situé aux coordonnées spécifiées.
+         * @param x La coordonnée x du noeud.
+         * @param y La coordonnée y du noeud.
+         * @return Le noeud situé aux coordonnées spécifiées, ou null s'il n'existe pas.
+         * @throws IllegalStateException Si le graphe a déjà été construit.
+         */
+        public Noeud<E> getNoeud(int x, int y) {
+            return enCours().getNoeud(x, y);
+        }
+
+        /**
+         * Produit le graphe figé. Ses noeuds sont figés à leur tour.
+         * @return Le graphe figé.
+         * @throws IllegalStateException Si le graphe a déjà été construit.
+         */
+        public Graphe<E> construire() {
+            Graphe<E> fige = new Graphe<>(enCours());
+            graphe = null;
+            return fige;
+        }
+
+        /**
+         * Récupère le graphe en cours de construction.
+         * @return Le graphe en cours de construction.
+         * @throws IllegalStateException Si le graphe a déjà été construit.
+         */
+        private Graphe<E> enCours() {
+            if (graphe == null) {
+                throw new IllegalStateException("Le graphe a déjà été construit");
             }
+            return graphe;
         }
-        return null;
     }
 }
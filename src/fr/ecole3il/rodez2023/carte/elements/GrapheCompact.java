@@ -0,0 +1,320 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * La classe GrapheCompact représente un graphe immuable stocké en lignes creuses compressées (CSR).
+ * Les voisins du noeud n sont les cibles[i] pour i compris entre debuts[n] (inclus) et debuts[n + 1] (exclu),
+ * et couts[i] est le coût de l'arête correspondante. Une arête occupe ainsi 8 octets, sans objet ni valeur boxée.
+ */
+public class GrapheCompact implements GrapheIndexe {
+    private static final int MAGIQUE = 0x47524350; // Signature du format sérialisé
+    private static final int VERSION_FORMAT = 1; // Version du format sérialisé
+
+    private final int[] debuts; // Indice de la première arête de chaque noeud, suivi du nombre total d'arêtes
+    private final int[] cibles; // Noeud d'arrivée de chaque arête
+    private final float[] couts; // Coût de chaque arête
+    private final int degreMaximal; // Nombre maximal de voisins d'un noeud
+    private volatile GrapheCompact inverse; // Graphe des arêtes inversées, calculé à la demande
+
+    /**
+     * Construit un graphe compact à partir de ses tableaux. Les tableaux ne sont pas copiés
+     * et ne doivent plus être modifiés par la suite.
+     * @param debuts L'indice de la première arête de chaque noeud, suivi du nombre total d'arêtes.
+     * @param cibles Le noeud d'arrivée de chaque arête.
+     * @param couts Le coût de chaque arête.
+     * @throws IllegalArgumentException Si les tableaux sont incohérents.
+     */
+    public GrapheCompact(int[] debuts, int[] cibles, float[] couts) {
+        if (debuts.length == 0 || debuts[0] != 0 || debuts[debuts.length - 1] != cibles.length
+                || cibles.length != couts.length) {
+            throw new IllegalArgumentException("Les tableaux du graphe compact sont incohérents");
+        }
+        int degre = 0;
+        for (int n = 0; n < debuts.length - 1; n++) {
+            if (debuts[n + 1] < debuts[n]) {
+                throw new IllegalArgumentException("Les débuts d'arêtes doivent être croissants");
+            }
+            degre = Math.max(degre, debuts[n + 1] - debuts[n]);
+        }
+        this.debuts = debuts;
+        this.cibles = cibles;
+        this.couts = couts;
+        this.degreMaximal = degre;
+    }
+
+    /**
+     * Construit le graphe compact équivalent à un graphe générique.
+     * L'identifiant de chaque noeud est sa position dans graphe.getNoeuds().
+     * @param graphe Le graphe à convertir.
+     * @param <E> Le type d'objet contenu dans les noeuds du graphe.
+     * @return Le graphe compact équivalent.
+     */
+    public static <E> GrapheCompact depuisGraphe(Graphe<E> graphe) {
+        List<Noeud<E>> noeuds = graphe.getNoeuds();
+        int nombreNoeuds = noeuds.size();
+        int[] debuts = new int[nombreNoeuds + 1];
+        for (int n = 0; n < nombreNoeuds; n++) {
+            debuts[n + 1] = debuts[n] + graphe.getAretes(noeuds.get(n)).size();
+        }
+
+        int[] cibles = new int[debuts[nombreNoeuds]];
+        float[] couts = new float[debuts[nombreNoeuds]];
+        for (int n = 0; n < nombreNoeuds; n++) {
+            int i = debuts[n];
+            for (Map.Entry<Noeud<E>, Double> arete : graphe.getAretes(noeuds.get(n)).entrySet()) {
+                cibles[i] = graphe.getIndice(arete.getKey());
+                couts[i] = arete.getValue().floatValue();
+                i++;
+            }
+        }
+        return new GrapheCompact(debuts, cibles, couts);
+    }
+
+    /**
+     * Construit le graphe compact d'une carte, chaque case étant reliée à ses quatre voisines, sans passer
+     * par un {@link Graphe}. Les identifiants des cases sont ceux décrits par {@link Carte}, et le coût d'une arête
+     * est la somme des pénalités des tuiles des deux cases. Le résultat est identique, arête pour arête, à la
+     * représentation compacte du graphe compilé de la carte : les données précalculées sur l'un valent pour l'autre.
+     * @param carte La carte à convertir.
+     * @return Le graphe compact de la carte.
+     */
+    public static GrapheCompact depuisCarte(Carte carte) {
+        int largeur = carte.getLargeur();
+        int hauteur = carte.getHauteur();
+        int nombreNoeuds = largeur * hauteur;
+        int[] debuts = new int[nombreNoeuds + 1];
+        int[] cibles = new int[4 * nombreNoeuds - 2 * largeur - 2 * hauteur];
+        float[] couts = new float[cibles.length];
+
+        int i = 0;
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
+                int penalite = carte.getTuile(x, y).getPenalite();
+                if (x > 0) {
+                    cibles[i] = y * largeur + x - 1;
+                    couts[i++] = penalite + carte.getTuile(x - 1, y).getPenalite();
+                }
+                if (y < hauteur - 1) {
+                    cibles[i] = (y + 1) * largeur + x;
+                    couts[i++] = penalite + carte.getTuile(x, y + 1).getPenalite();
+                }
+                if (x < largeur - 1) {
+                    cibles[i] = y * largeur + x + 1;
+                    couts[i++] = penalite + carte.getTuile(x + 1, y).getPenalite();
+                }
+                if (y > 0) {
+                    cibles[i] = (y - 1) * largeur + x;
+                    couts[i++] = penalite + carte.getTuile(x, y - 1).getPenalite();
+                }
+                debuts[y * largeur + x + 1] = i;
+            }
+        }
+        return new GrapheCompact(debuts, cibles, couts);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNombreNoeuds() {
+        return debuts.length - 1;
+    }
+
+    /**
+     * Récupère le nombre d'arêtes du graphe.
+     * @return Le nombre d'arêtes du graphe.
+     */
+    public int getNombreAretes() {
+        return cibles.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegreMaximal() {
+        return degreMaximal;
+    }
+
+    /**
+     * Récupère l'indice de la première arête sortant d'un noeud.
+     * @param noeud L'identifiant du noeud.
+     * @return L'indice de la première arête du noeud.
+     */
+    public int getDebutAretes(int noeud) {
+        return debuts[noeud];
+    }
+
+    /**
+     * Récupère l'indice suivant la dernière arête sortant d'un noeud.
+     * @param noeud L'identifiant du noeud.
+     * @return L'indice suivant la dernière arête du noeud.
+     */
+    public int getFinAretes(int noeud) {
+        return debuts[noeud + 1];
+    }
+
+    /**
+     * Récupère le noeud d'arrivée d'une arête.
+     * @param arete L'indice de l'arête.
+     * @return L'identifiant du noeud d'arrivée.
+     */
+    public int getCible(int arete) {
+        return cibles[arete];
+    }
+
+    /**
+     * Récupère le coût d'une arête.
+     * @param arete L'indice de l'arête.
+     * @return Le coût de l'arête.
+     */
+    public float getCout(int arete) {
+        return couts[arete];
+    }
+
+    /**
+     * Récupère le coût de l'arête entre deux noeuds.
+     * @param depart L'identifiant du noeud de départ.
+     * @param arrivee L'identifiant du noeud d'arrivée.
+     * @return Le coût de l'arête si elle existe, sinon une valeur infinie.
+     */
+    public double getCoutArete(int depart, int arrivee) {
+        for (int i = debuts[depart]; i < debuts[depart + 1]; i++) {
+            if (cibles[i] == arrivee) {
+                return couts[i];
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calcule l'empreinte du graphe : un hachage FNV-1a sur 64 bits de son nombre de noeuds, de ses débuts d'arêtes,
+     * de ses cibles et de ses coûts. Deux graphes de même empreinte ont, sauf collision, les mêmes arêtes
+     * et les mêmes identifiants de noeuds, ce qui permet de vérifier qu'une donnée précalculée leur correspond.
+     * @return L'empreinte du graphe.
+     */
+    public long calculerEmpreinte() {
+        long empreinte = 0xcbf29ce484222325L;
+        empreinte = (empreinte ^ getNombreNoeuds()) * 0x100000001b3L;
+        for (int debut : debuts) {
+            empreinte = (empreinte ^ debut) * 0x100000001b3L;
+        }
+        for (int i = 0; i < cibles.length; i++) {
+            empreinte = (empreinte ^ cibles[i]) * 0x100000001b3L;
+            empreinte = (empreinte ^ Float.floatToIntBits(couts[i])) * 0x100000001b3L;
+        }
+        return empreinte;
+    }
+
+    /**
+     * Récupère le graphe obtenu en inversant le sens de chaque arête, utile aux recherches bidirectionnelles.
+     * Il est construit au premier appel puis conservé.
+     * @return Le graphe inverse, avec les mêmes identifiants de noeuds.
+     */
+    public GrapheCompact getInverse() {
+        GrapheCompact resultat = inverse;
+        if (resultat == null) {
+            int nombreNoeuds = getNombreNoeuds();
+            int[] debutsInverses = new int[nombreNoeuds + 1];
+            for (int cible : cibles) {
+                debutsInverses[cible + 1]++;
+            }
+            for (int n = 0; n < nombreNoeuds; n++) {
+                debutsInverses[n + 1] += debutsInverses[n];
+            }
+
+            int[] prochains = Arrays.copyOf(debutsInverses, nombreNoeuds);
+            int[] ciblesInverses = new int[cibles.length];
+            float[] coutsInverses = new float[couts.length];
+            for (int n = 0; n < nombreNoeuds; n++) {
+                for (int i = debuts[n]; i < debuts[n + 1]; i++) {
+                    int j = prochains[cibles[i]]++;
+                    ciblesInverses[j] = n;
+                    coutsInverses[j] = couts[i];
+                }
+            }
+            resultat = new GrapheCompact(debutsInverses, ciblesInverses, coutsInverses);
+            resultat.inverse = this;
+            inverse = resultat;
+        }
+        return resultat;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getVoisins(int noeud, int[] voisins, double[] couts) {
+        int nombre = 0;
+        for (int i = debuts[noeud]; i < debuts[noeud + 1]; i++) {
+            voisins[nombre] = cibles[i];
+            couts[nombre] = this.couts[i];
+            nombre++;
+        }
+        return nombre;
+    }
+
+    /**
+     * Écrit le graphe dans un flux binaire, relu ensuite par {@link #lire(DataInput)}.
+     * @param sortie Le flux de sortie.
+     * @throws IOException Si une erreur d'écriture se produit.
+     */
+    public void ecrire(DataOutput sortie) throws IOException {
+        sortie.writeInt(MAGIQUE);
+        sortie.writeInt(VERSION_FORMAT);
+        sortie.writeInt(debuts.length - 1);
+        sortie.writeInt(cibles.length);
+        for (int debut : debuts) {
+            sortie.writeInt(debut);
+        }
+        for (int i = 0; i < cibles.length; i++) {
+            sortie.writeInt(cibles[i]);
+            sortie.writeFloat(couts[i]);
+        }
+    }
+
+    /**
+     * Lit un graphe écrit par {@link #ecrire(DataOutput)}.
+     * @param entree Le flux d'entrée.
+     * @return Le graphe lu.
+     * @throws IOException Si une erreur de lecture se produit ou si le flux n'est pas un graphe compact valide.
+     */
+    public static GrapheCompact lire(DataInput entree) throws IOException {
+        if (entree.readInt() != MAGIQUE) {
+            throw new IOException("Le flux ne contient pas de graphe compact");
+        }
+        int version = entree.readInt();
+        if (version != VERSION_FORMAT) {
+            throw new IOException("Version de graphe compact non prise en charge : " + version);
+        }
+        int nombreNoeuds = entree.readInt();
+        int nombreAretes = entree.readInt();
+        if (nombreNoeuds < 0 || nombreAretes < 0) {
+            throw new IOException("Taille de graphe invalide : " + nombreNoeuds + " noeuds, " + nombreAretes + " arêtes");
+        }
+        int[] debuts = new int[nombreNoeuds + 1];
+        for (int n = 0; n <= nombreNoeuds; n++) {
+            debuts[n] = entree.readInt();
+        }
+        int[] cibles = new int[nombreAretes];
+        float[] couts = new float[nombreAretes];
+        for (int i = 0; i < nombreAretes; i++) {
+            cibles[i] = entree.readInt();
+            couts[i] = entree.readFloat();
+            if (cibles[i] < 0 || cibles[i] >= nombreNoeuds) {
+                throw new IOException("Cible d'arête invalide : " + cibles[i]);
+            }
+        }
+        try {
+            return new GrapheCompact(debuts, cibles, couts);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Graphe compact incohérent", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+/**
+ * Interface définissant un graphe dont les noeuds sont identifiés par des entiers de 0 à getNombreNoeuds() - 1.
+ * Les voisins d'un noeud sont copiés dans des tableaux fournis par l'appelant, ce qui permet aux algorithmes
+ * de parcourir le graphe sans allouer d'objet.
+ */
+public interface GrapheIndexe {
+
+    /**
+     * Récupère le nombre de noeuds du graphe.
+     * @return Le nombre de noeuds du graphe.
+     */
+    int getNombreNoeuds();
+
+    /**
+     * Récupère le nombre maximal de voisins d'un noeud du graphe.
+     * Les tableaux passés à getVoisins doivent avoir au moins cette taille.
+     * @return Le degré sortant maximal du graphe.
+     */
+    int getDegreMaximal();
+
+    /**
+     * Copie les voisins d'un noeud et les coûts des arêtes correspondantes dans les tableaux fournis.
+     * @param noeud L'identifiant du noeud.
+     * @param voisins Le tableau recevant les identifiants des voisins.
+     * @param couts Le tableau recevant le coût de l'arête vers chaque voisin.
+     * @return Le nombre de voisins copiés.
+     */
+    int getVoisins(int noeud, int[] voisins, double[] couts);
+}
@@ -0,0 +1,139 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+/**
+ * La classe GrilleImplicite présente une carte comme un graphe indexé sans construire ni noeud ni arête.
+ * Chaque case est reliée à ses quatre voisines, et les voisins comme les coûts sont calculés à la volée
+ * à partir des tuiles de la carte. Les identifiants des cases sont ceux décrits par {@link Carte}.
+ * La vue lit toujours l'état courant de la carte : une tuile modifiée est prise en compte immédiatement.
+ */
+public class GrilleImplicite implements GrapheIndexe {
+    private final Carte carte; // La carte parcourue
+    private final int largeur; // La largeur de la carte
+    private final int hauteur; // La hauteur de la carte
+
+    /**
+     * Construit la vue en graphe d'une carte.
+     * @param carte La carte à parcourir.
+     */
+    public GrilleImplicite(Carte carte) {
+        this.carte = carte;
+        this.largeur = carte.getLargeur();
+        this.hauteur = carte.getHauteur();
+    }
+
+    /**
+     * Récupère la carte parcourue.
+     * @return La carte parcourue.
+     */
+    public Carte getCarte() {
+        return carte;
+    }
+
+    /**
+     * Récupère la largeur de la grille.
+     * @return La largeur de la grille.
+     */
+    public int getLargeur() {
+        return largeur;
+    }
+
+    /**
+     * Récupère la hauteur de la grille.
+     * @return La hauteur de la grille.
+     */
+    public int getHauteur() {
+        return hauteur;
+    }
+
+    /**
+     * Calcule l'identifiant de la case située aux coordonnées spécifiées.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return L'identifiant de la case.
+     */
+    public int getIdentifiant(int x, int y) {
+        return y * largeur + x;
+    }
+
+    /**
+     * Récupère la coordonnée x d'une case à partir de son identifiant.
+     * @param noeud L'identifiant de la case.
+     * @return La coordonnée x de la case.
+     */
+    public int getX(int noeud) {
+        return noeud % largeur;
+    }
+
+    /**
+     * Récupère la coordonnée y d'une case à partir de son identifiant.
+     * @param noeud L'identifiant de la case.
+     * @return La coordonnée y de la case.
+     */
+    public int getY(int noeud) {
+        return noeud / largeur;
+    }
+
+    /**
+     * Récupère la pénalité de la tuile d'une case à partir de son identifiant.
+     * @param noeud L'identifiant de la case.
+     * @return La pénalité de la tuile de la case.
+     */
+    public int getPenalite(int noeud) {
+        return carte.getTuile(noeud % largeur, noeud / largeur).getPenalite();
+    }
+
+    /**
+     * Crée la case correspondant à un identifiant.
+     * @param noeud L'identifiant de la case.
+     * @return La case correspondante.
+     */
+    public Case getCase(int noeud) {
+        return carte.getCase(noeud % largeur, noeud / largeur);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNombreNoeuds() {
+        return largeur * hauteur;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegreMaximal() {
+        return 4;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les voisins sont énumérés dans l'ordre gauche, bas, droite, haut, comme dans le graphe construit
+     * par l'adaptateur, et le coût d'une arête est la somme des pénalités des tuiles des deux cases.
+     */
+    @Override
+    public int getVoisins(int noeud, int[] voisins, double[] couts) {
+        int x = noeud % largeur;
+        int y = noeud / largeur;
+        int penalite = carte.getTuile(x, y).getPenalite();
+        int nombre = 0;
+        if (x > 0) {
+            voisins[nombre] = noeud - 1;
+            couts[nombre++] = penalite + carte.getTuile(x - 1, y).getPenalite();
+        }
+        if (y < hauteur - 1) {
+            voisins[nombre] = noeud + largeur;
+            couts[nombre++] = penalite + carte.getTuile(x, y + 1).getPenalite();
+        }
+        if (x < largeur - 1) {
+            voisins[nombre] = noeud + 1;
+            couts[nombre++] = penalite + carte.getTuile(x + 1, y).getPenalite();
+        }
+        if (y > 0) {
+            voisins[nombre] = noeud - largeur;
+            couts[nombre++] = penalite + carte.getTuile(x, y - 1).getPenalite();
+        }
+        return nombre;
+    }
+}
@@ -1,20 +1,30 @@
 package fr.ecole3il.rodez2023.carte.elements;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
 
 /**
  * Cette classe représente un nœud dans un graphe générique.
  *
+ * Un nœud ajouté à un graphe figé (voir {@link Graphe.Constructeur}) est figé à son tour : sa liste de voisins
+ * ne peut plus être modifiée et il peut alors être lu par plusieurs threads sans synchronisation.
+ * Le nœud est figé sur place, puisque les index du graphe reposent sur son identité : l'indicateur est écrit
+ * dans le constructeur du graphe figé, avant la fin de celui-ci, et les champs finaux du graphe le rendent
+ * visible à tout thread qui atteint le nœud par ce graphe.
+ *
  * @param <E> Le type de la valeur stockée dans le nœud.
  */
 public class Noeud<E> {
     private final E valeur;
-    private final List<Noeud<E>> voisins;
+    private final List<Noeud<E>> voisins; // Voisins du nœud, non modifiables une fois le nœud figé
+    private final List<Noeud<E>> vueVoisins; // Vue non modifiable des voisins, renvoyée une fois le nœud figé
+    private boolean fige; // Indique si le nœud est figé, écrit uniquement par le constructeur d'un graphe figé
     
     public Noeud(E valeur) {
         this.valeur = valeur;
         this.voisins = new ArrayList<>();
+        this.vueVoisins = Collections.unmodifiableList(voisins);
     }
 
     /**
@@ -29,18 +39,39 @@ public class Noeud<E> {
     /**
      * Obtient la liste des nœuds voisins du nœud actuel.
      *
-     * @return La liste des nœuds voisins.
+     * @return La liste des nœuds voisins, non modifiable si le nœud est figé.
      */
     public List<Noeud<E>> getVoisins() {
-        return voisins;
+        return fige ? vueVoisins : voisins;
     }
 
     /**
      * Ajoute un nœud voisin au nœud actuel.
      *
      * @param voisin Le nœud voisin à ajouter.
+     * @throws UnsupportedOperationException Si le nœud est figé.
      */
     public void ajouterVoisin(Noeud<E> voisin) {
+        if (fige) {
+            throw new UnsupportedOperationException("Le nœud est figé, ses voisins ne peuvent plus être modifiés");
+        }
         voisins.add(voisin);
     }
+
+    /**
+     * Indique si le nœud est figé, c'est-à-dire si ses voisins ne peuvent plus être modifiés.
+     *
+     * @return true si le nœud est figé.
+     */
+    public boolean estFige() {
+        return fige;
+    }
+
+    /**
+     * Fige le nœud : sa liste de voisins devient non modifiable. Appelée lors de la construction d'un graphe
+     * figé, avant sa publication aux autres threads.
+     */
+    void figer() {
+        fige = true;
+    }
 }
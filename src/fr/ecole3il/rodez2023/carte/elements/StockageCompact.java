@@ -0,0 +1,131 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+/**
+ * Stockage compact des tuiles : chaque case n'occupe que le nombre de bits nécessaire pour coder l'ordinal
+ * de sa tuile (2 bits pour les quatre tuiles actuelles), dans un tableau de long parcouru ligne par ligne
+ * (indice y * largeur + x). Une carte de 10 000 x 10 000 cases occupe ainsi 25 Mo, contre plusieurs centaines
+ * de Mo pour une matrice de références, et les parcours ligne par ligne restent contigus en mémoire.
+ */
+public class StockageCompact implements StockageTuiles {
+    static final Tuile[] TUILES = Tuile.values(); // Tuiles indexées par leur ordinal
+    static final int BITS_PAR_TUILE = bitsParTuile(TUILES.length); // Bits utilisés par chaque case
+    static final int TUILES_PAR_MOT = Long.SIZE / BITS_PAR_TUILE; // Cases codées dans chaque long
+    static final long MASQUE = (1L << BITS_PAR_TUILE) - 1; // Masque des bits d'une case
+
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final long[] mots; // Ordinaux des tuiles, regroupés par TUILES_PAR_MOT
+
+    /**
+     * Construit un stockage compact dont toutes les cases contiennent la première tuile.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @throws IllegalArgumentException Si une dimension n'est pas strictement positive.
+     */
+    public StockageCompact(int largeur, int hauteur) {
+        if (largeur <= 0 || hauteur <= 0) {
+            throw new IllegalArgumentException("Les dimensions de la carte doivent être strictement positives");
+        }
+        this.largeur = largeur;
+        this.hauteur = hauteur;
+        this.mots = new long[(int) (((long) largeur * hauteur + TUILES_PAR_MOT - 1) / TUILES_PAR_MOT)];
+    }
+
+    /**
+     * Construit le stockage compact équivalent à un autre stockage.
+     * @param source Le stockage à recopier.
+     */
+    public StockageCompact(StockageTuiles source) {
+        this(source.getLargeur(), source.getHauteur());
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
+                setTuile(x, y, source.getTuile(x, y));
+            }
+        }
+    }
+
+    /**
+     * Construit une copie d'un stockage compact.
+     * @param source Le stockage à copier.
+     */
+    private StockageCompact(StockageCompact source) {
+        this.largeur = source.largeur;
+        this.hauteur = source.hauteur;
+        this.mots = source.mots.clone();
+    }
+
+    /**
+     * Calcule le nombre de bits à réserver pour chaque case, parmi 1, 2, 4 et 8 afin qu'aucune case
+     * ne soit à cheval sur deux long.
+     * @param nombreTuiles Le nombre de tuiles différentes.
+     * @return Le nombre de bits par case.
+     */
+    private static int bitsParTuile(int nombreTuiles) {
+        int bits = 1;
+        while ((1 << bits) < nombreTuiles) {
+            bits *= 2;
+        }
+        return bits;
+    }
+
+    /**
+     * Récupère le nombre de bits utilisés par chaque case. La case d'indice i occupe, dans le long d'indice
+     * i / (64 / bits), les bits commençant au bit (i % (64 / bits)) * bits, et contient l'ordinal de sa tuile.
+     * @return Le nombre de bits par case.
+     */
+    public static int getBitsParTuile() {
+        return BITS_PAR_TUILE;
+    }
+
+    @Override
+    public int getLargeur() {
+        return largeur;
+    }
+
+    @Override
+    public int getHauteur() {
+        return hauteur;
+    }
+
+    @Override
+    public Tuile getTuile(int x, int y) {
+        long indice = indice(x, y);
+        int decalage = (int) (indice % TUILES_PAR_MOT) * BITS_PAR_TUILE;
+        return TUILES[(int) ((mots[(int) (indice / TUILES_PAR_MOT)] >>> decalage) & MASQUE)];
+    }
+
+    @Override
+    public void setTuile(int x, int y, Tuile tuile) {
+        long indice = indice(x, y);
+        int decalage = (int) (indice % TUILES_PAR_MOT) * BITS_PAR_TUILE;
+        int mot = (int) (indice / TUILES_PAR_MOT);
+        mots[mot] = (mots[mot] & ~(MASQUE << decalage)) | ((long) tuile.ordinal() << decalage);
+    }
+
+    @Override
+    public StockageTuiles copier() {
+        return new StockageCompact(this);
+    }
+
+    /**
+     * Récupère la mémoire occupée par les tuiles.
+     * @return Le nombre d'octets du tableau de stockage.
+     */
+    public long getTailleOctets() {
+        return (long) mots.length * Long.BYTES;
+    }
+
+    /**
+     * Calcule l'indice ligne par ligne d'une case, en vérifiant qu'elle est dans le stockage.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return L'indice y * largeur + x.
+     * @throws ArrayIndexOutOfBoundsException Si la case est hors du stockage.
+     */
+    private long indice(int x, int y) {
+        if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+            throw new ArrayIndexOutOfBoundsException("La case (" + x + ", " + y + ") est hors de la carte");
+        }
+        return (long) y * largeur + x;
+    }
+}
@@ -0,0 +1,164 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Stockage des tuiles projeté en mémoire depuis un fichier, au même codage que {@link StockageCompact}.
+ * Les tuiles ne sont pas copiées dans le tas : le système charge les pages du fichier à la demande,
+ * ce qui permet d'ouvrir instantanément une très grande carte et de la partager entre plusieurs processus.
+ * Le fichier est projeté par segments de 1 Go, une projection étant limitée à 2 Go.
+ * La projection reste valide après la fermeture du canal qui a servi à la créer.
+ */
+public class StockageMappe implements StockageTuiles {
+    private static final int BITS_SEGMENT = 27; // Log2 du nombre de long par segment (1 Go)
+
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final int bitsSegment; // Log2 du nombre de long par segment
+    private final long masqueSegment; // Masque de la position d'un long dans son segment
+    private final MappedByteBuffer[] segments; // Projections successives du corps du fichier
+    private final boolean modifiable; // Indique si les modifications sont écrites dans le fichier
+
+    /**
+     * Projette en mémoire les tuiles d'une carte stockées dans un fichier.
+     * @param canal Le canal du fichier, ouvert en lecture, et en écriture si le stockage est modifiable.
+     * @param position La position dans le fichier du premier long des tuiles.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @param modifiable true pour écrire les modifications dans le fichier, false pour une projection en lecture seule.
+     * @throws IOException Si la projection échoue.
+     */
+    public StockageMappe(FileChannel canal, long position, int largeur, int hauteur, boolean modifiable) throws IOException {
+        this(canal, position, largeur, hauteur, modifiable, BITS_SEGMENT);
+    }
+
+    /**
+     * Projette en mémoire les tuiles d'une carte par segments d'une taille donnée. Des segments de quelques long
+     * permettent de vérifier sur une petite carte le passage d'un segment au suivant.
+     * @param canal Le canal du fichier, ouvert en lecture, et en écriture si le stockage est modifiable.
+     * @param position La position dans le fichier du premier long des tuiles.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @param modifiable true pour écrire les modifications dans le fichier, false pour une projection en lecture seule.
+     * @param bitsSegment Log2 du nombre de long par segment, au plus 27 (segments de 1 Go).
+     * @throws IOException Si la projection échoue.
+     */
+    StockageMappe(FileChannel canal, long position, int largeur, int hauteur, boolean modifiable, int bitsSegment)
+            throws IOException {
+        if (bitsSegment < 0 || bitsSegment > BITS_SEGMENT) {
+            throw new IllegalArgumentException("Taille de segment invalide : 2^" + bitsSegment + " long");
+        }
+        this.largeur = largeur;
+        this.hauteur = hauteur;
+        this.modifiable = modifiable;
+        this.bitsSegment = bitsSegment;
+        long motsParSegment = 1L << bitsSegment;
+        this.masqueSegment = motsParSegment - 1;
+        long nombreMots = getNombreMots(largeur, hauteur);
+        FileChannel.MapMode mode = modifiable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        this.segments = new MappedByteBuffer[(int) ((nombreMots + motsParSegment - 1) / motsParSegment)];
+        for (int i = 0; i < segments.length; i++) {
+            long mots = Math.min(motsParSegment, nombreMots - i * motsParSegment);
+            segments[i] = canal.map(mode, position + i * motsParSegment * Long.BYTES, mots * Long.BYTES);
+        }
+    }
+
+    /**
+     * Récupère le nombre de segments projetés.
+     * @return Le nombre de projections du corps du fichier.
+     */
+    int getNombreSegments() {
+        return segments.length;
+    }
+
+    /**
+     * Calcule le nombre de long nécessaires pour stocker les tuiles d'une carte.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @return Le nombre de long du corps du fichier.
+     */
+    public static long getNombreMots(int largeur, int hauteur) {
+        return ((long) largeur * hauteur + StockageCompact.TUILES_PAR_MOT - 1) / StockageCompact.TUILES_PAR_MOT;
+    }
+
+    /**
+     * Indique si les modifications du stockage sont écrites dans le fichier.
+     * @return true si le stockage est modifiable.
+     */
+    public boolean estModifiable() {
+        return modifiable;
+    }
+
+    /**
+     * Force l'écriture sur le disque des modifications faites dans le stockage.
+     */
+    public void forcer() {
+        if (modifiable) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    @Override
+    public int getLargeur() {
+        return largeur;
+    }
+
+    @Override
+    public int getHauteur() {
+        return hauteur;
+    }
+
+    @Override
+    public Tuile getTuile(int x, int y) {
+        long indice = indice(x, y);
+        long mot = indice / StockageCompact.TUILES_PAR_MOT;
+        int decalage = (int) (indice % StockageCompact.TUILES_PAR_MOT) * StockageCompact.BITS_PAR_TUILE;
+        long valeur = segments[(int) (mot >>> bitsSegment)].getLong((int) (mot & masqueSegment) * Long.BYTES);
+        return StockageCompact.TUILES[(int) ((valeur >>> decalage) & StockageCompact.MASQUE)];
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UnsupportedOperationException Si le stockage est projeté en lecture seule.
+     */
+    @Override
+    public void setTuile(int x, int y, Tuile tuile) {
+        if (!modifiable) {
+            throw new UnsupportedOperationException("La carte est projetée en lecture seule");
+        }
+        long indice = indice(x, y);
+        long mot = indice / StockageCompact.TUILES_PAR_MOT;
+        int decalage = (int) (indice % StockageCompact.TUILES_PAR_MOT) * StockageCompact.BITS_PAR_TUILE;
+        MappedByteBuffer segment = segments[(int) (mot >>> bitsSegment)];
+        int octet = (int) (mot & masqueSegment) * Long.BYTES;
+        long valeur = segment.getLong(octet);
+        segment.putLong(octet, (valeur & ~(StockageCompact.MASQUE << decalage)) | ((long) tuile.ordinal() << decalage));
+    }
+
+    /**
+     * Copie les tuiles dans un stockage compact en mémoire, indépendant du fichier.
+     * @return La copie du stockage.
+     */
+    @Override
+    public StockageTuiles copier() {
+        return new StockageCompact(this);
+    }
+
+    /**
+     * Calcule l'indice ligne par ligne d'une case, en vérifiant qu'elle est dans le stockage.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return L'indice y * largeur + x.
+     * @throws ArrayIndexOutOfBoundsException Si la case est hors du stockage.
+     */
+    private long indice(int x, int y) {
+        if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+            throw new ArrayIndexOutOfBoundsException("La case (" + x + ", " + y + ") est hors de la carte");
+        }
+        return (long) y * largeur + x;
+    }
+}
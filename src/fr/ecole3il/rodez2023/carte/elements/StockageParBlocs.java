@@ -0,0 +1,490 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stockage des tuiles chargées à la demande, par blocs carrés, depuis un fichier au codage de
+ * {@link StockageCompact}. Seuls les blocs récemment utilisés sont conservés en mémoire, dans un cache LRU
+ * dont la taille est bornée par un budget en octets, ce qui permet de parcourir des cartes plus grandes
+ * que le tas. Les recherches de chemin, qui lisent les tuiles par {@link Carte#getTuile(int, int)},
+ * chargent ainsi les blocs qu'elles traversent sans changement de leur côté.
+ * <p>
+ * Les accès sont sûrs entre plusieurs threads : un bloc déjà chargé est lu sans verrou, seuls le chargement
+ * et l'éviction des blocs sont synchronisés. Chaque bloc retient l'époque de sa dernière utilisation, l'époque
+ * avançant à chaque chargement ; le bloc évincé est celui dont l'époque est la plus ancienne, ce qui suit
+ * l'ordre LRU à la granularité des chargements, les seuls instants où une éviction a lieu.
+ * Si le stockage est modifiable, les blocs modifiés sont réécrits dans le fichier lorsqu'ils sont évincés,
+ * ainsi que par {@link #enregistrer()} et {@link #fermer()}.
+ * Des compteurs d'échecs et d'évictions du cache, et de succès lorsque les statistiques sont activées
+ * ({@link #activerStatistiques(boolean)}), permettent de régler la taille des blocs et le budget.
+ */
+public class StockageParBlocs implements StockageTuiles {
+    private static final int SURCOUT_BLOC = 64; // Estimation de la mémoire occupée par un bloc hors de ses tuiles
+
+    private final FileChannel canal; // Canal du fichier de la carte
+    private final long position; // Position dans le fichier du premier long des tuiles
+    private final int largeur; // Largeur de la carte
+    private final int hauteur; // Hauteur de la carte
+    private final int tailleBloc; // Côté d'un bloc, en cases
+    private final int nombreBlocsX; // Nombre de blocs sur la largeur de la carte
+    private final long budget; // Mémoire maximale occupée par les blocs chargés, en octets
+    private final boolean modifiable; // Indique si les modifications sont écrites dans le fichier
+    private final ConcurrentHashMap<Long, Bloc> blocs; // Blocs chargés, par clé (by * nombreBlocsX + bx)
+    private final LongAdder succes = new LongAdder(); // Nombre d'accès à un bloc déjà chargé, si compté
+    private volatile boolean statistiques; // Indique si les succès du cache sont comptés
+    private volatile Bloc dernier; // Dernier bloc utilisé, lu sans verrou
+    private volatile long epoque; // Nombre de blocs chargés, qui date les utilisations des blocs
+    private long echecs; // Nombre d'accès ayant nécessité un chargement
+    private long evictions; // Nombre de blocs retirés du cache
+    private long memoire; // Mémoire occupée par les blocs chargés, en octets
+    private ByteBuffer tampon = ByteBuffer.allocate(0); // Tampon des lectures et écritures, utilisé sous verrou
+
+    /**
+     * Construit un stockage lisant ses blocs dans un fichier. Le canal appartient ensuite au stockage,
+     * qui le ferme dans {@link #fermer()}.
+     * @param canal Le canal du fichier, ouvert en lecture, et en écriture si le stockage est modifiable.
+     * @param position La position dans le fichier du premier long des tuiles.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @param tailleBloc Le côté d'un bloc, en cases.
+     * @param budget La mémoire maximale occupée par les blocs chargés, en octets ; au moins un bloc est toujours conservé.
+     * @param modifiable true pour écrire les modifications dans le fichier.
+     * @throws IllegalArgumentException Si la taille des blocs n'est pas strictement positive.
+     */
+    public StockageParBlocs(FileChannel canal, long position, int largeur, int hauteur, int tailleBloc,
+                            long budget, boolean modifiable) {
+        if (tailleBloc <= 0) {
+            throw new IllegalArgumentException("La taille des blocs doit être strictement positive");
+        }
+        this.canal = canal;
+        this.position = position;
+        this.largeur = largeur;
+        this.hauteur = hauteur;
+        this.tailleBloc = tailleBloc;
+        this.nombreBlocsX = (largeur + tailleBloc - 1) / tailleBloc;
+        this.budget = budget;
+        this.modifiable = modifiable;
+        this.blocs = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public int getLargeur() {
+        return largeur;
+    }
+
+    @Override
+    public int getHauteur() {
+        return hauteur;
+    }
+
+    @Override
+    public Tuile getTuile(int x, int y) {
+        verifier(x, y);
+        Bloc bloc = dernier;
+        if (bloc == null || bloc.x0 > x || bloc.y0 > y || x - bloc.x0 >= bloc.largeur || y - bloc.y0 >= bloc.hauteur) {
+            bloc = obtenir(x, y);
+        } else if (statistiques) {
+            succes.increment();
+        }
+        return bloc.getTuile(x - bloc.x0, y - bloc.y0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UnsupportedOperationException Si le stockage n'est pas modifiable.
+     */
+    @Override
+    public synchronized void setTuile(int x, int y, Tuile tuile) {
+        if (!modifiable) {
+            throw new UnsupportedOperationException("La carte est chargée en lecture seule");
+        }
+        verifier(x, y);
+        Bloc bloc = obtenir(x, y);
+        bloc.setTuile(x - bloc.x0, y - bloc.y0, tuile);
+        bloc.modifie = true;
+    }
+
+    /**
+     * Copie toutes les tuiles dans un stockage compact en mémoire. La carte doit alors tenir dans le tas.
+     * @return La copie du stockage.
+     */
+    @Override
+    public StockageTuiles copier() {
+        return new StockageCompact(this);
+    }
+
+    /**
+     * Active ou désactive le comptage des succès du cache. Désactivé par défaut, il évite d'écrire dans
+     * un compteur partagé à chaque lecture de tuile.
+     * @param actives true pour compter les succès.
+     */
+    public void activerStatistiques(boolean actives) {
+        statistiques = actives;
+    }
+
+    /**
+     * Récupère le nombre d'accès servis par un bloc déjà chargé, comptés lorsque les statistiques sont activées.
+     * @return Le nombre de succès du cache.
+     */
+    public long getNombreSucces() {
+        return succes.sum();
+    }
+
+    /**
+     * Récupère le nombre d'accès ayant nécessité le chargement d'un bloc.
+     * @return Le nombre d'échecs du cache.
+     */
+    public synchronized long getNombreEchecs() {
+        return echecs;
+    }
+
+    /**
+     * Récupère le nombre de blocs retirés du cache pour respecter le budget.
+     * @return Le nombre d'évictions.
+     */
+    public synchronized long getNombreEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Récupère le nombre de blocs actuellement chargés.
+     * @return Le nombre de blocs en mémoire.
+     */
+    public synchronized int getNombreBlocsCharges() {
+        return blocs.size();
+    }
+
+    /**
+     * Récupère la mémoire occupée par les blocs chargés.
+     * @return La mémoire utilisée, en octets.
+     */
+    public synchronized long getMemoireUtilisee() {
+        return memoire;
+    }
+
+    /**
+     * Écrit dans le fichier les blocs modifiés encore en mémoire.
+     * @throws UncheckedIOException Si une erreur d'écriture se produit.
+     */
+    public synchronized void enregistrer() {
+        for (Bloc bloc : blocs.values()) {
+            if (bloc.modifie) {
+                ecrire(bloc);
+            }
+        }
+    }
+
+    /**
+     * Enregistre les blocs modifiés, vide le cache et ferme le fichier. Le stockage n'est plus utilisable ensuite.
+     * @throws IOException Si une erreur d'écriture ou de fermeture se produit.
+     */
+    public synchronized void fermer() throws IOException {
+        try {
+            enregistrer();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            blocs.clear();
+            dernier = null;
+            memoire = 0;
+            canal.close();
+        }
+    }
+
+    /**
+     * Récupère le bloc contenant une case. Un bloc déjà chargé est trouvé sans verrou ; sinon il est chargé
+     * par {@link #charger(long, int, int)}.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @return Le bloc contenant la case.
+     * @throws UncheckedIOException Si une erreur de lecture se produit.
+     */
+    private Bloc obtenir(int x, int y) {
+        int bx = x / tailleBloc;
+        int by = y / tailleBloc;
+        long cle = (long) by * nombreBlocsX + bx;
+        Bloc bloc = blocs.get(cle);
+        if (bloc != null) {
+            marquer(bloc);
+            if (statistiques) {
+                succes.increment();
+            }
+        } else {
+            bloc = charger(cle, bx, by);
+        }
+        dernier = bloc;
+        return bloc;
+    }
+
+    /**
+     * Charge un bloc absent du cache, puis évince les blocs les moins récemment utilisés au-delà du budget.
+     * @param cle La clé du bloc.
+     * @param bx L'indice du bloc sur la largeur de la carte.
+     * @param by L'indice du bloc sur la hauteur de la carte.
+     * @return Le bloc chargé, ou celui qu'un autre thread vient de charger.
+     * @throws UncheckedIOException Si une erreur de lecture se produit.
+     */
+    private synchronized Bloc charger(long cle, int bx, int by) {
+        Bloc bloc = blocs.get(cle);
+        if (bloc != null) {
+            marquer(bloc);
+            return bloc;
+        }
+        echecs++;
+        Bloc precedent = dernier;
+        if (precedent != null) {
+            // Le dernier bloc est lu sans passer par le cache : son utilisation récente est reportée ici.
+            marquer(precedent);
+        }
+        bloc = lire(cle, bx * tailleBloc, by * tailleBloc);
+        epoque++;
+        bloc.utilisation = epoque;
+        blocs.put(cle, bloc);
+        memoire += bloc.getTailleOctets();
+        while (memoire > budget && blocs.size() > 1) {
+            Bloc ancien = chercherMoinsRecent(bloc);
+            if (ancien.modifie) {
+                ecrire(ancien);
+            }
+            blocs.remove(ancien.cle);
+            memoire -= ancien.getTailleOctets();
+            evictions++;
+        }
+        return bloc;
+    }
+
+    /**
+     * Date l'utilisation d'un bloc de l'époque courante. L'époque n'est écrite que si elle a changé,
+     * afin que les lectures répétées d'un même bloc par plusieurs threads n'écrivent pas en mémoire partagée.
+     * @param bloc Le bloc utilisé.
+     */
+    private void marquer(Bloc bloc) {
+        long courante = epoque;
+        if (bloc.utilisation != courante) {
+            bloc.utilisation = courante;
+        }
+    }
+
+    /**
+     * Cherche le bloc chargé utilisé le moins récemment ; à époque égale, celui de plus petite clé.
+     * @param exclu Le bloc qui vient d'être chargé, qui n'est jamais évincé.
+     * @return Le bloc à évincer.
+     */
+    private Bloc chercherMoinsRecent(Bloc exclu) {
+        Bloc moinsRecent = null;
+        for (Bloc bloc : blocs.values()) {
+            if (bloc != exclu && (moinsRecent == null || bloc.utilisation < moinsRecent.utilisation
+                    || (bloc.utilisation == moinsRecent.utilisation && bloc.cle < moinsRecent.cle))) {
+                moinsRecent = bloc;
+            }
+        }
+        return moinsRecent;
+    }
+
+    /**
+     * Lit un bloc dans le fichier. Lorsque ses lignes sont proches dans le fichier, c'est-à-dire lorsque
+     * la carte est au plus deux fois plus large que le bloc, une seule lecture couvre tout le bloc ;
+     * sinon chaque ligne est lue séparément, dans le même tampon.
+     * @param cle La clé du bloc dans le cache.
+     * @param x0 La coordonnée x de la première case du bloc.
+     * @param y0 La coordonnée y de la première case du bloc.
+     * @return Le bloc lu.
+     * @throws UncheckedIOException Si une erreur de lecture se produit.
+     */
+    private Bloc lire(long cle, int x0, int y0) {
+        Bloc bloc = new Bloc(cle, x0, y0, Math.min(tailleBloc, largeur - x0), Math.min(tailleBloc, hauteur - y0));
+        long premiere = (long) y0 * largeur + x0;
+        long derniere = (long) (y0 + bloc.hauteur - 1) * largeur + x0 + bloc.largeur - 1;
+        if (largeur <= 2 * bloc.largeur) {
+            long premierMot = premiere / StockageCompact.TUILES_PAR_MOT;
+            ByteBuffer mots = lireMots(premierMot, derniere / StockageCompact.TUILES_PAR_MOT);
+            for (int ligne = 0; ligne < bloc.hauteur; ligne++) {
+                decoderLigne(bloc, ligne, mots, premierMot);
+            }
+        } else {
+            for (int ligne = 0; ligne < bloc.hauteur; ligne++) {
+                long premiereLigne = premiere + (long) ligne * largeur;
+                long premierMot = premiereLigne / StockageCompact.TUILES_PAR_MOT;
+                ByteBuffer mots = lireMots(premierMot,
+                        (premiereLigne + bloc.largeur - 1) / StockageCompact.TUILES_PAR_MOT);
+                decoderLigne(bloc, ligne, mots, premierMot);
+            }
+        }
+        return bloc;
+    }
+
+    /**
+     * Décode une ligne d'un bloc depuis des long lus dans le fichier.
+     * @param bloc Le bloc.
+     * @param ligne La ligne du bloc.
+     * @param mots Les long lus, qui couvrent la ligne.
+     * @param premierMot L'indice dans le fichier du premier long lu.
+     */
+    private void decoderLigne(Bloc bloc, int ligne, ByteBuffer mots, long premierMot) {
+        long premiere = (long) (bloc.y0 + ligne) * largeur + bloc.x0;
+        for (int colonne = 0; colonne < bloc.largeur; colonne++) {
+            long indice = premiere + colonne;
+            long mot = mots.getLong((int) (indice / StockageCompact.TUILES_PAR_MOT - premierMot) * Long.BYTES);
+            int decalage = (int) (indice % StockageCompact.TUILES_PAR_MOT) * StockageCompact.BITS_PAR_TUILE;
+            bloc.setOrdinal(ligne * bloc.largeur + colonne, (int) ((mot >>> decalage) & StockageCompact.MASQUE));
+        }
+    }
+
+    /**
+     * Réécrit un bloc modifié dans le fichier. Les long partagés avec les blocs voisins sont relus puis
+     * fusionnés, afin de ne pas écraser leurs cases.
+     * @param bloc Le bloc à écrire.
+     * @throws UncheckedIOException Si une erreur d'entrée-sortie se produit.
+     */
+    private void ecrire(Bloc bloc) {
+        for (int ligne = 0; ligne < bloc.hauteur; ligne++) {
+            long premiere = (long) (bloc.y0 + ligne) * largeur + bloc.x0;
+            long premierMot = premiere / StockageCompact.TUILES_PAR_MOT;
+            ByteBuffer mots = lireMots(premierMot, (premiere + bloc.largeur - 1) / StockageCompact.TUILES_PAR_MOT);
+            for (int colonne = 0; colonne < bloc.largeur; colonne++) {
+                long indice = premiere + colonne;
+                int octet = (int) (indice / StockageCompact.TUILES_PAR_MOT - premierMot) * Long.BYTES;
+                int decalage = (int) (indice % StockageCompact.TUILES_PAR_MOT) * StockageCompact.BITS_PAR_TUILE;
+                long ordinal = bloc.getOrdinal(ligne * bloc.largeur + colonne);
+                mots.putLong(octet, (mots.getLong(octet) & ~(StockageCompact.MASQUE << decalage)) | (ordinal << decalage));
+            }
+            try {
+                long decalageFichier = position + premierMot * Long.BYTES;
+                mots.rewind();
+                while (mots.hasRemaining()) {
+                    decalageFichier += canal.write(mots, decalageFichier);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        bloc.modifie = false;
+    }
+
+    /**
+     * Lit une suite de long consécutifs du corps du fichier dans le tampon partagé, agrandi si nécessaire.
+     * Doit être appelée sous le verrou du stockage.
+     * @param premier L'indice du premier long.
+     * @param dernier L'indice du dernier long, inclus.
+     * @return Le tampon contenant les long lus, de la position 0 à sa limite.
+     * @throws UncheckedIOException Si une erreur de lecture se produit ou si le fichier est tronqué.
+     */
+    private ByteBuffer lireMots(long premier, long dernier) {
+        int taille = (int) (dernier - premier + 1) * Long.BYTES;
+        if (tampon.capacity() < taille) {
+            tampon = ByteBuffer.allocate(taille);
+        }
+        ByteBuffer mots = tampon;
+        mots.clear().limit(taille);
+        try {
+            long decalageFichier = position + premier * Long.BYTES;
+            while (mots.hasRemaining()) {
+                int lus = canal.read(mots, decalageFichier + mots.position());
+                if (lus < 0) {
+                    throw new IOException("Le fichier de la carte est tronqué");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        mots.flip();
+        return mots;
+    }
+
+    /**
+     * Vérifie qu'une case est dans le stockage.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @throws ArrayIndexOutOfBoundsException Si la case est hors du stockage.
+     */
+    private void verifier(int x, int y) {
+        if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+            throw new ArrayIndexOutOfBoundsException("La case (" + x + ", " + y + ") est hors de la carte");
+        }
+    }
+
+    /**
+     * Bloc de cases chargé en mémoire, codé comme un {@link StockageCompact} ligne par ligne dans le bloc.
+     */
+    private static final class Bloc {
+        private final long cle; // Clé du bloc dans le cache
+        private final int x0; // Coordonnée x de la première case du bloc
+        private final int y0; // Coordonnée y de la première case du bloc
+        private final int largeur; // Largeur du bloc, réduite en bord de carte
+        private final int hauteur; // Hauteur du bloc, réduite en bord de carte
+        private final long[] mots; // Ordinaux des tuiles du bloc
+        private boolean modifie; // Indique si le bloc a été modifié depuis sa lecture ou sa dernière écriture
+        private volatile long utilisation; // Époque de la dernière utilisation du bloc
+
+        /**
+         * Construit un bloc vide.
+         * @param cle La clé du bloc dans le cache.
+         * @param x0 La coordonnée x de la première case.
+         * @param y0 La coordonnée y de la première case.
+         * @param largeur La largeur du bloc.
+         * @param hauteur La hauteur du bloc.
+         */
+        private Bloc(long cle, int x0, int y0, int largeur, int hauteur) {
+            this.cle = cle;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.largeur = largeur;
+            this.hauteur = hauteur;
+            this.mots = new long[(largeur * hauteur + StockageCompact.TUILES_PAR_MOT - 1) / StockageCompact.TUILES_PAR_MOT];
+        }
+
+        /**
+         * Récupère l'ordinal de la tuile d'une case du bloc.
+         * @param indice L'indice de la case dans le bloc, ligne par ligne.
+         * @return L'ordinal de sa tuile.
+         */
+        private int getOrdinal(int indice) {
+            int decalage = (indice % StockageCompact.TUILES_PAR_MOT) * StockageCompact.BITS_PAR_TUILE;
+            return (int) ((mots[indice / StockageCompact.TUILES_PAR_MOT] >>> decalage) & StockageCompact.MASQUE);
+        }
+
+        /**
+         * Remplace l'ordinal de la tuile d'une case du bloc.
+         * @param indice L'indice de la case dans le bloc, ligne par ligne.
+         * @param ordinal L'ordinal de la nouvelle tuile.
+         */
+        private void setOrdinal(int indice, int ordinal) {
+            int decalage = (indice % StockageCompact.TUILES_PAR_MOT) * StockageCompact.BITS_PAR_TUILE;
+            int mot = indice / StockageCompact.TUILES_PAR_MOT;
+            mots[mot] = (mots[mot] & ~(StockageCompact.MASQUE << decalage)) | ((long) ordinal << decalage);
+        }
+
+        /**
+         * Récupère la tuile d'une case du bloc.
+         * @param x La coordonnée x de la case dans le bloc.
+         * @param y La coordonnée y de la case dans le bloc.
+         * @return La tuile de la case.
+         */
+        private Tuile getTuile(int x, int y) {
+            return StockageCompact.TUILES[getOrdinal(y * largeur + x)];
+        }
+
+        /**
+         * Remplace la tuile d'une case du bloc.
+         * @param x La coordonnée x de la case dans le bloc.
+         * @param y La coordonnée y de la case dans le bloc.
+         * @param tuile La nouvelle tuile.
+         */
+        private void setTuile(int x, int y, Tuile tuile) {
+            setOrdinal(y * largeur + x, tuile.ordinal());
+        }
+
+        /**
+         * Estime la mémoire occupée par le bloc.
+         * @return La taille du bloc, en octets.
+         */
+        private long getTailleOctets() {
+            return (long) mots.length * Long.BYTES + SURCOUT_BLOC;
+        }
+    }
+}
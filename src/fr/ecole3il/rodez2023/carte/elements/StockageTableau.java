@@ -0,0 +1,47 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+/**
+ * Stockage des tuiles dans une matrice de références indexée par [x][y].
+ * C'est la représentation historique des cartes : simple, mais coûteuse en mémoire pour les grandes cartes,
+ * chaque case occupant une référence et chaque colonne un tableau distinct.
+ */
+public class StockageTableau implements StockageTuiles {
+    private final Tuile[][] tuiles; // Matrice de tuiles, indexée par [x][y]
+
+    /**
+     * Construit un stockage utilisant directement la matrice spécifiée, sans la copier.
+     * @param tuiles La matrice de tuiles, indexée par [x][y].
+     */
+    public StockageTableau(Tuile[][] tuiles) {
+        this.tuiles = tuiles;
+    }
+
+    @Override
+    public int getLargeur() {
+        return tuiles.length;
+    }
+
+    @Override
+    public int getHauteur() {
+        return tuiles[0].length;
+    }
+
+    @Override
+    public Tuile getTuile(int x, int y) {
+        return tuiles[x][y];
+    }
+
+    @Override
+    public void setTuile(int x, int y, Tuile tuile) {
+        tuiles[x][y] = tuile;
+    }
+
+    @Override
+    public StockageTuiles copier() {
+        Tuile[][] copie = new Tuile[tuiles.length][];
+        for (int x = 0; x < tuiles.length; x++) {
+            copie[x] = tuiles[x].clone();
+        }
+        return new StockageTableau(copie);
+    }
+}
@@ -0,0 +1,44 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+/**
+ * Interface définissant la manière dont les tuiles d'une carte sont stockées en mémoire.
+ * Une carte délègue à son stockage la lecture et l'écriture de ses tuiles, ce qui permet de choisir
+ * entre une matrice de références, simple, et une représentation compacte pour les grandes cartes.
+ * Un stockage n'est pas sûr entre plusieurs threads lorsqu'il est modifié.
+ */
+public interface StockageTuiles {
+
+    /**
+     * Récupère la largeur du stockage (nombre de colonnes).
+     * @return La largeur.
+     */
+    int getLargeur();
+
+    /**
+     * Récupère la hauteur du stockage (nombre de lignes).
+     * @return La hauteur.
+     */
+    int getHauteur();
+
+    /**
+     * Récupère la tuile située aux coordonnées spécifiées.
+     * @param x La coordonnée x de la tuile.
+     * @param y La coordonnée y de la tuile.
+     * @return La tuile située aux coordonnées spécifiées.
+     */
+    Tuile getTuile(int x, int y);
+
+    /**
+     * Remplace la tuile située aux coordonnées spécifiées.
+     * @param x La coordonnée x de la tuile.
+     * @param y La coordonnée y de la tuile.
+     * @param tuile La nouvelle tuile.
+     */
+    void setTuile(int x, int y, Tuile tuile);
+
+    /**
+     * Crée une copie indépendante du stockage, conservée en mémoire.
+     * @return La copie du stockage.
+     */
+    StockageTuiles copier();
+}
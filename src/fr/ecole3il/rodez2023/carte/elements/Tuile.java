@@ -27,4 +27,28 @@ public enum Tuile {
     public int getPenalite() {
         return penalite;
     }
+
+    /**
+     * Récupère la plus petite pénalité de déplacement parmi toutes les tuiles.
+     * @return La pénalité minimale d'une tuile.
+     */
+    public static int getPenaliteMinimale() {
+        int minimum = Integer.MAX_VALUE;
+        for (Tuile tuile : values()) {
+            minimum = Math.min(minimum, tuile.penalite);
+        }
+        return minimum;
+    }
+
+    /**
+     * Récupère la plus grande pénalité de déplacement parmi toutes les tuiles.
+     * @return La pénalité maximale d'une tuile.
+     */
+    public static int getPenaliteMaximale() {
+        int maximum = Integer.MIN_VALUE;
+        for (Tuile tuile : values()) {
+            maximum = Math.max(maximum, tuile.penalite);
+        }
+        return maximum;
+    }
 }
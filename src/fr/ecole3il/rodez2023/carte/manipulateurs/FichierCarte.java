@@ -0,0 +1,183 @@
+package fr.ecole3il.rodez2023.carte.manipulateurs;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.StockageCompact;
+import fr.ecole3il.rodez2023.carte.elements.StockageMappe;
+import fr.ecole3il.rodez2023.carte.elements.StockageParBlocs;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+/**
+ * La classe FichierCarte écrit et charge les cartes dans un format binaire versionné.
+ * Le fichier commence par un en-tête de 24 octets, en gros-boutiste : la signature, la version du format,
+ * la largeur, la hauteur, le nombre de bits par case et le nombre de tuiles codées. Il est suivi des tuiles,
+ * ligne par ligne, codées par leur ordinal et regroupées dans des long comme dans un {@link StockageCompact}.
+ * Une carte chargée est projetée en mémoire depuis le fichier par un {@link StockageMappe}, sans copie dans le tas,
+ * ou lue par blocs à la demande par un {@link StockageParBlocs} avec un budget mémoire borné.
+ */
+public class FichierCarte {
+    private static final int MAGIQUE = 0x43415254; // Signature du format ("CART")
+    private static final int VERSION_FORMAT = 1; // Version du format
+    private static final int TAILLE_ENTETE = 24; // Taille de l'en-tête, multiple de 8 pour aligner les tuiles
+
+    /**
+     * Constructeur privé : la classe ne contient que des méthodes statiques.
+     */
+    private FichierCarte() {
+    }
+
+    /**
+     * Écrit une carte dans un fichier, en remplaçant son contenu s'il existe.
+     * @param carte La carte à écrire, quel que soit son stockage.
+     * @param fichier Le chemin du fichier.
+     * @throws IOException Si une erreur d'écriture se produit.
+     */
+    public static void ecrire(Carte carte, Path fichier) throws IOException {
+        int largeur = carte.getLargeur();
+        int hauteur = carte.getHauteur();
+        int bits = StockageCompact.getBitsParTuile();
+        int tuilesParMot = Long.SIZE / bits;
+        try (DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichier), 1 << 16))) {
+            sortie.writeInt(MAGIQUE);
+            sortie.writeInt(VERSION_FORMAT);
+            sortie.writeInt(largeur);
+            sortie.writeInt(hauteur);
+            sortie.writeInt(bits);
+            sortie.writeInt(Tuile.values().length);
+            long mot = 0;
+            int rempli = 0;
+            for (int y = 0; y < hauteur; y++) {
+                for (int x = 0; x < largeur; x++) {
+                    mot |= (long) carte.getTuile(x, y).ordinal() << (rempli * bits);
+                    if (++rempli == tuilesParMot) {
+                        sortie.writeLong(mot);
+                        mot = 0;
+                        rempli = 0;
+                    }
+                }
+            }
+            if (rempli > 0) {
+                sortie.writeLong(mot);
+            }
+        }
+    }
+
+    /**
+     * Charge une carte en lecture seule depuis un fichier. Les tuiles sont projetées en mémoire et lues
+     * à la demande ; toute modification de la carte lève une UnsupportedOperationException.
+     * @param fichier Le chemin du fichier.
+     * @return La carte projetée depuis le fichier.
+     * @throws IOException Si une erreur de lecture se produit ou si le fichier n'est pas une carte valide.
+     */
+    public static Carte charger(Path fichier) throws IOException {
+        return charger(fichier, false);
+    }
+
+    /**
+     * Charge une carte modifiable depuis un fichier. Les tuiles sont projetées en mémoire, et leurs modifications
+     * sont écrites dans le fichier, visibles des autres processus qui le projettent.
+     * @param fichier Le chemin du fichier.
+     * @return La carte projetée depuis le fichier.
+     * @throws IOException Si une erreur de lecture se produit ou si le fichier n'est pas une carte valide.
+     */
+    public static Carte chargerModifiable(Path fichier) throws IOException {
+        return charger(fichier, true);
+    }
+
+    /**
+     * Ouvre un fichier de carte pour le lire par blocs carrés chargés à la demande, en conservant en mémoire
+     * les blocs les plus récemment utilisés dans la limite d'un budget. La carte s'obtient par
+     * {@code new Carte(stockage)} ; le stockage doit être fermé par {@link StockageParBlocs#fermer()}.
+     * @param fichier Le chemin du fichier.
+     * @param tailleBloc Le côté d'un bloc, en cases.
+     * @param budget La mémoire maximale occupée par les blocs chargés, en octets.
+     * @param modifiable true pour écrire les modifications dans le fichier.
+     * @return Le stockage par blocs du fichier.
+     * @throws IOException Si une erreur de lecture se produit ou si le fichier n'est pas une carte valide.
+     */
+    public static StockageParBlocs ouvrirParBlocs(Path fichier, int tailleBloc, long budget, boolean modifiable)
+            throws IOException {
+        FileChannel canal = FileChannel.open(fichier, options(modifiable));
+        try {
+            int[] dimensions = lireEntete(canal);
+            return new StockageParBlocs(canal, TAILLE_ENTETE, dimensions[0], dimensions[1], tailleBloc, budget, modifiable);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lit l'en-tête d'un fichier de carte puis projette ses tuiles en mémoire.
+     * @param fichier Le chemin du fichier.
+     * @param modifiable true pour une projection en lecture et écriture.
+     * @return La carte projetée depuis le fichier.
+     * @throws IOException Si une erreur de lecture se produit ou si le fichier n'est pas une carte valide.
+     */
+    private static Carte charger(Path fichier, boolean modifiable) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, options(modifiable))) {
+            int[] dimensions = lireEntete(canal);
+            return new Carte(new StockageMappe(canal, TAILLE_ENTETE, dimensions[0], dimensions[1], modifiable));
+        }
+    }
+
+    /**
+     * Récupère les options d'ouverture d'un fichier de carte.
+     * @param modifiable true pour ouvrir le fichier en lecture et écriture.
+     * @return Les options d'ouverture.
+     */
+    private static StandardOpenOption[] options(boolean modifiable) {
+        return modifiable
+                ? new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ};
+    }
+
+    /**
+     * Lit et valide l'en-tête d'un fichier de carte.
+     * @param canal Le canal du fichier.
+     * @return La largeur et la hauteur de la carte.
+     * @throws IOException Si une erreur de lecture se produit ou si le fichier n'est pas une carte valide.
+     */
+    private static int[] lireEntete(FileChannel canal) throws IOException {
+        ByteBuffer entete = ByteBuffer.allocate(TAILLE_ENTETE);
+        while (entete.hasRemaining()) {
+            if (canal.read(entete, entete.position()) < 0) {
+                throw new IOException("Le fichier est trop court pour contenir une carte");
+            }
+        }
+        entete.flip();
+        if (entete.getInt() != MAGIQUE) {
+            throw new IOException("Le fichier ne contient pas de carte");
+        }
+        int version = entete.getInt();
+        if (version != VERSION_FORMAT) {
+            throw new IOException("Version de fichier de carte non prise en charge : " + version);
+        }
+        int largeur = entete.getInt();
+        int hauteur = entete.getInt();
+        if (largeur <= 0 || hauteur <= 0) {
+            throw new IOException("Dimensions de carte invalides : " + largeur + " x " + hauteur);
+        }
+        int bits = entete.getInt();
+        if (bits != StockageCompact.getBitsParTuile()) {
+            throw new IOException("Codage des tuiles non pris en charge : " + bits + " bits par case");
+        }
+        int nombreTuiles = entete.getInt();
+        if (nombreTuiles <= 0 || nombreTuiles > Tuile.values().length) {
+            throw new IOException("Nombre de tuiles non pris en charge : " + nombreTuiles);
+        }
+        long tailleAttendue = TAILLE_ENTETE + StockageMappe.getNombreMots(largeur, hauteur) * Long.BYTES;
+        if (canal.size() < tailleAttendue) {
+            throw new IOException("Le fichier est tronqué : " + canal.size() + " octets au lieu de " + tailleAttendue);
+        }
+        return new int[]{largeur, hauteur};
+    }
+}
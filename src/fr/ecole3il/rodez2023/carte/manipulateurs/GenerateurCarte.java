@@ -10,6 +10,7 @@ package fr.ecole3il.rodez2023.carte.manipulateurs;
 import java.util.Random;
 
 import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.StockageCompact;
 import fr.ecole3il.rodez2023.carte.elements.Tuile;
 
 /**
@@ -40,15 +41,85 @@ public class GenerateurCarte {
      * @return Une nouvelle instance de Carte générée aléatoirement avec les dimensions spécifiées.
      */
     public static Carte genererCarte(int largeur, int hauteur) {
-        Tuile[][] tuiles = new Tuile[largeur][hauteur];
-        for (int x = 0; x < largeur; x++) {
-            for (int y = 0; y < hauteur; y++) {
+        return genererCarte(largeur, hauteur, RANDOM, null);
+    }
+
+    /**
+     * Génère une carte aléatoire reproductible : la même graine donne toujours la même carte.
+     * @param largeur La largeur de la carte à générer.
+     * @param hauteur La hauteur de la carte à générer.
+     * @param graine La graine du générateur de nombres aléatoires.
+     * @return Une nouvelle instance de Carte générée à partir de la graine.
+     */
+    public static Carte genererCarte(int largeur, int hauteur, long graine) {
+        return genererCarte(largeur, hauteur, new Random(graine), null);
+    }
+
+    /**
+     * Génère une carte aléatoire reproductible dont les tuiles suivent une distribution donnée.
+     * @param largeur La largeur de la carte à générer.
+     * @param hauteur La hauteur de la carte à générer.
+     * @param graine La graine du générateur de nombres aléatoires.
+     * @param poids Le poids relatif de chaque tuile, indexé par son ordinal.
+     * @return Une nouvelle instance de Carte générée à partir de la graine.
+     * @throws IllegalArgumentException Si les poids ne sont pas un par tuile, positifs ou nuls, de somme non nulle.
+     */
+    public static Carte genererCarte(int largeur, int hauteur, long graine, double[] poids) {
+        if (poids.length != TUILES.length) {
+            throw new IllegalArgumentException("Il faut un poids par tuile : " + TUILES.length + " attendus");
+        }
+        double[] cumuls = new double[TUILES.length];
+        double total = 0;
+        for (int i = 0; i < poids.length; i++) {
+            if (!(poids[i] >= 0)) {
+                throw new IllegalArgumentException("Poids de tuile invalide : " + poids[i]);
+            }
+            total += poids[i];
+            cumuls[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("La somme des poids des tuiles doit être strictement positive");
+        }
+        return genererCarte(largeur, hauteur, new Random(graine), cumuls);
+    }
+
+    /**
+     * Génère une carte aléatoire en tirant ses tuiles avec le générateur fourni.
+     * Les tuiles sont écrites directement dans un stockage compact, ligne par ligne, sans matrice intermédiaire.
+     * @param largeur La largeur de la carte à générer.
+     * @param hauteur La hauteur de la carte à générer.
+     * @param aleatoire Le générateur de nombres aléatoires.
+     * @param cumuls Les poids cumulés des tuiles, ou null pour des tuiles équiprobables.
+     * @return Une nouvelle instance de Carte générée aléatoirement.
+     */
+    private static Carte genererCarte(int largeur, int hauteur, Random aleatoire, double[] cumuls) {
+        StockageCompact stockage = new StockageCompact(largeur, hauteur);
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
                 // Sélectionner une tuile aléatoire
-                Tuile tuileAleatoire = TUILES[RANDOM.nextInt(TUILES.length)];
-                tuiles[x][y] = tuileAleatoire;
+                Tuile tuileAleatoire = cumuls == null
+                        ? TUILES[aleatoire.nextInt(TUILES.length)]
+                        : tirerTuile(aleatoire, cumuls);
+                stockage.setTuile(x, y, tuileAleatoire);
+            }
+        }
+        return new Carte(stockage);
+    }
+
+    /**
+     * Tire une tuile selon des poids cumulés.
+     * @param aleatoire Le générateur de nombres aléatoires.
+     * @param cumuls Les poids cumulés des tuiles, indexés par ordinal.
+     * @return La tuile tirée.
+     */
+    private static Tuile tirerTuile(Random aleatoire, double[] cumuls) {
+        double tirage = aleatoire.nextDouble() * cumuls[cumuls.length - 1];
+        for (int i = 0; i < cumuls.length - 1; i++) {
+            if (tirage < cumuls[i]) {
+                return TUILES[i];
             }
         }
-        return new Carte(tuiles);
+        return TUILES[cumuls.length - 1];
     }
 
     /**
@@ -0,0 +1,155 @@
+package fr.ecole3il.rodez2023.carte;
+
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeAEtoile;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Chemin;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le cache des cartes compilées de l'adaptateur : graphe réutilisé tant que la carte ne change pas,
+ * reconstruit après une modification ou une invalidation, et carte la moins récemment utilisée évincée.
+ * Vérifie aussi les recherches par lots : chaque chemin d'un lot est celui que donne la même requête
+ * traitée seule, à la même place que sa requête.
+ */
+class AdaptateurAlgorithmeTest {
+    private static final int NOMBRE_REQUETES = 60; // Nombre de requêtes du lot
+    private static final int TAILLE_CACHE = 8; // Taille par défaut du cache, rétablie après chaque test
+
+    @AfterEach
+    void retablirTailleCache() {
+        AdaptateurAlgorithme.setTailleCache(TAILLE_CACHE);
+    }
+
+    @Test
+    void grapheReutiliseTantQueLaCarteNeChangePas() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(1), 12, 9);
+        CarteCompilee compilee = AdaptateurAlgorithme.compiler(carte);
+        assertSame(compilee, AdaptateurAlgorithme.compiler(carte));
+        AdaptateurAlgorithme.trouverChemin(new AlgorithmeAEtoile<>(), carte, 0, 0, 11, 8);
+        assertSame(compilee, AdaptateurAlgorithme.compiler(carte));
+
+        // Remettre la même tuile ne modifie pas la carte : le graphe reste à jour.
+        carte.setTuile(4, 4, carte.getTuile(4, 4));
+        assertTrue(compilee.estAJour());
+        assertSame(compilee, AdaptateurAlgorithme.compiler(carte));
+    }
+
+    @Test
+    void grapheReconstruitApresModification() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(2), 12, 9);
+        carte.setTuile(5, 5, Tuile.DESERT);
+        CarteCompilee ancienne = AdaptateurAlgorithme.compiler(carte);
+
+        carte.setTuile(5, 5, Tuile.FORET);
+        assertFalse(ancienne.estAJour());
+        CarteCompilee nouvelle = AdaptateurAlgorithme.compiler(carte);
+        assertNotSame(ancienne, nouvelle);
+        assertTrue(nouvelle.estAJour());
+        assertSame(nouvelle, AdaptateurAlgorithme.compiler(carte));
+
+        // Les arêtes du nouveau graphe tiennent compte de la tuile modifiée.
+        Graphe<Case> graphe = nouvelle.getGraphe();
+        double attendu = Tuile.FORET.getPenalite() + carte.getTuile(6, 5).getPenalite();
+        assertEquals(attendu, graphe.getCoutArete(nouvelle.getNoeud(5, 5), nouvelle.getNoeud(6, 5)));
+        assertEquals(Tuile.FORET, nouvelle.getNoeud(5, 5).getValeur().getTuile());
+    }
+
+    @Test
+    void grapheReconstruitApresInvalidation() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(3), 6, 6);
+        CarteCompilee compilee = AdaptateurAlgorithme.compiler(carte);
+        AdaptateurAlgorithme.invaliderCache(carte);
+        assertTrue(compilee.estAJour());
+        assertNotSame(compilee, AdaptateurAlgorithme.compiler(carte));
+    }
+
+    @Test
+    void carteLaMoinsRecemmentUtiliseeEvincee() {
+        Random aleatoire = new Random(4);
+        Carte a = OutilsTests.carteAleatoire(aleatoire, 5, 5);
+        Carte b = OutilsTests.carteAleatoire(aleatoire, 5, 5);
+        Carte c = OutilsTests.carteAleatoire(aleatoire, 5, 5);
+        AdaptateurAlgorithme.setTailleCache(2);
+        CarteCompilee compileeA = AdaptateurAlgorithme.compiler(a);
+        CarteCompilee compileeB = AdaptateurAlgorithme.compiler(b);
+
+        // A est relue : B devient la moins récemment utilisée et cède sa place à C.
+        assertSame(compileeA, AdaptateurAlgorithme.compiler(a));
+        CarteCompilee compileeC = AdaptateurAlgorithme.compiler(c);
+        assertSame(compileeA, AdaptateurAlgorithme.compiler(a));
+        assertSame(compileeC, AdaptateurAlgorithme.compiler(c));
+        assertNotSame(compileeB, AdaptateurAlgorithme.compiler(b));
+
+        // Réduire le cache évince immédiatement les cartes en trop, en commençant par les moins récentes.
+        CarteCompilee nouvelleB = AdaptateurAlgorithme.compiler(b);
+        AdaptateurAlgorithme.setTailleCache(1);
+        assertSame(nouvelleB, AdaptateurAlgorithme.compiler(b));
+        assertNotSame(compileeC, AdaptateurAlgorithme.compiler(c));
+    }
+
+    @Test
+    void cacheDeTailleNulleOuNegative() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(5), 4, 4);
+        AdaptateurAlgorithme.setTailleCache(0);
+        assertNotSame(AdaptateurAlgorithme.compiler(carte), AdaptateurAlgorithme.compiler(carte));
+        assertThrows(IllegalArgumentException.class, () -> AdaptateurAlgorithme.setTailleCache(-1));
+    }
+
+    @Test
+    void lotDansUnPoolIdentiqueAuxRequetesIsolees() {
+        Random aleatoire = new Random(14);
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, 40, 30);
+        List<RequeteChemin> requetes = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            requetes.add(new RequeteChemin(aleatoire.nextInt(40), aleatoire.nextInt(30),
+                    aleatoire.nextInt(40), aleatoire.nextInt(30)));
+        }
+        // Une requête hors de la carte donne un chemin vide, à sa place dans le lot.
+        requetes.add(NOMBRE_REQUETES / 2, new RequeteChemin(0, 0, 40, 0));
+        AlgorithmeAEtoile<Case> algorithme = new AlgorithmeAEtoile<>();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Chemin> lot;
+        try {
+            lot = AdaptateurAlgorithme.trouverChemins(algorithme, carte, requetes, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(requetes.size(), lot.size());
+        for (int i = 0; i < requetes.size(); i++) {
+            RequeteChemin requete = requetes.get(i);
+            Chemin isole = AdaptateurAlgorithme.trouverChemin(algorithme, carte, requete.getXDepart(),
+                    requete.getYDepart(), requete.getXArrivee(), requete.getYArrivee());
+            assertEquals(coordonnees(isole), coordonnees(lot.get(i)), requete.toString());
+        }
+    }
+
+    /**
+     * Récupère les coordonnées des cases d'un chemin.
+     * @param chemin Le chemin.
+     * @return Les coordonnées (x, y) de chaque case, dans l'ordre du chemin.
+     */
+    private static List<List<Integer>> coordonnees(Chemin chemin) {
+        List<List<Integer>> coordonnees = new ArrayList<>();
+        for (Case c : chemin.getCases()) {
+            coordonnees.add(List.of(c.getX(), c.getY()));
+        }
+        return coordonnees;
+    }
+}
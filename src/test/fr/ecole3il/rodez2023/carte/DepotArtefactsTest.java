@@ -0,0 +1,142 @@
+package fr.ecole3il.rodez2023.carte;
+
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeContraction;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.HierarchieContraction;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que le dépôt d'artefacts relit un artefact intact et reconstruit un artefact corrompu, quelle que soit
+ * la corruption : fichier tronqué, taille altérée, contenu incohérent ou suivi d'octets superflus malgré une somme
+ * de contrôle valide. Vérifie aussi qu'une hiérarchie relue sert telle quelle aux recherches sur le graphe compilé.
+ */
+class DepotArtefactsTest {
+    private static final int POSITION_NOMBRE_NOEUDS = 24 + 8; // En-tête du dépôt, puis signature et version du graphe
+
+    @TempDir
+    Path repertoire; // Répertoire temporaire du dépôt
+
+    private Carte carte; // Carte dont les artefacts sont enregistrés
+    private DepotArtefacts depot; // Dépôt testé
+    private Path fichier; // Fichier du graphe compact de la carte
+    private long empreinteGraphe; // Empreinte du graphe compact attendu
+
+    @BeforeEach
+    void preparer() throws IOException {
+        carte = OutilsTests.carteAleatoire(new Random(4), 20, 15);
+        depot = new DepotArtefacts(repertoire);
+        empreinteGraphe = GrapheCompact.depuisCarte(carte).calculerEmpreinte();
+        assertEquals(empreinteGraphe, depot.getGrapheCompact(carte).calculerEmpreinte());
+        fichier = depot.getFichier(carte, "graphe");
+        assertTrue(Files.isRegularFile(fichier));
+    }
+
+    @Test
+    void artefactIntactRelu() throws IOException {
+        long modification = Files.getLastModifiedTime(fichier).toMillis();
+        byte[] contenu = Files.readAllBytes(fichier);
+        assertEquals(empreinteGraphe, depot.getGrapheCompact(carte).calculerEmpreinte());
+        assertEquals(modification, Files.getLastModifiedTime(fichier).toMillis());
+        assertTrue(Arrays.equals(contenu, Files.readAllBytes(fichier)));
+    }
+
+    @Test
+    void artefactTronqueReconstruit() throws IOException {
+        byte[] contenu = Files.readAllBytes(fichier);
+        Files.write(fichier, Arrays.copyOf(contenu, contenu.length / 2));
+        verifierReconstruction(contenu);
+    }
+
+    @Test
+    void tailleCorrompueReconstruite() throws IOException {
+        byte[] contenu = Files.readAllBytes(fichier);
+        try (RandomAccessFile acces = new RandomAccessFile(fichier.toFile(), "rw")) {
+            acces.seek(POSITION_NOMBRE_NOEUDS);
+            acces.writeInt(Integer.MAX_VALUE);
+        }
+        verifierReconstruction(contenu);
+    }
+
+    @Test
+    void contenuIncoherentAvecControleValideReconstruit() throws IOException {
+        byte[] contenu = Files.readAllBytes(fichier);
+        // Un nombre de noeuds égal à Integer.MAX_VALUE fait échouer la lecture par une exception non vérifiée.
+        byte[] corrompu = Arrays.copyOf(contenu, contenu.length - Long.BYTES);
+        corrompu[POSITION_NOMBRE_NOEUDS] = 0x7f;
+        Arrays.fill(corrompu, POSITION_NOMBRE_NOEUDS + 1, POSITION_NOMBRE_NOEUDS + 4, (byte) 0xff);
+        ecrireAvecControle(corrompu);
+        verifierReconstruction(contenu);
+    }
+
+    @Test
+    void octetsSuperflusReconstruits() throws IOException {
+        byte[] contenu = Files.readAllBytes(fichier);
+        // Le graphe est lu en entier, mais des octets le suivent avant la somme de contrôle, pourtant valide.
+        ecrireAvecControle(Arrays.copyOf(contenu, contenu.length - Long.BYTES + 4));
+        verifierReconstruction(contenu);
+    }
+
+    @Test
+    void hierarchieRelueUtiliseeSansReconstruction() throws IOException {
+        depot.getHierarchie(carte);
+        Path fichierHierarchie = depot.getFichier(carte, "hierarchie");
+        long modification = Files.getLastModifiedTime(fichierHierarchie).toMillis();
+
+        // Un nouveau dépôt sur le même répertoire simule un redémarrage : la hiérarchie est relue du disque.
+        HierarchieContraction relue = new DepotArtefacts(repertoire).getHierarchie(carte);
+        assertEquals(modification, Files.getLastModifiedTime(fichierHierarchie).toMillis());
+        Graphe<Case> graphe = AdaptateurAlgorithme.compiler(carte).getGraphe();
+        assertTrue(relue.correspondA(graphe.getGrapheCompact()));
+
+        AlgorithmeContraction<Case> algorithme = new AlgorithmeContraction<>(relue);
+        List<Case> chemin = AdaptateurAlgorithme.trouverChemin(algorithme, carte, 0, 0, 19, 14).getCases();
+        assertEquals(OutilsTests.distanceDijkstra(carte, 0, 0, 19, 14), OutilsTests.cout(carte, chemin), 1e-9);
+        assertSame(relue, algorithme.getHierarchie(graphe));
+    }
+
+    /**
+     * Remplace le fichier du graphe par un contenu suivi de sa somme de contrôle CRC32, valide.
+     * @param corps Le contenu, en-tête compris.
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    private void ecrireAvecControle(byte[] corps) throws IOException {
+        CRC32 controle = new CRC32();
+        controle.update(corps);
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            sortie.write(corps);
+            sortie.writeLong(controle.getValue());
+        }
+        Files.write(fichier, octets.toByteArray());
+    }
+
+    /**
+     * Vérifie que le dépôt renvoie le bon graphe malgré la corruption et réécrit le fichier d'origine.
+     * @param contenu Le contenu du fichier avant corruption.
+     * @throws IOException Si l'artefact reconstruit ne peut pas être écrit.
+     */
+    private void verifierReconstruction(byte[] contenu) throws IOException {
+        assertEquals(empreinteGraphe, depot.getGrapheCompact(carte).calculerEmpreinte());
+        assertTrue(Arrays.equals(contenu, Files.readAllBytes(fichier)));
+    }
+}
@@ -0,0 +1,206 @@
+package fr.ecole3il.rodez2023.carte;
+
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeAEtoile;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeAEtoileBidirectionnel;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeChemin;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeContraction;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeDjikstra;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeDjikstraBidirectionnel;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeGrille;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeHierarchique;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.AlgorithmeJPS;
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.Reperes;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import fr.ecole3il.rodez2023.carte.manipulateurs.GenerateurCarte;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie qu'une carte figée et le graphe figé de sa compilation refusent toute modification, et qu'ils peuvent
+ * être lus par plusieurs threads à la fois : chaque algorithme, partagé entre les threads, doit y trouver
+ * exactement les mêmes chemins qu'en exécution séquentielle.
+ */
+class InstantanesFigesTest {
+    private static final int LARGEUR = 120; // Largeur de la carte de test
+    private static final int HAUTEUR = 90; // Hauteur de la carte de test
+    private static final long GRAINE = 20231015L; // Graine de la carte et des requêtes
+    private static final int NOMBRE_REQUETES = 150; // Nombre de requêtes exécutées par chaque thread
+    private static final int NOMBRE_THREADS = 8; // Nombre de threads lisant en parallèle
+
+    private static Carte carte; // Carte figée partagée par les tests
+    private static Graphe<Case> graphe; // Graphe figé de la carte
+    private static List<RequeteChemin> requetes; // Requêtes exécutées par chaque thread
+    private static ExecutorService executeur; // Threads de lecture
+
+    @BeforeAll
+    static void preparer() {
+        carte = GenerateurCarte.genererCarte(LARGEUR, HAUTEUR, GRAINE).figer();
+        graphe = new CarteCompilee(carte).getGraphe();
+        Random aleatoire = new Random(GRAINE);
+        requetes = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            requetes.add(new RequeteChemin(aleatoire.nextInt(LARGEUR), aleatoire.nextInt(HAUTEUR),
+                    aleatoire.nextInt(LARGEUR), aleatoire.nextInt(HAUTEUR)));
+        }
+        executeur = Executors.newFixedThreadPool(NOMBRE_THREADS);
+    }
+
+    @AfterAll
+    static void terminer() {
+        executeur.shutdownNow();
+    }
+
+    static Stream<Arguments> algorithmesGraphe() {
+        return Stream.of(
+                Arguments.of("Dijkstra", new AlgorithmeDjikstra<Case>()),
+                Arguments.of("Dijkstra bidirectionnel", new AlgorithmeDjikstraBidirectionnel<Case>()),
+                Arguments.of("A*", new AlgorithmeAEtoile<Case>()),
+                Arguments.of("A* bidirectionnel", new AlgorithmeAEtoileBidirectionnel<Case>()),
+                Arguments.of("A* avec repères", new AlgorithmeAEtoile<Case>(Reperes.calculer(carte, 8))),
+                Arguments.of("Contraction", new AlgorithmeContraction<Case>()));
+    }
+
+    static Stream<Arguments> algorithmesGrille() {
+        return Stream.of(
+                Arguments.of("JPS", new AlgorithmeJPS()),
+                Arguments.of("HPA*", new AlgorithmeHierarchique()));
+    }
+
+    @Test
+    void carteFigeeRefuseLesModifications() {
+        assertTrue(carte.estFigee());
+        assertSame(carte, carte.figer());
+        int version = carte.getVersion();
+        assertThrows(UnsupportedOperationException.class, () -> carte.setTuile(0, 0, Tuile.DESERT));
+        assertEquals(version, carte.getVersion());
+    }
+
+    @Test
+    void grapheFigeRefuseLesModifications() {
+        assertTrue(graphe.estFige());
+        Noeud<Case> noeud = graphe.getNoeud(1, 1);
+        Noeud<Case> voisin = graphe.getNoeud(0, 1);
+        assertThrows(UnsupportedOperationException.class, () -> graphe.ajouterNoeud(new Noeud<>(new Case(Tuile.DESERT, 0, 0))));
+        assertThrows(UnsupportedOperationException.class, () -> graphe.ajouterArete(noeud, voisin, 1));
+        assertThrows(UnsupportedOperationException.class, () -> noeud.ajouterVoisin(voisin));
+        assertThrows(UnsupportedOperationException.class, () -> graphe.getAretes(noeud).put(voisin, 0.0));
+        assertThrows(UnsupportedOperationException.class, () -> graphe.getVoisins(noeud).add(voisin));
+        assertThrows(UnsupportedOperationException.class, () -> noeud.getVoisins().add(voisin));
+        assertTrue(noeud.estFige());
+        assertEquals(carte.getTuile(1, 1).getPenalite() + carte.getTuile(0, 1).getPenalite(),
+                graphe.getCoutArete(noeud, voisin));
+    }
+
+    @Test
+    void vuesDuGrapheFigeReutilisees() {
+        Noeud<Case> noeud = graphe.getNoeud(1, 1);
+        assertSame(graphe.getAretes(noeud), graphe.getAretes(noeud));
+        assertSame(graphe.getVoisins(noeud), graphe.getVoisins(noeud));
+        assertEquals(new ArrayList<>(graphe.getAretes(noeud).keySet()), graphe.getVoisins(noeud));
+        assertTrue(graphe.getVoisins(noeud).contains(graphe.getNoeud(0, 1)));
+    }
+
+    @Test
+    void constructeurInutilisableApresConstruction() {
+        Graphe.Constructeur<Case> constructeur = Graphe.constructeur(2, 1);
+        Noeud<Case> gauche = new Noeud<>(new Case(Tuile.DESERT, 0, 0));
+        Noeud<Case> droite = new Noeud<>(new Case(Tuile.PLAINE, 1, 0));
+        Graphe<Case> construit = constructeur.ajouterArete(gauche, droite, 3).construire();
+        assertEquals(3, construit.getCoutArete(gauche, droite));
+        assertEquals(Double.POSITIVE_INFINITY, construit.getCoutArete(droite, gauche));
+        assertThrows(IllegalStateException.class, () -> constructeur.ajouterNoeud(gauche));
+        assertThrows(IllegalStateException.class, constructeur::construire);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("algorithmesGraphe")
+    void lecturesConcurrentesDuGrapheFige(String nom, AlgorithmeChemin<Case> algorithme) throws Exception {
+        verifierLecturesConcurrentes(requete -> {
+            List<Noeud<Case>> noeuds = algorithme.trouverChemin(graphe,
+                    graphe.getNoeud(requete.getXDepart(), requete.getYDepart()),
+                    graphe.getNoeud(requete.getXArrivee(), requete.getYArrivee()));
+            List<Case> cases = new ArrayList<>();
+            for (Noeud<Case> noeud : noeuds) {
+                cases.add(noeud.getValeur());
+            }
+            return cases;
+        });
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("algorithmesGrille")
+    void lecturesConcurrentesDeLaCarteFigee(String nom, AlgorithmeGrille algorithme) throws Exception {
+        verifierLecturesConcurrentes(requete -> algorithme.trouverChemin(carte, requete.getXDepart(),
+                requete.getYDepart(), requete.getXArrivee(), requete.getYArrivee()));
+    }
+
+    /**
+     * Exécute toutes les requêtes séquentiellement, puis depuis plusieurs threads démarrés ensemble, chacun
+     * dans un ordre différent, et vérifie que tous obtiennent les mêmes chemins.
+     * @param recherche La recherche d'un chemin pour une requête.
+     * @throws Exception Si une recherche échoue dans un thread.
+     */
+    private static void verifierLecturesConcurrentes(Function<RequeteChemin, List<Case>> recherche) throws Exception {
+        List<String> attendus = new ArrayList<>();
+        for (RequeteChemin requete : requetes) {
+            attendus.add(decrire(recherche.apply(requete)));
+        }
+
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<List<String>>> resultats = new ArrayList<>();
+        for (int t = 0; t < NOMBRE_THREADS; t++) {
+            int decalage = t * NOMBRE_REQUETES / NOMBRE_THREADS;
+            Callable<List<String>> tache = () -> {
+                String[] chemins = new String[NOMBRE_REQUETES];
+                depart.await();
+                for (int i = 0; i < NOMBRE_REQUETES; i++) {
+                    int r = (i + decalage) % NOMBRE_REQUETES;
+                    chemins[r] = decrire(recherche.apply(requetes.get(r)));
+                }
+                return List.of(chemins);
+            };
+            resultats.add(executeur.submit(tache));
+        }
+        depart.countDown();
+        for (Future<List<String>> resultat : resultats) {
+            assertEquals(attendus, resultat.get());
+        }
+    }
+
+    /**
+     * Décrit un chemin par la suite de ses coordonnées.
+     * @param chemin Les cases du chemin.
+     * @return La description du chemin.
+     */
+    private static String decrire(List<Case> chemin) {
+        StringBuilder texte = new StringBuilder();
+        for (Case c : chemin) {
+            texte.append(c.getX()).append(',').append(c.getY()).append(' ');
+        }
+        return texte.toString();
+    }
+}
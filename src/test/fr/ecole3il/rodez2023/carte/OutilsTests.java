@@ -0,0 +1,116 @@
+package fr.ecole3il.rodez2023.carte;
+
+import fr.ecole3il.rodez2023.carte.chemin.algorithmes.MoteurDijkstra;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import fr.ecole3il.rodez2023.carte.elements.GrilleImplicite;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Outils communs aux tests : cartes aléatoires reproductibles, petits graphes écrits à la main et distances
+ * de référence calculées par Dijkstra.
+ */
+public final class OutilsTests {
+
+    /**
+     * Constructeur privé : la classe ne contient que des méthodes statiques.
+     */
+    private OutilsTests() {
+    }
+
+    /**
+     * Crée une carte dont chaque tuile est tirée uniformément.
+     * @param aleatoire Le générateur aléatoire.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @return La carte créée.
+     */
+    public static Carte carteAleatoire(Random aleatoire, int largeur, int hauteur) {
+        Tuile[][] tuiles = new Tuile[largeur][hauteur];
+        for (int x = 0; x < largeur; x++) {
+            for (int y = 0; y < hauteur; y++) {
+                tuiles[x][y] = tuileAleatoire(aleatoire);
+            }
+        }
+        return new Carte(tuiles);
+    }
+
+    /**
+     * Tire une tuile uniformément.
+     * @param aleatoire Le générateur aléatoire.
+     * @return La tuile tirée.
+     */
+    public static Tuile tuileAleatoire(Random aleatoire) {
+        Tuile[] tuiles = Tuile.values();
+        return tuiles[aleatoire.nextInt(tuiles.length)];
+    }
+
+    /**
+     * Crée un graphe compact orienté à partir de la liste de ses arêtes.
+     * @param nombreNoeuds Le nombre de noeuds du graphe.
+     * @param aretes Les arêtes, chacune décrite par son noeud de départ, son noeud d'arrivée et son coût.
+     * @return Le graphe créé.
+     */
+    public static GrapheCompact graphe(int nombreNoeuds, int[]... aretes) {
+        int[] debuts = new int[nombreNoeuds + 1];
+        for (int[] arete : aretes) {
+            debuts[arete[0] + 1]++;
+        }
+        for (int n = 0; n < nombreNoeuds; n++) {
+            debuts[n + 1] += debuts[n];
+        }
+        int[] positions = debuts.clone();
+        int[] cibles = new int[aretes.length];
+        float[] couts = new float[aretes.length];
+        for (int[] arete : aretes) {
+            int position = positions[arete[0]]++;
+            cibles[position] = arete[1];
+            couts[position] = arete[2];
+        }
+        return new GrapheCompact(debuts, cibles, couts);
+    }
+
+    /**
+     * Calcule la distance la plus courte entre deux cases avec le moteur de Dijkstra sur la grille implicite.
+     * @param carte La carte, dans son état actuel.
+     * @param xDepart La coordonnée x du départ.
+     * @param yDepart La coordonnée y du départ.
+     * @param xArrivee La coordonnée x de l'arrivée.
+     * @param yArrivee La coordonnée y de l'arrivée.
+     * @return La distance de référence.
+     */
+    public static double distanceDijkstra(Carte carte, int xDepart, int yDepart, int xArrivee, int yArrivee) {
+        GrilleImplicite grille = new GrilleImplicite(carte);
+        int arrivee = grille.getIdentifiant(xArrivee, yArrivee);
+        MoteurDijkstra moteur = new MoteurDijkstra();
+        moteur.rechercher(grille, grille.getIdentifiant(xDepart, yDepart), arrivee);
+        return moteur.getDistance(arrivee);
+    }
+
+    /**
+     * Calcule le coût d'un chemin avec les tuiles actuelles de la carte, en vérifiant que chaque pas relie
+     * deux cases voisines. Le coût d'un pas est la somme des pénalités des deux cases.
+     * @param carte La carte, dans son état actuel.
+     * @param chemin Les cases du chemin, du départ à l'arrivée.
+     * @return Le coût du chemin.
+     * @throws AssertionError Si deux cases consécutives ne sont pas voisines.
+     */
+    public static double cout(Carte carte, List<Case> chemin) {
+        double cout = 0;
+        for (int i = 1; i < chemin.size(); i++) {
+            Case precedente = chemin.get(i - 1);
+            Case courante = chemin.get(i);
+            int ecart = Math.abs(precedente.getX() - courante.getX()) + Math.abs(precedente.getY() - courante.getY());
+            if (ecart != 1) {
+                throw new AssertionError("Pas invalide entre " + precedente + " et " + courante);
+            }
+            cout += carte.getTuile(precedente.getX(), precedente.getY()).getPenalite()
+                    + carte.getTuile(courante.getX(), courante.getY()).getPenalite();
+        }
+        return cout;
+    }
+}
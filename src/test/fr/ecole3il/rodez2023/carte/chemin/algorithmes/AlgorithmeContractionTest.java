@@ -0,0 +1,81 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que la hiérarchie de contraction utilisée correspond toujours au graphe interrogé : une hiérarchie
+ * fournie au constructeur n'est réutilisée que pour un graphe identique, et la hiérarchie est reconstruite
+ * après une modification de la carte.
+ */
+class AlgorithmeContractionTest {
+    private static final int LARGEUR = 30; // Largeur des cartes de test
+    private static final int HAUTEUR = 20; // Hauteur des cartes de test
+    private static final int NOMBRE_REQUETES = 50; // Nombre de requêtes vérifiées par carte
+
+    @Test
+    void hierarchieFournieReutiliseePourLeMemeGraphe() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(1), LARGEUR, HAUTEUR);
+        Graphe<Case> graphe = AdaptateurAlgorithme.compiler(carte).getGraphe();
+        HierarchieContraction hierarchie = HierarchieContraction.depuisGraphe(graphe);
+        assertTrue(hierarchie.correspondA(graphe.getGrapheCompact()));
+        assertSame(hierarchie, new AlgorithmeContraction<Case>(hierarchie).getHierarchie(graphe));
+    }
+
+    @Test
+    void hierarchieFournieReconstruitePourUnAutreGraphe() {
+        Random aleatoire = new Random(2);
+        Carte autre = OutilsTests.carteAleatoire(aleatoire, LARGEUR, HAUTEUR);
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, LARGEUR, HAUTEUR);
+        HierarchieContraction hierarchie = HierarchieContraction.depuisCarte(autre);
+        Graphe<Case> graphe = AdaptateurAlgorithme.compiler(carte).getGraphe();
+        assertFalse(hierarchie.correspondA(graphe.getGrapheCompact()));
+
+        AlgorithmeContraction<Case> algorithme = new AlgorithmeContraction<>(hierarchie);
+        assertNotSame(hierarchie, algorithme.getHierarchie(graphe));
+        verifierRequetes(algorithme, carte, aleatoire);
+    }
+
+    @Test
+    void hierarchieReconstruiteApresModificationDeLaCarte() {
+        Random aleatoire = new Random(3);
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, LARGEUR, HAUTEUR);
+        AlgorithmeContraction<Case> algorithme = new AlgorithmeContraction<>();
+        for (int i = 0; i < 10; i++) {
+            verifierRequetes(algorithme, carte, aleatoire);
+            carte.setTuile(aleatoire.nextInt(LARGEUR), aleatoire.nextInt(HAUTEUR), OutilsTests.tuileAleatoire(aleatoire));
+        }
+    }
+
+    /**
+     * Vérifie que les chemins trouvés sur une carte ont le coût de l'algorithme de Dijkstra.
+     * @param algorithme L'algorithme testé.
+     * @param carte La carte.
+     * @param aleatoire Le générateur aléatoire.
+     */
+    private static void verifierRequetes(AlgorithmeContraction<Case> algorithme, Carte carte, Random aleatoire) {
+        for (int q = 0; q < NOMBRE_REQUETES; q++) {
+            int xDepart = aleatoire.nextInt(LARGEUR);
+            int yDepart = aleatoire.nextInt(HAUTEUR);
+            int xArrivee = aleatoire.nextInt(LARGEUR);
+            int yArrivee = aleatoire.nextInt(HAUTEUR);
+            List<Case> chemin = AdaptateurAlgorithme.trouverChemin(algorithme, carte, xDepart, yDepart, xArrivee, yArrivee)
+                    .getCases();
+            assertEquals(OutilsTests.distanceDijkstra(carte, xDepart, yDepart, xArrivee, yArrivee),
+                    OutilsTests.cout(carte, chemin), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que la recherche hiérarchique renvoie des chemins continus, du départ à l'arrivée, dont le coût
+ * ne dépasse celui d'un chemin optimal que du surcoût annoncé par frontière de bloc traversée, y compris
+ * après des modifications de la carte qui obligent à recalculer les blocs.
+ */
+class AlgorithmeHierarchiqueTest {
+    private static final int NOMBRE_CARTES = 200; // Nombre de cartes aléatoires
+    private static final int NOMBRE_REQUETES = 10; // Nombre de requêtes par carte
+
+    @Test
+    void surcoutAnnonce() {
+        // Blocs de 16 cases : entrées aux positions 0, 8 et 15, donc au plus 4 cases de l'entrée la plus proche.
+        AbstractionHierarchique abstraction = new AbstractionHierarchique(
+                OutilsTests.carteAleatoire(new Random(1), 40, 40), 16);
+        assertEquals(4 * 4 * 4 + 2 * (4 - 1), abstraction.getSurcoutMaximalParFrontiere());
+        abstraction.detacher();
+    }
+
+    @Test
+    void cheminsContinusEtBornesSurCartesAleatoires() {
+        Random aleatoire = new Random(10);
+        for (int i = 0; i < NOMBRE_CARTES; i++) {
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, 1 + aleatoire.nextInt(50), 1 + aleatoire.nextInt(50));
+            AlgorithmeHierarchique algorithme = new AlgorithmeHierarchique(1 + aleatoire.nextInt(16));
+            for (int q = 0; q < NOMBRE_REQUETES; q++) {
+                verifierChemin(algorithme, carte, aleatoire);
+            }
+            algorithme.getAbstraction(carte).detacher();
+        }
+    }
+
+    @Test
+    void cheminsContinusEtBornesApresModifications() {
+        Random aleatoire = new Random(4);
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, 64, 48);
+        AlgorithmeHierarchique algorithme = new AlgorithmeHierarchique(8);
+        AbstractionHierarchique abstraction = algorithme.getAbstraction(carte);
+        for (int i = 0; i < 300; i++) {
+            List<Case> chemin = verifierChemin(algorithme, carte, aleatoire);
+            // Une modification sur deux porte sur le chemin qui vient d'être trouvé.
+            Case modifiee = aleatoire.nextBoolean() ? chemin.get(aleatoire.nextInt(chemin.size()))
+                    : carte.getCase(aleatoire.nextInt(64), aleatoire.nextInt(48));
+            carte.setTuile(modifiee.getX(), modifiee.getY(), OutilsTests.tuileAleatoire(aleatoire));
+        }
+        // L'abstraction a été mise à jour bloc par bloc, sans être reconstruite.
+        assertSame(abstraction, algorithme.getAbstraction(carte));
+        abstraction.detacher();
+    }
+
+    @Test
+    void abstractionReconstruitePourUneAutreCarte() {
+        Random aleatoire = new Random(2);
+        Carte premiere = OutilsTests.carteAleatoire(aleatoire, 20, 20);
+        Carte seconde = OutilsTests.carteAleatoire(aleatoire, 30, 10);
+        AlgorithmeHierarchique algorithme = new AlgorithmeHierarchique(4);
+        AbstractionHierarchique abstraction = algorithme.getAbstraction(premiere);
+        assertNotSame(abstraction, algorithme.getAbstraction(seconde));
+        assertSame(seconde, algorithme.getAbstraction(seconde).getCarte());
+        verifierChemin(algorithme, seconde, aleatoire);
+        algorithme.getAbstraction(seconde).detacher();
+    }
+
+    @Test
+    void cheminVideHorsDeLaCarte() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(1), 5, 5);
+        AlgorithmeHierarchique algorithme = new AlgorithmeHierarchique(2);
+        assertTrue(algorithme.trouverChemin(carte, -1, 0, 4, 4).isEmpty());
+        assertTrue(algorithme.trouverChemin(carte, 0, 0, 4, 5).isEmpty());
+    }
+
+    /**
+     * Vérifie le chemin entre deux cases tirées au hasard : il relie le départ à l'arrivée par des cases voisines,
+     * et son coût reste compris entre le coût optimal et ce coût augmenté du surcoût maximal pour chaque frontière
+     * de bloc que traverse un chemin optimal.
+     * @param algorithme L'algorithme testé.
+     * @param carte La carte, dans son état actuel.
+     * @param aleatoire Le générateur aléatoire.
+     * @return Le chemin trouvé.
+     */
+    private static List<Case> verifierChemin(AlgorithmeHierarchique algorithme, Carte carte, Random aleatoire) {
+        int xDepart = aleatoire.nextInt(carte.getLargeur());
+        int yDepart = aleatoire.nextInt(carte.getHauteur());
+        int xArrivee = aleatoire.nextInt(carte.getLargeur());
+        int yArrivee = aleatoire.nextInt(carte.getHauteur());
+        List<Case> chemin = algorithme.trouverChemin(carte, xDepart, yDepart, xArrivee, yArrivee);
+        assertEquals(xDepart, chemin.get(0).getX());
+        assertEquals(yDepart, chemin.get(0).getY());
+        assertEquals(xArrivee, chemin.get(chemin.size() - 1).getX());
+        assertEquals(yArrivee, chemin.get(chemin.size() - 1).getY());
+        double cout = OutilsTests.cout(carte, chemin);
+
+        List<Case> optimal = ChampDistances.calculer(carte, xDepart, yDepart).getCheminVers(xArrivee, yArrivee);
+        double coutOptimal = OutilsTests.cout(carte, optimal);
+        int tailleCluster = algorithme.getTailleCluster();
+        int frontieres = 0;
+        for (int i = 1; i < optimal.size(); i++) {
+            if (optimal.get(i).getX() / tailleCluster != optimal.get(i - 1).getX() / tailleCluster
+                    || optimal.get(i).getY() / tailleCluster != optimal.get(i - 1).getY() / tailleCluster) {
+                frontieres++;
+            }
+        }
+        double borne = coutOptimal + frontieres * algorithme.getAbstraction(carte).getSurcoutMaximalParFrontiere();
+        String requete = "Chemin de (" + xDepart + ", " + yDepart + ") à (" + xArrivee + ", " + yArrivee + ")";
+        assertTrue(cout >= coutOptimal - 1e-9, requete);
+        assertTrue(cout <= borne + 1e-9, () -> requete + " : " + cout + " > " + borne);
+        return chemin;
+    }
+}
@@ -0,0 +1,116 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare les chemins de la recherche par points de saut aux distances de l'algorithme de Dijkstra,
+ * sur des cartes aléatoires tuile par tuile, sur des cartes faites de grandes régions et après modification.
+ */
+class AlgorithmeJPSTest {
+    private static final int NOMBRE_CARTES = 300; // Nombre de cartes aléatoires par test
+    private static final int NOMBRE_REQUETES = 5; // Nombre de requêtes par carte
+
+    @Test
+    void memeCoutQueDijkstraSurCartesAleatoires() {
+        Random aleatoire = new Random(9);
+        AlgorithmeJPS algorithme = new AlgorithmeJPS();
+        for (int i = 0; i < NOMBRE_CARTES; i++) {
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, 1 + aleatoire.nextInt(30), 1 + aleatoire.nextInt(30));
+            verifierRequetes(algorithme, carte, aleatoire);
+        }
+    }
+
+    @Test
+    void memeCoutQueDijkstraSurCartesARegions() {
+        Random aleatoire = new Random(42);
+        AlgorithmeJPS algorithme = new AlgorithmeJPS();
+        for (int i = 0; i < NOMBRE_CARTES; i++) {
+            Carte carte = carteARegions(aleatoire, 1 + aleatoire.nextInt(40), 1 + aleatoire.nextInt(40));
+            verifierRequetes(algorithme, carte, aleatoire);
+        }
+    }
+
+    @Test
+    void memeCoutQueDijkstraApresModifications() {
+        Random aleatoire = new Random(5);
+        AlgorithmeJPS algorithme = new AlgorithmeJPS();
+        Carte carte = carteARegions(aleatoire, 40, 30);
+        for (int i = 0; i < 200; i++) {
+            carte.setTuile(aleatoire.nextInt(40), aleatoire.nextInt(30), OutilsTests.tuileAleatoire(aleatoire));
+            verifierRequetes(algorithme, carte, aleatoire);
+        }
+    }
+
+    @Test
+    void cheminVideHorsDeLaCarte() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(1), 4, 4);
+        AlgorithmeJPS algorithme = new AlgorithmeJPS();
+        assertTrue(algorithme.trouverChemin(carte, -1, 0, 3, 3).isEmpty());
+        assertTrue(algorithme.trouverChemin(carte, 0, 0, 4, 3).isEmpty());
+    }
+
+    /**
+     * Vérifie quelques requêtes aléatoires sur une carte : le chemin relie le départ à l'arrivée par des cases
+     * voisines et son coût est celui de l'algorithme de Dijkstra.
+     * @param algorithme L'algorithme testé.
+     * @param carte La carte.
+     * @param aleatoire Le générateur aléatoire.
+     */
+    private static void verifierRequetes(AlgorithmeJPS algorithme, Carte carte, Random aleatoire) {
+        int largeur = carte.getLargeur();
+        int hauteur = carte.getHauteur();
+        for (int q = 0; q < NOMBRE_REQUETES; q++) {
+            int xDepart = aleatoire.nextInt(largeur);
+            int yDepart = aleatoire.nextInt(hauteur);
+            int xArrivee = aleatoire.nextInt(largeur);
+            int yArrivee = aleatoire.nextInt(hauteur);
+            List<Case> chemin = algorithme.trouverChemin(carte, xDepart, yDepart, xArrivee, yArrivee);
+            assertEquals(xDepart, chemin.get(0).getX());
+            assertEquals(yDepart, chemin.get(0).getY());
+            assertEquals(xArrivee, chemin.get(chemin.size() - 1).getX());
+            assertEquals(yArrivee, chemin.get(chemin.size() - 1).getY());
+            assertEquals(OutilsTests.distanceDijkstra(carte, xDepart, yDepart, xArrivee, yArrivee),
+                    OutilsTests.cout(carte, chemin), 1e-9,
+                    () -> "Chemin de (" + xDepart + ", " + yDepart + ") à (" + xArrivee + ", " + yArrivee + ")");
+        }
+    }
+
+    /**
+     * Crée une carte faite de rectangles de tuiles identiques posés sur un fond uniforme.
+     * @param aleatoire Le générateur aléatoire.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @return La carte créée.
+     */
+    private static Carte carteARegions(Random aleatoire, int largeur, int hauteur) {
+        Tuile[][] tuiles = new Tuile[largeur][hauteur];
+        Tuile fond = OutilsTests.tuileAleatoire(aleatoire);
+        for (Tuile[] colonne : tuiles) {
+            Arrays.fill(colonne, fond);
+        }
+        int tailleMaximale = Math.max(1, Math.max(largeur, hauteur) / 2);
+        int nombreRegions = aleatoire.nextInt(13);
+        for (int i = 0; i < nombreRegions; i++) {
+            int x0 = aleatoire.nextInt(largeur);
+            int y0 = aleatoire.nextInt(hauteur);
+            int x1 = Math.min(largeur, x0 + 1 + aleatoire.nextInt(tailleMaximale));
+            int y1 = Math.min(hauteur, y0 + 1 + aleatoire.nextInt(tailleMaximale));
+            Tuile tuile = OutilsTests.tuileAleatoire(aleatoire);
+            for (int x = x0; x < x1; x++) {
+                Arrays.fill(tuiles[x], y0, y1, tuile);
+            }
+        }
+        return new Carte(tuiles);
+    }
+}
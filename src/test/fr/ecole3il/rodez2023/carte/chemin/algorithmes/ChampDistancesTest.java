@@ -0,0 +1,137 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Chemin;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le champ de distances à plusieurs cibles : la recherche s'arrête dès que la dernière cible est établie,
+ * sans aller plus loin, chaque cible a la distance et le chemin du champ complet, et les cibles hors de la carte
+ * ou répétées ne retardent pas l'arrêt.
+ */
+class ChampDistancesTest {
+    private static final int NOMBRE_CHAMPS = 40; // Nombre de champs calculés sur cartes aléatoires
+
+    @Test
+    void arretDesQueLaDerniereCibleEstEtablie() {
+        // Sur une carte uniforme de désert, la distance d'une case est deux fois sa distance de Manhattan à la source.
+        Carte carte = carteUniforme(21, 21);
+        ChampDistances champ = ChampDistances.calculer(carte, 10, 10,
+                List.of(carte.getCase(12, 10), carte.getCase(10, 6)));
+        assertEquals(4.0, champ.getDistance(12, 10));
+        assertEquals(8.0, champ.getDistance(10, 6));
+
+        // Les cases plus proches que la cible la plus lointaine sont établies, aucune au-delà.
+        assertTrue(champ.getNombreEtablies() > 1 + 4 + 8 + 12, "Cases à au plus 3 pas");
+        assertTrue(champ.getNombreEtablies() <= 1 + 4 + 8 + 12 + 16, "Cases à au plus 4 pas");
+        assertTrue(champ.estEtablie(9, 8));
+        assertFalse(champ.estEtablie(10, 5));
+        assertFalse(champ.estEtablie(0, 0));
+        assertEquals(Double.POSITIVE_INFINITY, champ.getDistance(10, 5));
+        assertTrue(champ.getCheminVers(10, 5).isEmpty());
+        assertEquals(21 * 21, ChampDistances.calculer(carte, 10, 10).getNombreEtablies());
+    }
+
+    @Test
+    void memesDistancesEtCheminsQueLeChampComplet() {
+        Random aleatoire = new Random(12);
+        for (int i = 0; i < NOMBRE_CHAMPS; i++) {
+            int largeur = 1 + aleatoire.nextInt(30);
+            int hauteur = 1 + aleatoire.nextInt(30);
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, largeur, hauteur);
+            int xSource = aleatoire.nextInt(largeur);
+            int ySource = aleatoire.nextInt(hauteur);
+            List<Case> cibles = new ArrayList<>();
+            for (int c = 1 + aleatoire.nextInt(5); c > 0; c--) {
+                cibles.add(carte.getCase(aleatoire.nextInt(largeur), aleatoire.nextInt(hauteur)));
+            }
+            ChampDistances partiel = ChampDistances.calculer(carte, xSource, ySource, cibles);
+            ChampDistances complet = ChampDistances.calculer(carte, xSource, ySource);
+            assertTrue(partiel.getNombreEtablies() <= complet.getNombreEtablies());
+            for (Case cible : cibles) {
+                double distance = complet.getDistance(cible.getX(), cible.getY());
+                assertEquals(distance, partiel.getDistance(cible.getX(), cible.getY()), 1e-9);
+                List<Case> chemin = partiel.getCheminVers(cible.getX(), cible.getY());
+                assertEquals(xSource, chemin.get(0).getX());
+                assertEquals(ySource, chemin.get(0).getY());
+                assertEquals(cible.getX(), chemin.get(chemin.size() - 1).getX());
+                assertEquals(cible.getY(), chemin.get(chemin.size() - 1).getY());
+                assertEquals(distance, OutilsTests.cout(carte, chemin), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void ciblesHorsCarteOuRepeteesSansEffet() {
+        Carte carte = carteUniforme(10, 10);
+        // Sans cible à établir, seule la source l'est.
+        assertEquals(1, ChampDistances.calculer(carte, 5, 5, List.of()).getNombreEtablies());
+        assertEquals(1, ChampDistances.calculer(carte, 5, 5, List.of(new Case(Tuile.DESERT, 10, 3),
+                new Case(Tuile.DESERT, -1, 0))).getNombreEtablies());
+
+        // Une cible répétée n'est comptée qu'une fois : l'arrêt n'attend pas une seconde occurrence.
+        Case cible = carte.getCase(5, 7);
+        ChampDistances seule = ChampDistances.calculer(carte, 5, 5, List.of(cible));
+        ChampDistances repetee = ChampDistances.calculer(carte, 5, 5, List.of(cible, cible, new Case(Tuile.DESERT, 99, 99)));
+        assertEquals(seule.getNombreEtablies(), repetee.getNombreEtablies());
+        assertTrue(seule.getNombreEtablies() < 10 * 10);
+
+        assertThrows(IllegalArgumentException.class, () -> ChampDistances.calculer(carte, 10, 0, List.of(cible)));
+    }
+
+    @Test
+    void cheminsDeLAdaptateurDansLOrdreDesArrivees() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(13), 15, 12);
+        List<Case> arrivees = Arrays.asList(carte.getCase(14, 11), new Case(Tuile.DESERT, 15, 0),
+                carte.getCase(0, 0), carte.getCase(3, 9));
+        List<Chemin> chemins = AdaptateurAlgorithme.trouverChemins(carte, 0, 0, arrivees);
+        assertEquals(arrivees.size(), chemins.size());
+        assertTrue(chemins.get(1).getCases().isEmpty());
+        assertEquals(1, chemins.get(2).getCases().size());
+        for (int i : new int[] {0, 3}) {
+            Case arrivee = arrivees.get(i);
+            List<Case> chemin = chemins.get(i).getCases();
+            assertEquals(arrivee.getX(), chemin.get(chemin.size() - 1).getX());
+            assertEquals(arrivee.getY(), chemin.get(chemin.size() - 1).getY());
+            assertEquals(OutilsTests.distanceDijkstra(carte, 0, 0, arrivee.getX(), arrivee.getY()),
+                    OutilsTests.cout(carte, chemin), 1e-9);
+        }
+    }
+
+    @Test
+    void champPerimeApresModification() {
+        Carte carte = carteUniforme(5, 5);
+        ChampDistances champ = ChampDistances.calculer(carte, 0, 0);
+        assertTrue(champ.estAJour());
+        carte.setTuile(2, 2, Tuile.FORET);
+        assertFalse(champ.estAJour());
+    }
+
+    /**
+     * Crée une carte entièrement couverte de désert.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @return La carte créée.
+     */
+    private static Carte carteUniforme(int largeur, int hauteur) {
+        Tuile[][] tuiles = new Tuile[largeur][hauteur];
+        for (Tuile[] colonne : tuiles) {
+            Arrays.fill(colonne, Tuile.DESERT);
+        }
+        return new Carte(tuiles);
+    }
+}
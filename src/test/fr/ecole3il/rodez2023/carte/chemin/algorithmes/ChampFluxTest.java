@@ -0,0 +1,110 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compare les distances et les chemins d'un champ de flux, mis à jour incrémentalement après chaque modification
+ * de la carte, aux distances de l'algorithme de Dijkstra calculées sur la carte modifiée.
+ */
+class ChampFluxTest {
+    private static final int NOMBRE_CARTES = 120; // Nombre de cartes aléatoires
+    private static final int NOMBRE_MODIFICATIONS = 30; // Nombre de modifications par carte
+    private static final int NOMBRE_REQUETES = 8; // Nombre de cases vérifiées après chaque modification
+
+    @Test
+    void memesDistancesQueDijkstraApresModifications() {
+        Random aleatoire = new Random(11);
+        for (int i = 0; i < NOMBRE_CARTES; i++) {
+            int largeur = 1 + aleatoire.nextInt(25);
+            int hauteur = 1 + aleatoire.nextInt(25);
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, largeur, hauteur);
+            int xArrivee = aleatoire.nextInt(largeur);
+            int yArrivee = aleatoire.nextInt(hauteur);
+            ChampFlux champ = new ChampFlux(carte, xArrivee, yArrivee);
+            for (int m = 0; m <= NOMBRE_MODIFICATIONS; m++) {
+                if (m > 0) {
+                    // Une modification sur cinq porte sur l'arrivée elle-même.
+                    boolean surArrivee = aleatoire.nextInt(5) == 0;
+                    carte.setTuile(surArrivee ? xArrivee : aleatoire.nextInt(largeur),
+                            surArrivee ? yArrivee : aleatoire.nextInt(hauteur), OutilsTests.tuileAleatoire(aleatoire));
+                }
+                for (int q = 0; q < NOMBRE_REQUETES; q++) {
+                    verifierCase(champ, carte, aleatoire.nextInt(largeur), aleatoire.nextInt(hauteur), xArrivee, yArrivee);
+                }
+            }
+            champ.detacher();
+        }
+    }
+
+    @Test
+    void nePlusSuivreLaCarteApresDetachement() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(3), 10, 10);
+        ChampFlux champ = new ChampFlux(carte, 0, 0);
+        carte.setTuile(9, 9, Tuile.DESERT);
+        carte.setTuile(9, 8, Tuile.DESERT);
+        double distance = champ.getDistance(9, 9);
+        champ.detacher();
+        carte.setTuile(9, 9, Tuile.FORET);
+        assertEquals(distance, champ.getDistance(9, 9));
+    }
+
+    @Test
+    void arriveeHorsDeLaCarteRefusee() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(3), 4, 4);
+        assertThrows(IllegalArgumentException.class, () -> new ChampFlux(carte, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ChampFlux(carte, 0, -1));
+    }
+
+    @Test
+    void caseHorsDeLaCarteRefusee() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(3), 4, 4);
+        ChampFlux champ = new ChampFlux(carte, 1, 1);
+        // (4, 0) désignerait sinon la case (0, 1) de la ligne suivante.
+        assertThrows(IllegalArgumentException.class, () -> champ.getDirection(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> champ.getDistance(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> champ.getChemin(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> champ.getSuivante(2, -1));
+        champ.detacher();
+    }
+
+    /**
+     * Vérifie la distance, le prochain pas et le chemin d'une case.
+     * @param champ Le champ de flux.
+     * @param carte La carte, dans son état actuel.
+     * @param x La coordonnée x de la case.
+     * @param y La coordonnée y de la case.
+     * @param xArrivee La coordonnée x de l'arrivée.
+     * @param yArrivee La coordonnée y de l'arrivée.
+     */
+    private static void verifierCase(ChampFlux champ, Carte carte, int x, int y, int xArrivee, int yArrivee) {
+        double attendue = OutilsTests.distanceDijkstra(carte, x, y, xArrivee, yArrivee);
+        assertEquals(attendue, champ.getDistance(x, y), 1e-9, () -> "Distance de (" + x + ", " + y + ")");
+
+        List<Case> chemin = champ.getChemin(x, y);
+        assertEquals(x, chemin.get(0).getX());
+        assertEquals(y, chemin.get(0).getY());
+        assertEquals(xArrivee, chemin.get(chemin.size() - 1).getX());
+        assertEquals(yArrivee, chemin.get(chemin.size() - 1).getY());
+        assertEquals(attendue, OutilsTests.cout(carte, chemin), 1e-9, () -> "Chemin de (" + x + ", " + y + ")");
+
+        Case suivante = champ.getSuivante(x, y);
+        if (chemin.size() == 1) {
+            assertNull(suivante);
+            assertEquals(ChampFlux.ARRIVEE, champ.getDirection(x, y));
+        } else {
+            assertEquals(chemin.get(1).getX(), suivante.getX());
+            assertEquals(chemin.get(1).getY(), suivante.getY());
+        }
+    }
+}
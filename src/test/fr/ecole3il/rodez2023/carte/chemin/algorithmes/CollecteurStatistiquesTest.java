@@ -0,0 +1,108 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le collecteur de statistiques et son exposition JMX : mesures agrégées à partir des recherches publiées,
+ * attributs lus et remise à zéro demandée par le serveur de MBeans, et installation puis désinstallation
+ * qui activent puis désactivent l'instrumentation.
+ */
+class CollecteurStatistiquesTest {
+    private static final String NOM = "CollecteurStatistiquesTest"; // Nom JMX du collecteur installé
+
+    private CollecteurStatistiques collecteur; // Collecteur installé par le test, ou null
+
+    @AfterEach
+    void desinstaller() throws JMException {
+        if (collecteur != null) {
+            collecteur.desinstaller();
+        }
+    }
+
+    @Test
+    void mesuresAgregees() {
+        CollecteurStatistiques local = new CollecteurStatistiques();
+        StatistiquesRecherche trouvee = new StatistiquesRecherche("A", 2000, 5);
+        trouvee.compterNoeuds(10, 8, 30);
+        StatistiquesRecherche introuvable = new StatistiquesRecherche("B", 4000, 0);
+        introuvable.compterNoeuds(6, 6, 20);
+        local.rechercheTerminee(trouvee);
+        local.rechercheTerminee(introuvable);
+        local.grapheConstruit(100, 7);
+
+        assertEquals(2, local.getNombreRecherches());
+        assertEquals(1, local.getNombreCheminsIntrouvables());
+        assertEquals(1, local.getNombreConstructions());
+        assertEquals(6, local.getNoeudsEtablis().getMinimum());
+        assertEquals(10, local.getNoeudsEtablis().getMaximum());
+        assertEquals(25.0, local.getRelachements().getMoyenne());
+        assertEquals(7, local.getDureeConstruction().getMaximum());
+        CollecteurStatistiques.Instantane instantane = local.getInstantane();
+        assertEquals(2, instantane.getNombreRecherches());
+        assertEquals(8, instantane.getResume(CollecteurStatistiques.Mesure.NOEUDS_DEVELOPPES).getMaximum());
+
+        local.reinitialiser();
+        assertEquals(0, local.getNombreRecherches());
+        assertEquals(0, local.getNombreCheminsIntrouvables());
+        // L'instantané pris avant la remise à zéro n'est pas modifié.
+        assertEquals(2, instantane.getNombreRecherches());
+    }
+
+    @Test
+    void attributsLusParJMX() throws Exception {
+        collecteur = CollecteurStatistiques.installer(NOM);
+        assertTrue(Instrumentation.estActive());
+        MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nom = collecteur.getNomJMX();
+        assertTrue(serveur.isRegistered(nom));
+        assertEquals(new ObjectName("fr.ecole3il.rodez2023.carte:type=StatistiquesRecherche,name=\"" + NOM + "\""), nom);
+
+        Carte carte = OutilsTests.carteAleatoire(new Random(3), 20, 20);
+        for (int i = 0; i < 5; i++) {
+            AdaptateurAlgorithme.trouverChemin(new AlgorithmeAEtoile<>(), carte, 0, 0, 19, i);
+        }
+        assertEquals(5L, serveur.getAttribute(nom, "NombreRecherches"));
+        assertEquals(0L, serveur.getAttribute(nom, "NombreCheminsIntrouvables"));
+        CompositeData duree = (CompositeData) serveur.getAttribute(nom, "DureeRecherche");
+        assertEquals(5L, duree.get("nombre"));
+        assertTrue((Long) duree.get("percentile99") <= (Long) duree.get("maximum"));
+        CompositeData developpes = (CompositeData) serveur.getAttribute(nom, "NoeudsDeveloppes");
+        assertTrue((Long) developpes.get("minimum") > 0);
+
+        serveur.invoke(nom, "reinitialiser", null, null);
+        assertEquals(0L, serveur.getAttribute(nom, "NombreRecherches"));
+    }
+
+    @Test
+    void installationEtDesinstallation() throws JMException {
+        collecteur = CollecteurStatistiques.installer(NOM);
+        ObjectName nom = collecteur.getNomJMX();
+        // Un collecteur ne s'enregistre qu'une fois, et un nom déjà pris est refusé.
+        assertThrows(IllegalStateException.class, () -> collecteur.enregistrerMBean("autre"));
+        assertThrows(JMException.class, () -> CollecteurStatistiques.installer(NOM));
+        assertTrue(Instrumentation.estActive());
+
+        collecteur.desinstaller();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(nom));
+        assertNull(collecteur.getNomJMX());
+        assertFalse(Instrumentation.estActive());
+        collecteur = null;
+    }
+}
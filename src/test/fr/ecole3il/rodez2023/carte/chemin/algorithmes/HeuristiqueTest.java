@@ -0,0 +1,112 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie les heuristiques de A* : valeurs des distances de Manhattan et euclidienne, admissibilité et consistance
+ * de la distance de Manhattan, borne de sous-optimalité de l'heuristique pondérée, et heuristique par défaut
+ * utilisable sur un graphe dont les valeurs ne sont pas des cases.
+ */
+class HeuristiqueTest {
+    private static final int NOMBRE_REQUETES = 200; // Nombre de requêtes sur cartes aléatoires
+    private static final double EPSILON = 0.5; // Sous-optimalité tolérée par l'heuristique pondérée
+
+    @Test
+    void valeursDesDistances() {
+        Case depart = new Case(Tuile.PLAINE, 1, 2);
+        Case arrivee = new Case(Tuile.FORET, 4, 6);
+        // Le plus petit pas coûte deux fois la pénalité du désert.
+        assertEquals(2.0 * 7, Heuristique.manhattan().estimer(depart, arrivee));
+        assertEquals(2.0 * 5, Heuristique.euclidienne().estimer(depart, arrivee), 1e-12);
+        assertEquals(3.0 * 7, Heuristique.manhattan(3.0).estimer(depart, arrivee));
+        assertEquals(0.0, Heuristique.nulle().estimer(depart, arrivee));
+        assertEquals(1.25 * 14, Heuristique.ponderee(Heuristique.manhattan(), 0.25).estimer(depart, arrivee));
+        assertEquals(14.0, Heuristique.<Case>parDefaut().estimer(depart, arrivee));
+
+        // Sans désert sur la carte, le plus petit pas coûte deux fois la pénalité de la plaine.
+        Tuile[][] tuiles = {{Tuile.PLAINE, Tuile.FORET}, {Tuile.MONTAGNES, Tuile.PLAINE}};
+        assertEquals(4.0 * 7, Heuristique.manhattan(new Carte(tuiles)).estimer(depart, arrivee));
+    }
+
+    @Test
+    void manhattanAdmissibleEtConsistante() {
+        Random aleatoire = new Random(31);
+        Heuristique<Case> manhattan = Heuristique.manhattan();
+        Heuristique<Case> euclidienne = Heuristique.euclidienne();
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, 30, 20);
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            Case courante = carte.getCase(aleatoire.nextInt(30), aleatoire.nextInt(20));
+            Case cible = carte.getCase(aleatoire.nextInt(30), aleatoire.nextInt(20));
+            double distance = OutilsTests.distanceDijkstra(carte, courante.getX(), courante.getY(),
+                    cible.getX(), cible.getY());
+            assertTrue(manhattan.estimer(courante, cible) <= distance);
+            assertTrue(euclidienne.estimer(courante, cible) <= manhattan.estimer(courante, cible) + 1e-9);
+
+            // Consistance : h(u) ≤ c(u, v) + h(v) pour la voisine de droite, si elle existe.
+            if (courante.getX() + 1 < 30) {
+                Case voisine = carte.getCase(courante.getX() + 1, courante.getY());
+                double cout = courante.getTuile().getPenalite() + voisine.getTuile().getPenalite();
+                assertTrue(manhattan.estimer(courante, cible) <= cout + manhattan.estimer(voisine, cible));
+            }
+        }
+    }
+
+    @Test
+    void pondereeBorneeParUnPlusEpsilon() {
+        Random aleatoire = new Random(32);
+        AlgorithmeAEtoile<Case> pondere = new AlgorithmeAEtoile<>(Heuristique.ponderee(Heuristique.manhattan(), EPSILON));
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, 40, 40);
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            int xDepart = aleatoire.nextInt(40);
+            int yDepart = aleatoire.nextInt(40);
+            int xArrivee = aleatoire.nextInt(40);
+            int yArrivee = aleatoire.nextInt(40);
+            List<Case> chemin = AdaptateurAlgorithme.trouverChemin(pondere, carte, xDepart, yDepart, xArrivee, yArrivee)
+                    .getCases();
+            double cout = OutilsTests.cout(carte, chemin);
+            double optimal = OutilsTests.distanceDijkstra(carte, xDepart, yDepart, xArrivee, yArrivee);
+            assertTrue(cout >= optimal - 1e-9);
+            assertTrue(cout <= (1 + EPSILON) * optimal + 1e-9, () -> cout + " > (1 + " + EPSILON + ") * " + optimal);
+        }
+    }
+
+    @Test
+    void ponderationNegativeRefusee() {
+        assertThrows(IllegalArgumentException.class, () -> Heuristique.ponderee(Heuristique.manhattan(), -0.1));
+        assertThrows(IllegalArgumentException.class, () -> Heuristique.ponderee(Heuristique.manhattan(), Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new AlgorithmeAEtoile<Case>(null));
+    }
+
+    @Test
+    void heuristiqueParDefautSurDesValeursQuiNeSontPasDesCases() {
+        // Un graphe de villes : l'heuristique par défaut est nulle et A* donne le chemin de Dijkstra.
+        Graphe<String> graphe = new Graphe<>();
+        Noeud<String> rodez = new Noeud<>("Rodez");
+        Noeud<String> albi = new Noeud<>("Albi");
+        Noeud<String> millau = new Noeud<>("Millau");
+        Noeud<String> toulouse = new Noeud<>("Toulouse");
+        graphe.ajouterArete(rodez, toulouse, 150);
+        graphe.ajouterArete(rodez, albi, 75);
+        graphe.ajouterArete(albi, toulouse, 70);
+        graphe.ajouterArete(rodez, millau, 65);
+        assertEquals(0.0, Heuristique.<String>parDefaut().estimer("Rodez", "Toulouse"));
+
+        List<Noeud<String>> chemin = new AlgorithmeAEtoile<String>().trouverChemin(graphe, rodez, toulouse);
+        assertEquals(List.of(rodez, albi, toulouse), chemin);
+        assertEquals(chemin, new AlgorithmeDjikstra<String>().trouverChemin(graphe, rodez, toulouse));
+    }
+}
@@ -0,0 +1,145 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie la relecture d'une hiérarchie de contraction sérialisée, et le refus des flux dont les rangs,
+ * les débuts d'arêtes ou les extrémités d'arêtes sont incohérents.
+ */
+class HierarchieContractionTest {
+    private static final int LARGEUR = 6; // Largeur de la carte sérialisée
+    private static final int HAUTEUR = 4; // Hauteur de la carte sérialisée
+    private static final int NOMBRE_NOEUDS = LARGEUR * HAUTEUR; // Nombre de noeuds de la hiérarchie
+    private static final int POSITION_RANGS = 20; // Signature, version, empreinte et nombre de noeuds
+    private static final int POSITION_DEBUTS = POSITION_RANGS + 4 * NOMBRE_NOEUDS + 4; // Après le nombre d'arêtes montantes
+    private static final int POSITION_ARETES = POSITION_DEBUTS + 4 * (NOMBRE_NOEUDS + 1); // Première arête montante
+
+    @Test
+    void hierarchieRelue() throws IOException {
+        Carte carte = OutilsTests.carteAleatoire(new Random(3), 17, 11);
+        HierarchieContraction hierarchie = HierarchieContraction.depuisCarte(carte);
+        HierarchieContraction relue = relire(ecrire(hierarchie));
+        assertEquals(hierarchie.getNombreNoeuds(), relue.getNombreNoeuds());
+        assertEquals(hierarchie.getNombreAretes(), relue.getNombreAretes());
+        assertEquals(hierarchie.getEmpreinteGraphe(), relue.getEmpreinteGraphe());
+        for (int n = 0; n < hierarchie.getNombreNoeuds(); n++) {
+            assertEquals(hierarchie.getRang(n), relue.getRang(n));
+        }
+        assertArrayEquals(ecrire(hierarchie), ecrire(relue));
+    }
+
+    @Test
+    void rangsIncoherentsRefuses() throws IOException {
+        byte[] octets = ecrire(HierarchieContraction.depuisCarte(petiteCarte()));
+        assertThrows(IOException.class, () -> relire(Arrays.copyOf(octets, octets.length - 1)));
+
+        byte[] horsLimites = octets.clone();
+        ByteBuffer.wrap(horsLimites).putInt(POSITION_RANGS, NOMBRE_NOEUDS);
+        assertThrows(IOException.class, () -> relire(horsLimites));
+
+        byte[] negatif = octets.clone();
+        ByteBuffer.wrap(negatif).putInt(POSITION_RANGS, -1);
+        assertThrows(IOException.class, () -> relire(negatif));
+
+        byte[] repete = octets.clone();
+        ByteBuffer tampon = ByteBuffer.wrap(repete);
+        tampon.putInt(POSITION_RANGS, tampon.getInt(POSITION_RANGS + 4));
+        assertThrows(IOException.class, () -> relire(repete));
+    }
+
+    @Test
+    void debutsIncoherentsRefuses() throws IOException {
+        byte[] octets = ecrire(HierarchieContraction.depuisCarte(petiteCarte()));
+        byte[] decroissants = octets.clone();
+        ByteBuffer.wrap(decroissants).putInt(POSITION_DEBUTS + 4, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> relire(decroissants));
+
+        byte[] fin = octets.clone();
+        ByteBuffer tampon = ByteBuffer.wrap(fin);
+        int position = POSITION_DEBUTS + 4 * NOMBRE_NOEUDS;
+        tampon.putInt(position, tampon.getInt(position) - 1);
+        assertThrows(IOException.class, () -> relire(fin));
+    }
+
+    @Test
+    void aretesIncoherentesRefusees() throws IOException {
+        byte[] octets = ecrire(HierarchieContraction.depuisCarte(petiteCarte()));
+        byte[] cible = octets.clone();
+        ByteBuffer.wrap(cible).putInt(POSITION_ARETES, NOMBRE_NOEUDS);
+        assertThrows(IOException.class, () -> relire(cible));
+
+        // Une arête montante vers le noeud qui la porte ne monte pas dans la hiérarchie.
+        byte[] boucle = octets.clone();
+        ByteBuffer.wrap(boucle).putInt(POSITION_ARETES, premierNoeudAvecArete(octets));
+        assertThrows(IOException.class, () -> relire(boucle));
+
+        byte[] cout = octets.clone();
+        ByteBuffer.wrap(cout).putFloat(POSITION_ARETES + 4, Float.NaN);
+        assertThrows(IOException.class, () -> relire(cout));
+
+        byte[] milieu = octets.clone();
+        ByteBuffer.wrap(milieu).putInt(POSITION_ARETES + 8, NOMBRE_NOEUDS);
+        assertThrows(IOException.class, () -> relire(milieu));
+    }
+
+    /**
+     * Crée la carte aléatoire dont les hiérarchies sont altérées.
+     * @return La carte créée.
+     */
+    private static Carte petiteCarte() {
+        return OutilsTests.carteAleatoire(new Random(5), LARGEUR, HAUTEUR);
+    }
+
+    /**
+     * Cherche le noeud qui porte la première arête montante d'une hiérarchie sérialisée.
+     * @param octets Les octets de la hiérarchie.
+     * @return Le premier noeud dont la liste d'arêtes montantes n'est pas vide.
+     */
+    private static int premierNoeudAvecArete(byte[] octets) {
+        ByteBuffer tampon = ByteBuffer.wrap(octets);
+        int noeud = 0;
+        while (tampon.getInt(POSITION_DEBUTS + 4 * (noeud + 1)) == 0) {
+            noeud++;
+        }
+        return noeud;
+    }
+
+    /**
+     * Sérialise une hiérarchie.
+     * @param hierarchie La hiérarchie.
+     * @return Les octets écrits.
+     * @throws IOException Si l'écriture échoue.
+     */
+    private static byte[] ecrire(HierarchieContraction hierarchie) throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            hierarchie.ecrire(sortie);
+        }
+        return octets.toByteArray();
+    }
+
+    /**
+     * Relit une hiérarchie sérialisée.
+     * @param octets Les octets de la hiérarchie.
+     * @return La hiérarchie relue.
+     * @throws IOException Si les octets ne forment pas une hiérarchie valide.
+     */
+    private static HierarchieContraction relire(byte[] octets) throws IOException {
+        return HierarchieContraction.lire(new DataInputStream(new ByteArrayInputStream(octets)));
+    }
+}
@@ -0,0 +1,94 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie l'histogramme log-linéaire : intervalles contigus couvrant toutes les valeurs d'un long, valeurs
+ * inférieures à 16 exactes, percentiles à moins de 12,5 % de la valeur exacte, et remise à zéro.
+ */
+class HistogrammeTest {
+    private static final double ERREUR_RELATIVE = 0.125; // Erreur relative maximale d'un percentile
+
+    @Test
+    void intervallesContigusSurTousLesLong() {
+        assertEquals(0, Histogramme.getIntervalle(0));
+        for (int intervalle = 1; intervalle <= Histogramme.getIntervalle(Long.MAX_VALUE); intervalle++) {
+            long debut = Histogramme.getBorneSuperieure(intervalle - 1) + 1;
+            long fin = Histogramme.getBorneSuperieure(intervalle);
+            assertTrue(fin >= debut, "Intervalle " + intervalle);
+            assertEquals(intervalle, Histogramme.getIntervalle(debut));
+            assertEquals(intervalle, Histogramme.getIntervalle(fin));
+            // La largeur d'un intervalle ne dépasse pas 12,5 % de ses valeurs.
+            assertTrue(fin - debut <= ERREUR_RELATIVE * debut, "Intervalle " + intervalle);
+        }
+        assertEquals(Long.MAX_VALUE, Histogramme.getBorneSuperieure(Histogramme.getIntervalle(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void petitesValeursExactes() {
+        Histogramme histogramme = new Histogramme();
+        for (int valeur = 0; valeur < 16; valeur++) {
+            histogramme.enregistrer(valeur);
+        }
+        histogramme.enregistrer(-5); // Compté comme 0
+        Histogramme.Resume resume = histogramme.getResume();
+        assertEquals(17, resume.getNombre());
+        assertEquals(0, resume.getMinimum());
+        assertEquals(15, resume.getMaximum());
+        assertEquals(120.0 / 17, resume.getMoyenne(), 1e-12);
+        assertEquals(7, resume.getMediane());
+        assertEquals(15, resume.getPercentile99());
+    }
+
+    @Test
+    void percentilesAMoinsDe12Pourcent() {
+        Random aleatoire = new Random(23);
+        Histogramme histogramme = new Histogramme();
+        long[] valeurs = new long[100000];
+        for (int i = 0; i < valeurs.length; i++) {
+            // Durées étalées sur plusieurs ordres de grandeur.
+            valeurs[i] = (long) Math.exp(aleatoire.nextDouble() * 20);
+            histogramme.enregistrer(valeurs[i]);
+        }
+        Arrays.sort(valeurs);
+        Histogramme.Resume resume = histogramme.getResume();
+        assertEquals(valeurs.length, resume.getNombre());
+        assertEquals(valeurs[0], resume.getMinimum());
+        assertEquals(valeurs[valeurs.length - 1], resume.getMaximum());
+        verifierPercentile(valeurs, 50, resume.getMediane());
+        verifierPercentile(valeurs, 90, resume.getPercentile90());
+        verifierPercentile(valeurs, 99, resume.getPercentile99());
+        verifierPercentile(valeurs, 99.9, resume.getPercentile999());
+    }
+
+    @Test
+    void remiseAZero() {
+        Histogramme histogramme = new Histogramme();
+        histogramme.enregistrer(1000);
+        histogramme.reinitialiser();
+        assertEquals(0, histogramme.getNombre());
+        assertEquals(0, histogramme.getResume().getNombre());
+        histogramme.enregistrer(3);
+        assertEquals(3, histogramme.getResume().getMinimum());
+        assertEquals(3, histogramme.getResume().getMaximum());
+    }
+
+    /**
+     * Vérifie qu'un percentile de l'histogramme n'est pas inférieur au percentile exact et le dépasse
+     * d'au plus l'erreur relative annoncée.
+     * @param valeurs Les valeurs enregistrées, triées.
+     * @param pourcentage Le percentile.
+     * @param obtenu Le percentile calculé par l'histogramme.
+     */
+    private static void verifierPercentile(long[] valeurs, double pourcentage, long obtenu) {
+        long exact = valeurs[(int) Math.ceil(pourcentage / 100 * valeurs.length) - 1];
+        assertTrue(obtenu >= exact && obtenu <= exact * (1 + ERREUR_RELATIVE),
+                () -> "Percentile " + pourcentage + " : " + obtenu + " au lieu de " + exact);
+    }
+}
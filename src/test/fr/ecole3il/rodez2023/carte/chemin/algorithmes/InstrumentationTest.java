@@ -0,0 +1,131 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Graphe;
+import fr.ecole3il.rodez2023.carte.elements.Noeud;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie l'instrumentation des recherches : active seulement tant qu'un écouteur est enregistré, une publication
+ * par recherche avec les compteurs exacts du moteur, et une publication par construction de graphe.
+ */
+class InstrumentationTest {
+    private static final int LONGUEUR = 10; // Nombre de cases de la carte en ligne
+
+    private final List<StatistiquesRecherche> recherches = new CopyOnWriteArrayList<>(); // Recherches publiées
+    private final List<Integer> constructions = new CopyOnWriteArrayList<>(); // Tailles des graphes construits
+    private final EcouteurRecherche ecouteur = new EcouteurRecherche() { // Écouteur enregistrant les publications
+        @Override
+        public void rechercheTerminee(StatistiquesRecherche statistiques) {
+            recherches.add(statistiques);
+        }
+
+        @Override
+        public void grapheConstruit(int nombreNoeuds, long duree) {
+            constructions.add(nombreNoeuds);
+        }
+    };
+
+    @AfterEach
+    void retirerEcouteur() {
+        Instrumentation.retirerEcouteur(ecouteur);
+    }
+
+    @Test
+    void activeTantQuUnEcouteurEstEnregistre() {
+        assertFalse(Instrumentation.estActive());
+        EcouteurRecherche autre = statistiques -> { };
+        Instrumentation.ajouterEcouteur(ecouteur);
+        Instrumentation.ajouterEcouteur(autre);
+        assertTrue(Instrumentation.estActive());
+        Instrumentation.retirerEcouteur(ecouteur);
+        assertTrue(Instrumentation.estActive());
+        Instrumentation.retirerEcouteur(autre);
+        assertFalse(Instrumentation.estActive());
+        assertThrows(IllegalArgumentException.class, () -> Instrumentation.ajouterEcouteur(null));
+    }
+
+    @Test
+    void rienPublieSansEcouteur() {
+        Carte carte = carteEnLigne();
+        AdaptateurAlgorithme.trouverChemin(new AlgorithmeDjikstra<>(), carte, 0, 0, LONGUEUR - 1, 0);
+        Instrumentation.ajouterEcouteur(ecouteur);
+        Instrumentation.retirerEcouteur(ecouteur);
+        AdaptateurAlgorithme.trouverChemin(new AlgorithmeAEtoile<>(), carte, 0, 0, LONGUEUR - 1, 0);
+        assertTrue(recherches.isEmpty());
+        assertTrue(constructions.isEmpty());
+    }
+
+    @Test
+    void compteursExactsDeDijkstra() {
+        Instrumentation.ajouterEcouteur(ecouteur);
+        Carte carte = carteEnLigne();
+        AdaptateurAlgorithme.trouverChemin(new AlgorithmeDjikstra<>(), carte, 0, 0, LONGUEUR - 1, 0);
+        AdaptateurAlgorithme.trouverChemin(new AlgorithmeDjikstra<>(), carte, 0, 0, LONGUEUR - 1, 0);
+
+        // Le graphe n'est construit qu'une fois, puis réutilisé par la seconde recherche.
+        assertEquals(List.of(LONGUEUR), constructions);
+        assertEquals(2, recherches.size());
+        StatistiquesRecherche statistiques = recherches.get(0);
+        assertEquals("AlgorithmeDjikstra", statistiques.getAlgorithme());
+        assertTrue(statistiques.estCheminTrouve());
+        assertEquals(LONGUEUR, statistiques.getLongueurChemin());
+        assertTrue(statistiques.getDureeRecherche() >= 0);
+        // Chaque case est établie ; toutes sauf l'arrivée sont développées, la première n'ayant qu'une voisine.
+        assertEquals(LONGUEUR, statistiques.getNoeudsEtablis());
+        assertEquals(LONGUEUR - 1, statistiques.getNoeudsDeveloppes());
+        assertEquals(1 + 2 * (LONGUEUR - 2), statistiques.getRelachements());
+        assertEquals(LONGUEUR, statistiques.getInsertionsTas());
+        assertEquals(LONGUEUR, statistiques.getExtractionsTas());
+        assertEquals(1, statistiques.getTailleMaximaleOuverts());
+    }
+
+    @Test
+    void rechercheSansCheminPubliee() {
+        Instrumentation.ajouterEcouteur(ecouteur);
+        Graphe<String> graphe = new Graphe<>();
+        Noeud<String> depart = new Noeud<>("départ");
+        Noeud<String> isole = new Noeud<>("isolé");
+        graphe.ajouterArete(depart, new Noeud<>("voisin"), 1);
+        graphe.ajouterNoeud(isole);
+        List<String> algorithmes = new ArrayList<>();
+        for (AlgorithmeChemin<String> algorithme : Arrays.<AlgorithmeChemin<String>>asList(new AlgorithmeDjikstra<>(),
+                new AlgorithmeAEtoile<>(), new AlgorithmeDjikstraBidirectionnel<>(),
+                new AlgorithmeAEtoileBidirectionnel<>())) {
+            assertTrue(algorithme.trouverChemin(graphe, depart, isole).isEmpty());
+            algorithmes.add(algorithme.getClass().getSimpleName());
+        }
+        assertEquals(algorithmes.size(), recherches.size());
+        for (int i = 0; i < recherches.size(); i++) {
+            assertEquals(algorithmes.get(i), recherches.get(i).getAlgorithme());
+            assertFalse(recherches.get(i).estCheminTrouve());
+            assertEquals(0, recherches.get(i).getLongueurChemin());
+        }
+    }
+
+    /**
+     * Crée une carte d'une seule ligne de désert.
+     * @return La carte créée.
+     */
+    private static Carte carteEnLigne() {
+        Tuile[][] tuiles = new Tuile[LONGUEUR][1];
+        for (Tuile[] colonne : tuiles) {
+            Arrays.fill(colonne, Tuile.DESERT);
+        }
+        return new Carte(tuiles);
+    }
+}
@@ -0,0 +1,103 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le moteur A* : réouverture d'un noeud fermé dont le coût s'améliore sous une heuristique admissible
+ * mais non consistante, clé diminuée d'un noeud ouvert, recherches réduites par une bonne heuristique, arrivée
+ * inaccessible, et tableaux réutilisés d'une recherche à l'autre.
+ */
+class MoteurAEtoileTest {
+    private static final HeuristiqueIndexee NULLE = (noeud, cible) -> 0; // Heuristique réduisant A* à Dijkstra
+
+    @Test
+    void noeudFermeRouvertSousUneHeuristiqueNonConsistante() {
+        // 0 -> 2 coûte 3 mais le détour 0 -> 1 -> 2 seulement 2. L'estimation 6 de 1, exacte donc admissible,
+        // fait développer 2 avant 1 : 2 est fermé avec le coût 3, puis rouvert lorsque 1 le ramène à 2.
+        GrapheCompact graphe = OutilsTests.graphe(4,
+                new int[] {0, 1, 1}, new int[] {0, 2, 3}, new int[] {1, 2, 1}, new int[] {2, 3, 5});
+        HeuristiqueIndexee nonConsistante = (noeud, cible) -> noeud == 1 ? 6 : 0;
+        MoteurAEtoile moteur = new MoteurAEtoile();
+        assertArrayEquals(new int[] {0, 1, 2, 3}, moteur.rechercher(graphe, 0, 3, nonConsistante));
+        assertEquals(7.0, moteur.getCout(3));
+        // 0, 2, 1 puis 2 à nouveau.
+        assertEquals(4, moteur.getNombreExpansions());
+    }
+
+    @Test
+    void cleDiminueeDUnNoeudOuvert() {
+        // 2 est d'abord atteint directement pour 10, puis par 1 pour 2, avant d'être développé.
+        GrapheCompact graphe = OutilsTests.graphe(4,
+                new int[] {0, 2, 10}, new int[] {0, 1, 1}, new int[] {1, 2, 1}, new int[] {2, 3, 1});
+        MoteurAEtoile moteur = new MoteurAEtoile();
+        assertArrayEquals(new int[] {0, 1, 2, 3}, moteur.rechercher(graphe, 0, 3, NULLE));
+        assertEquals(3.0, moteur.getCout(3));
+        assertEquals(3, moteur.getNombreExpansions());
+    }
+
+    @Test
+    void bonneHeuristiqueReduitLesExpansions() {
+        // Carte uniforme de désert : chaque pas coûte 2, et deux fois la distance de Manhattan est exacte.
+        Tuile[][] tuiles = new Tuile[40][40];
+        for (Tuile[] colonne : tuiles) {
+            Arrays.fill(colonne, Tuile.DESERT);
+        }
+        GrapheCompact graphe = GrapheCompact.depuisCarte(new Carte(tuiles));
+        HeuristiqueIndexee manhattan = (noeud, cible) ->
+                2 * (Math.abs(noeud % 40 - cible % 40) + Math.abs(noeud / 40 - cible / 40));
+        MoteurAEtoile moteur = new MoteurAEtoile();
+        int depart = 5 * 40 + 5;
+        int arrivee = 30 * 40 + 35;
+
+        int[] sansHeuristique = moteur.rechercher(graphe, depart, arrivee, NULLE);
+        int expansionsSansHeuristique = moteur.getNombreExpansions();
+        int[] avecHeuristique = moteur.rechercher(graphe, depart, arrivee, manhattan);
+        assertEquals(sansHeuristique.length, avecHeuristique.length);
+        assertEquals(2.0 * (25 + 30), moteur.getCout(arrivee));
+        assertTrue(moteur.getNombreExpansions() < expansionsSansHeuristique / 4,
+                () -> moteur.getNombreExpansions() + " expansions sur " + expansionsSansHeuristique);
+    }
+
+    @Test
+    void arriveeInaccessibleOuConfondueAvecLeDepart() {
+        GrapheCompact graphe = OutilsTests.graphe(3, new int[] {0, 1, 1}, new int[] {1, 0, 1});
+        MoteurAEtoile moteur = new MoteurAEtoile();
+        assertArrayEquals(new int[0], moteur.rechercher(graphe, 0, 2, NULLE));
+        assertEquals(Double.POSITIVE_INFINITY, moteur.getCout(2));
+        assertArrayEquals(new int[] {1}, moteur.rechercher(graphe, 1, 1, NULLE));
+        assertEquals(0, moteur.getNombreExpansions());
+        // Le noeud 0, atteint par la recherche précédente, ne l'est plus.
+        assertEquals(Double.POSITIVE_INFINITY, moteur.getCout(0));
+    }
+
+    @Test
+    void memesCoutsQueDijkstraSurCartesAleatoires() {
+        Random aleatoire = new Random(6);
+        MoteurAEtoile aEtoile = new MoteurAEtoile();
+        MoteurDijkstra dijkstra = new MoteurDijkstra();
+        for (int i = 0; i < 50; i++) {
+            int largeur = 1 + aleatoire.nextInt(30);
+            int hauteur = 1 + aleatoire.nextInt(30);
+            GrapheCompact graphe = GrapheCompact.depuisCarte(OutilsTests.carteAleatoire(aleatoire, largeur, hauteur));
+            int depart = aleatoire.nextInt(largeur * hauteur);
+            int arrivee = aleatoire.nextInt(largeur * hauteur);
+            // Deux fois la pénalité minimale par pas : admissible et consistante.
+            HeuristiqueIndexee heuristique = (noeud, cible) -> 2 * Tuile.getPenaliteMinimale()
+                    * (Math.abs(noeud % largeur - cible % largeur) + Math.abs(noeud / largeur - cible / largeur));
+            aEtoile.rechercher(graphe, depart, arrivee, heuristique);
+            dijkstra.rechercher(graphe, depart, arrivee);
+            assertEquals(dijkstra.getDistance(arrivee), aEtoile.getCout(arrivee), 1e-9);
+        }
+    }
+}
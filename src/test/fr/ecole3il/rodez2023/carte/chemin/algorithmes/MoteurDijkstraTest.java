@@ -0,0 +1,146 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.GrapheCompact;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vérifie le moteur de Dijkstra, qui sert de référence aux autres tests : chemin le moins coûteux plutôt que
+ * le plus court en nombre d'arêtes, arrêt dès que l'arrivée est établie, arrivée inaccessible, et tableaux
+ * réutilisés d'une recherche à l'autre sans que les noeuds d'une recherche précédente paraissent atteints.
+ * Les distances sont comparées à celles de Bellman-Ford, calculées indépendamment du moteur.
+ */
+class MoteurDijkstraTest {
+    private static final int NOMBRE_GRAPHES = 200; // Nombre de graphes aléatoires comparés à Bellman-Ford
+    private static final int NOMBRE_NOEUDS = 30; // Nombre maximal de noeuds de ces graphes
+
+    @Test
+    void cheminLeMoinsCouteux() {
+        // L'arête directe 0 -> 3 coûte 10, le détour 0 -> 1 -> 2 -> 3 seulement 6.
+        GrapheCompact graphe = OutilsTests.graphe(4,
+                new int[] {0, 3, 10}, new int[] {0, 1, 1}, new int[] {1, 2, 2}, new int[] {2, 3, 3});
+        MoteurDijkstra moteur = new MoteurDijkstra();
+        assertArrayEquals(new int[] {0, 1, 2, 3}, moteur.rechercher(graphe, 0, 3));
+        assertEquals(6.0, moteur.getDistance(3));
+        assertEquals(3.0, moteur.getDistance(2));
+        // Les arêtes sont orientées : il n'y a pas de chemin retour.
+        assertArrayEquals(new int[0], moteur.rechercher(graphe, 3, 0));
+    }
+
+    @Test
+    void arretDesQueLArriveeEstEtablie() {
+        // Une ligne de dix noeuds, d'arêtes de coût 1.
+        int[][] aretes = new int[9][];
+        for (int n = 0; n < 9; n++) {
+            aretes[n] = new int[] {n, n + 1, 1};
+        }
+        GrapheCompact graphe = OutilsTests.graphe(10, aretes);
+        MoteurDijkstra moteur = new MoteurDijkstra();
+        assertArrayEquals(new int[] {0, 1, 2, 3}, moteur.rechercher(graphe, 0, 3));
+        assertEquals(4, moteur.getNombreNoeudsEtablis());
+        // Les arêtes de l'arrivée ne sont pas relâchées : le noeud suivant n'est pas atteint.
+        assertEquals(Double.POSITIVE_INFINITY, moteur.getDistance(4));
+
+        assertArrayEquals(new int[] {5}, moteur.rechercher(graphe, 5, 5));
+        assertEquals(1, moteur.getNombreNoeudsEtablis());
+    }
+
+    @Test
+    void recherchesSuccessivesIndependantes() {
+        MoteurDijkstra moteur = new MoteurDijkstra();
+        GrapheCompact grand = OutilsTests.graphe(6,
+                new int[] {0, 1, 1}, new int[] {1, 2, 1}, new int[] {2, 3, 1}, new int[] {3, 4, 1}, new int[] {4, 5, 1});
+        moteur.rechercher(grand, 0, 5);
+        assertEquals(5.0, moteur.getDistance(5));
+
+        // Sur un graphe plus petit, les noeuds atteints par la recherche précédente ne le sont plus.
+        GrapheCompact petit = OutilsTests.graphe(3, new int[] {2, 1, 7});
+        assertArrayEquals(new int[0], moteur.rechercher(petit, 0, 1));
+        assertEquals(0.0, moteur.getDistance(0));
+        assertEquals(Double.POSITIVE_INFINITY, moteur.getDistance(1));
+        assertEquals(Double.POSITIVE_INFINITY, moteur.getDistance(2));
+        assertArrayEquals(new int[] {2, 1}, moteur.rechercher(petit, 2, 1));
+        assertEquals(7.0, moteur.getDistance(1));
+
+        // De retour sur le grand graphe, les tableaux déjà alloués servent sans fausser les distances.
+        assertArrayEquals(new int[] {2, 3, 4}, moteur.rechercher(grand, 2, 4));
+        assertEquals(Double.POSITIVE_INFINITY, moteur.getDistance(0));
+        assertEquals(2.0, moteur.getDistance(4));
+    }
+
+    @Test
+    void distancesDeBellmanFord() {
+        Random aleatoire = new Random(11);
+        MoteurDijkstra moteur = new MoteurDijkstra();
+        for (int g = 0; g < NOMBRE_GRAPHES; g++) {
+            int nombreNoeuds = 1 + aleatoire.nextInt(NOMBRE_NOEUDS);
+            List<int[]> aretes = new ArrayList<>();
+            int nombreAretes = aleatoire.nextInt(4 * nombreNoeuds);
+            for (int i = 0; i < nombreAretes; i++) {
+                aretes.add(new int[] {aleatoire.nextInt(nombreNoeuds), aleatoire.nextInt(nombreNoeuds),
+                        aleatoire.nextInt(20)});
+            }
+            GrapheCompact graphe = OutilsTests.graphe(nombreNoeuds, aretes.toArray(new int[0][]));
+            int depart = aleatoire.nextInt(nombreNoeuds);
+            int arrivee = aleatoire.nextInt(nombreNoeuds);
+            double[] attendues = bellmanFord(nombreNoeuds, aretes, depart);
+
+            int[] chemin = moteur.rechercher(graphe, depart, arrivee);
+            assertEquals(attendues[arrivee], moteur.getDistance(arrivee), "Graphe " + g);
+            if (attendues[arrivee] == Double.POSITIVE_INFINITY) {
+                assertEquals(0, chemin.length);
+                continue;
+            }
+            assertEquals(depart, chemin[0]);
+            assertEquals(arrivee, chemin[chemin.length - 1]);
+            assertEquals(attendues[arrivee], cout(aretes, chemin), "Graphe " + g);
+        }
+    }
+
+    /**
+     * Calcule les distances depuis un noeud par l'algorithme de Bellman-Ford.
+     * @param nombreNoeuds Le nombre de noeuds du graphe.
+     * @param aretes Les arêtes du graphe : départ, arrivée et coût.
+     * @param depart Le noeud de départ.
+     * @return La distance de chaque noeud, infinie s'il n'est pas accessible.
+     */
+    private static double[] bellmanFord(int nombreNoeuds, List<int[]> aretes, int depart) {
+        double[] distances = new double[nombreNoeuds];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[depart] = 0;
+        for (int i = 1; i < nombreNoeuds; i++) {
+            for (int[] arete : aretes) {
+                distances[arete[1]] = Math.min(distances[arete[1]], distances[arete[0]] + arete[2]);
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Calcule le coût d'un chemin en prenant, entre deux noeuds consécutifs, l'arête la moins coûteuse.
+     * @param aretes Les arêtes du graphe : départ, arrivée et coût.
+     * @param chemin Les noeuds du chemin.
+     * @return Le coût du chemin, infini si deux noeuds consécutifs ne sont pas reliés.
+     */
+    private static double cout(List<int[]> aretes, int[] chemin) {
+        double cout = 0;
+        for (int i = 1; i < chemin.length; i++) {
+            double pas = Double.POSITIVE_INFINITY;
+            for (int[] arete : aretes) {
+                if (arete[0] == chemin[i - 1] && arete[1] == chemin[i]) {
+                    pas = Math.min(pas, arete[2]);
+                }
+            }
+            cout += pas;
+        }
+        return cout;
+    }
+}
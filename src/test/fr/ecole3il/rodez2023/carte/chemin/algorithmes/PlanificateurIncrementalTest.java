@@ -0,0 +1,86 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Simule une unité qui avance le long du plan de D* Lite pendant que la carte change, souvent sur son chemin,
+ * et compare après chaque étape le coût et le chemin réparés aux distances de l'algorithme de Dijkstra.
+ */
+class PlanificateurIncrementalTest {
+    private static final int NOMBRE_TRAJETS = 40; // Nombre de trajets simulés
+    private static final int NOMBRE_ETAPES = 30; // Nombre d'étapes par trajet
+    private static final int PAS_PAR_ETAPE = 3; // Nombre de cases parcourues par l'unité à chaque étape
+
+    @Test
+    void memeCoutQueDijkstraPendantLeTrajet() {
+        Random aleatoire = new Random(3);
+        for (int t = 0; t < NOMBRE_TRAJETS; t++) {
+            int largeur = 2 + aleatoire.nextInt(35);
+            int hauteur = 2 + aleatoire.nextInt(35);
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, largeur, hauteur);
+            int xArrivee = aleatoire.nextInt(largeur);
+            int yArrivee = aleatoire.nextInt(hauteur);
+            PlanificateurIncremental planificateur = new PlanificateurIncremental(carte,
+                    aleatoire.nextInt(largeur), aleatoire.nextInt(hauteur), xArrivee, yArrivee);
+            for (int etape = 0; etape < NOMBRE_ETAPES; etape++) {
+                List<Case> chemin = planificateur.getChemin();
+                if (chemin.size() > PAS_PAR_ETAPE) {
+                    Case position = chemin.get(PAS_PAR_ETAPE);
+                    planificateur.deplacer(position.getX(), position.getY());
+                }
+                int nombreModifications = 1 + aleatoire.nextInt(5);
+                for (int m = 0; m < nombreModifications; m++) {
+                    // La moitié des modifications porte sur la suite du chemin prévu.
+                    int x = aleatoire.nextInt(largeur);
+                    int y = aleatoire.nextInt(hauteur);
+                    if (chemin.size() > PAS_PAR_ETAPE + 2 && aleatoire.nextBoolean()) {
+                        Case prevue = chemin.get(PAS_PAR_ETAPE + 1 + aleatoire.nextInt(chemin.size() - PAS_PAR_ETAPE - 1));
+                        x = prevue.getX();
+                        y = prevue.getY();
+                    }
+                    carte.setTuile(x, y, OutilsTests.tuileAleatoire(aleatoire));
+                }
+                verifierPlan(planificateur, carte, xArrivee, yArrivee);
+            }
+            planificateur.detacher();
+        }
+    }
+
+    @Test
+    void positionHorsDeLaCarteRefusee() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(1), 5, 5);
+        assertThrows(IllegalArgumentException.class, () -> new PlanificateurIncremental(carte, 5, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PlanificateurIncremental(carte, 0, 0, 0, -1));
+        PlanificateurIncremental planificateur = new PlanificateurIncremental(carte, 0, 0, 4, 4);
+        assertThrows(IllegalArgumentException.class, () -> planificateur.deplacer(-1, 2));
+        planificateur.detacher();
+    }
+
+    /**
+     * Vérifie que le plan réparé part de la position de l'unité, rejoint l'arrivée et a le coût
+     * de l'algorithme de Dijkstra sur la carte actuelle.
+     * @param planificateur Le planificateur.
+     * @param carte La carte, dans son état actuel.
+     * @param xArrivee La coordonnée x de l'arrivée.
+     * @param yArrivee La coordonnée y de l'arrivée.
+     */
+    private static void verifierPlan(PlanificateurIncremental planificateur, Carte carte, int xArrivee, int yArrivee) {
+        double cout = planificateur.getCout();
+        List<Case> chemin = planificateur.getChemin();
+        Case position = chemin.get(0);
+        double attendu = OutilsTests.distanceDijkstra(carte, position.getX(), position.getY(), xArrivee, yArrivee);
+        assertEquals(attendu, cout, 1e-9, () -> "Coût depuis " + position);
+        assertEquals(attendu, OutilsTests.cout(carte, chemin), 1e-9, () -> "Chemin depuis " + position);
+        assertEquals(xArrivee, chemin.get(chemin.size() - 1).getX());
+        assertEquals(yArrivee, chemin.get(chemin.size() - 1).getY());
+    }
+}
@@ -0,0 +1,182 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.elements.Carte;
+import fr.ecole3il.rodez2023.carte.elements.Case;
+import fr.ecole3il.rodez2023.carte.elements.Tuile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que l'heuristique des repères reste consistante, y compris quand les distances dépassent ce que 16 bits
+ * représentent exactement, et que A* et A* bidirectionnel guidés par les repères trouvent les chemins de Dijkstra.
+ * Vérifie aussi que des repères ne servent plus une fois leur carte modifiée, et que des repères relus ne servent
+ * qu'associés à une carte de même contenu.
+ */
+class ReperesTest {
+    private static final int NOMBRE_REPERES = 8; // Nombre de repères calculés
+    private static final int LONGUEUR_COULOIR = 20000; // Largeur de la carte dont les distances dépassent 65535
+    private static final int HAUTEUR_COULOIR = 8; // Hauteur de cette carte
+    private static final int NOMBRE_REQUETES = 40; // Nombre de requêtes comparées à Dijkstra
+    private static final int NOMBRE_ARETES = 20000; // Nombre d'arêtes sur lesquelles la consistance est vérifiée
+
+    @Test
+    void consistantesEtExactesSurGrandesDistances() {
+        Random aleatoire = new Random(21);
+        Carte carte = couloirForestier(aleatoire);
+        Reperes reperes = Reperes.calculer(carte, NOMBRE_REPERES, Reperes.Selection.ELOIGNES, true);
+        // Les distances dépassent 65535 : elles ne peuvent pas être stockées exactement sur 16 bits.
+        assertFalse(reperes.estQuantifiee());
+        verifierConsistance(reperes, carte, aleatoire);
+        verifierRequetes(new AlgorithmeAEtoileBidirectionnel<>(reperes), carte, aleatoire);
+        verifierRequetes(new AlgorithmeAEtoile<>(reperes), carte, aleatoire);
+    }
+
+    @Test
+    void quantifieesExactesSurPetitesDistances() {
+        Random aleatoire = new Random(5);
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, 60, 40);
+        Reperes quantifiees = Reperes.calculer(carte, NOMBRE_REPERES, Reperes.Selection.ELOIGNES, true);
+        Reperes exactes = Reperes.calculer(carte, NOMBRE_REPERES, Reperes.Selection.ELOIGNES, false);
+        assertTrue(quantifiees.estQuantifiee());
+        assertFalse(exactes.estQuantifiee());
+        int nombreCases = carte.getLargeur() * carte.getHauteur();
+        for (int i = 0; i < NOMBRE_ARETES; i++) {
+            int noeud = aleatoire.nextInt(nombreCases);
+            int cible = aleatoire.nextInt(nombreCases);
+            assertEquals(exactes.estimer(noeud, cible), quantifiees.estimer(noeud, cible));
+        }
+        verifierConsistance(quantifiees, carte, aleatoire);
+        verifierRequetes(new AlgorithmeAEtoileBidirectionnel<>(quantifiees), carte, aleatoire);
+    }
+
+    @Test
+    void tropDeDistancesRefusees() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(1), 256, 256);
+        // 65536 cases et 40000 repères : plus de 2^31 distances, refusées avant tout calcul.
+        assertThrows(IllegalArgumentException.class,
+                () -> Reperes.calculer(carte, 40000, Reperes.Selection.ALEATOIRE, true));
+    }
+
+    @Test
+    void reperesPerimesApresModification() {
+        Carte carte = OutilsTests.carteAleatoire(new Random(8), 30, 20);
+        Reperes reperes = Reperes.calculer(carte, 4);
+        assertTrue(reperes.estAJour());
+        assertSame(reperes, reperes.associer(carte));
+        reperes.estimer(0, 599);
+
+        Tuile tuile = carte.getTuile(3, 3) == Tuile.DESERT ? Tuile.FORET : Tuile.DESERT;
+        carte.setTuile(3, 3, tuile);
+        assertFalse(reperes.estAJour());
+        assertThrows(IllegalStateException.class, () -> reperes.estimer(0, 599));
+        assertThrows(IllegalStateException.class,
+                () -> AdaptateurAlgorithme.trouverChemin(new AlgorithmeAEtoile<>(reperes), carte, 0, 0, 29, 19));
+        // Le contenu a changé : les repères ne peuvent pas être associés à nouveau à la carte.
+        assertThrows(IllegalArgumentException.class, () -> reperes.associer(carte));
+        assertTrue(Reperes.calculer(carte, 4).estAJour());
+    }
+
+    @Test
+    void reperesRelusAssociesAUneCarteDeMemeContenu() throws IOException {
+        Random aleatoire = new Random(12);
+        Carte carte = OutilsTests.carteAleatoire(aleatoire, 25, 15);
+        Reperes reperes = Reperes.calculer(carte, 6, Reperes.Selection.EVITEMENT, true);
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            reperes.ecrire(sortie);
+        }
+        Reperes relus = Reperes.lire(new DataInputStream(new ByteArrayInputStream(octets.toByteArray())));
+        assertEquals(reperes.getEmpreinteCarte(), relus.getEmpreinteCarte());
+        assertFalse(relus.estAJour());
+        assertThrows(IllegalStateException.class, () -> relus.estimer(0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> relus.associer(OutilsTests.carteAleatoire(aleatoire, 25, 15)));
+
+        Reperes associes = relus.associer(carte);
+        assertTrue(associes.estAJour());
+        for (int i = 0; i < NOMBRE_ARETES; i++) {
+            int noeud = aleatoire.nextInt(25 * 15);
+            int cible = aleatoire.nextInt(25 * 15);
+            assertEquals(reperes.estimer(noeud, cible), associes.estimer(noeud, cible));
+        }
+    }
+
+    /**
+     * Crée une carte longue et étroite, presque entièrement forestière, dont les distances dépassent 131070,
+     * seuil au-delà duquel une quantification sur 16 bits aurait un pas d'au moins 3.
+     * @param aleatoire Le générateur aléatoire.
+     * @return La carte créée.
+     */
+    private static Carte couloirForestier(Random aleatoire) {
+        Tuile[][] tuiles = new Tuile[LONGUEUR_COULOIR][HAUTEUR_COULOIR];
+        for (int x = 0; x < LONGUEUR_COULOIR; x++) {
+            for (int y = 0; y < HAUTEUR_COULOIR; y++) {
+                tuiles[x][y] = aleatoire.nextInt(10) == 0 ? OutilsTests.tuileAleatoire(aleatoire) : Tuile.FORET;
+            }
+        }
+        return new Carte(tuiles);
+    }
+
+    /**
+     * Vérifie l'inégalité h(u) ≤ c(u, v) + h(v) sur des arêtes et des cibles tirées au hasard.
+     * @param reperes Les repères testés.
+     * @param carte La carte.
+     * @param aleatoire Le générateur aléatoire.
+     */
+    private static void verifierConsistance(Reperes reperes, Carte carte, Random aleatoire) {
+        int largeur = carte.getLargeur();
+        int hauteur = carte.getHauteur();
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int i = 0; i < NOMBRE_ARETES; i++) {
+            int x = aleatoire.nextInt(largeur);
+            int y = aleatoire.nextInt(hauteur);
+            int[] direction = directions[aleatoire.nextInt(directions.length)];
+            int xVoisin = x + direction[0];
+            int yVoisin = y + direction[1];
+            if (xVoisin < 0 || xVoisin >= largeur || yVoisin < 0 || yVoisin >= hauteur) {
+                continue;
+            }
+            int cible = aleatoire.nextInt(largeur * hauteur);
+            double cout = carte.getTuile(x, y).getPenalite() + carte.getTuile(xVoisin, yVoisin).getPenalite();
+            double estimation = reperes.estimer(y * largeur + x, cible);
+            double estimationVoisin = reperes.estimer(yVoisin * largeur + xVoisin, cible);
+            assertTrue(estimation <= cout + estimationVoisin + 1e-9,
+                    () -> "Arête (" + x + ", " + y + ") -> (" + xVoisin + ", " + yVoisin + "), cible " + cible);
+        }
+    }
+
+    /**
+     * Vérifie que les chemins trouvés sur une carte ont le coût de l'algorithme de Dijkstra.
+     * @param algorithme L'algorithme testé.
+     * @param carte La carte.
+     * @param aleatoire Le générateur aléatoire.
+     */
+    private static void verifierRequetes(AlgorithmeChemin<Case> algorithme, Carte carte, Random aleatoire) {
+        for (int q = 0; q < NOMBRE_REQUETES; q++) {
+            int xDepart = aleatoire.nextInt(carte.getLargeur());
+            int yDepart = aleatoire.nextInt(carte.getHauteur());
+            int xArrivee = aleatoire.nextInt(carte.getLargeur());
+            int yArrivee = aleatoire.nextInt(carte.getHauteur());
+            List<Case> chemin = AdaptateurAlgorithme.trouverChemin(algorithme, carte, xDepart, yDepart, xArrivee, yArrivee)
+                    .getCases();
+            assertEquals(OutilsTests.distanceDijkstra(carte, xDepart, yDepart, xArrivee, yArrivee),
+                    OutilsTests.cout(carte, chemin), 1e-9,
+                    () -> "Chemin de (" + xDepart + ", " + yDepart + ") à (" + xArrivee + ", " + yArrivee + ")");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fr.ecole3il.rodez2023.carte.chemin.algorithmes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vérifie que le tas ordonne les clés en deux composantes dans l'ordre lexicographique, y compris pour des
+ * composantes trop grandes pour être combinées exactement en un seul nombre.
+ */
+class TasIndexeTest {
+    private static final int NOMBRE_IDENTIFIANTS = 2000; // Nombre d'identifiants insérés
+    private static final double GRANDE_CLE = 1L << 40; // Première composante commune à de nombreuses clés
+
+    @Test
+    void clesEnDeuxComposantesOrdonneesLexicographiquement() {
+        Random aleatoire = new Random(9);
+        TasIndexe tas = new TasIndexe(NOMBRE_IDENTIFIANTS);
+        long[][] cles = new long[NOMBRE_IDENTIFIANTS][];
+        for (int id = 0; id < NOMBRE_IDENTIFIANTS; id++) {
+            // Peu de premières composantes distinctes : les égalités sont départagées par la seconde.
+            long cle = (long) GRANDE_CLE + aleatoire.nextInt(4);
+            long departage = (1L << 30) + aleatoire.nextInt(1000);
+            cles[id] = new long[] {cle, departage, id};
+            tas.inserer(id, cle, departage);
+        }
+        // La moitié des clés change, en augmentant ou en diminuant.
+        for (int id = 0; id < NOMBRE_IDENTIFIANTS; id += 2) {
+            cles[id][1] = (1L << 30) + aleatoire.nextInt(1000);
+            tas.modifierCle(id, cles[id][0], cles[id][1]);
+        }
+        for (int id = 1; id < NOMBRE_IDENTIFIANTS; id += 4) {
+            tas.retirer(id);
+            cles[id] = null;
+        }
+        long[][] attendues = Arrays.stream(cles).filter(cle -> cle != null)
+                .sorted((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]))
+                .toArray(long[][]::new);
+        for (long[] attendue : attendues) {
+            assertEquals(attendue[0], tas.getCleMinimum());
+            assertEquals(attendue[1], tas.getDepartageMinimum());
+            int id = tas.extraireMinimum();
+            assertArrayEquals(new long[] {attendue[0], attendue[1]}, new long[] {cles[id][0], cles[id][1]});
+        }
+        assertEquals(Double.POSITIVE_INFINITY, tas.getDepartageMinimum());
+    }
+}
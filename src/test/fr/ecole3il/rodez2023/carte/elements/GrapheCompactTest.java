@@ -0,0 +1,107 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+import fr.ecole3il.rodez2023.carte.AdaptateurAlgorithme;
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie la numérotation commune des cases : le graphe compact construit directement depuis une carte est
+ * identique à celui du graphe compilé par l'adaptateur. Vérifie aussi la relecture d'un graphe sérialisé.
+ */
+class GrapheCompactTest {
+    private static final int POSITION_PREMIERE_CIBLE = 16; // Signature, version, nombres de noeuds et d'arêtes
+
+    @Test
+    void memeGrapheQueLeGrapheCompile() {
+        Random aleatoire = new Random(7);
+        for (int i = 0; i < 30; i++) {
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, 1 + aleatoire.nextInt(20), 1 + aleatoire.nextInt(20));
+            Graphe<Case> graphe = AdaptateurAlgorithme.compiler(carte).getGraphe();
+            GrapheCompact compile = graphe.getGrapheCompact();
+            GrapheCompact direct = GrapheCompact.depuisCarte(carte);
+            assertEquals(compile.calculerEmpreinte(), direct.calculerEmpreinte());
+            for (int y = 0; y < carte.getHauteur(); y++) {
+                for (int x = 0; x < carte.getLargeur(); x++) {
+                    assertEquals(y * carte.getLargeur() + x, graphe.getIndice(graphe.getNoeud(x, y)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void grapheRelu() throws IOException {
+        GrapheCompact graphe = GrapheCompact.depuisCarte(OutilsTests.carteAleatoire(new Random(3), 17, 11));
+        GrapheCompact relu = relire(ecrire(graphe));
+        assertEquals(graphe.getNombreNoeuds(), relu.getNombreNoeuds());
+        assertEquals(graphe.getNombreAretes(), relu.getNombreAretes());
+        assertEquals(graphe.getDegreMaximal(), relu.getDegreMaximal());
+        for (int n = 0; n < graphe.getNombreNoeuds(); n++) {
+            assertEquals(graphe.getDebutAretes(n), relu.getDebutAretes(n));
+            assertEquals(graphe.getFinAretes(n), relu.getFinAretes(n));
+        }
+        for (int i = 0; i < graphe.getNombreAretes(); i++) {
+            assertEquals(graphe.getCible(i), relu.getCible(i));
+            assertEquals(graphe.getCout(i), relu.getCout(i));
+        }
+        assertEquals(graphe.calculerEmpreinte(), relu.calculerEmpreinte());
+        assertArrayEquals(ecrire(graphe), ecrire(relu));
+    }
+
+    @Test
+    void grapheVideRelu() throws IOException {
+        GrapheCompact vide = new GrapheCompact(new int[] {0}, new int[0], new float[0]);
+        assertEquals(0, relire(ecrire(vide)).getNombreNoeuds());
+    }
+
+    @Test
+    void fluxTronqueOuIncoherentRefuse() throws IOException {
+        byte[] octets = ecrire(GrapheCompact.depuisCarte(OutilsTests.carteAleatoire(new Random(5), 6, 4)));
+        assertThrows(IOException.class, () -> relire(Arrays.copyOf(octets, octets.length - 1)));
+
+        byte[] signature = octets.clone();
+        signature[0] ^= 1;
+        assertThrows(IOException.class, () -> relire(signature));
+
+        // La première cible vient après les débuts d'arêtes, un entier par noeud plus un.
+        byte[] cible = octets.clone();
+        int position = POSITION_PREMIERE_CIBLE + 4 * (6 * 4 + 1);
+        Arrays.fill(cible, position, position + 4, (byte) 0x7f);
+        assertThrows(IOException.class, () -> relire(cible));
+    }
+
+    /**
+     * Sérialise un graphe.
+     * @param graphe Le graphe.
+     * @return Les octets écrits.
+     * @throws IOException Si l'écriture échoue.
+     */
+    private static byte[] ecrire(GrapheCompact graphe) throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            graphe.ecrire(sortie);
+        }
+        return octets.toByteArray();
+    }
+
+    /**
+     * Relit un graphe sérialisé.
+     * @param octets Les octets du graphe.
+     * @return Le graphe relu.
+     * @throws IOException Si les octets ne forment pas un graphe valide.
+     */
+    private static GrapheCompact relire(byte[] octets) throws IOException {
+        return GrapheCompact.lire(new DataInputStream(new ByteArrayInputStream(octets)));
+    }
+}
@@ -0,0 +1,115 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie le codage des tuiles sur 2 bits du stockage compact : chaque case garde sa tuile quelles que soient
+ * ses voisines, y compris de part et d'autre d'une limite d'octet ou de long, et le stockage n'occupe que
+ * les long nécessaires.
+ */
+class StockageCompactTest {
+    private static final int NOMBRE_MODIFICATIONS = 5000; // Nombre de modifications comparées à une matrice
+
+    @Test
+    void deuxBitsParCase() {
+        assertEquals(2, StockageCompact.getBitsParTuile());
+        assertEquals(32, StockageCompact.TUILES_PAR_MOT);
+        // 33 cases : un long plein et une case dans le suivant.
+        assertEquals(2 * Long.BYTES, new StockageCompact(33, 1).getTailleOctets());
+        assertEquals(Long.BYTES, new StockageCompact(8, 4).getTailleOctets());
+    }
+
+    @Test
+    void casesVoisinesIndependantesAuxLimitesDOctetEtDeLong() {
+        // Une ligne de trois long : les cases 3 et 4 sont de part et d'autre d'un octet, 31 et 32 d'un long.
+        StockageCompact stockage = new StockageCompact(96, 1);
+        int[] limites = {0, 3, 4, 7, 8, 31, 32, 63, 64, 95};
+        for (Tuile tuile : Tuile.values()) {
+            for (int x : limites) {
+                stockage.setTuile(x, 0, tuile);
+            }
+            for (int x = 0; x < 96; x++) {
+                Tuile attendue = contient(limites, x) ? tuile : Tuile.values()[0];
+                assertEquals(attendue, stockage.getTuile(x, 0), "Case " + x);
+            }
+        }
+        // Chaque tuile écrite entre deux voisines qui ont tous leurs bits à 1 ne déborde pas sur elles.
+        Tuile pleine = Tuile.values()[Tuile.values().length - 1];
+        for (int x : limites) {
+            for (int voisin = Math.max(0, x - 1); voisin <= Math.min(95, x + 1); voisin++) {
+                stockage.setTuile(voisin, 0, pleine);
+            }
+            for (Tuile tuile : Tuile.values()) {
+                stockage.setTuile(x, 0, tuile);
+                assertEquals(tuile, stockage.getTuile(x, 0));
+                if (x > 0) {
+                    assertEquals(pleine, stockage.getTuile(x - 1, 0), "Voisine gauche de " + x);
+                }
+                if (x < 95) {
+                    assertEquals(pleine, stockage.getTuile(x + 1, 0), "Voisine droite de " + x);
+                }
+            }
+        }
+    }
+
+    @Test
+    void memesTuilesQuUneMatrice() {
+        Random aleatoire = new Random(17);
+        // Largeurs qui ne sont pas des multiples de 32 : les lignes commencent au milieu d'un long.
+        for (int largeur : new int[]{1, 5, 31, 33, 70}) {
+            int hauteur = 1 + aleatoire.nextInt(20);
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, largeur, hauteur);
+            Tuile[][] tuiles = new Tuile[largeur][hauteur];
+            for (int y = 0; y < hauteur; y++) {
+                for (int x = 0; x < largeur; x++) {
+                    tuiles[x][y] = carte.getTuile(x, y);
+                }
+            }
+            StockageCompact stockage = new StockageCompact(new StockageTableau(tuiles));
+            for (int i = 0; i < NOMBRE_MODIFICATIONS; i++) {
+                int x = aleatoire.nextInt(largeur);
+                int y = aleatoire.nextInt(hauteur);
+                Tuile tuile = OutilsTests.tuileAleatoire(aleatoire);
+                tuiles[x][y] = tuile;
+                stockage.setTuile(x, y, tuile);
+            }
+            StockageTuiles copie = stockage.copier();
+            stockage.setTuile(0, 0, tuiles[0][0] == Tuile.DESERT ? Tuile.FORET : Tuile.DESERT);
+            for (int y = 0; y < hauteur; y++) {
+                for (int x = 0; x < largeur; x++) {
+                    assertEquals(tuiles[x][y], copie.getTuile(x, y), "Case (" + x + ", " + y + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void caseHorsDuStockageRefusee() {
+        StockageCompact stockage = new StockageCompact(4, 3);
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> stockage.getTuile(4, 0));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> stockage.getTuile(0, -1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> stockage.setTuile(0, 3, Tuile.PLAINE));
+        assertThrows(IllegalArgumentException.class, () -> new StockageCompact(0, 3));
+    }
+
+    /**
+     * Indique si un tableau contient une valeur.
+     * @param valeurs Le tableau.
+     * @param valeur La valeur cherchée.
+     * @return true si la valeur est dans le tableau.
+     */
+    private static boolean contient(int[] valeurs, int valeur) {
+        for (int v : valeurs) {
+            if (v == valeur) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
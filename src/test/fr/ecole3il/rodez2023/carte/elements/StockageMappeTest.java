@@ -0,0 +1,139 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.manipulateurs.FichierCarte;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie l'aller-retour d'une carte écrite par FichierCarte puis projetée en mémoire : mêmes tuiles, codées
+ * sur 2 bits dans le fichier, modifications écrites dans le fichier, et passage d'un segment de projection
+ * au suivant, simulé avec des segments de quelques long au lieu de 1 Go.
+ */
+class StockageMappeTest {
+    private static final int POSITION_TUILES = 24; // Taille de l'en-tête écrit par FichierCarte
+
+    @TempDir
+    Path repertoire; // Répertoire temporaire des fichiers de carte
+
+    @Test
+    void tuilesReluesIdentiques() throws IOException {
+        Random aleatoire = new Random(3);
+        for (int[] dimensions : new int[][]{{1, 1}, {32, 1}, {33, 1}, {45, 30}, {100, 77}}) {
+            Carte carte = OutilsTests.carteAleatoire(aleatoire, dimensions[0], dimensions[1]);
+            Path fichier = repertoire.resolve("carte.bin");
+            FichierCarte.ecrire(carte, fichier);
+            assertEquals(POSITION_TUILES + StockageMappe.getNombreMots(dimensions[0], dimensions[1]) * Long.BYTES,
+                    Files.size(fichier));
+            verifierTuiles(carte, FichierCarte.charger(fichier));
+            verifierCodage(carte, fichier);
+        }
+    }
+
+    @Test
+    void projectionEnLectureSeuleNonModifiable() throws IOException {
+        Path fichier = repertoire.resolve("carte.bin");
+        FichierCarte.ecrire(OutilsTests.carteAleatoire(new Random(4), 10, 10), fichier);
+        Carte carte = FichierCarte.charger(fichier);
+        Tuile autre = carte.getTuile(0, 0) == Tuile.PLAINE ? Tuile.DESERT : Tuile.PLAINE;
+        assertThrows(UnsupportedOperationException.class, () -> carte.setTuile(0, 0, autre));
+    }
+
+    @Test
+    void modificationsEcritesDansLeFichier() throws IOException {
+        Random aleatoire = new Random(5);
+        Carte attendue = OutilsTests.carteAleatoire(aleatoire, 37, 19);
+        Path fichier = repertoire.resolve("carte.bin");
+        FichierCarte.ecrire(attendue, fichier);
+        Carte modifiable = FichierCarte.chargerModifiable(fichier);
+        for (int i = 0; i < 500; i++) {
+            int x = aleatoire.nextInt(37);
+            int y = aleatoire.nextInt(19);
+            Tuile tuile = OutilsTests.tuileAleatoire(aleatoire);
+            attendue.setTuile(x, y, tuile);
+            modifiable.setTuile(x, y, tuile);
+        }
+        ((StockageMappe) modifiable.getStockage()).forcer();
+        verifierTuiles(attendue, modifiable);
+        verifierTuiles(attendue, FichierCarte.charger(fichier));
+        verifierCodage(attendue, fichier);
+    }
+
+    @Test
+    void passageDUnSegmentAuSuivant() throws IOException {
+        Random aleatoire = new Random(6);
+        // 1350 cases, soit 43 long : dix segments de 4 long et un dernier de 3.
+        Carte attendue = OutilsTests.carteAleatoire(aleatoire, 45, 30);
+        Path fichier = repertoire.resolve("carte.bin");
+        FichierCarte.ecrire(attendue, fichier);
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            StockageMappe lecture = new StockageMappe(canal, POSITION_TUILES, 45, 30, false, 2);
+            assertEquals(11, lecture.getNombreSegments());
+            verifierTuiles(attendue, new Carte(lecture));
+
+            // Segments d'un seul long : chaque groupe de 32 cases est dans sa propre projection.
+            StockageMappe ecriture = new StockageMappe(canal, POSITION_TUILES, 45, 30, true, 0);
+            assertEquals(43, ecriture.getNombreSegments());
+            Carte modifiable = new Carte(ecriture);
+            // Dernière case d'un segment de 4 long et première du suivant, puis dernière case de la carte.
+            for (int indice : new int[]{31, 32, 127, 128, 1349}) {
+                int x = indice % 45;
+                int y = indice / 45;
+                Tuile tuile = attendue.getTuile(x, y) == Tuile.FORET ? Tuile.DESERT : Tuile.FORET;
+                attendue.setTuile(x, y, tuile);
+                modifiable.setTuile(x, y, tuile);
+            }
+            ecriture.forcer();
+            verifierTuiles(attendue, modifiable);
+            verifierTuiles(attendue, new Carte(lecture));
+        }
+        verifierTuiles(attendue, FichierCarte.charger(fichier));
+        verifierCodage(attendue, fichier);
+    }
+
+    /**
+     * Vérifie que deux cartes ont les mêmes dimensions et les mêmes tuiles.
+     * @param attendue La carte de référence.
+     * @param carte La carte vérifiée.
+     */
+    private static void verifierTuiles(Carte attendue, Carte carte) {
+        assertEquals(attendue.getLargeur(), carte.getLargeur());
+        assertEquals(attendue.getHauteur(), carte.getHauteur());
+        for (int y = 0; y < attendue.getHauteur(); y++) {
+            for (int x = 0; x < attendue.getLargeur(); x++) {
+                assertEquals(attendue.getTuile(x, y), carte.getTuile(x, y), "Case (" + x + ", " + y + ")");
+            }
+        }
+    }
+
+    /**
+     * Vérifie le codage des tuiles dans le fichier : la case d'indice i occupe, dans le long d'indice i / 32,
+     * les 2 bits commençant au bit (i % 32) * 2, et les bits qui suivent la dernière case sont nuls.
+     * @param carte La carte écrite dans le fichier.
+     * @param fichier Le fichier.
+     * @throws IOException Si le fichier ne peut pas être lu.
+     */
+    private static void verifierCodage(Carte carte, Path fichier) throws IOException {
+        ByteBuffer octets = ByteBuffer.wrap(Files.readAllBytes(fichier));
+        long nombreCases = (long) carte.getLargeur() * carte.getHauteur();
+        long nombreMots = StockageMappe.getNombreMots(carte.getLargeur(), carte.getHauteur());
+        for (long i = 0; i < nombreMots * 32; i++) {
+            long mot = octets.getLong(POSITION_TUILES + (int) (i / 32) * Long.BYTES);
+            int ordinal = (int) ((mot >>> ((i % 32) * 2)) & 3);
+            int attendu = i < nombreCases
+                    ? carte.getTuile((int) (i % carte.getLargeur()), (int) (i / carte.getLargeur())).ordinal() : 0;
+            assertEquals(attendu, ordinal, "Case d'indice " + i);
+        }
+    }
+}
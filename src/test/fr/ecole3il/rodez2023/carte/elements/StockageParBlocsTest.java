@@ -0,0 +1,146 @@
+package fr.ecole3il.rodez2023.carte.elements;
+
+import fr.ecole3il.rodez2023.carte.OutilsTests;
+import fr.ecole3il.rodez2023.carte.manipulateurs.FichierCarte;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le cache du stockage par blocs : éviction du bloc le moins récemment utilisé, tuiles relues
+ * identiques après éviction et rechargement, y compris pour des blocs modifiés réécrits dans le fichier,
+ * et comptage des succès seulement lorsque les statistiques sont activées.
+ */
+class StockageParBlocsTest {
+    private static final int TAILLE_BLOC = 8; // Côté des blocs des tests d'éviction
+    private static final long TAILLE_BLOC_OCTETS = 2 * Long.BYTES + 64; // Deux long de tuiles et le surcoût d'un bloc
+
+    @TempDir
+    Path repertoire; // Répertoire temporaire des fichiers de carte
+
+    @Test
+    void blocLeMoinsRecemmentUtiliseEvince() throws IOException {
+        // Quatre blocs côte à côte, A, B, C et D, dont trois seulement tiennent dans le budget.
+        StockageParBlocs stockage = ouvrir(OutilsTests.carteAleatoire(new Random(1), 4 * TAILLE_BLOC, TAILLE_BLOC),
+                TAILLE_BLOC, 3 * TAILLE_BLOC_OCTETS, false);
+        stockage.getTuile(0, 0);
+        stockage.getTuile(TAILLE_BLOC, 0);
+        stockage.getTuile(2 * TAILLE_BLOC, 0);
+        assertEquals(3, stockage.getNombreEchecs());
+        assertEquals(0, stockage.getNombreEvictions());
+
+        // A est relu : B devient le moins récemment utilisé et cède sa place à D.
+        stockage.getTuile(1, 1);
+        stockage.getTuile(3 * TAILLE_BLOC, 0);
+        assertEquals(4, stockage.getNombreEchecs());
+        assertEquals(1, stockage.getNombreEvictions());
+        assertEquals(3, stockage.getNombreBlocsCharges());
+        assertTrue(stockage.getMemoireUtilisee() <= 3 * TAILLE_BLOC_OCTETS);
+
+        stockage.getTuile(0, 0);
+        stockage.getTuile(2 * TAILLE_BLOC, 0);
+        stockage.getTuile(3 * TAILLE_BLOC, 0);
+        assertEquals(4, stockage.getNombreEchecs());
+        stockage.getTuile(TAILLE_BLOC, 0);
+        assertEquals(5, stockage.getNombreEchecs());
+        assertEquals(2, stockage.getNombreEvictions());
+        stockage.fermer();
+    }
+
+    @Test
+    void tuilesIdentiquesApresEvictionEtRechargement() throws IOException {
+        // Carte plus de deux fois plus large que les blocs : lignes lues séparément.
+        verifierRelecture(45, 30, 7);
+        // Carte étroite : chaque bloc est lu d'un seul tenant.
+        verifierRelecture(13, 40, 8);
+        // Blocs d'une case : chaque chargement évince le bloc précédent.
+        verifierRelecture(9, 5, 1);
+    }
+
+    @Test
+    void succesComptesSeulementAvecLesStatistiques() throws IOException {
+        StockageParBlocs stockage = ouvrir(OutilsTests.carteAleatoire(new Random(2), 16, 16), TAILLE_BLOC,
+                Long.MAX_VALUE, false);
+        for (int i = 0; i < 10; i++) {
+            stockage.getTuile(i % 16, 0);
+        }
+        assertEquals(0, stockage.getNombreSucces());
+        assertEquals(2, stockage.getNombreEchecs());
+
+        stockage.activerStatistiques(true);
+        for (int i = 0; i < 10; i++) {
+            stockage.getTuile(i % 16, 0);
+        }
+        assertEquals(10, stockage.getNombreSucces());
+        assertEquals(2, stockage.getNombreEchecs());
+        stockage.fermer();
+    }
+
+    /**
+     * Modifie toutes les cases d'une carte lue par blocs avec un budget d'un seul bloc, ce qui évince et réécrit
+     * les blocs sans cesse, puis vérifie les tuiles relues par le même stockage, puis depuis le fichier fermé.
+     * @param largeur La largeur de la carte.
+     * @param hauteur La hauteur de la carte.
+     * @param tailleBloc Le côté des blocs.
+     * @throws IOException Si une erreur d'entrée-sortie se produit.
+     */
+    private void verifierRelecture(int largeur, int hauteur, int tailleBloc) throws IOException {
+        Random aleatoire = new Random(largeur * 31L + hauteur);
+        Carte originale = OutilsTests.carteAleatoire(aleatoire, largeur, hauteur);
+        Path fichier = repertoire.resolve("carte-" + largeur + "x" + hauteur + ".carte");
+        FichierCarte.ecrire(originale, fichier);
+        StockageParBlocs stockage = FichierCarte.ouvrirParBlocs(fichier, tailleBloc, 1, true);
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
+                assertSame(originale.getTuile(x, y), stockage.getTuile(x, y), () -> "Lecture de " + fichier);
+            }
+        }
+        Tuile[][] attendues = new Tuile[largeur][hauteur];
+        // Les cases sont modifiées dans un ordre aléatoire, pour revenir souvent sur des blocs déjà évincés.
+        for (int i = 0; i < 3 * largeur * hauteur; i++) {
+            int x = aleatoire.nextInt(largeur);
+            int y = aleatoire.nextInt(hauteur);
+            attendues[x][y] = OutilsTests.tuileAleatoire(aleatoire);
+            stockage.setTuile(x, y, attendues[x][y]);
+        }
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
+                Tuile attendue = attendues[x][y] != null ? attendues[x][y] : originale.getTuile(x, y);
+                attendues[x][y] = attendue;
+                assertSame(attendue, stockage.getTuile(x, y));
+            }
+        }
+        assertTrue(stockage.getNombreEvictions() > 0);
+        assertEquals(1, stockage.getNombreBlocsCharges());
+        stockage.fermer();
+
+        Carte relue = FichierCarte.charger(fichier);
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
+                assertSame(attendues[x][y], relue.getTuile(x, y));
+            }
+        }
+    }
+
+    /**
+     * Écrit une carte dans un fichier du répertoire temporaire et l'ouvre par blocs.
+     * @param carte La carte.
+     * @param tailleBloc Le côté des blocs.
+     * @param budget Le budget mémoire des blocs.
+     * @param modifiable true pour un stockage modifiable.
+     * @return Le stockage par blocs du fichier.
+     * @throws IOException Si une erreur d'entrée-sortie se produit.
+     */
+    private StockageParBlocs ouvrir(Carte carte, int tailleBloc, long budget, boolean modifiable) throws IOException {
+        Path fichier = repertoire.resolve("carte.carte");
+        FichierCarte.ecrire(carte, fichier);
+        return FichierCarte.ouvrirParBlocs(fichier, tailleBloc, budget, modifiable);
+    }
+}